@@ -1,16 +1,27 @@
 package controllers;
 
 import controllers.exceptions.MatrixExtractionException;
+import controllers.exceptions.MatrixMarketFormatException;
 import controllers.exceptions.NotEqualAmountOfColumnsInMatrixException;
 import controllers.exceptions.VectorExtractionException;
+import controllers.streaming.StreamingSolver;
+import controllers.transformers.MatrixMarketReader;
 import controllers.transformers.TransformationUtils;
 import models.exceptions.*;
 import models.internals.ApplicationModel;
 import models.internals.results.InverseResult;
+import models.internals.results.IterativeResult;
+import models.internals.results.LeastSquaresResult;
 import models.internals.results.LUPivotResult;
 import models.internals.results.Result;
+import models.matrices.Matrix;
+import models.utilities.LUDecomposition;
+import models.vectors.Vector;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.List;
 
 /**
  * Controller of Application.
@@ -58,6 +69,114 @@ public class MainController {
         return this.model.inverse();
     }
 
+    /**
+     * Invokes least squares routine.
+     *
+     * @return Result of least squares routine.
+     * @throws LeastSquaresConstraintsException when requirements for least squares will not be meet.
+     * @throws SingularMatrixException          when matrix is rank deficient.
+     * @throws InvalidMatrixSizesException      when matrices during calculations will have different sizes.
+     */
+    public LeastSquaresResult leastSquares() throws LeastSquaresConstraintsException, SingularMatrixException, InvalidMatrixSizesException {
+        return this.model.leastSquares();
+    }
+
+    /**
+     * Invokes iterative solve routine.
+     *
+     * @return Result of iterative solve routine.
+     * @throws LUPivotConstraintsException when matrix or vector is null or size of the vector is incorrect.
+     * @throws NonSquareMatrixException    when matrix does not have a square shape.
+     * @throws InvalidMatrixSizesException when matrices during calculations will have different sizes.
+     */
+    public IterativeResult iterativeSolve() throws LUPivotConstraintsException, NonSquareMatrixException, InvalidMatrixSizesException {
+        return this.model.iterativeSolve();
+    }
+
+    /**
+     * Invokes LU Pivot routine distributed over worker processes.
+     *
+     * @param workers     Addresses of workers, number of workers must be a multiple of processRows.
+     * @param processRows Number of rows of the process grid.
+     * @param blockSize   Number of rows and columns of a block.
+     * @return Result of LU Pivot routine.
+     * @throws LUPivotConstraintsException when requirements for performing LU pivoting will not be meet.
+     * @throws NonSquareMatrixException    when matrix does not have a square shape.
+     * @throws SingularMatrixException     when matrix is singular.
+     * @throws InvalidMatrixSizesException when matrices during calculations will have different sizes.
+     * @throws IOException                 when communication with a worker fails.
+     */
+    public LUPivotResult distributedLUPivot(List<InetSocketAddress> workers, int processRows, int blockSize)
+            throws LUPivotConstraintsException, NonSquareMatrixException, SingularMatrixException, InvalidMatrixSizesException, IOException {
+        return this.model.distributedLUPivot(workers, processRows, blockSize);
+    }
+
+    /**
+     * Factorizes the matrix, factorization is reused by following routines until the matrix changes.
+     *
+     * @return LU decomposition of the matrix.
+     * @throws LUPivotConstraintsException when matrix is null.
+     */
+    public LUDecomposition factorize() throws LUPivotConstraintsException {
+        return this.model.factorize();
+    }
+
+    /**
+     * Creates streaming solver of many right hand sides sharing one factorization of the matrix.
+     *
+     * @param batchSize Maximum number of right hand sides solved together.
+     * @param capacity  Capacity of queues between stages.
+     * @return Streaming solver.
+     * @throws LUPivotConstraintsException when matrix is null.
+     * @throws NonSquareMatrixException    when matrix does not have a square shape.
+     * @throws SingularMatrixException     when matrix is singular.
+     */
+    public StreamingSolver streamingSolver(int batchSize, int capacity) throws LUPivotConstraintsException, NonSquareMatrixException, SingularMatrixException {
+        return new StreamingSolver(this.model.factorize(), batchSize, capacity);
+    }
+
+    /**
+     * Solves the system for given right hand side without changing the vector of the model.
+     *
+     * @param vector Right hand side vector.
+     * @return Solution vector.
+     * @throws LUPivotConstraintsException when matrix is null or size of the vector is incorrect.
+     * @throws SingularMatrixException     when matrix is singular.
+     * @throws InvalidMatrixSizesException when matrices during calculations will have different sizes.
+     */
+    public Vector solve(Vector vector) throws LUPivotConstraintsException, SingularMatrixException, InvalidMatrixSizesException {
+        return this.model.solve(vector);
+    }
+
+    /**
+     * Calculates determinant of the matrix.
+     *
+     * @return Determinant of the matrix.
+     * @throws LUPivotConstraintsException when matrix is null.
+     * @throws NonSquareMatrixException    when matrix does not have a square shape.
+     */
+    public double determinant() throws LUPivotConstraintsException, NonSquareMatrixException {
+        return this.model.determinant();
+    }
+
+    /**
+     * Sets already extracted matrix.
+     *
+     * @param matrix New matrix.
+     */
+    public void setMatrix(Matrix matrix) {
+        this.model.setMatrix(matrix);
+    }
+
+    /**
+     * Sets already extracted vector.
+     *
+     * @param vector New vector.
+     */
+    public void setVector(Vector vector) {
+        this.model.setVector(vector);
+    }
+
     /**
      * Extracts and sets matrix from a String.
      * Column separator is space.
@@ -82,6 +201,32 @@ public class MainController {
         this.model.setVector(TransformationUtils.transformToVector(vector));
     }
 
+    /**
+     * Reads and sets matrix from a Matrix Market file.
+     *
+     * @param path Path of the file.
+     * @throws IOException                 when the file cannot be read.
+     * @throws MatrixMarketFormatException when the file is malformed or unsupported.
+     */
+    public void readAndSetMatrix(Path path) throws IOException, MatrixMarketFormatException {
+        try (MatrixMarketReader reader = MatrixMarketReader.open(path)) {
+            this.model.setMatrix(reader.readMatrix());
+        }
+    }
+
+    /**
+     * Reads and sets vector from a Matrix Market file with a single row or column.
+     *
+     * @param path Path of the file.
+     * @throws IOException                 when the file cannot be read.
+     * @throws MatrixMarketFormatException when the file is malformed, unsupported or does not contain a vector.
+     */
+    public void readAndSetVector(Path path) throws IOException, MatrixMarketFormatException {
+        try (MatrixMarketReader reader = MatrixMarketReader.open(path)) {
+            this.model.setVector(reader.readVector());
+        }
+    }
+
     /**
      * Serializes output of last operation to the file.
      *
@@ -0,0 +1,177 @@
+package controllers.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Single system of the batch: a matrix file and an optional vector file.
+ * When vector is present the system is solved, otherwise the matrix is inverted.
+ *
+ * @see BatchRunner
+ */
+public final class BatchJob {
+    /**
+     * Extension of files containing matrices.
+     */
+    public static final String MATRIX_EXTENSION = ".matrix";
+
+    /**
+     * Extension of files containing vectors.
+     */
+    public static final String VECTOR_EXTENSION = ".vector";
+
+    /**
+     * Comment prefix in manifest files.
+     */
+    private static final String MANIFEST_COMMENT = "#";
+
+    /**
+     * Name of the system used in the output.
+     */
+    private final String name;
+
+    /**
+     * Path to the matrix file.
+     */
+    private final Path matrixPath;
+
+    /**
+     * Path to the vector file, may be null.
+     */
+    private final Path vectorPath;
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param name       Name of the system.
+     * @param matrixPath Path to the matrix file.
+     * @param vectorPath Path to the vector file or null.
+     */
+    public BatchJob(String name, Path matrixPath, Path vectorPath) {
+        this.name = name;
+        this.matrixPath = matrixPath;
+        this.vectorPath = vectorPath;
+    }
+
+    /**
+     * Returns name of the system.
+     *
+     * @return Name of the system.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns path to the matrix file.
+     *
+     * @return Path to the matrix file.
+     */
+    public Path getMatrixPath() {
+        return matrixPath;
+    }
+
+    /**
+     * Returns path to the vector file.
+     *
+     * @return Path to the vector file or null when there is none.
+     */
+    public Path getVectorPath() {
+        return vectorPath;
+    }
+
+    /**
+     * Reads matrix file.
+     *
+     * @return Content of the matrix file.
+     * @throws IOException when error occurs during reading.
+     */
+    public String readMatrix() throws IOException {
+        return new String(Files.readAllBytes(matrixPath), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads vector file.
+     *
+     * @return Content of the vector file or null when there is none.
+     * @throws IOException when error occurs during reading.
+     */
+    public String readVector() throws IOException {
+        return vectorPath == null ? null : new String(Files.readAllBytes(vectorPath), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Discovers jobs from a directory or from a manifest file.
+     * Directory: every *.matrix file is a job, *.vector file with the same base name is its right hand side.
+     * Manifest: every non empty line is "matrixPath [vectorPath]", relative paths are resolved against manifest directory.
+     *
+     * @param input Directory or manifest file.
+     * @return List of discovered jobs.
+     * @throws IOException when error occurs during reading.
+     */
+    public static List<BatchJob> discover(Path input) throws IOException {
+        return Files.isDirectory(input) ? fromDirectory(input) : fromManifest(input);
+    }
+
+    /**
+     * Discovers jobs in a directory.
+     *
+     * @param directory Directory with matrix and vector files.
+     * @return List of jobs sorted by name.
+     * @throws IOException when error occurs during listing.
+     */
+    private static List<BatchJob> fromDirectory(Path directory) throws IOException {
+        List<BatchJob> jobs = new ArrayList<>();
+        File[] files = directory.toFile().listFiles((dir, fileName) -> fileName.endsWith(MATRIX_EXTENSION));
+        if (files == null) {
+            throw new IOException("Cannot list directory " + directory);
+        }
+
+        for (File file : files) {
+            String baseName = file.getName().substring(0, file.getName().length() - MATRIX_EXTENSION.length());
+            Path vector = directory.resolve(baseName + VECTOR_EXTENSION);
+            jobs.add(new BatchJob(baseName, file.toPath(), Files.exists(vector) ? vector : null));
+        }
+
+        Collections.sort(jobs, (a, b) -> a.getName().compareTo(b.getName()));
+        return jobs;
+    }
+
+    /**
+     * Reads jobs from a manifest file.
+     *
+     * @param manifest Manifest file.
+     * @return List of jobs in manifest order.
+     * @throws IOException when error occurs during reading or a line is malformed.
+     */
+    private static List<BatchJob> fromManifest(Path manifest) throws IOException {
+        Path base = manifest.toAbsolutePath().getParent();
+        List<BatchJob> jobs = new ArrayList<>();
+        int lineNumber = 0;
+
+        for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith(MANIFEST_COMMENT)) {
+                continue;
+            }
+
+            String[] paths = trimmed.split("\\s+");
+            if (paths.length > 2) {
+                throw new IOException("Malformed manifest line " + lineNumber + ": " + line);
+            }
+
+            Path matrix = base.resolve(paths[0]);
+            Path vector = paths.length == 2 ? base.resolve(paths[1]) : null;
+            jobs.add(new BatchJob(paths[0], matrix, vector));
+        }
+
+        return jobs;
+    }
+}
@@ -0,0 +1,201 @@
+package controllers.batch;
+
+import models.internals.results.InverseResult;
+import models.internals.results.LUPivotResult;
+import models.internals.results.Result;
+import models.matrices.Matrix;
+import models.vectors.Vector;
+
+/**
+ * Outcome of a single batch job.
+ * Rendered as one line of JSON so the output file can be processed line by line.
+ *
+ * @see BatchJob
+ */
+public final class BatchJobResult {
+    /**
+     * Processed job.
+     */
+    private final BatchJob job;
+
+    /**
+     * Result of computation, null when job failed.
+     */
+    private final Result result;
+
+    /**
+     * Error description, null when job succeeded.
+     */
+    private final String error;
+
+    /**
+     * Time spent on reading the files in nanoseconds.
+     */
+    private final long readNanos;
+
+    /**
+     * Time spent on parsing and computation in nanoseconds.
+     */
+    private final long computeNanos;
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param job          Processed job.
+     * @param result       Result of computation or null.
+     * @param error        Error description or null.
+     * @param readNanos    Time spent on reading the files.
+     * @param computeNanos Time spent on parsing and computation.
+     */
+    BatchJobResult(BatchJob job, Result result, String error, long readNanos, long computeNanos) {
+        this.job = job;
+        this.result = result;
+        this.error = error;
+        this.readNanos = readNanos;
+        this.computeNanos = computeNanos;
+    }
+
+    /**
+     * Returns processed job.
+     *
+     * @return Processed job.
+     */
+    public BatchJob getJob() {
+        return job;
+    }
+
+    /**
+     * Returns result of computation.
+     *
+     * @return Result of computation or null when job failed.
+     */
+    public Result getResult() {
+        return result;
+    }
+
+    /**
+     * Checks if job succeeded.
+     *
+     * @return True when there is no error. Otherwise false.
+     */
+    public boolean isSuccessful() {
+        return error == null;
+    }
+
+    /**
+     * Returns end to end latency of the job.
+     *
+     * @return Read and compute time in nanoseconds.
+     */
+    public long getLatencyNanos() {
+        return readNanos + computeNanos;
+    }
+
+    /**
+     * Renders result as single line JSON object.
+     *
+     * @return JSON representation without trailing new line.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"name\":");
+        appendString(json, job.getName());
+        json.append(",\"operation\":\"").append(job.getVectorPath() == null ? "inverse" : "lupivot").append('"');
+        json.append(",\"status\":\"").append(isSuccessful() ? "ok" : "error").append('"');
+        json.append(",\"readMicros\":").append(readNanos / 1000);
+        json.append(",\"computeMicros\":").append(computeNanos / 1000);
+
+        if (!isSuccessful()) {
+            json.append(",\"error\":");
+            appendString(json, error);
+        } else {
+            json.append(",\"rows\":").append(result.getOriginalMatrix().getRows());
+            json.append(",\"columns\":").append(result.getOriginalMatrix().getColumns());
+            json.append(",\"determinant\":");
+            appendNumber(json, result.getDeterminant());
+            if (result instanceof LUPivotResult) {
+                json.append(",\"solution\":");
+                appendVector(json, ((LUPivotResult) result).getSolution());
+            } else if (result instanceof InverseResult) {
+                Matrix inverse = ((InverseResult) result).getInverse();
+                json.append(",\"singular\":").append(inverse == null);
+                if (inverse != null) {
+                    json.append(",\"inverse\":");
+                    appendMatrix(json, inverse);
+                }
+            }
+        }
+
+        return json.append('}').toString();
+    }
+
+    /**
+     * Appends vector as JSON array.
+     *
+     * @param json   Output.
+     * @param vector Vector to append.
+     */
+    private static void appendVector(StringBuilder json, Vector vector) {
+        json.append('[');
+        for (int i = 0; i < vector.getSize(); i++) {
+            if (i > 0) json.append(',');
+            appendNumber(json, vector.getAt(i));
+        }
+        json.append(']');
+    }
+
+    /**
+     * Appends matrix as JSON array of rows.
+     *
+     * @param json   Output.
+     * @param matrix Matrix to append.
+     */
+    private static void appendMatrix(StringBuilder json, Matrix matrix) {
+        json.append('[');
+        for (int i = 0; i < matrix.getRows(); i++) {
+            if (i > 0) json.append(',');
+            json.append('[');
+            for (int j = 0; j < matrix.getColumns(); j++) {
+                if (j > 0) json.append(',');
+                appendNumber(json, matrix.getAt(i, j));
+            }
+            json.append(']');
+        }
+        json.append(']');
+    }
+
+    /**
+     * Appends number, non finite values are written as null.
+     *
+     * @param json  Output.
+     * @param value Value to append.
+     */
+    private static void appendNumber(StringBuilder json, Double value) {
+        if (value == null || value.isNaN() || value.isInfinite()) {
+            json.append("null");
+        } else {
+            json.append(value.doubleValue());
+        }
+    }
+
+    /**
+     * Appends escaped JSON string.
+     *
+     * @param json  Output.
+     * @param value Value to append.
+     */
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+}
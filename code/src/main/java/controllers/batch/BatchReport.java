@@ -0,0 +1,105 @@
+package controllers.batch;
+
+import java.util.Arrays;
+
+/**
+ * Summary of a batch run: counts, throughput and latency percentiles.
+ *
+ * @see BatchRunner
+ */
+public final class BatchReport {
+    /**
+     * Number of nanoseconds in millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    /**
+     * Number of successfully processed systems.
+     */
+    private final int succeeded;
+
+    /**
+     * Number of failed systems.
+     */
+    private final int failed;
+
+    /**
+     * Wall clock duration of the run in nanoseconds.
+     */
+    private final long wallNanos;
+
+    /**
+     * Sorted per system latencies in nanoseconds.
+     */
+    private final long[] latencies;
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param succeeded Number of successfully processed systems.
+     * @param failed    Number of failed systems.
+     * @param wallNanos Wall clock duration of the run.
+     * @param latencies Per system latencies, array is sorted in place.
+     */
+    BatchReport(int succeeded, int failed, long wallNanos, long[] latencies) {
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.wallNanos = wallNanos;
+        this.latencies = latencies;
+        Arrays.sort(this.latencies);
+    }
+
+    /**
+     * Returns number of successfully processed systems.
+     *
+     * @return Number of successfully processed systems.
+     */
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    /**
+     * Returns number of failed systems.
+     *
+     * @return Number of failed systems.
+     */
+    public int getFailed() {
+        return failed;
+    }
+
+    /**
+     * Returns throughput of the run.
+     *
+     * @return Processed systems per second.
+     */
+    public double getThroughput() {
+        return wallNanos == 0 ? 0 : (succeeded + failed) * 1e9 / wallNanos;
+    }
+
+    /**
+     * Returns latency percentile using nearest rank method.
+     *
+     * @param percentile Percentile in range (0, 100].
+     * @return Latency in milliseconds, 0 when nothing was processed.
+     */
+    public double getLatencyPercentile(double percentile) {
+        if (latencies.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * latencies.length);
+        return latencies[Math.max(0, Math.min(latencies.length, rank) - 1)] / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Overridden toString routine.
+     *
+     * @return Human readable summary.
+     */
+    @Override
+    public String toString() {
+        return String.format("Systems: %d ok, %d failed in %.3f s%n", succeeded, failed, wallNanos / 1e9)
+                + String.format("Throughput: %.2f systems/s%n", getThroughput())
+                + String.format("Latency [ms]: p50=%.3f p90=%.3f p99=%.3f max=%.3f%n",
+                getLatencyPercentile(50), getLatencyPercentile(90), getLatencyPercentile(99), getLatencyPercentile(100));
+    }
+}
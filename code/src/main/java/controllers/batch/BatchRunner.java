@@ -0,0 +1,206 @@
+package controllers.batch;
+
+import controllers.MainController;
+import models.internals.ApplicationModel;
+import models.internals.results.Result;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs batch jobs on two bounded worker pools.
+ * Files are read on the I/O pool, parsing and computation run on the CPU pool.
+ * Number of jobs in flight is limited so memory stays bounded for any batch size.
+ *
+ * @see BatchJob
+ * @see MainController
+ */
+public final class BatchRunner {
+    /**
+     * Number of threads reading files.
+     */
+    private final int ioThreads;
+
+    /**
+     * Number of threads performing computations.
+     */
+    private final int cpuThreads;
+
+    /**
+     * Maximum number of jobs read but not yet written.
+     */
+    private final int maxInFlight;
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param ioThreads   Number of threads reading files.
+     * @param cpuThreads  Number of threads performing computations.
+     * @param maxInFlight Maximum number of jobs read but not yet written.
+     */
+    public BatchRunner(int ioThreads, int cpuThreads, int maxInFlight) {
+        if (ioThreads < 1 || cpuThreads < 1 || maxInFlight < 1) {
+            throw new IllegalArgumentException("Pool sizes must be positive.");
+        }
+        this.ioThreads = ioThreads;
+        this.cpuThreads = cpuThreads;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Processes all jobs and writes one JSON line per job to the output.
+     * Lines are written in completion order.
+     *
+     * @param jobs   Jobs to process.
+     * @param output Output for JSON lines.
+     * @return Summary of the run.
+     * @throws IOException          when writing the output fails.
+     * @throws InterruptedException when waiting for the jobs is interrupted.
+     */
+    public BatchReport run(List<BatchJob> jobs, Writer output) throws IOException, InterruptedException {
+        ExecutorService ioPool = Executors.newFixedThreadPool(ioThreads, daemonThreads("batch-io"));
+        ExecutorService cpuPool = Executors.newFixedThreadPool(cpuThreads, daemonThreads("batch-cpu"));
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        CountDownLatch done = new CountDownLatch(jobs.size());
+        AtomicInteger failed = new AtomicInteger();
+        AtomicReference<IOException> writeError = new AtomicReference<>();
+        long[] latencies = new long[jobs.size()];
+        long start = System.nanoTime();
+
+        try {
+            for (int i = 0; i < jobs.size(); i++) {
+                final int index = i;
+                final BatchJob job = jobs.get(i);
+                inFlight.acquire();
+                ioPool.execute(() -> {
+                    long readStart = System.nanoTime();
+                    String matrix;
+                    String vector;
+                    try {
+                        matrix = job.readMatrix();
+                        vector = job.readVector();
+                    } catch (Exception e) {
+                        complete(new BatchJobResult(job, null, "Cannot read input: " + describe(e), System.nanoTime() - readStart, 0),
+                                index, latencies, failed, output, writeError, inFlight, done);
+                        return;
+                    }
+                    long readNanos = System.nanoTime() - readStart;
+                    try {
+                        cpuPool.execute(() -> complete(compute(job, matrix, vector, readNanos),
+                                index, latencies, failed, output, writeError, inFlight, done));
+                    } catch (RejectedExecutionException e) {
+                        complete(new BatchJobResult(job, null, describe(e), readNanos, 0),
+                                index, latencies, failed, output, writeError, inFlight, done);
+                    }
+                });
+            }
+            done.await();
+        } finally {
+            ioPool.shutdownNow();
+            cpuPool.shutdownNow();
+            ioPool.awaitTermination(1, TimeUnit.MINUTES);
+            cpuPool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+
+        if (writeError.get() != null) {
+            throw writeError.get();
+        }
+        output.flush();
+        int failures = failed.get();
+        return new BatchReport(jobs.size() - failures, failures, System.nanoTime() - start, latencies);
+    }
+
+    /**
+     * Parses input and performs LU pivoting or inversion.
+     *
+     * @param job       Processed job.
+     * @param matrix    Matrix in string format.
+     * @param vector    Vector in string format or null.
+     * @param readNanos Time spent on reading the files.
+     * @return Outcome of the job.
+     */
+    private static BatchJobResult compute(BatchJob job, String matrix, String vector, long readNanos) {
+        long computeStart = System.nanoTime();
+        MainController controller = new MainController(new ApplicationModel());
+        try {
+            controller.extractAndSetMatrix(matrix);
+            Result result;
+            if (vector != null) {
+                controller.extractAndSetVector(vector);
+                result = controller.LUPivot();
+            } else {
+                result = controller.inverse();
+            }
+            return new BatchJobResult(job, result, null, readNanos, System.nanoTime() - computeStart);
+        } catch (Throwable t) {
+            return new BatchJobResult(job, null, describe(t), readNanos, System.nanoTime() - computeStart);
+        }
+    }
+
+    /**
+     * Describes failure of a job.
+     *
+     * @param t Cause of the failure.
+     * @return Name of the exception and its message.
+     */
+    private static String describe(Throwable t) {
+        return t.getMessage() == null ? t.getClass().getSimpleName() : t.getClass().getSimpleName() + ": " + t.getMessage();
+    }
+
+    /**
+     * Records outcome of the job and writes it to the output.
+     *
+     * @param result     Outcome of the job.
+     * @param index      Index of the job.
+     * @param latencies  Latencies of all jobs.
+     * @param failed     Counter of failed jobs.
+     * @param output     Output for JSON lines.
+     * @param writeError First error that occurred while writing.
+     * @param inFlight   Limit of jobs in flight.
+     * @param done       Latch counting processed jobs.
+     */
+    private static void complete(BatchJobResult result, int index, long[] latencies, AtomicInteger failed, Writer output,
+                                 AtomicReference<IOException> writeError, Semaphore inFlight, CountDownLatch done) {
+        try {
+            latencies[index] = result.getLatencyNanos();
+            if (!result.isSuccessful()) {
+                failed.incrementAndGet();
+            }
+            String line = result.toJson();
+            synchronized (output) {
+                output.write(line);
+                output.write('\n');
+            }
+        } catch (IOException e) {
+            writeError.compareAndSet(null, e);
+        } finally {
+            inFlight.release();
+            done.countDown();
+        }
+    }
+
+    /**
+     * Creates factory of named daemon threads.
+     *
+     * @param prefix Prefix of thread names.
+     * @return Thread factory.
+     */
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
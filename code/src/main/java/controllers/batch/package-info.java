@@ -0,0 +1,4 @@
+/**
+ * Contains headless batch processing of many linear systems.
+ */
+package controllers.batch;
@@ -0,0 +1,32 @@
+package controllers.exceptions;
+
+/**
+ * Describes exception that occurs when request sent to the solver service cannot be processed.
+ * Carries HTTP status code that is sent back to the client.
+ */
+public class InvalidRequestException extends Throwable {
+    /**
+     * HTTP status code of the response.
+     */
+    private final int status;
+
+    /**
+     * Overridden constructor.
+     *
+     * @param status  HTTP status code of the response.
+     * @param message Message of error.
+     */
+    public InvalidRequestException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    /**
+     * Returns HTTP status code of the response.
+     *
+     * @return HTTP status code.
+     */
+    public int getStatus() {
+        return status;
+    }
+}
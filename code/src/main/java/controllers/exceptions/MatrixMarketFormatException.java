@@ -0,0 +1,15 @@
+package controllers.exceptions;
+
+/**
+ * Describes exception that occurs when a Matrix Market file is malformed or uses an unsupported variant.
+ */
+public class MatrixMarketFormatException extends Throwable {
+    /**
+     * Overridden constructor.
+     *
+     * @param message Message of error.
+     */
+    public MatrixMarketFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,220 @@
+package controllers.http;
+
+import controllers.exceptions.InvalidRequestException;
+import models.matrices.Matrix;
+import models.vectors.Vector;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes and decodes payloads of the solver service.
+ * Text payloads use the same format as the text areas of the application.
+ * Binary payloads are big-endian: int rows, int columns and row-major doubles for matrices,
+ * int size and doubles for vectors, single double for scalars.
+ *
+ * @see SolverHttpServer
+ */
+final class PayloadCodec {
+    /**
+     * Content type of binary payloads.
+     */
+    static final String BINARY = "application/octet-stream";
+
+    /**
+     * Content type of text payloads.
+     */
+    static final String TEXT = "text/plain; charset=utf-8";
+
+    /**
+     * Size of int in bytes.
+     */
+    private static final int INT_BYTES = 4;
+
+    /**
+     * Size of double in bytes.
+     */
+    private static final int DOUBLE_BYTES = 8;
+
+    /**
+     * Largest payload that fits into a byte array.
+     */
+    static final long MAX_PAYLOAD_BYTES = Integer.MAX_VALUE - 8;
+
+    /**
+     * Expected number of characters of one element in text payloads.
+     */
+    private static final int TEXT_ELEMENT_CHARS = 12;
+
+    /**
+     * Private constructor, class contains only static routines.
+     */
+    private PayloadCodec() {
+    }
+
+    /**
+     * Checks if content type denotes binary payload.
+     *
+     * @param contentType Value of Content-Type or Accept header, may be null.
+     * @return True for binary payloads. Otherwise false.
+     */
+    static boolean isBinary(String contentType) {
+        return contentType != null && contentType.toLowerCase().startsWith(BINARY);
+    }
+
+    /**
+     * Decodes text payload.
+     *
+     * @param body Payload bytes.
+     * @return Payload as string.
+     */
+    static String text(byte[] body) {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes binary matrix.
+     *
+     * @param body Payload bytes.
+     * @return Decoded matrix.
+     * @throws InvalidRequestException when payload is malformed.
+     */
+    static Matrix decodeMatrix(byte[] body) throws InvalidRequestException {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(body);
+            int rows = buffer.getInt();
+            int columns = buffer.getInt();
+            if (rows <= 0 || columns <= 0 || (long) rows * columns * DOUBLE_BYTES != buffer.remaining()) {
+                throw new InvalidRequestException(400, "Binary matrix has invalid size.");
+            }
+            double[][] data = new double[rows][columns];
+            DoubleBuffer doubles = buffer.asDoubleBuffer();
+            for (double[] row : data) {
+                doubles.get(row);
+            }
+            return Matrix.wrap(data);
+        } catch (BufferUnderflowException e) {
+            throw new InvalidRequestException(400, "Binary matrix is truncated.");
+        }
+    }
+
+    /**
+     * Decodes binary vector.
+     *
+     * @param body Payload bytes.
+     * @return Decoded vector.
+     * @throws InvalidRequestException when payload is malformed.
+     */
+    static Vector decodeVector(byte[] body) throws InvalidRequestException {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(body);
+            int size = buffer.getInt();
+            if (size <= 0 || (long) size * DOUBLE_BYTES != buffer.remaining()) {
+                throw new InvalidRequestException(400, "Binary vector has invalid size.");
+            }
+            double[] data = new double[size];
+            buffer.asDoubleBuffer().get(data);
+            return Vector.wrap(data);
+        } catch (BufferUnderflowException e) {
+            throw new InvalidRequestException(400, "Binary vector is truncated.");
+        }
+    }
+
+    /**
+     * Encodes matrix.
+     *
+     * @param matrix Matrix to encode.
+     * @param binary True for binary encoding, false for text.
+     * @return Payload bytes.
+     * @throws InvalidRequestException when the payload does not fit into a byte array.
+     */
+    static byte[] encode(Matrix matrix, boolean binary) throws InvalidRequestException {
+        int rows = matrix.getRows();
+        int columns = matrix.getColumns();
+        long elements = (long) rows * columns;
+        if (binary) {
+            ByteBuffer buffer = ByteBuffer.allocate(checkedSize(2L * INT_BYTES + elements * DOUBLE_BYTES));
+            buffer.putInt(rows).putInt(columns);
+            for (int i = 0; i < rows; i++)
+                for (int j = 0; j < columns; j++)
+                    buffer.putDouble(matrix.getAt(i, j));
+            return buffer.array();
+        }
+
+        StringBuilder text = new StringBuilder(textCapacity(elements));
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                if (j > 0) text.append(' ');
+                text.append(matrix.getAt(i, j));
+            }
+            text.append('\n');
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encodes vector.
+     *
+     * @param vector Vector to encode.
+     * @param binary True for binary encoding, false for text.
+     * @return Payload bytes.
+     * @throws InvalidRequestException when the payload does not fit into a byte array.
+     */
+    static byte[] encode(Vector vector, boolean binary) throws InvalidRequestException {
+        int size = vector.getSize();
+        if (binary) {
+            ByteBuffer buffer = ByteBuffer.allocate(checkedSize(INT_BYTES + (long) size * DOUBLE_BYTES));
+            buffer.putInt(size);
+            for (int i = 0; i < size; i++)
+                buffer.putDouble(vector.getAt(i));
+            return buffer.array();
+        }
+
+        StringBuilder text = new StringBuilder(textCapacity(size));
+        for (int i = 0; i < size; i++) {
+            if (i > 0) text.append(' ');
+            text.append(vector.getAt(i));
+        }
+        return text.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encodes scalar.
+     *
+     * @param value  Scalar to encode.
+     * @param binary True for binary encoding, false for text.
+     * @return Payload bytes.
+     */
+    static byte[] encode(double value, boolean binary) {
+        if (binary) {
+            return ByteBuffer.allocate(DOUBLE_BYTES).putDouble(value).array();
+        }
+        return (value + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Checks that binary payload fits into a byte array.
+     *
+     * @param bytes Size of the payload in bytes.
+     * @return Size of the payload.
+     * @throws InvalidRequestException when the payload is too large.
+     */
+    static int checkedSize(long bytes) throws InvalidRequestException {
+        if (bytes > MAX_PAYLOAD_BYTES) {
+            throw new InvalidRequestException(500, "Response of " + bytes + " bytes exceeds the payload limit.");
+        }
+        return (int) bytes;
+    }
+
+    /**
+     * Estimates initial capacity of text payload without overflow.
+     *
+     * @param elements Number of encoded elements.
+     * @return Initial capacity of the builder.
+     */
+    private static int textCapacity(long elements) {
+        return (int) Math.min(elements * TEXT_ELEMENT_CHARS + 1, 1 << 24);
+    }
+}
@@ -0,0 +1,516 @@
+package controllers.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import controllers.MainController;
+import controllers.exceptions.InvalidRequestException;
+import controllers.exceptions.MatrixExtractionException;
+import controllers.exceptions.NotEqualAmountOfColumnsInMatrixException;
+import controllers.exceptions.VectorExtractionException;
+import controllers.transformers.TransformationUtils;
+import models.exceptions.InvalidMatrixSizesException;
+import models.exceptions.InversionConstraintsException;
+import models.exceptions.LUPivotConstraintsException;
+import models.exceptions.NonSquareMatrixException;
+import models.exceptions.SingularMatrixException;
+import models.internals.ApplicationModel;
+import models.internals.results.InverseResult;
+import models.matrices.Matrix;
+import models.monitoring.SolverMetrics;
+import models.utilities.SolveCoalescer;
+import models.vectors.Vector;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded HTTP service exposing the solver to processes on the same host.
+ * Every factorization is kept server side under a handle, so repeated solves skip the factorization.
+ * <p>
+ * POST /factorize            body: matrix, response: handle
+ * POST /solve?handle=h       body: vector, response: solution
+ * GET  /determinant?handle=h response: determinant, POST with matrix body computes it without a handle
+ * GET  /inverse?handle=h     response: inverse, POST with matrix body computes it without a handle
+ * DELETE /factorize?handle=h releases the handle
+ * GET  /metrics              response: text report of solver metrics
+ * <p>
+ * Content-Type application/octet-stream selects binary payloads, Accept selects format of the response.
+ * Requests are handled on a bounded pool, when it is saturated they are rejected with 503 Service Unavailable
+ * so the accepting thread never runs a request itself.
+ * Malformed payloads are answered with 400, matrices that cannot be solved with 422 and server faults with 500.
+ *
+ * @see MainController
+ * @see PayloadCodec
+ */
+public final class SolverHttpServer {
+    /**
+     * Name of the query parameter with handle.
+     */
+    private static final String HANDLE_PARAMETER = "handle";
+
+    /**
+     * Maximum number of concurrent right hand sides solved together.
+     */
+    private static final int COALESCE_BATCH_SIZE = 32;
+
+    /**
+     * Time the first solve of a handle waits for concurrent solves in microseconds.
+     */
+    private static final long COALESCE_WINDOW_MICROS = 200;
+
+    /**
+     * Underlying JDK server.
+     */
+    private final HttpServer server;
+
+    /**
+     * Pool handling requests.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Maximum size of request body in bytes.
+     */
+    private final int maxBodyBytes;
+
+    /**
+     * Factorized systems, least recently used handle is released when the limit is exceeded.
+     */
+    private final Map<String, FactorizedSystem> handles;
+
+    /**
+     * Parametrized constructor. Server is not started.
+     *
+     * @param address      Address to bind, usually loopback.
+     * @param threads      Number of threads handling requests.
+     * @param maxHandles   Maximum number of kept factorizations.
+     * @param maxBodyBytes Maximum size of request body in bytes.
+     * @throws IOException when address cannot be bound.
+     */
+    public SolverHttpServer(InetSocketAddress address, int threads, final int maxHandles, int maxBodyBytes) throws IOException {
+        this.maxBodyBytes = maxBodyBytes;
+        this.handles = new LinkedHashMap<String, FactorizedSystem>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, FactorizedSystem> eldest) {
+                return size() > maxHandles;
+            }
+        };
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(threads * 64),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "solver-http-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        // Without own executor the server runs handlers on its dispatcher thread, which only queues the work
+        this.server = HttpServer.create(address, 0);
+        this.server.createContext("/factorize", exchange -> dispatch(exchange, this::factorize));
+        this.server.createContext("/solve", exchange -> dispatch(exchange, this::solve));
+        this.server.createContext("/determinant", exchange -> dispatch(exchange, this::determinant));
+        this.server.createContext("/inverse", exchange -> dispatch(exchange, this::inverse));
+        this.server.createContext("/metrics", exchange -> dispatch(exchange, this::metrics));
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops the server, waits given number of seconds for running requests.
+     *
+     * @param delaySeconds Maximum time to wait for running requests.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns bound address, useful when port 0 was requested.
+     *
+     * @return Bound address.
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Returns number of kept factorizations.
+     *
+     * @return Number of handles.
+     */
+    public int getHandleCount() {
+        synchronized (handles) {
+            return handles.size();
+        }
+    }
+
+    /**
+     * Factorizes matrix from the body and stores it under a new handle, or releases a handle on DELETE.
+     *
+     * @param exchange Exchange of the request.
+     * @return Response body.
+     * @throws Throwable when request cannot be processed.
+     */
+    private byte[] factorize(HttpExchange exchange) throws Throwable {
+        if ("DELETE".equals(exchange.getRequestMethod())) {
+            String handle = requireHandle(exchange);
+            synchronized (handles) {
+                if (handles.remove(handle) == null) {
+                    throw new InvalidRequestException(404, "Unknown handle " + handle);
+                }
+            }
+            exchange.getResponseHeaders().set("Content-Type", PayloadCodec.TEXT);
+            return new byte[0];
+        }
+
+        requireMethod(exchange, "POST");
+        MainController controller = controllerFromBody(exchange);
+        FactorizedSystem system = new FactorizedSystem(controller,
+                new SolveCoalescer(controller.factorize(), COALESCE_BATCH_SIZE, COALESCE_WINDOW_MICROS, TimeUnit.MICROSECONDS));
+        String handle = UUID.randomUUID().toString();
+        synchronized (handles) {
+            handles.put(handle, system);
+        }
+        exchange.getResponseHeaders().set("Content-Type", PayloadCodec.TEXT);
+        return (handle + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Solves the system of the handle for right hand side from the body.
+     * Concurrent solves of the same handle are merged into one multi right hand side solve.
+     *
+     * @param exchange Exchange of the request.
+     * @return Response body.
+     * @throws Throwable when request cannot be processed.
+     */
+    private byte[] solve(HttpExchange exchange) throws Throwable {
+        requireMethod(exchange, "POST");
+        SolveCoalescer coalescer = lookup(requireHandle(exchange)).coalescer;
+        byte[] body = readBody(exchange);
+        Vector vector = PayloadCodec.isBinary(exchange.getRequestHeaders().getFirst("Content-Type"))
+                ? PayloadCodec.decodeVector(body)
+                : TransformationUtils.transformToVector(PayloadCodec.text(body));
+        return PayloadCodec.encode(coalescer.solve(vector), binaryResponse(exchange));
+    }
+
+    /**
+     * Calculates determinant of the system of the handle or of the matrix from the body.
+     *
+     * @param exchange Exchange of the request.
+     * @return Response body.
+     * @throws Throwable when request cannot be processed.
+     */
+    private byte[] determinant(HttpExchange exchange) throws Throwable {
+        MainController controller = controllerFromHandleOrBody(exchange);
+        return PayloadCodec.encode(controller.determinant(), binaryResponse(exchange));
+    }
+
+    /**
+     * Calculates inverse of the system of the handle or of the matrix from the body.
+     *
+     * @param exchange Exchange of the request.
+     * @return Response body.
+     * @throws Throwable when request cannot be processed.
+     */
+    private byte[] inverse(HttpExchange exchange) throws Throwable {
+        MainController controller = controllerFromHandleOrBody(exchange);
+        InverseResult result = controller.inverse();
+        if (result.getInverse() == null) {
+            throw new SingularMatrixException();
+        }
+        return PayloadCodec.encode(result.getInverse(), binaryResponse(exchange));
+    }
+
+    /**
+     * Renders solver metrics.
+     *
+     * @param exchange Exchange of the request.
+     * @return Response body.
+     * @throws Throwable when request cannot be processed.
+     */
+    private byte[] metrics(HttpExchange exchange) throws Throwable {
+        requireMethod(exchange, "GET");
+        exchange.getResponseHeaders().set("Content-Type", PayloadCodec.TEXT);
+        return SolverMetrics.getInstance().dump().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns controller of the handle for GET requests or of the matrix in the body for POST requests.
+     *
+     * @param exchange Exchange of the request.
+     * @return Controller with the matrix set.
+     * @throws Throwable when request cannot be processed.
+     */
+    private MainController controllerFromHandleOrBody(HttpExchange exchange) throws Throwable {
+        if ("GET".equals(exchange.getRequestMethod())) {
+            return lookup(requireHandle(exchange)).controller;
+        }
+        requireMethod(exchange, "POST");
+        return controllerFromBody(exchange);
+    }
+
+    /**
+     * Creates controller with the matrix from the body.
+     *
+     * @param exchange Exchange of the request.
+     * @return New controller.
+     * @throws Throwable when request cannot be processed.
+     */
+    private MainController controllerFromBody(HttpExchange exchange) throws Throwable {
+        byte[] body = readBody(exchange);
+        MainController controller = new MainController(new ApplicationModel());
+        if (PayloadCodec.isBinary(exchange.getRequestHeaders().getFirst("Content-Type"))) {
+            Matrix matrix = PayloadCodec.decodeMatrix(body);
+            controller.setMatrix(matrix);
+        } else {
+            controller.extractAndSetMatrix(PayloadCodec.text(body));
+        }
+        return controller;
+    }
+
+    /**
+     * Returns system stored under the handle.
+     *
+     * @param handle Handle of factorization.
+     * @return System with factorized matrix.
+     * @throws InvalidRequestException when handle is unknown.
+     */
+    private FactorizedSystem lookup(String handle) throws InvalidRequestException {
+        FactorizedSystem system;
+        synchronized (handles) {
+            system = handles.get(handle);
+        }
+        if (system == null) {
+            throw new InvalidRequestException(404, "Unknown handle " + handle);
+        }
+        return system;
+    }
+
+    /**
+     * Queues the request on the pool, rejects it with 503 when the pool is saturated.
+     *
+     * @param exchange Exchange of the request.
+     * @param endpoint Endpoint routine.
+     * @throws IOException when response cannot be sent.
+     */
+    private void dispatch(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        try {
+            executor.execute(() -> {
+                try {
+                    handle(exchange, endpoint);
+                } catch (IOException e) {
+                    exchange.close();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            respond(exchange, 503, error(exchange, "Server is busy, retry later."));
+        }
+    }
+
+    /**
+     * Common request processing, maps exceptions to status codes.
+     *
+     * @param exchange Exchange of the request.
+     * @param endpoint Endpoint routine.
+     * @throws IOException when response cannot be sent.
+     */
+    private void handle(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        int status = 200;
+        byte[] response;
+        try {
+            response = endpoint.process(exchange);
+            if (exchange.getResponseHeaders().getFirst("Content-Type") == null) {
+                exchange.getResponseHeaders().set("Content-Type",
+                        binaryResponse(exchange) ? PayloadCodec.BINARY : PayloadCodec.TEXT);
+            }
+        } catch (InvalidRequestException e) {
+            status = e.getStatus();
+            response = error(exchange, e.getMessage());
+        } catch (MatrixExtractionException | NotEqualAmountOfColumnsInMatrixException | VectorExtractionException e) {
+            status = 400;
+            response = error(exchange, "Malformed payload: " + e.getClass().getSimpleName());
+        } catch (SingularMatrixException e) {
+            status = 422;
+            response = error(exchange, "Matrix is singular.");
+        } catch (NonSquareMatrixException | InversionConstraintsException e) {
+            status = 422;
+            response = error(exchange, "Matrix is not square.");
+        } catch (LUPivotConstraintsException e) {
+            status = 422;
+            response = error(exchange, e.getMessage());
+        } catch (InvalidMatrixSizesException e) {
+            status = 422;
+            response = error(exchange, "Sizes of matrix and vector do not match.");
+        } catch (IOException e) {
+            throw e;
+        } catch (Throwable t) {
+            status = 500;
+            response = error(exchange, "Internal server error: " + t.getClass().getSimpleName());
+        }
+        respond(exchange, status, response);
+    }
+
+    /**
+     * Sends response and closes the exchange.
+     *
+     * @param exchange Exchange of the request.
+     * @param status   HTTP status code.
+     * @param response Response body.
+     * @throws IOException when response cannot be sent.
+     */
+    private static void respond(HttpExchange exchange, int status, byte[] response) throws IOException {
+        try (OutputStream body = exchange.getResponseBody()) {
+            exchange.sendResponseHeaders(status, response.length == 0 ? -1 : response.length);
+            body.write(response);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Prepares text error response.
+     *
+     * @param exchange Exchange of the request.
+     * @param message  Error message.
+     * @return Response body.
+     */
+    private static byte[] error(HttpExchange exchange, String message) {
+        exchange.getResponseHeaders().set("Content-Type", PayloadCodec.TEXT);
+        return (message + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Checks if the client expects binary response.
+     * Binary response is sent when Accept or, if absent, Content-Type is binary.
+     *
+     * @param exchange Exchange of the request.
+     * @return True for binary response. Otherwise false.
+     */
+    private static boolean binaryResponse(HttpExchange exchange) {
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        if (accept != null && !accept.startsWith("*/*")) {
+            return PayloadCodec.isBinary(accept);
+        }
+        return PayloadCodec.isBinary(exchange.getRequestHeaders().getFirst("Content-Type"));
+    }
+
+    /**
+     * Checks method of the request.
+     *
+     * @param exchange Exchange of the request.
+     * @param method   Expected method.
+     * @throws InvalidRequestException when method is different.
+     */
+    private static void requireMethod(HttpExchange exchange, String method) throws InvalidRequestException {
+        if (!method.equals(exchange.getRequestMethod())) {
+            throw new InvalidRequestException(405, "Method " + exchange.getRequestMethod() + " is not allowed.");
+        }
+    }
+
+    /**
+     * Extracts handle from the query.
+     *
+     * @param exchange Exchange of the request.
+     * @return Handle.
+     * @throws InvalidRequestException when handle is missing.
+     */
+    private static String requireHandle(HttpExchange exchange) throws InvalidRequestException {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                int equals = parameter.indexOf('=');
+                if (equals > 0 && HANDLE_PARAMETER.equals(parameter.substring(0, equals))) {
+                    try {
+                        return URLDecoder.decode(parameter.substring(equals + 1), "UTF-8");
+                    } catch (java.io.UnsupportedEncodingException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }
+        }
+        throw new InvalidRequestException(400, "Missing handle parameter.");
+    }
+
+    /**
+     * Reads the request body up to the limit.
+     *
+     * @param exchange Exchange of the request.
+     * @return Body bytes.
+     * @throws IOException             when reading fails.
+     * @throws InvalidRequestException when body exceeds the limit.
+     */
+    private byte[] readBody(HttpExchange exchange) throws IOException, InvalidRequestException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream input = exchange.getRequestBody()) {
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                if (body.size() + read > maxBodyBytes) {
+                    throw new InvalidRequestException(413, "Request body exceeds " + maxBodyBytes + " bytes.");
+                }
+                body.write(buffer, 0, read);
+            }
+        }
+        return body.toByteArray();
+    }
+
+    /**
+     * Factorized matrix kept under a handle.
+     */
+    private static final class FactorizedSystem {
+        /**
+         * Controller with the matrix set and factorized.
+         */
+        private final MainController controller;
+
+        /**
+         * Coalescer of concurrent solves against the factorization.
+         */
+        private final SolveCoalescer coalescer;
+
+        /**
+         * Parametrized constructor.
+         *
+         * @param controller Controller with the matrix set and factorized.
+         * @param coalescer  Coalescer of concurrent solves.
+         */
+        private FactorizedSystem(MainController controller, SolveCoalescer coalescer) {
+            this.controller = controller;
+            this.coalescer = coalescer;
+        }
+    }
+
+    /**
+     * Routine processing a single endpoint.
+     */
+    @FunctionalInterface
+    private interface Endpoint {
+        /**
+         * Processes the request.
+         *
+         * @param exchange Exchange of the request.
+         * @return Response body.
+         * @throws Throwable when request cannot be processed.
+         */
+        byte[] process(HttpExchange exchange) throws Throwable;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Contains embedded HTTP service exposing the controller to local processes.
+ */
+package controllers.http;
@@ -0,0 +1,263 @@
+package controllers.streaming;
+
+import controllers.exceptions.VectorExtractionException;
+import controllers.transformers.TransformationUtils;
+import models.exceptions.InvalidMatrixSizesException;
+import models.matrices.Matrix;
+import models.utilities.LUDecomposition;
+import models.vectors.Vector;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Running parse, solve and format pipeline of one stream.
+ * Stages communicate through bounded queues, end of input and failures travel through the queues as well.
+ * Failure of any stage is rethrown from next as IllegalStateException with the original cause.
+ *
+ * @see StreamingSolver
+ */
+public final class SolutionStream implements Iterator<String>, AutoCloseable {
+    /**
+     * Marks end of input.
+     */
+    private static final Object END = new Object();
+
+    /**
+     * Factorization used by the solve stage.
+     */
+    private final LUDecomposition decomposition;
+
+    /**
+     * Maximum number of right hand sides solved together.
+     */
+    private final int batchSize;
+
+    /**
+     * Parsed vectors waiting for the solve stage.
+     */
+    private final BlockingQueue<Object> parsed;
+
+    /**
+     * Solutions waiting for the format stage.
+     */
+    private final BlockingQueue<Object> solved;
+
+    /**
+     * Formatted solutions waiting for the consumer.
+     */
+    private final BlockingQueue<Object> formatted;
+
+    /**
+     * Threads of the stages.
+     */
+    private final Thread[] stages;
+
+    /**
+     * Element taken from the queue but not yet returned.
+     */
+    private Object next;
+
+    /**
+     * Parametrized constructor, starts the stages.
+     *
+     * @param decomposition Factorization of non singular square matrix.
+     * @param lines         Vectors in a string format.
+     * @param batchSize     Maximum number of right hand sides solved together.
+     * @param capacity      Capacity of queues between stages.
+     */
+    SolutionStream(LUDecomposition decomposition, Iterator<String> lines, int batchSize, int capacity) {
+        this.decomposition = decomposition;
+        this.batchSize = batchSize;
+        this.parsed = new ArrayBlockingQueue<>(capacity);
+        this.solved = new ArrayBlockingQueue<>(capacity);
+        this.formatted = new ArrayBlockingQueue<>(capacity);
+        this.stages = new Thread[]{
+                stage("stream-parse", () -> parse(lines)),
+                stage("stream-solve", this::solve),
+                stage("stream-format", this::format)
+        };
+        for (Thread stage : stages) {
+            stage.start();
+        }
+    }
+
+    /**
+     * Checks if there is another solution, waits for it when necessary.
+     *
+     * @return True when another solution is available.
+     */
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = formatted.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new IllegalStateException("Interrupted while waiting for solution.", e);
+            }
+        }
+        if (next instanceof Throwable) {
+            throw new IllegalStateException("Streaming solve failed.", (Throwable) next);
+        }
+        return next != END;
+    }
+
+    /**
+     * Returns next solution.
+     *
+     * @return Solution in a string format, elements separated by single space.
+     */
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String solution = (String) next;
+        next = null;
+        return solution;
+    }
+
+    /**
+     * Stops all stages.
+     */
+    @Override
+    public void close() {
+        for (Thread stage : stages) {
+            stage.interrupt();
+        }
+    }
+
+    /**
+     * Parse stage.
+     *
+     * @param lines Vectors in a string format.
+     * @throws InterruptedException when stream is closed.
+     */
+    private void parse(Iterator<String> lines) throws InterruptedException {
+        try {
+            while (lines.hasNext()) {
+                String line = lines.next();
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                Vector vector = TransformationUtils.transformToVector(line);
+                if (vector.getSize() != decomposition.getRows()) {
+                    throw new InvalidMatrixSizesException();
+                }
+                parsed.put(vector);
+            }
+            parsed.put(END);
+        } catch (VectorExtractionException | InvalidMatrixSizesException | RuntimeException e) {
+            parsed.put(e);
+        }
+    }
+
+    /**
+     * Solve stage, solves all vectors already waiting as one matrix.
+     *
+     * @throws InterruptedException when stream is closed.
+     */
+    private void solve() throws InterruptedException {
+        int n = decomposition.getRows();
+        List<Object> batch = new ArrayList<>(batchSize);
+        while (true) {
+            batch.add(parsed.take());
+            parsed.drainTo(batch, batchSize - 1);
+
+            int columns = 0;
+            while (columns < batch.size() && batch.get(columns) instanceof Vector) {
+                columns++;
+            }
+            if (columns > 0) {
+                Matrix rightHandSides = new Matrix(n, columns);
+                double[][] b = rightHandSides.getData();
+                for (int j = 0; j < columns; j++) {
+                    double[] vector = ((Vector) batch.get(j)).getData();
+                    for (int i = 0; i < n; i++) {
+                        b[i][j] = vector[i];
+                    }
+                }
+                try {
+                    double[][] x = decomposition.solve(rightHandSides).getData();
+                    for (int j = 0; j < columns; j++) {
+                        double[] solution = new double[n];
+                        for (int i = 0; i < n; i++) {
+                            solution[i] = x[i][j];
+                        }
+                        solved.put(solution);
+                    }
+                } catch (Throwable e) {
+                    solved.put(e);
+                    return;
+                }
+            }
+            if (columns < batch.size()) {
+                solved.put(batch.get(columns));
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Format stage.
+     *
+     * @throws InterruptedException when stream is closed.
+     */
+    private void format() throws InterruptedException {
+        StringBuilder builder = new StringBuilder();
+        while (true) {
+            Object item = solved.take();
+            if (!(item instanceof double[])) {
+                formatted.put(item);
+                return;
+            }
+            double[] solution = (double[]) item;
+            builder.setLength(0);
+            for (int i = 0; i < solution.length; i++) {
+                if (i > 0) {
+                    builder.append(' ');
+                }
+                builder.append(solution[i]);
+            }
+            formatted.put(builder.toString());
+        }
+    }
+
+    /**
+     * Interruptible body of a stage.
+     */
+    private interface StageBody {
+        /**
+         * Runs the stage.
+         *
+         * @throws InterruptedException when stream is closed.
+         */
+        void run() throws InterruptedException;
+    }
+
+    /**
+     * Creates daemon thread of a stage.
+     *
+     * @param name Name of the thread.
+     * @param body Body of the stage.
+     * @return Not started thread.
+     */
+    private static Thread stage(String name, StageBody body) {
+        Thread thread = new Thread(() -> {
+            try {
+                body.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,136 @@
+package controllers.streaming;
+
+import models.exceptions.NonSquareMatrixException;
+import models.exceptions.SingularMatrixException;
+import models.utilities.LUDecomposition;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Solves a continuous stream of right hand sides for one factorized matrix.
+ * Every stream runs parse, solve and format stages on separate threads connected by bounded queues,
+ * so a slow consumer throttles the producer instead of growing memory.
+ * Vectors waiting for the solve stage are solved together as columns of one matrix.
+ *
+ * @see SolutionStream
+ * @see LUDecomposition
+ */
+public final class StreamingSolver {
+    /**
+     * Default maximum number of right hand sides solved together.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    /**
+     * Default capacity of queues between stages.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * Factorization shared by all streams.
+     */
+    private final LUDecomposition decomposition;
+
+    /**
+     * Maximum number of right hand sides solved together.
+     */
+    private final int batchSize;
+
+    /**
+     * Capacity of queues between stages.
+     */
+    private final int capacity;
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param decomposition Factorization of square matrix.
+     * @param batchSize     Maximum number of right hand sides solved together.
+     * @param capacity      Capacity of queues between stages.
+     * @throws NonSquareMatrixException when matrix does not have a square shape.
+     * @throws SingularMatrixException  when matrix is singular.
+     */
+    public StreamingSolver(LUDecomposition decomposition, int batchSize, int capacity) throws NonSquareMatrixException, SingularMatrixException {
+        if (batchSize < 1 || capacity < 1) {
+            throw new IllegalArgumentException("Batch size and capacity must be positive.");
+        }
+        if (decomposition.getRows() != decomposition.getColumns()) {
+            throw new NonSquareMatrixException();
+        }
+        if (!decomposition.isNonSingular()) {
+            throw new SingularMatrixException();
+        }
+        this.decomposition = decomposition;
+        this.batchSize = batchSize;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Starts solving right hand sides given as lines of text.
+     * Lines are pulled from the input only as fast as solutions are consumed.
+     *
+     * @param lines Vectors in a string format, blank lines are skipped.
+     * @return Solutions in the order of input, to be closed when abandoned.
+     */
+    public SolutionStream solve(Iterator<String> lines) {
+        return new SolutionStream(decomposition, lines, batchSize, capacity);
+    }
+
+    /**
+     * Solves right hand sides given as stream of lines.
+     * Closing the returned stream stops the stages.
+     *
+     * @param lines Vectors in a string format.
+     * @return Stream of solutions in a string format.
+     */
+    public Stream<String> solve(Stream<String> lines) {
+        SolutionStream solutions = solve(lines.iterator());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(solutions, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(solutions::close)
+                .onClose(lines::close);
+    }
+
+    /**
+     * Solves every line of the reader and writes one line with solution per input vector.
+     *
+     * @param input  Reader of vectors, one per line.
+     * @param output Writer of solutions.
+     * @return Number of solved vectors.
+     * @throws IOException when reading or writing fails.
+     */
+    public long solve(BufferedReader input, Writer output) throws IOException {
+        long solved = 0;
+        try (SolutionStream solutions = solve(lines(input))) {
+            while (solutions.hasNext()) {
+                output.write(solutions.next());
+                output.write('\n');
+                solved++;
+            }
+        } catch (IllegalStateException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        }
+        output.flush();
+        return solved;
+    }
+
+    /**
+     * Adapts reader to iterator of lines.
+     *
+     * @param reader Reader of lines.
+     * @return Iterator of lines.
+     */
+    private static Iterator<String> lines(BufferedReader reader) {
+        return reader.lines().iterator();
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Contains streaming solution of many right hand sides for one matrix.
+ */
+package controllers.streaming;
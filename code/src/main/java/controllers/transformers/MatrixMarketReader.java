@@ -0,0 +1,423 @@
+package controllers.transformers;
+
+import controllers.exceptions.MatrixMarketFormatException;
+import models.matrices.CSRMatrix;
+import models.matrices.Matrix;
+import models.monitoring.Operation;
+import models.monitoring.SolverMetrics;
+import models.vectors.Vector;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Streaming reader of Matrix Market files.
+ * Supports coordinate and array formats with real, integer and pattern fields
+ * and general, symmetric and skew-symmetric symmetry.
+ * Entries are parsed straight into the target storage: sparse matrices are read in two passes,
+ * the first counts elements of rows and the second fills compressed sparse row arrays,
+ * so apart from the result only a fixed size buffer and one counter per row are held in memory.
+ *
+ * @see MatrixMarketWriter
+ * @see CSRMatrix
+ */
+public final class MatrixMarketReader implements Closeable {
+    /**
+     * Banner starting every Matrix Market file.
+     */
+    static final String BANNER = "%%MatrixMarket";
+
+    /**
+     * Tokenizer of the file.
+     */
+    private final MatrixMarketTokenizer tokenizer;
+
+    /**
+     * True for coordinate format, false for array format.
+     */
+    private final boolean coordinate;
+
+    /**
+     * True for pattern field, elements without values are ones.
+     */
+    private final boolean pattern;
+
+    /**
+     * Declared symmetry.
+     */
+    private final MatrixMarketSymmetry symmetry;
+
+    /**
+     * Number of rows.
+     */
+    private final int rows;
+
+    /**
+     * Number of columns.
+     */
+    private final int columns;
+
+    /**
+     * Number of stored entries.
+     */
+    private final long entries;
+
+    /**
+     * Byte offset of the first entry.
+     */
+    private final long dataStart;
+
+    /**
+     * Line number of the first entry.
+     */
+    private final long dataLine;
+
+    /**
+     * Receives entries of the matrix.
+     */
+    private interface EntryConsumer {
+        /**
+         * Accepts an element.
+         *
+         * @param row    Zero based row.
+         * @param column Zero based column.
+         * @param value  Value of the element.
+         */
+        void accept(int row, int column, double value);
+    }
+
+    /**
+     * Reads header of the file.
+     *
+     * @param tokenizer Tokenizer of the file.
+     * @throws IOException                 when reading fails.
+     * @throws MatrixMarketFormatException when header is malformed or unsupported.
+     */
+    private MatrixMarketReader(MatrixMarketTokenizer tokenizer) throws IOException, MatrixMarketFormatException {
+        this.tokenizer = tokenizer;
+        String banner = tokenizer.nextLine();
+        String[] words = banner == null ? new String[0] : banner.trim().split(TransformationUtils.WHITE_SPACE_CHARACTERS_REGEX);
+        if (words.length != 5 || !words[0].equals(BANNER) || !words[1].equalsIgnoreCase("matrix")) {
+            throw new MatrixMarketFormatException("Line 1: Missing Matrix Market banner.");
+        }
+        if (words[2].equalsIgnoreCase("coordinate")) {
+            coordinate = true;
+        } else if (words[2].equalsIgnoreCase("array")) {
+            coordinate = false;
+        } else {
+            throw new MatrixMarketFormatException("Line 1: Unsupported format " + words[2] + ".");
+        }
+        if (words[3].equalsIgnoreCase("pattern") && coordinate) {
+            pattern = true;
+        } else if (words[3].equalsIgnoreCase("real") || words[3].equalsIgnoreCase("integer")) {
+            pattern = false;
+        } else {
+            throw new MatrixMarketFormatException("Line 1: Unsupported field " + words[3] + ".");
+        }
+        symmetry = MatrixMarketSymmetry.of(words[4]);
+        if (symmetry == null) {
+            throw new MatrixMarketFormatException("Line 1: Unsupported symmetry " + words[4] + ".");
+        }
+
+        String sizeLine = tokenizer.nextLine();
+        while (sizeLine != null && (sizeLine.startsWith("%") || sizeLine.trim().isEmpty())) {
+            sizeLine = tokenizer.nextLine();
+        }
+        if (sizeLine == null) {
+            throw tokenizer.error("Missing size line.");
+        }
+        String[] size = sizeLine.trim().split(TransformationUtils.WHITE_SPACE_CHARACTERS_REGEX);
+        try {
+            if (size.length != (coordinate ? 3 : 2)) {
+                throw new NumberFormatException();
+            }
+            rows = Integer.parseInt(size[0]);
+            columns = Integer.parseInt(size[1]);
+            if (rows < 1 || columns < 1 || symmetry != MatrixMarketSymmetry.GENERAL && rows != columns) {
+                throw new NumberFormatException();
+            }
+            entries = coordinate ? Long.parseLong(size[2]) : arrayEntries();
+            if (entries < 0) {
+                throw new NumberFormatException();
+            }
+        } catch (NumberFormatException e) {
+            throw new MatrixMarketFormatException("Line " + (tokenizer.getLine() - 1) + ": Invalid size line.");
+        }
+        dataStart = tokenizer.position();
+        dataLine = tokenizer.getLine();
+    }
+
+    /**
+     * Opens a file and reads its header.
+     *
+     * @param path Path of the file.
+     * @return Reader positioned at the first entry.
+     * @throws IOException                 when the file cannot be read.
+     * @throws MatrixMarketFormatException when header is malformed or unsupported.
+     */
+    public static MatrixMarketReader open(Path path) throws IOException, MatrixMarketFormatException {
+        MatrixMarketTokenizer tokenizer = new MatrixMarketTokenizer(path);
+        try {
+            return new MatrixMarketReader(tokenizer);
+        } catch (IOException | MatrixMarketFormatException | RuntimeException e) {
+            tokenizer.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns number of values stored in array format.
+     *
+     * @return Number of stored values.
+     */
+    private long arrayEntries() {
+        long n = rows;
+        switch (symmetry) {
+            case SYMMETRIC:
+                return n * (n + 1) / 2;
+            case SKEW_SYMMETRIC:
+                return n * (n - 1) / 2;
+            default:
+                return n * columns;
+        }
+    }
+
+    /**
+     * Checks if file uses coordinate format.
+     *
+     * @return True for coordinate format, false for array format.
+     */
+    public boolean isCoordinate() {
+        return coordinate;
+    }
+
+    /**
+     * Checks if file stores only positions of elements.
+     *
+     * @return True for pattern field.
+     */
+    public boolean isPattern() {
+        return pattern;
+    }
+
+    /**
+     * Returns declared symmetry.
+     *
+     * @return Symmetry.
+     */
+    public MatrixMarketSymmetry getSymmetry() {
+        return symmetry;
+    }
+
+    /**
+     * Returns number of rows.
+     *
+     * @return Number of rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns number of columns.
+     *
+     * @return Number of columns.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns number of entries stored in the file.
+     *
+     * @return Number of entries, mirrored elements of symmetric matrices are not counted.
+     */
+    public long getEntries() {
+        return entries;
+    }
+
+    /**
+     * Reads the matrix in compressed sparse row format, zeros of array format are dropped.
+     * Column indices are sorted within rows.
+     *
+     * @return Sparse matrix.
+     * @throws IOException                 when reading fails.
+     * @throws MatrixMarketFormatException when entries are malformed or the matrix has too many elements.
+     */
+    public CSRMatrix readCSR() throws IOException, MatrixMarketFormatException {
+        long start = System.nanoTime();
+        int[] rowStart = new int[rows + 1];
+        scan((row, column, value) -> {
+            if (value != 0.0 || coordinate) {
+                rowStart[row + 1]++;
+            }
+        });
+        long total = 0;
+        for (int i = 0; i < rows; i++) {
+            total += rowStart[i + 1];
+            if (total > Integer.MAX_VALUE - 8) {
+                throw new MatrixMarketFormatException("Matrix has too many elements for compressed sparse row format.");
+            }
+            rowStart[i + 1] = (int) total;
+        }
+
+        int[] columnIndices = new int[(int) total];
+        double[] values = new double[(int) total];
+        int[] next = new int[rows];
+        System.arraycopy(rowStart, 0, next, 0, rows);
+        scan((row, column, value) -> {
+            if (value != 0.0 || coordinate) {
+                int p = next[row]++;
+                columnIndices[p] = column;
+                values[p] = value;
+            }
+        });
+        for (int i = 0; i < rows; i++) {
+            sortRow(columnIndices, values, rowStart[i], rowStart[i + 1] - 1);
+        }
+        SolverMetrics.record(Operation.PARSE, Math.max(rows, columns), System.nanoTime() - start, 0);
+        return new CSRMatrix(rows, columns, rowStart, columnIndices, values);
+    }
+
+    /**
+     * Reads the matrix into dense storage.
+     *
+     * @return Dense matrix.
+     * @throws IOException                 when reading fails.
+     * @throws MatrixMarketFormatException when entries are malformed.
+     */
+    public Matrix readMatrix() throws IOException, MatrixMarketFormatException {
+        long start = System.nanoTime();
+        double[][] data = new double[rows][columns];
+        scan((row, column, value) -> data[row][column] = value);
+        SolverMetrics.record(Operation.PARSE, Math.max(rows, columns), System.nanoTime() - start, 0);
+        return Matrix.wrap(data);
+    }
+
+    /**
+     * Reads a matrix with a single row or column as a vector.
+     *
+     * @return Vector.
+     * @throws IOException                 when reading fails.
+     * @throws MatrixMarketFormatException when entries are malformed or the matrix is not a vector.
+     */
+    public Vector readVector() throws IOException, MatrixMarketFormatException {
+        if (rows != 1 && columns != 1) {
+            throw new MatrixMarketFormatException("Matrix with " + rows + " rows and " + columns + " columns is not a vector.");
+        }
+        long start = System.nanoTime();
+        double[] data = new double[Math.max(rows, columns)];
+        scan((row, column, value) -> data[row + column] = value);
+        SolverMetrics.record(Operation.PARSE, data.length, System.nanoTime() - start, 0);
+        return Vector.wrap(data);
+    }
+
+    /**
+     * Reads all entries from the beginning of the data section, mirrored elements included.
+     *
+     * @param consumer Receiver of elements.
+     * @throws IOException                 when reading fails.
+     * @throws MatrixMarketFormatException when entries are malformed.
+     */
+    private void scan(EntryConsumer consumer) throws IOException, MatrixMarketFormatException {
+        tokenizer.seek(dataStart, dataLine);
+        int row = coordinate || symmetry != MatrixMarketSymmetry.SKEW_SYMMETRIC ? 0 : 1;
+        int column = 0;
+        for (long k = 0; k < entries; k++) {
+            double value;
+            if (coordinate) {
+                row = tokenizer.nextIndex(rows);
+                column = tokenizer.nextIndex(columns);
+                value = pattern ? 1.0 : tokenizer.nextDouble();
+            } else {
+                value = tokenizer.nextDouble();
+            }
+            if (row == column && symmetry == MatrixMarketSymmetry.SKEW_SYMMETRIC) {
+                throw tokenizer.error("Skew-symmetric matrix has an element on the diagonal.");
+            }
+            consumer.accept(row, column, value);
+            if (row != column) {
+                if (symmetry == MatrixMarketSymmetry.SYMMETRIC) {
+                    consumer.accept(column, row, value);
+                } else if (symmetry == MatrixMarketSymmetry.SKEW_SYMMETRIC) {
+                    consumer.accept(column, row, -value);
+                }
+            }
+            if (!coordinate) {
+                row++;
+                if (row == rows) {
+                    column++;
+                    row = symmetry == MatrixMarketSymmetry.GENERAL ? 0
+                            : symmetry == MatrixMarketSymmetry.SYMMETRIC ? column : column + 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sorts elements of a row by column index.
+     *
+     * @param columns Column indices.
+     * @param values  Values.
+     * @param low     First element of the row.
+     * @param high    Last element of the row.
+     */
+    private static void sortRow(int[] columns, double[] values, int low, int high) {
+        while (high - low > 16) {
+            int pivot = columns[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (columns[i] < pivot) {
+                    i++;
+                }
+                while (columns[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(columns, values, i++, j--);
+                }
+            }
+            if (j - low < high - i) {
+                sortRow(columns, values, low, j);
+                low = i;
+            } else {
+                sortRow(columns, values, i, high);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            for (int j = i; j > low && columns[j - 1] > columns[j]; j--) {
+                swap(columns, values, j - 1, j);
+            }
+        }
+    }
+
+    /**
+     * Swaps two elements.
+     *
+     * @param columns Column indices.
+     * @param values  Values.
+     * @param i       First element.
+     * @param j       Second element.
+     */
+    private static void swap(int[] columns, double[] values, int i, int j) {
+        int column = columns[i];
+        columns[i] = columns[j];
+        columns[j] = column;
+        double value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException when closing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        tokenizer.close();
+    }
+}
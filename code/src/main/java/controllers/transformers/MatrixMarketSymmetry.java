@@ -0,0 +1,62 @@
+package controllers.transformers;
+
+/**
+ * Symmetry declared in the header of a Matrix Market file.
+ *
+ * @see MatrixMarketReader
+ * @see MatrixMarketWriter
+ */
+public enum MatrixMarketSymmetry {
+    /**
+     * All elements are stored.
+     */
+    GENERAL("general"),
+
+    /**
+     * Only the lower triangle is stored, a(j, i) = a(i, j).
+     */
+    SYMMETRIC("symmetric"),
+
+    /**
+     * Only the strictly lower triangle is stored, a(j, i) = -a(i, j) and the diagonal is zero.
+     */
+    SKEW_SYMMETRIC("skew-symmetric");
+
+    /**
+     * Keyword of the header.
+     */
+    private final String keyword;
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param keyword Keyword of the header.
+     */
+    MatrixMarketSymmetry(String keyword) {
+        this.keyword = keyword;
+    }
+
+    /**
+     * Returns keyword of the header.
+     *
+     * @return Keyword.
+     */
+    public String getKeyword() {
+        return keyword;
+    }
+
+    /**
+     * Finds symmetry by keyword of the header.
+     *
+     * @param keyword Keyword, case insensitive.
+     * @return Symmetry or null when keyword is not supported.
+     */
+    static MatrixMarketSymmetry of(String keyword) {
+        for (MatrixMarketSymmetry symmetry : values()) {
+            if (symmetry.keyword.equalsIgnoreCase(keyword)) {
+                return symmetry;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,266 @@
+package controllers.transformers;
+
+import controllers.exceptions.MatrixMarketFormatException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads lines and numbers of a Matrix Market file through a fixed size NIO buffer.
+ * Integers are parsed directly from bytes, memory use does not depend on size of the file.
+ *
+ * @see MatrixMarketReader
+ */
+final class MatrixMarketTokenizer implements Closeable {
+    /**
+     * Size of the read buffer.
+     */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Maximal length of a number token.
+     */
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    /**
+     * Channel of the file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Read buffer.
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /**
+     * Characters of the current number token.
+     */
+    private final char[] token = new char[MAX_TOKEN_LENGTH];
+
+    /**
+     * Number of the current line, starting from 1.
+     */
+    private long line = 1;
+
+    /**
+     * Opens the file.
+     *
+     * @param path Path of the file.
+     * @throws IOException when the file cannot be opened.
+     */
+    MatrixMarketTokenizer(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        buffer.flip();
+    }
+
+    /**
+     * Returns next byte.
+     *
+     * @return Next byte or -1 at the end of the file.
+     * @throws IOException when reading fails.
+     */
+    private int read() throws IOException {
+        if (!buffer.hasRemaining()) {
+            buffer.clear();
+            int count;
+            do {
+                count = channel.read(buffer);
+            } while (count == 0);
+            buffer.flip();
+            if (count < 0) {
+                return -1;
+            }
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    /**
+     * Returns next byte without consuming it.
+     *
+     * @return Next byte or -1 at the end of the file.
+     * @throws IOException when reading fails.
+     */
+    private int peek() throws IOException {
+        int c = read();
+        if (c >= 0) {
+            buffer.position(buffer.position() - 1);
+        }
+        return c;
+    }
+
+    /**
+     * Returns position of the next byte in the file.
+     *
+     * @return Byte offset.
+     * @throws IOException when reading the position fails.
+     */
+    long position() throws IOException {
+        return channel.position() - buffer.remaining();
+    }
+
+    /**
+     * Moves to the given position.
+     *
+     * @param position   Byte offset.
+     * @param lineNumber Number of the line at the position.
+     * @throws IOException when moving fails.
+     */
+    void seek(long position, long lineNumber) throws IOException {
+        channel.position(position);
+        buffer.clear();
+        buffer.flip();
+        line = lineNumber;
+    }
+
+    /**
+     * Returns number of the current line.
+     *
+     * @return Line number starting from 1.
+     */
+    long getLine() {
+        return line;
+    }
+
+    /**
+     * Reads the rest of the current line.
+     *
+     * @return Line without the line terminator or null at the end of the file.
+     * @throws IOException when reading fails.
+     */
+    String nextLine() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        int c = read();
+        if (c < 0) {
+            return null;
+        }
+        while (c >= 0 && c != '\n') {
+            if (c != '\r') {
+                builder.append((char) c);
+            }
+            c = read();
+        }
+        line++;
+        return builder.toString();
+    }
+
+    /**
+     * Skips white space, empty lines included.
+     *
+     * @return True when a token follows, false at the end of the file.
+     * @throws IOException when reading fails.
+     */
+    private boolean skipWhiteSpace() throws IOException {
+        int c = peek();
+        while (c == ' ' || c == '\t' || c == '\r' || c == '\n') {
+            read();
+            if (c == '\n') {
+                line++;
+            }
+            c = peek();
+        }
+        return c >= 0;
+    }
+
+    /**
+     * Reads the next token into the token buffer.
+     *
+     * @return Length of the token.
+     * @throws IOException                 when reading fails.
+     * @throws MatrixMarketFormatException when the file ends or the token is too long.
+     */
+    private int nextToken() throws IOException, MatrixMarketFormatException {
+        if (!skipWhiteSpace()) {
+            throw error("Unexpected end of file.");
+        }
+        int length = 0;
+        int c = peek();
+        while (c >= 0 && c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+            if (length == MAX_TOKEN_LENGTH) {
+                throw error("Number is too long.");
+            }
+            token[length++] = (char) read();
+            c = peek();
+        }
+        return length;
+    }
+
+    /**
+     * Reads the next integer.
+     *
+     * @return Integer value.
+     * @throws IOException                 when reading fails.
+     * @throws MatrixMarketFormatException when the token is not an integer.
+     */
+    long nextLong() throws IOException, MatrixMarketFormatException {
+        int length = nextToken();
+        int i = token[0] == '-' || token[0] == '+' ? 1 : 0;
+        if (i == length) {
+            throw error("Expected an integer.");
+        }
+        long value = 0;
+        for (; i < length; i++) {
+            char c = token[i];
+            if (c < '0' || c > '9' || value > (Long.MAX_VALUE - 9) / 10) {
+                throw error("Expected an integer.");
+            }
+            value = value * 10 + (c - '0');
+        }
+        return token[0] == '-' ? -value : value;
+    }
+
+    /**
+     * Reads the next integer that must be an index from 1 to limit.
+     *
+     * @param limit Largest allowed value.
+     * @return Zero based index.
+     * @throws IOException                 when reading fails.
+     * @throws MatrixMarketFormatException when the token is not a valid index.
+     */
+    int nextIndex(int limit) throws IOException, MatrixMarketFormatException {
+        long value = nextLong();
+        if (value < 1 || value > limit) {
+            throw error("Index " + value + " is out of range.");
+        }
+        return (int) (value - 1);
+    }
+
+    /**
+     * Reads the next real number.
+     *
+     * @return Value.
+     * @throws IOException                 when reading fails.
+     * @throws MatrixMarketFormatException when the token is not a number.
+     */
+    double nextDouble() throws IOException, MatrixMarketFormatException {
+        int length = nextToken();
+        try {
+            return Double.parseDouble(new String(token, 0, length));
+        } catch (NumberFormatException e) {
+            throw error("Expected a real number.");
+        }
+    }
+
+    /**
+     * Creates exception pointing at the current line.
+     *
+     * @param message Description of the error.
+     * @return Exception to throw.
+     */
+    MatrixMarketFormatException error(String message) {
+        return new MatrixMarketFormatException("Line " + line + ": " + message);
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException when closing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
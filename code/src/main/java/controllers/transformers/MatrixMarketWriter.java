@@ -0,0 +1,186 @@
+package controllers.transformers;
+
+import models.matrices.CSRMatrix;
+import models.matrices.Matrix;
+import models.vectors.Vector;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writer of Matrix Market files.
+ * Sparse matrices are written in coordinate format, dense matrices and vectors in array format.
+ * Elements are written one by one, values are printed with the shortest representation that reads back exactly.
+ *
+ * @see MatrixMarketReader
+ */
+public final class MatrixMarketWriter {
+    /**
+     * Utility class, not instantiated.
+     */
+    private MatrixMarketWriter() {
+    }
+
+    /**
+     * Writes sparse matrix in coordinate format.
+     *
+     * @param path     Path of the file.
+     * @param matrix   Sparse matrix.
+     * @param symmetry Symmetry to declare, elements above the diagonal are not written for symmetric matrices.
+     * @throws IOException when writing fails.
+     */
+    public static void write(Path path, CSRMatrix matrix, MatrixMarketSymmetry symmetry) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.US_ASCII)) {
+            write(writer, matrix, symmetry);
+        }
+    }
+
+    /**
+     * Writes sparse matrix in coordinate format.
+     * Matrix is not checked for the declared symmetry.
+     *
+     * @param writer   Output.
+     * @param matrix   Sparse matrix.
+     * @param symmetry Symmetry to declare, elements above the diagonal are not written for symmetric matrices.
+     * @throws IOException when writing fails.
+     */
+    public static void write(Writer writer, CSRMatrix matrix, MatrixMarketSymmetry symmetry) throws IOException {
+        checkSquare(matrix.getRows(), matrix.getColumns(), symmetry);
+        int[] rowStart = matrix.getRowStart();
+        int[] columns = matrix.getColumnIndices();
+        double[] values = matrix.getValues();
+        long entries = 0;
+        for (int i = 0; i < matrix.getRows(); i++) {
+            for (int p = rowStart[i]; p < rowStart[i + 1]; p++) {
+                if (isStored(i, columns[p], symmetry)) {
+                    entries++;
+                }
+            }
+        }
+        writer.write(header("coordinate", symmetry));
+        writer.write(matrix.getRows() + " " + matrix.getColumns() + " " + entries + "\n");
+        for (int i = 0; i < matrix.getRows(); i++) {
+            for (int p = rowStart[i]; p < rowStart[i + 1]; p++) {
+                if (isStored(i, columns[p], symmetry)) {
+                    writer.write((i + 1) + " " + (columns[p] + 1) + " " + Double.toString(values[p]) + "\n");
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes dense matrix in array format.
+     *
+     * @param path     Path of the file.
+     * @param matrix   Dense matrix.
+     * @param symmetry Symmetry to declare.
+     * @throws IOException              when writing fails.
+     * @throws IllegalArgumentException when matrix does not have the declared symmetry.
+     */
+    public static void write(Path path, Matrix matrix, MatrixMarketSymmetry symmetry) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.US_ASCII)) {
+            write(writer, matrix, symmetry);
+        }
+    }
+
+    /**
+     * Writes dense matrix in array format, column by column.
+     *
+     * @param writer   Output.
+     * @param matrix   Dense matrix.
+     * @param symmetry Symmetry to declare.
+     * @throws IOException              when writing fails.
+     * @throws IllegalArgumentException when matrix does not have the declared symmetry.
+     */
+    public static void write(Writer writer, Matrix matrix, MatrixMarketSymmetry symmetry) throws IOException {
+        int rows = matrix.getRows();
+        int columns = matrix.getColumns();
+        checkSquare(rows, columns, symmetry);
+        for (int i = 0; i < rows && symmetry != MatrixMarketSymmetry.GENERAL; i++) {
+            for (int j = 0; j <= i; j++) {
+                double mirrored = symmetry == MatrixMarketSymmetry.SYMMETRIC ? matrix.getAt(j, i) : -matrix.getAt(j, i);
+                if (matrix.getAt(i, j) != mirrored) {
+                    throw new IllegalArgumentException("Matrix is not " + symmetry.getKeyword() + ".");
+                }
+            }
+        }
+        writer.write(header("array", symmetry));
+        writer.write(rows + " " + columns + "\n");
+        for (int j = 0; j < columns; j++) {
+            for (int i = 0; i < rows; i++) {
+                if (isStored(i, j, symmetry)) {
+                    writer.write(Double.toString(matrix.getAt(i, j)));
+                    writer.write('\n');
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes vector as a single column matrix in array format.
+     *
+     * @param path   Path of the file.
+     * @param vector Vector.
+     * @throws IOException when writing fails.
+     */
+    public static void write(Path path, Vector vector) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.US_ASCII)) {
+            writer.write(header("array", MatrixMarketSymmetry.GENERAL));
+            writer.write(vector.getSize() + " 1\n");
+            for (int i = 0; i < vector.getSize(); i++) {
+                writer.write(Double.toString(vector.getAt(i)));
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Checks if element is stored for the symmetry.
+     *
+     * @param row      Row of the element.
+     * @param column   Column of the element.
+     * @param symmetry Declared symmetry.
+     * @return True when element is written.
+     */
+    private static boolean isStored(int row, int column, MatrixMarketSymmetry symmetry) {
+        switch (symmetry) {
+            case SYMMETRIC:
+                return row >= column;
+            case SKEW_SYMMETRIC:
+                return row > column;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Checks if symmetric matrix is square.
+     *
+     * @param rows     Number of rows.
+     * @param columns  Number of columns.
+     * @param symmetry Declared symmetry.
+     * @throws IllegalArgumentException when symmetric matrix is not square.
+     */
+    private static void checkSquare(int rows, int columns, MatrixMarketSymmetry symmetry) {
+        if (symmetry != MatrixMarketSymmetry.GENERAL && rows != columns) {
+            throw new IllegalArgumentException("Symmetric matrix must be square.");
+        }
+    }
+
+    /**
+     * Creates banner line.
+     *
+     * @param format   Format keyword.
+     * @param symmetry Declared symmetry.
+     * @return Banner with a line terminator.
+     */
+    private static String header(String format, MatrixMarketSymmetry symmetry) {
+        return MatrixMarketReader.BANNER + " matrix " + format + " real " + symmetry.getKeyword() + "\n";
+    }
+}
@@ -4,6 +4,10 @@ import controllers.exceptions.MatrixExtractionException;
 import controllers.exceptions.NotEqualAmountOfColumnsInMatrixException;
 import controllers.exceptions.VectorExtractionException;
 import models.matrices.Matrix;
+import models.monitoring.Operation;
+import models.monitoring.SolverMetrics;
+import models.monitoring.events.ParseEvent;
+import models.monitoring.events.SolverEvent;
 import models.vectors.Vector;
 
 /**
@@ -36,7 +40,9 @@ public class TransformationUtils {
      * @throws MatrixExtractionException                when elements are not real numbers.
      */
     public static Matrix transformToMatrix(String matrix) throws MatrixExtractionException, NotEqualAmountOfColumnsInMatrixException {
-
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        long start = System.nanoTime();
         String[] rows = matrix.trim().split(ROW_SEPARATOR_REGEX);
         double[][] data = new double[rows.length][rows[0].split(WHITE_SPACE_CHARACTERS_REGEX).length];
 
@@ -55,7 +61,17 @@ public class TransformationUtils {
             }
         }
 
-        return new Matrix(data);
+        Matrix result = Matrix.wrap(data);
+        SolverMetrics.record(Operation.PARSE, Math.max(rows.length, data[0].length), System.nanoTime() - start, 0);
+        event.end();
+        if (event.shouldCommit()) {
+            event.rows = rows.length;
+            event.columns = data[0].length;
+            event.characters = matrix.length();
+            event.allocationEstimate = 4L * matrix.length() + SolverEvent.matrixBytes(rows.length, data[0].length);
+            event.commit();
+        }
+        return result;
     }
 
     /**
@@ -67,6 +83,9 @@ public class TransformationUtils {
      * @throws VectorExtractionException when elements of vector are not real numbers.
      */
     public static Vector transformToVector(String vector) throws VectorExtractionException {
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        long start = System.nanoTime();
         String[] values = vector.trim().split(WHITE_SPACE_CHARACTERS_REGEX);
         double[] data = new double[values.length];
         for (int i = 0; i < values.length; i++) {
@@ -77,6 +96,16 @@ public class TransformationUtils {
             }
         }
 
-        return new Vector(data);
+        Vector result = Vector.wrap(data);
+        SolverMetrics.record(Operation.PARSE, data.length, System.nanoTime() - start, 0);
+        event.end();
+        if (event.shouldCommit()) {
+            event.rows = 1;
+            event.columns = data.length;
+            event.characters = vector.length();
+            event.allocationEstimate = 4L * vector.length() + 16L * data.length + 32;
+            event.commit();
+        }
+        return result;
     }
 }
@@ -0,0 +1,163 @@
+package models.distributed;
+
+/**
+ * Two dimensional block-cyclic distribution of a square matrix over a grid of processes.
+ * Block (bi, bj) belongs to process (bi mod processRows, bj mod processColumns),
+ * processes are ranked row by row.
+ *
+ * @see DistributedLUDecomposition
+ */
+public final class BlockCyclicLayout {
+    /**
+     * Dimension of the matrix.
+     */
+    private final int n;
+
+    /**
+     * Number of rows and columns of a full block.
+     */
+    private final int blockSize;
+
+    /**
+     * Number of rows of the process grid.
+     */
+    private final int processRows;
+
+    /**
+     * Number of columns of the process grid.
+     */
+    private final int processColumns;
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param n              Dimension of the matrix.
+     * @param blockSize      Number of rows and columns of a full block.
+     * @param processRows    Number of rows of the process grid.
+     * @param processColumns Number of columns of the process grid.
+     */
+    public BlockCyclicLayout(int n, int blockSize, int processRows, int processColumns) {
+        if (n < 1 || blockSize < 1 || processRows < 1 || processColumns < 1) {
+            throw new IllegalArgumentException("Layout parameters must be positive.");
+        }
+        this.n = n;
+        this.blockSize = blockSize;
+        this.processRows = processRows;
+        this.processColumns = processColumns;
+    }
+
+    /**
+     * Returns dimension of the matrix.
+     *
+     * @return Dimension of the matrix.
+     */
+    public int getDimension() {
+        return n;
+    }
+
+    /**
+     * Returns number of rows and columns of a full block.
+     *
+     * @return Block size.
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Returns number of rows of the process grid.
+     *
+     * @return Number of process rows.
+     */
+    public int getProcessRows() {
+        return processRows;
+    }
+
+    /**
+     * Returns number of columns of the process grid.
+     *
+     * @return Number of process columns.
+     */
+    public int getProcessColumns() {
+        return processColumns;
+    }
+
+    /**
+     * Returns number of processes.
+     *
+     * @return Number of processes.
+     */
+    public int getProcesses() {
+        return processRows * processColumns;
+    }
+
+    /**
+     * Returns number of block rows, equal to number of block columns.
+     *
+     * @return Number of blocks along one dimension.
+     */
+    public int getBlocks() {
+        return (n + blockSize - 1) / blockSize;
+    }
+
+    /**
+     * Returns first row or column of a block.
+     *
+     * @param block Index of block row or column.
+     * @return First global index.
+     */
+    public int firstIndexOf(int block) {
+        return block * blockSize;
+    }
+
+    /**
+     * Returns number of rows or columns of a block, the last block may be smaller.
+     *
+     * @param block Index of block row or column.
+     * @return Size of the block.
+     */
+    public int sizeOf(int block) {
+        return Math.min(blockSize, n - block * blockSize);
+    }
+
+    /**
+     * Returns block containing a row or column.
+     *
+     * @param index Global row or column.
+     * @return Index of block row or column.
+     */
+    public int blockOf(int index) {
+        return index / blockSize;
+    }
+
+    /**
+     * Returns rank of the process owning a block.
+     *
+     * @param blockRow    Index of block row.
+     * @param blockColumn Index of block column.
+     * @return Rank of the owner.
+     */
+    public int ownerOf(int blockRow, int blockColumn) {
+        return (blockRow % processRows) * processColumns + blockColumn % processColumns;
+    }
+
+    /**
+     * Returns process row of a rank.
+     *
+     * @param rank Rank of the process.
+     * @return Row of the process grid.
+     */
+    public int processRowOf(int rank) {
+        return rank / processColumns;
+    }
+
+    /**
+     * Returns process column of a rank.
+     *
+     * @param rank Rank of the process.
+     * @return Column of the process grid.
+     */
+    public int processColumnOf(int rank) {
+        return rank % processColumns;
+    }
+}
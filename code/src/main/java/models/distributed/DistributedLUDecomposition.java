@@ -0,0 +1,645 @@
+package models.distributed;
+
+import models.exceptions.InvalidMatrixSizesException;
+import models.exceptions.NonSquareMatrixException;
+import models.exceptions.SingularMatrixException;
+import models.matrices.Matrix;
+import models.monitoring.Operation;
+import models.monitoring.SolverMetrics;
+import models.vectors.Vector;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Right-looking block LU decomposition with partial pivoting distributed over worker processes.
+ * The matrix is scattered in 2D block-cyclic layout. For every block column the coordinator gathers
+ * and factorizes the panel, broadcasts row interchanges, the diagonal block and the panel to the workers,
+ * which perform triangular solves and trailing updates on their own blocks in parallel.
+ * Triangular solves run block by block, products with off-diagonal blocks are computed by their owners.
+ * The coordinator keeps only diagonal blocks and one panel, O(n * blockSize) elements.
+ *
+ * @see BlockCyclicLayout
+ * @see DistributedWorker
+ */
+public final class DistributedLUDecomposition implements AutoCloseable {
+    /**
+     * Layout of the matrix.
+     */
+    private final BlockCyclicLayout layout;
+
+    /**
+     * Connections to workers ordered by rank.
+     */
+    private final List<Connection> workers;
+
+    /**
+     * Diagonal blocks with unit lower and upper factors.
+     */
+    private final double[][][] diagonal;
+
+    /**
+     * Pivot permutation vector.
+     */
+    private final int[] piv;
+
+    /**
+     * Pivot sign.
+     */
+    private int pivSign = 1;
+
+    /**
+     * Private constructor, use factorize().
+     *
+     * @param layout  Layout of the matrix.
+     * @param workers Connections to workers ordered by rank.
+     */
+    private DistributedLUDecomposition(BlockCyclicLayout layout, List<Connection> workers) {
+        this.layout = layout;
+        this.workers = workers;
+        this.diagonal = new double[layout.getBlocks()][][];
+        this.piv = new int[layout.getDimension()];
+        for (int i = 0; i < piv.length; i++) {
+            piv[i] = i;
+        }
+    }
+
+    /**
+     * Scatters the matrix over workers and factorizes it.
+     * Number of workers must be a multiple of processRows, factors stay on the workers until close.
+     *
+     * @param A           Square matrix.
+     * @param workers     Addresses of workers, rank is the position on the list.
+     * @param processRows Number of rows of the process grid.
+     * @param blockSize   Number of rows and columns of a block.
+     * @return Decomposition connected to the workers.
+     * @throws NonSquareMatrixException when matrix does not have a square shape.
+     * @throws IOException              when communication with a worker fails.
+     */
+    public static DistributedLUDecomposition factorize(Matrix A, List<InetSocketAddress> workers, int processRows, int blockSize)
+            throws NonSquareMatrixException, IOException {
+        if (!A.isSquare()) {
+            throw new NonSquareMatrixException();
+        }
+        if (workers.isEmpty() || processRows < 1 || workers.size() % processRows != 0) {
+            throw new IllegalArgumentException("Number of workers must be a positive multiple of process rows.");
+        }
+        BlockCyclicLayout layout = new BlockCyclicLayout(A.getRows(), blockSize, processRows, workers.size() / processRows);
+        List<Connection> connections = new ArrayList<>();
+        DistributedLUDecomposition decomposition = new DistributedLUDecomposition(layout, connections);
+        try {
+            for (InetSocketAddress address : workers) {
+                connections.add(new Connection(address));
+            }
+            long start = System.nanoTime();
+            decomposition.scatter(A);
+            decomposition.factorize();
+            SolverMetrics.record(Operation.FACTORIZE, A.getRows(), System.nanoTime() - start,
+                    SolverMetrics.factorizationFlops(A.getRows(), A.getColumns()));
+        } catch (IOException | RuntimeException e) {
+            decomposition.close();
+            throw e;
+        }
+        return decomposition;
+    }
+
+    /**
+     * Returns layout of the matrix.
+     *
+     * @return Layout of the matrix.
+     */
+    public BlockCyclicLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Returns pivot permutation vector.
+     *
+     * @return Pivot permutation vector.
+     */
+    public int[] getPivot() {
+        return piv.clone();
+    }
+
+    /**
+     * Calculates determinant from diagonal blocks.
+     *
+     * @return Determinant of the matrix.
+     */
+    public double det() {
+        double d = pivSign;
+        for (double[][] block : diagonal) {
+            for (int i = 0; i < block.length; i++) {
+                d *= block[i][i];
+            }
+        }
+        return d;
+    }
+
+    /**
+     * Checks if the matrix is non singular.
+     *
+     * @return Non singularity of matrix. When there is no zeros at diagonal.
+     */
+    public boolean isNonSingular() {
+        for (double[][] block : diagonal) {
+            for (int i = 0; i < block.length; i++) {
+                if (block[i][i] == 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Solves linear system Ax = b with distributed forward and backward substitution.
+     *
+     * @param B Right hand-side vector.
+     * @return Solution for linear system.
+     * @throws InvalidMatrixSizesException when size of the vector is not correct.
+     * @throws SingularMatrixException     when matrix is singular.
+     * @throws IOException                 when communication with a worker fails.
+     */
+    public Vector solve(Vector B) throws InvalidMatrixSizesException, SingularMatrixException, IOException {
+        int n = layout.getDimension();
+        if (B.getSize() != n) {
+            throw new InvalidMatrixSizesException();
+        }
+        if (!isNonSingular()) {
+            throw new SingularMatrixException();
+        }
+        long start = System.nanoTime();
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = B.getAt(piv[i]);
+        }
+        int blocks = layout.getBlocks();
+
+        // Solve L*Y = B(piv)
+        for (int k = 0; k < blocks; k++) {
+            int k0 = layout.firstIndexOf(k);
+            double[][] d = diagonal[k];
+            for (int i = 1; i < d.length; i++) {
+                for (int c = 0; c < i; c++) {
+                    x[k0 + i] -= d[i][c] * x[k0 + c];
+                }
+            }
+            if (k + 1 < blocks) {
+                subtractProducts(Protocol.FORWARD, k, x);
+            }
+        }
+
+        // Solve U*X = Y
+        for (int k = blocks - 1; k >= 0; k--) {
+            int k0 = layout.firstIndexOf(k);
+            double[][] d = diagonal[k];
+            for (int i = d.length - 1; i >= 0; i--) {
+                for (int c = i + 1; c < d.length; c++) {
+                    x[k0 + i] -= d[i][c] * x[k0 + c];
+                }
+                x[k0 + i] /= d[i][i];
+            }
+            if (k > 0) {
+                subtractProducts(Protocol.BACKWARD, k, x);
+            }
+        }
+        SolverMetrics.record(Operation.SOLVE, n, System.nanoTime() - start, SolverMetrics.solveFlops(n, 1));
+        return Vector.wrap(x);
+    }
+
+    /**
+     * Ends sessions on all workers, their blocks are released.
+     */
+    @Override
+    public void close() {
+        for (Connection worker : workers) {
+            worker.close();
+        }
+    }
+
+    /**
+     * Sends layout to workers and stores every block on its owner.
+     *
+     * @param A Square matrix.
+     * @throws IOException when communication with a worker fails.
+     */
+    private void scatter(Matrix A) throws IOException {
+        for (int rank = 0; rank < workers.size(); rank++) {
+            DataOutputStream out = workers.get(rank).out;
+            out.writeByte(Protocol.INIT);
+            out.writeInt(layout.getDimension());
+            out.writeInt(layout.getBlockSize());
+            out.writeInt(layout.getProcessRows());
+            out.writeInt(layout.getProcessColumns());
+            out.writeInt(rank);
+        }
+        double[][] a = A.getData();
+        for (int bi = 0; bi < layout.getBlocks(); bi++) {
+            for (int bj = 0; bj < layout.getBlocks(); bj++) {
+                DataOutputStream out = workers.get(layout.ownerOf(bi, bj)).out;
+                out.writeByte(Protocol.PUT_BLOCK);
+                out.writeInt(bi);
+                out.writeInt(bj);
+                int j0 = layout.firstIndexOf(bj);
+                for (int i = layout.firstIndexOf(bi); i < layout.firstIndexOf(bi) + layout.sizeOf(bi); i++) {
+                    Protocol.writeDoubles(out, a[i], j0, layout.sizeOf(bj));
+                }
+            }
+        }
+        flushAll();
+    }
+
+    /**
+     * Factorizes the scattered matrix block column by block column.
+     *
+     * @throws IOException when communication with a worker fails.
+     */
+    private void factorize() throws IOException {
+        int blocks = layout.getBlocks();
+        for (int k = 0; k < blocks; k++) {
+            double[][] panel = gatherPanel(k);
+            List<int[]> swaps = factorizePanel(k, panel);
+            scatterPanel(k, panel);
+            if (!swaps.isEmpty()) {
+                interchangeRows(k, swaps);
+            }
+            if (k + 1 < blocks) {
+                double[][][] upper = solveBlockRow(k);
+                updateTrailing(k, panel, upper);
+            }
+        }
+    }
+
+    /**
+     * Gathers block column k from the diagonal down.
+     *
+     * @param k Index of block column.
+     * @return Rows of the panel.
+     * @throws IOException when communication with a worker fails.
+     */
+    private double[][] gatherPanel(int k) throws IOException {
+        int blocks = layout.getBlocks();
+        for (int bi = k; bi < blocks; bi++) {
+            DataOutputStream out = workers.get(layout.ownerOf(bi, k)).out;
+            out.writeByte(Protocol.GET_BLOCK);
+            out.writeInt(bi);
+            out.writeInt(k);
+        }
+        flushAll();
+        int w = layout.sizeOf(k);
+        double[][] panel = new double[layout.getDimension() - layout.firstIndexOf(k)][];
+        for (int bi = k; bi < blocks; bi++) {
+            double[][] block = Protocol.readBlock(workers.get(layout.ownerOf(bi, k)).in, layout.sizeOf(bi), w);
+            System.arraycopy(block, 0, panel, layout.firstIndexOf(bi) - layout.firstIndexOf(k), block.length);
+        }
+        return panel;
+    }
+
+    /**
+     * Factorizes the panel with partial pivoting, pivots are chosen like in LUDecomposition.
+     *
+     * @param k     Index of block column.
+     * @param panel Rows of the panel, overwritten with factors.
+     * @return Performed interchanges of global rows in order.
+     */
+    private List<int[]> factorizePanel(int k, double[][] panel) {
+        int k0 = layout.firstIndexOf(k);
+        int w = layout.sizeOf(k);
+        List<int[]> swaps = new ArrayList<>();
+        for (int c = 0; c < w; c++) {
+            int p = c;
+            for (int r = c + 1; r < panel.length; r++) {
+                if (Math.abs(panel[r][c]) > Math.abs(panel[p][c])) {
+                    p = r;
+                }
+            }
+            if (p != c) {
+                double[] row = panel[p];
+                panel[p] = panel[c];
+                panel[c] = row;
+                int t = piv[k0 + p];
+                piv[k0 + p] = piv[k0 + c];
+                piv[k0 + c] = t;
+                pivSign = -pivSign;
+                swaps.add(new int[]{k0 + c, k0 + p});
+            }
+            double pivot = panel[c][c];
+            for (int r = c + 1; r < panel.length; r++) {
+                double[] row = panel[r];
+                if (pivot != 0.0) {
+                    row[c] /= pivot;
+                }
+                double l = row[c];
+                if (l != 0.0) {
+                    for (int j = c + 1; j < w; j++) {
+                        row[j] -= l * panel[c][j];
+                    }
+                }
+            }
+        }
+        double[][] block = new double[w][];
+        for (int i = 0; i < w; i++) {
+            block[i] = panel[i].clone();
+        }
+        diagonal[k] = block;
+        return swaps;
+    }
+
+    /**
+     * Stores factorized panel back on its owners.
+     *
+     * @param k     Index of block column.
+     * @param panel Rows of the panel.
+     * @throws IOException when communication with a worker fails.
+     */
+    private void scatterPanel(int k, double[][] panel) throws IOException {
+        int w = layout.sizeOf(k);
+        for (int bi = k; bi < layout.getBlocks(); bi++) {
+            DataOutputStream out = workers.get(layout.ownerOf(bi, k)).out;
+            out.writeByte(Protocol.PUT_BLOCK);
+            out.writeInt(bi);
+            out.writeInt(k);
+            Protocol.writeBlock(out, panel, layout.firstIndexOf(bi) - layout.firstIndexOf(k), layout.sizeOf(bi), w);
+        }
+    }
+
+    /**
+     * Applies row interchanges of the panel to all other block columns.
+     * Affected rows are gathered from their owners, permuted and stored back.
+     *
+     * @param k     Index of block column of the panel.
+     * @param swaps Interchanges of global rows in order.
+     * @throws IOException when communication with a worker fails.
+     */
+    private void interchangeRows(int k, List<int[]> swaps) throws IOException {
+        TreeSet<Integer> affected = new TreeSet<>();
+        for (int[] swap : swaps) {
+            affected.add(swap[0]);
+            affected.add(swap[1]);
+        }
+        List<List<Integer>> rowsOf = new ArrayList<>();
+        for (int rank = 0; rank < workers.size(); rank++) {
+            List<Integer> rows = new ArrayList<>();
+            for (int row : affected) {
+                if (layout.processRowOf(rank) == layout.blockOf(row) % layout.getProcessRows()) {
+                    rows.add(row);
+                }
+            }
+            rowsOf.add(rows);
+            if (!rows.isEmpty()) {
+                writeRowsHeader(workers.get(rank).out, Protocol.GET_ROWS, k, rows);
+            }
+        }
+        flushAll();
+
+        int n = layout.getDimension();
+        Map<Integer, double[]> full = new HashMap<>();
+        for (int row : affected) {
+            full.put(row, new double[n]);
+        }
+        for (int rank = 0; rank < workers.size(); rank++) {
+            DataInputStream in = workers.get(rank).in;
+            for (int row : rowsOf.get(rank)) {
+                for (int bj : columnsOf(rank, k)) {
+                    Protocol.readDoubles(in, full.get(row), layout.firstIndexOf(bj), layout.sizeOf(bj));
+                }
+            }
+        }
+
+        for (int[] swap : swaps) {
+            double[] row = full.get(swap[0]);
+            full.put(swap[0], full.get(swap[1]));
+            full.put(swap[1], row);
+        }
+
+        for (int rank = 0; rank < workers.size(); rank++) {
+            List<Integer> rows = rowsOf.get(rank);
+            if (rows.isEmpty()) {
+                continue;
+            }
+            DataOutputStream out = workers.get(rank).out;
+            writeRowsHeader(out, Protocol.PUT_ROWS, k, rows);
+            for (int row : rows) {
+                for (int bj : columnsOf(rank, k)) {
+                    Protocol.writeDoubles(out, full.get(row), layout.firstIndexOf(bj), layout.sizeOf(bj));
+                }
+            }
+        }
+    }
+
+    /**
+     * Makes owners of block row k apply the inverse of the unit lower diagonal block, then gathers the row.
+     *
+     * @param k Index of the diagonal block.
+     * @return Blocks of U right of the diagonal block, indexed by block column.
+     * @throws IOException when communication with a worker fails.
+     */
+    private double[][][] solveBlockRow(int k) throws IOException {
+        int w = layout.sizeOf(k);
+        List<Connection> owners = new ArrayList<>();
+        for (int rank = 0; rank < workers.size(); rank++) {
+            if (layout.processRowOf(rank) == k % layout.getProcessRows()) {
+                DataOutputStream out = workers.get(rank).out;
+                out.writeByte(Protocol.TRSM);
+                out.writeInt(k);
+                Protocol.writeBlock(out, diagonal[k], 0, w, w);
+                owners.add(workers.get(rank));
+            }
+        }
+        flushAll();
+        for (Connection owner : owners) {
+            Protocol.readAck(owner.in);
+        }
+
+        int blocks = layout.getBlocks();
+        for (int bj = k + 1; bj < blocks; bj++) {
+            DataOutputStream out = workers.get(layout.ownerOf(k, bj)).out;
+            out.writeByte(Protocol.GET_BLOCK);
+            out.writeInt(k);
+            out.writeInt(bj);
+        }
+        flushAll();
+        double[][][] upper = new double[blocks][][];
+        for (int bj = k + 1; bj < blocks; bj++) {
+            upper[bj] = Protocol.readBlock(workers.get(layout.ownerOf(k, bj)).in, w, layout.sizeOf(bj));
+        }
+        return upper;
+    }
+
+    /**
+     * Broadcasts panel and block row k, every worker updates its trailing blocks.
+     *
+     * @param k     Index of the diagonal block.
+     * @param panel Rows of the factorized panel.
+     * @param upper Blocks of U right of the diagonal block.
+     * @throws IOException when communication with a worker fails.
+     */
+    private void updateTrailing(int k, double[][] panel, double[][][] upper) throws IOException {
+        int w = layout.sizeOf(k);
+        int k0 = layout.firstIndexOf(k);
+        int blocks = layout.getBlocks();
+        for (int rank = 0; rank < workers.size(); rank++) {
+            DataOutputStream out = workers.get(rank).out;
+            out.writeByte(Protocol.UPDATE);
+            out.writeInt(k);
+            for (int bi = k + 1; bi < blocks; bi++) {
+                if (bi % layout.getProcessRows() == layout.processRowOf(rank)) {
+                    Protocol.writeBlock(out, panel, layout.firstIndexOf(bi) - k0, layout.sizeOf(bi), w);
+                }
+            }
+            for (int bj = k + 1; bj < blocks; bj++) {
+                if (bj % layout.getProcessColumns() == layout.processColumnOf(rank)) {
+                    Protocol.writeBlock(out, upper[bj], 0, w, layout.sizeOf(bj));
+                }
+            }
+            out.flush();
+        }
+        for (Connection worker : workers) {
+            Protocol.readAck(worker.in);
+        }
+    }
+
+    /**
+     * Subtracts products of off-diagonal blocks of column k with the solved part of x.
+     *
+     * @param command FORWARD for blocks below, BACKWARD for blocks above the diagonal.
+     * @param k       Index of block column.
+     * @param x       Solution in progress.
+     * @throws IOException when communication with a worker fails.
+     */
+    private void subtractProducts(byte command, int k, double[] x) throws IOException {
+        int k0 = layout.firstIndexOf(k);
+        List<Integer> ranks = new ArrayList<>();
+        for (int rank = 0; rank < workers.size(); rank++) {
+            if (layout.processColumnOf(rank) == k % layout.getProcessColumns()) {
+                DataOutputStream out = workers.get(rank).out;
+                out.writeByte(command);
+                out.writeInt(k);
+                Protocol.writeDoubles(out, x, k0, layout.sizeOf(k));
+                out.flush();
+                ranks.add(rank);
+            }
+        }
+        for (int rank : ranks) {
+            DataInputStream in = workers.get(rank).in;
+            int processRow = layout.processRowOf(rank);
+            int first = command == Protocol.FORWARD ? k + 1 : 0;
+            int last = command == Protocol.FORWARD ? layout.getBlocks() : k;
+            for (int bi = first; bi < last; bi++) {
+                if (bi % layout.getProcessRows() != processRow) {
+                    continue;
+                }
+                for (int i = layout.firstIndexOf(bi); i < layout.firstIndexOf(bi) + layout.sizeOf(bi); i++) {
+                    x[i] -= in.readDouble();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns block columns owned by a worker, except block column k.
+     *
+     * @param rank Rank of the worker.
+     * @param k    Excluded block column.
+     * @return Indices of block columns in increasing order.
+     */
+    private List<Integer> columnsOf(int rank, int k) {
+        List<Integer> columns = new ArrayList<>();
+        for (int bj = layout.processColumnOf(rank); bj < layout.getBlocks(); bj += layout.getProcessColumns()) {
+            if (bj != k) {
+                columns.add(bj);
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Writes header of GET_ROWS or PUT_ROWS command.
+     *
+     * @param out     Output to the worker.
+     * @param command Command code.
+     * @param k       Excluded block column.
+     * @param rows    Global rows.
+     * @throws IOException when writing fails.
+     */
+    private static void writeRowsHeader(DataOutputStream out, byte command, int k, List<Integer> rows) throws IOException {
+        out.writeByte(command);
+        out.writeInt(k);
+        out.writeInt(rows.size());
+        for (int row : rows) {
+            out.writeInt(row);
+        }
+    }
+
+    /**
+     * Flushes commands written to all workers.
+     *
+     * @throws IOException when writing fails.
+     */
+    private void flushAll() throws IOException {
+        for (Connection worker : workers) {
+            worker.out.flush();
+        }
+    }
+
+    /**
+     * Connection to one worker.
+     */
+    private static final class Connection {
+        /**
+         * Socket connected to the worker.
+         */
+        private final Socket socket;
+
+        /**
+         * Input from the worker.
+         */
+        private final DataInputStream in;
+
+        /**
+         * Output to the worker.
+         */
+        private final DataOutputStream out;
+
+        /**
+         * Connects to a worker.
+         *
+         * @param address Address of the worker.
+         * @throws IOException when connection fails.
+         */
+        Connection(InetSocketAddress address) throws IOException {
+            this.socket = new Socket(address.getAddress(), address.getPort());
+            this.socket.setTcpNoDelay(true);
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), DistributedWorker.BUFFER_SIZE));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), DistributedWorker.BUFFER_SIZE));
+        }
+
+        /**
+         * Ends the session, errors are ignored.
+         */
+        void close() {
+            try {
+                out.writeByte(Protocol.QUIT);
+                out.flush();
+            } catch (IOException ignored) {
+                // Worker drops the session when the socket closes anyway.
+            }
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Nothing more to release.
+            }
+        }
+    }
+}
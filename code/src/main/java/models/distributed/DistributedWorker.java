@@ -0,0 +1,353 @@
+package models.distributed;
+
+import models.matrices.Gemm;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Worker process of distributed LU decomposition.
+ * Stores blocks of the matrix it owns in the block-cyclic layout and performs
+ * triangular solves, trailing updates and products with them on request of the coordinator.
+ * Every coordinator connection is a separate session served by its own thread.
+ * The first session that fails for other reason than disconnection is kept and can be read with {@link #getFailure()}.
+ *
+ * @see DistributedLUDecomposition
+ * @see BlockCyclicLayout
+ */
+public final class DistributedWorker implements Runnable, AutoCloseable {
+    /**
+     * Size of socket stream buffers.
+     */
+    static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Socket accepting coordinators.
+     */
+    private final ServerSocket serverSocket;
+
+    /**
+     * First failure of a session, null when all sessions succeeded.
+     */
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param serverSocket Bound socket accepting coordinators.
+     */
+    public DistributedWorker(ServerSocket serverSocket) {
+        this.serverSocket = serverSocket;
+    }
+
+    /**
+     * Returns port the worker listens on.
+     *
+     * @return Local port.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns first failure of a session served by this worker.
+     * Failed session closes its connection, so the coordinator sees the failure as a communication error.
+     *
+     * @return Failure of a session or null when no session failed.
+     */
+    public Exception getFailure() {
+        return failure.get();
+    }
+
+    /**
+     * Accepts coordinators until the worker is closed.
+     */
+    @Override
+    public void run() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread session = new Thread(new Session(socket, failure), "distributed-session-" + socket.getPort());
+                session.setDaemon(true);
+                session.start();
+            } catch (IOException e) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops accepting coordinators.
+     *
+     * @throws IOException when closing the socket fails.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    /**
+     * Blocks and layout of one coordinator connection.
+     */
+    private static final class Session implements Runnable {
+        /**
+         * Connection to the coordinator.
+         */
+        private final Socket socket;
+
+        /**
+         * Failure of the worker, set when this session fails first.
+         */
+        private final AtomicReference<Exception> failure;
+
+        /**
+         * Owned blocks by block row * blocks + block column.
+         */
+        private final Map<Long, double[][]> blocks = new HashMap<>();
+
+        /**
+         * Layout of the matrix.
+         */
+        private BlockCyclicLayout layout;
+
+        /**
+         * Row of this worker in the process grid.
+         */
+        private int processRow;
+
+        /**
+         * Column of this worker in the process grid.
+         */
+        private int processColumn;
+
+        /**
+         * Parametrized constructor.
+         *
+         * @param socket  Connection to the coordinator.
+         * @param failure Failure of the worker to report to.
+         */
+        Session(Socket socket, AtomicReference<Exception> failure) {
+            this.socket = socket;
+            this.failure = failure;
+        }
+
+        /**
+         * Serves commands until the coordinator quits or disconnects.
+         */
+        @Override
+        public void run() {
+            try (Socket connection = socket) {
+                connection.setTcpNoDelay(true);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream(), BUFFER_SIZE));
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream(), BUFFER_SIZE));
+                while (true) {
+                    byte command = in.readByte();
+                    if (command == Protocol.QUIT) {
+                        return;
+                    }
+                    handle(command, in, out);
+                    out.flush();
+                }
+            } catch (EOFException | SocketException e) {
+                // Coordinator went away, blocks are dropped with the session.
+            } catch (IOException | RuntimeException e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+
+        /**
+         * Performs one command.
+         *
+         * @param command Code of the command.
+         * @param in      Input from the coordinator.
+         * @param out     Output to the coordinator.
+         * @throws IOException when communication fails or command is unknown.
+         */
+        private void handle(byte command, DataInputStream in, DataOutputStream out) throws IOException {
+            switch (command) {
+                case Protocol.INIT: {
+                    int n = in.readInt();
+                    int blockSize = in.readInt();
+                    int processRows = in.readInt();
+                    int processColumns = in.readInt();
+                    int rank = in.readInt();
+                    layout = new BlockCyclicLayout(n, blockSize, processRows, processColumns);
+                    processRow = layout.processRowOf(rank);
+                    processColumn = layout.processColumnOf(rank);
+                    blocks.clear();
+                    break;
+                }
+                case Protocol.PUT_BLOCK: {
+                    int bi = in.readInt();
+                    int bj = in.readInt();
+                    blocks.put(key(bi, bj), Protocol.readBlock(in, layout.sizeOf(bi), layout.sizeOf(bj)));
+                    break;
+                }
+                case Protocol.GET_BLOCK: {
+                    int bi = in.readInt();
+                    int bj = in.readInt();
+                    Protocol.writeBlock(out, block(bi, bj), 0, layout.sizeOf(bi), layout.sizeOf(bj));
+                    break;
+                }
+                case Protocol.GET_ROWS:
+                case Protocol.PUT_ROWS: {
+                    int excluded = in.readInt();
+                    int[] rows = new int[in.readInt()];
+                    for (int r = 0; r < rows.length; r++) {
+                        rows[r] = in.readInt();
+                    }
+                    for (int row : rows) {
+                        int bi = layout.blockOf(row);
+                        int local = row - layout.firstIndexOf(bi);
+                        for (int bj = processColumn; bj < layout.getBlocks(); bj += layout.getProcessColumns()) {
+                            if (bj == excluded) {
+                                continue;
+                            }
+                            double[] segment = block(bi, bj)[local];
+                            if (command == Protocol.GET_ROWS) {
+                                Protocol.writeDoubles(out, segment, 0, segment.length);
+                            } else {
+                                Protocol.readDoubles(in, segment, 0, segment.length);
+                            }
+                        }
+                    }
+                    break;
+                }
+                case Protocol.TRSM: {
+                    int k = in.readInt();
+                    int w = layout.sizeOf(k);
+                    double[][] diagonal = Protocol.readBlock(in, w, w);
+                    for (int bj = firstOwnedColumnAfter(k); bj < layout.getBlocks(); bj += layout.getProcessColumns()) {
+                        double[][] target = block(k, bj);
+                        for (int r = 1; r < w; r++) {
+                            for (int c = 0; c < r; c++) {
+                                double l = diagonal[r][c];
+                                if (l != 0.0) {
+                                    double[] source = target[c];
+                                    double[] row = target[r];
+                                    for (int j = 0; j < row.length; j++) {
+                                        row[j] -= l * source[j];
+                                    }
+                                }
+                            }
+                        }
+                    }
+                    out.writeByte(Protocol.ACK);
+                    break;
+                }
+                case Protocol.UPDATE: {
+                    int k = in.readInt();
+                    int w = layout.sizeOf(k);
+                    Map<Integer, double[][]> lower = new HashMap<>();
+                    Map<Integer, double[][]> upper = new HashMap<>();
+                    for (int bi = firstOwnedRowAfter(k); bi < layout.getBlocks(); bi += layout.getProcessRows()) {
+                        lower.put(bi, Protocol.readBlock(in, layout.sizeOf(bi), w));
+                    }
+                    for (int bj = firstOwnedColumnAfter(k); bj < layout.getBlocks(); bj += layout.getProcessColumns()) {
+                        upper.put(bj, Protocol.readBlock(in, w, layout.sizeOf(bj)));
+                    }
+                    for (Map.Entry<Integer, double[][]> l : lower.entrySet()) {
+                        for (Map.Entry<Integer, double[][]> u : upper.entrySet()) {
+                            Gemm.multiplyAdd(-1.0, l.getValue(), 0, 0, u.getValue(), 0, 0, block(l.getKey(), u.getKey()), 0, 0,
+                                    layout.sizeOf(l.getKey()), layout.sizeOf(u.getKey()), w);
+                        }
+                    }
+                    out.writeByte(Protocol.ACK);
+                    break;
+                }
+                case Protocol.FORWARD:
+                case Protocol.BACKWARD: {
+                    int k = in.readInt();
+                    int w = layout.sizeOf(k);
+                    double[] x = new double[w];
+                    Protocol.readDoubles(in, x, 0, w);
+                    int first = command == Protocol.FORWARD ? firstOwnedRowAfter(k) : processRow;
+                    int last = command == Protocol.FORWARD ? layout.getBlocks() : k;
+                    for (int bi = first; bi < last; bi += layout.getProcessRows()) {
+                        for (double[] row : block(bi, k)) {
+                            double sum = 0.0;
+                            for (int c = 0; c < w; c++) {
+                                sum += row[c] * x[c];
+                            }
+                            out.writeDouble(sum);
+                        }
+                    }
+                    break;
+                }
+                default:
+                    throw new IOException("Unknown command " + command);
+            }
+        }
+
+        /**
+         * Returns first owned block row below block k.
+         *
+         * @param k Index of the diagonal block.
+         * @return Index of block row.
+         */
+        private int firstOwnedRowAfter(int k) {
+            return firstAfter(k, processRow, layout.getProcessRows());
+        }
+
+        /**
+         * Returns first owned block column right of block k.
+         *
+         * @param k Index of the diagonal block.
+         * @return Index of block column.
+         */
+        private int firstOwnedColumnAfter(int k) {
+            return firstAfter(k, processColumn, layout.getProcessColumns());
+        }
+
+        /**
+         * Returns smallest index greater than k congruent to process modulo processes.
+         *
+         * @param k         Index of the diagonal block.
+         * @param process   Coordinate of this worker.
+         * @param processes Size of the process grid dimension.
+         * @return Index of block.
+         */
+        private static int firstAfter(int k, int process, int processes) {
+            return k + 1 + Math.floorMod(process - (k + 1), processes);
+        }
+
+        /**
+         * Returns owned block.
+         *
+         * @param bi Index of block row.
+         * @param bj Index of block column.
+         * @return Rows of the block.
+         * @throws IllegalStateException when the block is not stored.
+         */
+        private double[][] block(int bi, int bj) {
+            double[][] block = blocks.get(key(bi, bj));
+            if (block == null) {
+                throw new IllegalStateException("Block (" + bi + ", " + bj + ") is not stored on this worker.");
+            }
+            return block;
+        }
+
+        /**
+         * Returns key of a block.
+         *
+         * @param bi Index of block row.
+         * @param bj Index of block column.
+         * @return Key of the block.
+         */
+        private static long key(int bi, int bj) {
+            return ((long) bi << 32) | bj;
+        }
+    }
+}
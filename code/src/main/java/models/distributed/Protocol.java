@@ -0,0 +1,147 @@
+package models.distributed;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Commands exchanged between coordinator and workers and encoding of blocks.
+ * Every command starts with its code, doubles are sent big-endian row by row.
+ */
+final class Protocol {
+    /**
+     * Sets layout and rank, drops stored blocks: n, blockSize, processRows, processColumns, rank.
+     */
+    static final byte INIT = 1;
+
+    /**
+     * Stores a block: blockRow, blockColumn, elements.
+     */
+    static final byte PUT_BLOCK = 2;
+
+    /**
+     * Returns a block: blockRow, blockColumn.
+     */
+    static final byte GET_BLOCK = 3;
+
+    /**
+     * Returns owned segments of rows outside of a block column: blockColumn, count, rows.
+     */
+    static final byte GET_ROWS = 4;
+
+    /**
+     * Stores owned segments of rows outside of a block column: blockColumn, count, rows, elements.
+     */
+    static final byte PUT_ROWS = 5;
+
+    /**
+     * Applies inverse of unit lower diagonal block to owned blocks right of it: k, diagonal block.
+     */
+    static final byte TRSM = 6;
+
+    /**
+     * Updates owned trailing blocks: k, owned L blocks of column k, owned U blocks of row k.
+     */
+    static final byte UPDATE = 7;
+
+    /**
+     * Returns products of owned L blocks below the diagonal of column k with a vector: k, vector.
+     */
+    static final byte FORWARD = 8;
+
+    /**
+     * Returns products of owned U blocks above the diagonal of column k with a vector: k, vector.
+     */
+    static final byte BACKWARD = 9;
+
+    /**
+     * Ends the session.
+     */
+    static final byte QUIT = 10;
+
+    /**
+     * Acknowledges finished command.
+     */
+    static final byte ACK = 0;
+
+    /**
+     * Utility class.
+     */
+    private Protocol() {
+    }
+
+    /**
+     * Writes rows x columns elements of a block.
+     *
+     * @param out     Output stream.
+     * @param block   Rows of the block.
+     * @param row     First row.
+     * @param rows    Number of rows.
+     * @param columns Number of columns.
+     * @throws IOException when writing fails.
+     */
+    static void writeBlock(DataOutputStream out, double[][] block, int row, int rows, int columns) throws IOException {
+        for (int i = row; i < row + rows; i++) {
+            writeDoubles(out, block[i], 0, columns);
+        }
+    }
+
+    /**
+     * Reads rows x columns elements of a block.
+     *
+     * @param in      Input stream.
+     * @param rows    Number of rows.
+     * @param columns Number of columns.
+     * @return Rows of the block.
+     * @throws IOException when reading fails.
+     */
+    static double[][] readBlock(DataInputStream in, int rows, int columns) throws IOException {
+        double[][] block = new double[rows][columns];
+        for (int i = 0; i < rows; i++) {
+            readDoubles(in, block[i], 0, columns);
+        }
+        return block;
+    }
+
+    /**
+     * Writes part of an array.
+     *
+     * @param out    Output stream.
+     * @param values Array of elements.
+     * @param from   First element.
+     * @param length Number of elements.
+     * @throws IOException when writing fails.
+     */
+    static void writeDoubles(DataOutputStream out, double[] values, int from, int length) throws IOException {
+        for (int i = from; i < from + length; i++) {
+            out.writeDouble(values[i]);
+        }
+    }
+
+    /**
+     * Reads part of an array.
+     *
+     * @param in     Input stream.
+     * @param values Array of elements.
+     * @param from   First element.
+     * @param length Number of elements.
+     * @throws IOException when reading fails.
+     */
+    static void readDoubles(DataInputStream in, double[] values, int from, int length) throws IOException {
+        for (int i = from; i < from + length; i++) {
+            values[i] = in.readDouble();
+        }
+    }
+
+    /**
+     * Reads acknowledgement.
+     *
+     * @param in Input stream.
+     * @throws IOException when reading fails or worker answered with something else.
+     */
+    static void readAck(DataInputStream in) throws IOException {
+        if (in.readByte() != ACK) {
+            throw new IOException("Worker did not acknowledge command.");
+        }
+    }
+}
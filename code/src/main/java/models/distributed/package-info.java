@@ -0,0 +1,4 @@
+/**
+ * Contains LU decomposition distributed over worker processes connected by TCP.
+ */
+package models.distributed;
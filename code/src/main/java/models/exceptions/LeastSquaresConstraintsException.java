@@ -0,0 +1,15 @@
+package models.exceptions;
+
+/**
+ * Describes exception that occurs when requirements for least squares routine are not met.
+ */
+public class LeastSquaresConstraintsException extends Throwable {
+    /**
+     * Overridden constructor.
+     *
+     * @param message Message of error.
+     */
+    public LeastSquaresConstraintsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package models.exceptions;
+
+/**
+ * Describes exception that occurs when matrix is not symmetric positive definite.
+ */
+public class NotPositiveDefiniteMatrixException extends Throwable {
+}
@@ -3,47 +3,70 @@ package models.internals;
 import models.exceptions.InversionConstraintsException;
 import models.exceptions.LUPivotConstraintsException;
 import models.exceptions.InvalidMatrixSizesException;
+import models.exceptions.LeastSquaresConstraintsException;
 import models.exceptions.NonSquareMatrixException;
 import models.exceptions.SingularMatrixException;
+import models.distributed.DistributedLUDecomposition;
 import models.internals.results.InverseResult;
+import models.internals.results.IterativeResult;
+import models.internals.results.LeastSquaresResult;
 import models.internals.results.LUPivotResult;
 import models.internals.results.Result;
 import models.matrices.Matrix;
+import models.matrices.PackedTriangularMatrix;
+import models.monitoring.Operation;
+import models.monitoring.SolverMetrics;
+import models.monitoring.events.SerializationEvent;
+import models.monitoring.events.SolverEvent;
+import models.utilities.InverseOperator;
 import models.utilities.LUDecomposition;
+import models.utilities.MatrixStructure;
+import models.utilities.QRDecomposition;
+import models.utilities.SmallMatrixKernels;
+import models.utilities.StructuredSolver;
+import models.utilities.TSQRDecomposition;
+import models.utilities.iterative.ConjugateGradientSolver;
+import models.utilities.iterative.GMRESSolver;
+import models.utilities.iterative.ILU0Preconditioner;
+import models.utilities.iterative.IterativeSolution;
+import models.utilities.iterative.IterativeSolver;
+import models.utilities.iterative.JacobiPreconditioner;
+import models.utilities.iterative.Preconditioner;
 import models.vectors.Vector;
 
 import java.io.*;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Model of application.
  * Contains matrix and vector.
+ * Safe for concurrent use: state is an immutable snapshot replaced atomically
+ * and every matrix is factorized at most once even under concurrent requests.
+ * Determinant and inverse of general matrices up to 4x4 and solutions of all of them are computed by small pivoted elimination kernels
+ * without caching an LU decomposition.
+ * Solutions for matrices at least as large as the iterative threshold are computed by Krylov solvers,
+ * the threshold is disabled by default.
  * Created by Mateusz Gasior on 26-Feb-17.
  *
  * @author Mateusz Gasior
  * @see Matrix
  * @see Vector
  * @see LUDecomposition
+ * @see SmallMatrixKernels
  */
 public class ApplicationModel {
     /**
-     * Matrix A.
+     * Current state: matrix A, vector b, factorization of A and result of last performed operation.
+     * Replaced atomically on every change, readers never block.
      */
-    private Matrix matrix;
+    private final AtomicReference<ModelSnapshot> state = new AtomicReference<>(ModelSnapshot.EMPTY);
 
     /**
-     * Vector b.
+     * Dimension from which solve uses iterative solvers instead of LU decomposition.
      */
-    private Vector vector;
-
-    /**
-     * LU Decomposition for matrix A.
-     */
-    private LUDecomposition luDecomposition;
-
-    /**
-     * Result of last performed operation.
-     */
-    private Result lastResult;
+    private volatile int iterativeThreshold = Integer.MAX_VALUE;
 
     /**
      * Returns matrix.
@@ -51,19 +74,19 @@ public class ApplicationModel {
      * @return Matrix.
      */
     public Matrix getMatrix() {
-        return matrix;
+        return state.get().matrix;
     }
 
     /**
      * Sets matrix.
+     * Factorization is kept when the matrix does not change.
      *
      * @param matrix New matrix.
      */
     public void setMatrix(Matrix matrix) {
-        if (getMatrix() == null || !this.getMatrix().equals(matrix)) {
-            this.matrix = matrix;
-            this.luDecomposition = null;
-        }
+        state.updateAndGet(current -> current.matrix != null && current.matrix.equals(matrix)
+                ? current
+                : current.withMatrix(matrix));
     }
 
     /**
@@ -72,7 +95,7 @@ public class ApplicationModel {
      * @return Vector.
      */
     public Vector getVector() {
-        return vector;
+        return state.get().vector;
     }
 
     /**
@@ -81,18 +104,55 @@ public class ApplicationModel {
      * @param vector New vector.
      */
     public void setVector(Vector vector) {
-        this.vector = vector;
+        state.updateAndGet(current -> current.withVector(vector));
+    }
+
+    /**
+     * Returns dimension from which solve uses iterative solvers.
+     *
+     * @return Iterative threshold.
+     */
+    public int getIterativeThreshold() {
+        return iterativeThreshold;
+    }
+
+    /**
+     * Sets dimension from which solve uses iterative solvers instead of LU decomposition.
+     *
+     * @param iterativeThreshold Iterative threshold, Integer.MAX_VALUE disables iterative solvers.
+     */
+    public void setIterativeThreshold(int iterativeThreshold) {
+        this.iterativeThreshold = iterativeThreshold;
+    }
+
+    /**
+     * Returns result of last performed operation.
+     *
+     * @return Last result or null.
+     */
+    public Result getLastResult() {
+        return state.get().lastResult;
+    }
+
+    /**
+     * Publishes result of performed operation.
+     *
+     * @param result Result of the operation.
+     */
+    private void publish(Result result) {
+        state.updateAndGet(current -> current.withLastResult(result));
     }
 
     /**
      * Checks if inverse routine can be performed.
      *
+     * @param snapshot State to check.
      * @throws InversionConstraintsException when routine cannot be performed.
      *                                       Matrix is null.
      *                                       Matrix is not a square matrix.
      */
-    private void checkInverseConstraints() throws InversionConstraintsException {
-        if (getMatrix() == null || !getMatrix().isSquare()) {
+    private static void checkInverseConstraints(ModelSnapshot snapshot) throws InversionConstraintsException {
+        if (snapshot.matrix == null || !snapshot.matrix.isSquare()) {
             throw new InversionConstraintsException();
         }
     }
@@ -100,22 +160,46 @@ public class ApplicationModel {
     /**
      * Checks if LU Pivoting routine can be performed.
      *
+     * @param snapshot State to check.
      * @throws LUPivotConstraintsException when routine cannot be performed.
      *                                     Matrix or Vector is null.
      *                                     Size of the vector is not equal to number of columns of matrix.
      */
-    private void checkLUPivotConstraints() throws LUPivotConstraintsException {
-        if (getMatrix() == null || getVector() == null) {
+    private static void checkLUPivotConstraints(ModelSnapshot snapshot) throws LUPivotConstraintsException {
+        if (snapshot.matrix == null || snapshot.vector == null) {
             throw new LUPivotConstraintsException("Matrix or vector is null.");
         } else {
-            if (getVector().getSize() != getMatrix().getColumns()) {
+            if (snapshot.vector.getSize() != snapshot.matrix.getColumns()) {
                 throw new LUPivotConstraintsException("Number of columns in vector is incorrect.");
             }
         }
     }
 
+    /**
+     * Checks if least squares routine can be performed.
+     *
+     * @param snapshot State to check.
+     * @throws LeastSquaresConstraintsException when routine cannot be performed.
+     *                                          Matrix or Vector is null.
+     *                                          Size of the vector is not equal to number of rows of matrix.
+     *                                          Matrix has less rows than columns.
+     */
+    private static void checkLeastSquaresConstraints(ModelSnapshot snapshot) throws LeastSquaresConstraintsException {
+        if (snapshot.matrix == null || snapshot.vector == null) {
+            throw new LeastSquaresConstraintsException("Matrix or vector is null.");
+        } else if (snapshot.vector.getSize() != snapshot.matrix.getRows()) {
+            throw new LeastSquaresConstraintsException("Number of rows in vector is incorrect.");
+        } else if (snapshot.matrix.getRows() < snapshot.matrix.getColumns()) {
+            throw new LeastSquaresConstraintsException("Matrix has less rows than columns.");
+        }
+    }
+
     /**
      * Routine that calculates solution of problem Ax = b
+     * Structure of square matrix is detected first, diagonal, permutation, triangular, block diagonal
+     * and symmetric positive definite matrices are solved without LU decomposition of the whole matrix.
+     * Other matrices up to 4x4 are solved by {@link SmallMatrixKernels}.
+     * The iterative threshold is not considered.
      *
      * @return Result of LU Pivot routine.
      * @throws NonSquareMatrixException    when matrix does not have a square shape.
@@ -125,37 +209,338 @@ public class ApplicationModel {
      * @throws LUPivotConstraintsException when LU pivoting cannot be performed.
      */
     public LUPivotResult LUPivot() throws NonSquareMatrixException, SingularMatrixException, InvalidMatrixSizesException, LUPivotConstraintsException {
-        checkLUPivotConstraints();
-        if (luDecomposition == null)
-            luDecomposition = new LUDecomposition(getMatrix());
-        Vector solution = luDecomposition.solve(getVector());
-        double determinant = luDecomposition.det();
-        LUPivotResult result = new LUPivotResult(getMatrix(), getVector(), luDecomposition, solution, determinant);
-        this.lastResult = result;
+        ModelSnapshot snapshot = state.get();
+        checkLUPivotConstraints(snapshot);
+        StructuredSolver structured = structureOf(snapshot);
+        LUPivotResult result;
+        if (structured != null && !structured.requiresLU()) {
+            Vector solution = structured.solve(snapshot.vector);
+            LUDecomposition local = snapshot.factorization.isDone() ? snapshot.factorization.get() : null;
+            result = new LUPivotResult(snapshot.matrix, snapshot.vector, local, solution, structured.det(),
+                    structured.getStructure());
+        } else if (SmallMatrixKernels.supports(snapshot.matrix)) {
+            Vector solution = SmallMatrixKernels.solve(snapshot.matrix, snapshot.vector);
+            LUDecomposition local = snapshot.factorization.isDone() ? snapshot.factorization.get() : null;
+            result = new LUPivotResult(snapshot.matrix, snapshot.vector, local, solution,
+                    SmallMatrixKernels.det(snapshot.matrix), structured.getStructure());
+        } else {
+            LUDecomposition luDecomposition = factorizationOf(snapshot);
+            Vector solution = luDecomposition.solve(snapshot.vector);
+            double determinant = luDecomposition.det();
+            result = new LUPivotResult(snapshot.matrix, snapshot.vector, luDecomposition, solution, determinant,
+                    structured == null ? null : structured.getStructure());
+        }
+        publish(result);
+        return result;
+    }
+
+    /**
+     * Routine that calculates solution of problem Ax = b with a Krylov solver.
+     * Symmetric matrices with positive diagonal are solved with Jacobi preconditioned conjugate gradient,
+     * other matrices with ILU(0) preconditioned GMRES.
+     *
+     * @return Result of iterative solve routine.
+     * @throws LUPivotConstraintsException when matrix or vector is null or size of the vector is incorrect.
+     * @throws NonSquareMatrixException    when matrix does not have a square shape.
+     * @throws InvalidMatrixSizesException when matrices during calculations will have different sizes.
+     */
+    public IterativeResult iterativeSolve() throws LUPivotConstraintsException, NonSquareMatrixException, InvalidMatrixSizesException {
+        ModelSnapshot snapshot = state.get();
+        checkLUPivotConstraints(snapshot);
+        IterativeSolution solution = iterate(snapshot.matrix, snapshot.vector);
+        IterativeResult result = new IterativeResult(snapshot.matrix, snapshot.vector, solution);
+        publish(result);
+        return result;
+    }
+
+    /**
+     * Chooses iterative solver and preconditioner for the matrix and solves the system.
+     *
+     * @param matrix Square matrix.
+     * @param vector Right hand side.
+     * @return Solution with convergence history.
+     * @throws NonSquareMatrixException    when matrix does not have a square shape.
+     * @throws InvalidMatrixSizesException when size of the vector is incorrect.
+     */
+    private static IterativeSolution iterate(Matrix matrix, Vector vector)
+            throws NonSquareMatrixException, InvalidMatrixSizesException {
+        if (!matrix.isSquare()) {
+            throw new NonSquareMatrixException();
+        }
+        IterativeSolver solver;
+        Preconditioner preconditioner;
+        try {
+            if (isSymmetricWithPositiveDiagonal(matrix)) {
+                solver = new ConjugateGradientSolver();
+                preconditioner = new JacobiPreconditioner(matrix);
+            } else {
+                solver = new GMRESSolver();
+                preconditioner = new ILU0Preconditioner(matrix);
+            }
+        } catch (SingularMatrixException e) {
+            solver = new GMRESSolver();
+            preconditioner = Preconditioner.IDENTITY;
+        }
+        return solver.solve(matrix, vector, preconditioner);
+    }
+
+    /**
+     * Checks if matrix is symmetric and has positive diagonal, necessary conditions of positive definiteness.
+     *
+     * @param matrix Square matrix.
+     * @return True when conjugate gradient may be applied.
+     */
+    private static boolean isSymmetricWithPositiveDiagonal(Matrix matrix) {
+        double[][] a = matrix.getData();
+        for (int i = 0; i < a.length; i++) {
+            if (!(a[i][i] > 0.0)) {
+                return false;
+            }
+            for (int j = 0; j < i; j++) {
+                if (a[i][j] != a[j][i]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Routine that calculates least squares solution of problem Ax = b for matrices with at least as many rows as columns.
+     * Tall and skinny matrices are factorized with TSQR, other with blocked Householder QR.
+     *
+     * @return Result of least squares routine.
+     * @throws LeastSquaresConstraintsException when requirements for least squares will not be meet.
+     * @throws SingularMatrixException          when matrix is rank deficient.
+     * @throws InvalidMatrixSizesException      when matrices during calculations will have different sizes.
+     */
+    public LeastSquaresResult leastSquares() throws LeastSquaresConstraintsException, SingularMatrixException, InvalidMatrixSizesException {
+        ModelSnapshot snapshot = state.get();
+        checkLeastSquaresConstraints(snapshot);
+        Matrix r;
+        Vector solution;
+        if (TSQRDecomposition.isTallSkinny(snapshot.matrix.getRows(), snapshot.matrix.getColumns())) {
+            TSQRDecomposition decomposition = new TSQRDecomposition(snapshot.matrix);
+            solution = decomposition.solve(snapshot.vector);
+            r = decomposition.getR();
+        } else {
+            QRDecomposition decomposition = new QRDecomposition(snapshot.matrix);
+            solution = decomposition.solve(snapshot.vector);
+            r = decomposition.getR();
+        }
+        double residualNorm = snapshot.matrix.residualNorm(solution.getData(), snapshot.vector.getData());
+        LeastSquaresResult result = new LeastSquaresResult(snapshot.matrix, snapshot.vector,
+                PackedTriangularMatrix.upperOf(r.getData(), r.getColumns(), false), solution, residualNorm);
+        publish(result);
         return result;
     }
 
+    /**
+     * Routine that calculates solution of problem Ax = b with LU decomposition distributed over worker processes.
+     * Factors are released on the workers when the routine finishes,
+     * L and U of the result are computed locally only when the result is displayed.
+     *
+     * @param workers     Addresses of workers, number of workers must be a multiple of processRows.
+     * @param processRows Number of rows of the process grid.
+     * @param blockSize   Number of rows and columns of a block of the block-cyclic layout.
+     * @return Result of LU Pivot routine.
+     * @throws LUPivotConstraintsException when requirements for performing LU pivoting will not be meet.
+     * @throws NonSquareMatrixException    when matrix does not have a square shape.
+     * @throws SingularMatrixException     when matrix is singular.
+     * @throws InvalidMatrixSizesException when matrices during calculations will have different sizes.
+     * @throws IOException                 when communication with a worker fails.
+     */
+    public LUPivotResult distributedLUPivot(List<InetSocketAddress> workers, int processRows, int blockSize)
+            throws LUPivotConstraintsException, NonSquareMatrixException, SingularMatrixException, InvalidMatrixSizesException, IOException {
+        ModelSnapshot snapshot = state.get();
+        checkLUPivotConstraints(snapshot);
+        try (DistributedLUDecomposition decomposition = DistributedLUDecomposition.factorize(snapshot.matrix, workers, processRows, blockSize)) {
+            Vector solution = decomposition.solve(snapshot.vector);
+            LUDecomposition local = snapshot.factorization.isDone() ? snapshot.factorization.get() : null;
+            LUPivotResult result = new LUPivotResult(snapshot.matrix, snapshot.vector, local, solution, decomposition.det());
+            publish(result);
+            return result;
+        }
+    }
+
+    /**
+     * Returns LU decomposition of the matrix, factorizes the matrix when it was not factorized yet.
+     * Concurrent callers wait for a single factorization in progress.
+     *
+     * @return LU decomposition of the matrix.
+     * @throws LUPivotConstraintsException when matrix is null.
+     */
+    public LUDecomposition factorize() throws LUPivotConstraintsException {
+        ModelSnapshot snapshot = state.get();
+        if (snapshot.matrix == null) {
+            throw new LUPivotConstraintsException("Matrix is null.");
+        }
+        return factorizationOf(snapshot);
+    }
+
+    /**
+     * Returns factorization of the snapshot, records whether it was already available.
+     *
+     * @param snapshot State with non null matrix.
+     * @return LU decomposition of the matrix.
+     */
+    private static LUDecomposition factorizationOf(ModelSnapshot snapshot) {
+        SolverMetrics.recordCacheLookup(SolverMetrics.FACTORIZATION_CACHE, snapshot.factorization.isDone());
+        return snapshot.factorization.get();
+    }
+
+    /**
+     * Returns structure analysis of the snapshot.
+     *
+     * @param snapshot State with non null matrix.
+     * @return Solver for the structure of the matrix or null when the matrix is not square.
+     */
+    private static StructuredSolver structureOf(ModelSnapshot snapshot) {
+        return snapshot.structure == null ? null : snapshot.structure.get();
+    }
+
+    /**
+     * Commits flight recorder event of writing or reading a result.
+     *
+     * @param event  Started event.
+     * @param result Written or read result, may be null.
+     * @param write  True for writing, false for reading.
+     * @param bytes  Number of bytes written or read.
+     */
+    private static void commit(SerializationEvent event, Result result, boolean write, long bytes) {
+        event.end();
+        if (event.shouldCommit()) {
+            int size = sizeOf(result);
+            event.rows = size;
+            event.columns = result == null || result.getOriginalMatrix() == null ? 0 : result.getOriginalMatrix().getColumns();
+            event.write = write;
+            event.bytes = bytes;
+            event.allocationEstimate = write ? 0 : 3 * SolverEvent.matrixBytes(size, event.columns);
+            event.commit();
+        }
+    }
+
+    /**
+     * Returns size of the result used for metrics.
+     *
+     * @param result Result, may be null.
+     * @return Number of rows of the original matrix or 0.
+     */
+    private static int sizeOf(Result result) {
+        return result == null || result.getOriginalMatrix() == null ? 0 : result.getOriginalMatrix().getRows();
+    }
+
+    /**
+     * Solves Ax = b for given right hand side using factorization of the matrix.
+     * Matrices at least as large as the iterative threshold that are not factorized yet are first solved
+     * by the Krylov solver {@link #iterativeSolve()} would choose, the factorization is used when it does not converge.
+     * Does not change the vector nor the last result.
+     *
+     * @param vector Right hand side vector.
+     * @return Solution vector.
+     * @throws LUPivotConstraintsException when matrix is null or size of the vector is incorrect.
+     * @throws SingularMatrixException     when matrix is singular.
+     * @throws InvalidMatrixSizesException when matrices during calculations will have different sizes.
+     */
+    public Vector solve(Vector vector) throws LUPivotConstraintsException, SingularMatrixException, InvalidMatrixSizesException {
+        ModelSnapshot snapshot = state.get();
+        Matrix matrix = snapshot.matrix;
+        if (matrix == null) {
+            throw new LUPivotConstraintsException("Matrix is null.");
+        }
+        if (SmallMatrixKernels.supports(matrix)) {
+            if (vector == null || vector.getSize() != matrix.getColumns()) {
+                throw new LUPivotConstraintsException("Number of columns in vector is incorrect.");
+            }
+            return SmallMatrixKernels.solve(matrix, vector);
+        }
+        if (matrix.isSquare() && matrix.getRows() >= iterativeThreshold && !snapshot.factorization.isDone()
+                && vector != null && vector.getSize() == matrix.getColumns()) {
+            try {
+                IterativeSolution solution = iterate(matrix, vector);
+                if (solution.isConverged()) {
+                    return solution.getSolution();
+                }
+            } catch (NonSquareMatrixException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        LUDecomposition decomposition = factorizationOf(snapshot);
+        if (vector == null || vector.getSize() != decomposition.getColumns()) {
+            throw new LUPivotConstraintsException("Number of columns in vector is incorrect.");
+        }
+        return decomposition.solve(vector);
+    }
+
+    /**
+     * Calculates determinant.
+     * Matrices with structure detected by {@link StructuredSolver} use it, other matrices up to 4x4
+     * use {@link SmallMatrixKernels} and the rest the factorization of the matrix.
+     *
+     * @return Determinant of the matrix.
+     * @throws LUPivotConstraintsException when matrix is null.
+     * @throws NonSquareMatrixException    when matrix does not have a square shape.
+     */
+    public double determinant() throws LUPivotConstraintsException, NonSquareMatrixException {
+        ModelSnapshot snapshot = state.get();
+        if (snapshot.matrix == null) {
+            throw new LUPivotConstraintsException("Matrix is null.");
+        }
+        StructuredSolver structured = structureOf(snapshot);
+        if (structured == null) {
+            throw new NonSquareMatrixException();
+        }
+        if (!structured.requiresLU()) {
+            return structured.det();
+        }
+        if (SmallMatrixKernels.supports(snapshot.matrix)) {
+            try {
+                return SmallMatrixKernels.det(snapshot.matrix);
+            } catch (InvalidMatrixSizesException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return factorizationOf(snapshot).det();
+    }
+
     /**
      * Inverse routine.
+     * The inverse is not materialized, it is applied through the cached factorization until displayed or exported.
+     * Matrices with structure detected by {@link StructuredSolver} are inverted without LU decomposition of the whole matrix,
+     * other matrices up to 4x4 by {@link SmallMatrixKernels}.
      *
      * @return Result of inverse routine for view.
      * @throws InversionConstraintsException when requirements for inverse routine are not met.
      */
     public InverseResult inverse() throws InversionConstraintsException {
-        checkInverseConstraints();
-        Matrix inverse = null;
+        ModelSnapshot snapshot = state.get();
+        checkInverseConstraints(snapshot);
+        LUDecomposition luDecomposition = null;
+        InverseOperator inverse = null;
         Double determinant = null;
+        MatrixStructure structure = null;
 
         try {
-            if (luDecomposition == null)
-                luDecomposition = new LUDecomposition(getMatrix());
-            inverse = luDecomposition.inverse();
-            determinant = luDecomposition.det();
+            StructuredSolver structured = structureOf(snapshot);
+            structure = structured.getStructure();
+            if (!structured.requiresLU()) {
+                luDecomposition = snapshot.factorization.isDone() ? snapshot.factorization.get() : null;
+                inverse = new InverseOperator(structured);
+                determinant = structured.det();
+            } else if (SmallMatrixKernels.supports(snapshot.matrix)) {
+                luDecomposition = snapshot.factorization.isDone() ? snapshot.factorization.get() : null;
+                inverse = new InverseOperator(SmallMatrixKernels.inverse(snapshot.matrix));
+                determinant = SmallMatrixKernels.det(snapshot.matrix);
+            } else {
+                luDecomposition = factorizationOf(snapshot);
+                inverse = new InverseOperator(luDecomposition);
+                determinant = luDecomposition.det();
+            }
         } catch (Throwable e) {
 
         } finally {
-            InverseResult result = new InverseResult(getMatrix(), luDecomposition, inverse, determinant);
-            this.lastResult = result;
+            InverseResult result = new InverseResult(snapshot.matrix, luDecomposition, inverse, determinant, structure);
+            publish(result);
             return result;
         }
     }
@@ -167,11 +552,19 @@ public class ApplicationModel {
      * @throws IOException when error occurs during saving.
      */
     public void serializeLastResult(String path) throws IOException {
+        SerializationEvent event = new SerializationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Result result = getLastResult();
         FileOutputStream fileOut = new FileOutputStream(path);
         ObjectOutputStream out = new ObjectOutputStream(fileOut);
-        out.writeObject(this.lastResult);
+        out.writeObject(result);
+        out.flush();
+        long bytes = fileOut.getChannel().position();
         out.close();
         fileOut.close();
+        SolverMetrics.record(Operation.SERIALIZE, sizeOf(result), System.nanoTime() - start, 0);
+        commit(event, result, true, bytes);
     }
 
     /**
@@ -185,19 +578,29 @@ public class ApplicationModel {
      * @throws ClassNotFoundException when deserialization error occurs.
      */
     public Result deserializeResult(String path) throws IOException, ClassNotFoundException {
+        SerializationEvent event = new SerializationEvent();
+        event.begin();
+        long start = System.nanoTime();
         FileInputStream fileIn = new FileInputStream(path);
         ObjectInputStream in = new ObjectInputStream(fileIn);
-        this.lastResult = (Result) in.readObject();
+        Result result = (Result) in.readObject();
+        long bytes = fileIn.getChannel().position();
         in.close();
         fileIn.close();
-        if(lastResult != null){
-            this.matrix = lastResult.getOriginalMatrix();
-            if (lastResult instanceof LUPivotResult) {
-                this.vector = ((LUPivotResult) lastResult).getOriginalVector();
-            }
-            this.luDecomposition = lastResult.getLuDecomposition();
+        SolverMetrics.record(Operation.DESERIALIZE, sizeOf(result), System.nanoTime() - start, 0);
+        commit(event, result, false, bytes);
+        if (result != null) {
+            state.updateAndGet(current -> ModelSnapshot.fromResult(result, result instanceof LUPivotResult
+                    ? ((LUPivotResult) result).getOriginalVector()
+                    : result instanceof LeastSquaresResult
+                    ? ((LeastSquaresResult) result).getOriginalVector()
+                    : result instanceof IterativeResult
+                    ? ((IterativeResult) result).getOriginalVector()
+                    : current.vector));
+        } else {
+            publish(null);
         }
 
-        return this.lastResult;
+        return result;
     }
 }
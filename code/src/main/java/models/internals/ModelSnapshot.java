@@ -0,0 +1,140 @@
+package models.internals;
+
+import models.exceptions.NonSquareMatrixException;
+import models.internals.results.Result;
+import models.matrices.Matrix;
+import models.utilities.LUDecomposition;
+import models.utilities.StructuredSolver;
+import models.vectors.Vector;
+
+/**
+ * Immutable state of the application model.
+ * Every change creates a new snapshot that is published atomically, so readers never observe half updated state.
+ * Factorization and structure analysis of the matrix belong to the snapshot and are computed once on first request.
+ *
+ * @see ApplicationModel
+ */
+final class ModelSnapshot {
+    /**
+     * Empty state.
+     */
+    static final ModelSnapshot EMPTY = new ModelSnapshot(null, null, null, null, null);
+
+    /**
+     * Matrix A.
+     */
+    final Matrix matrix;
+
+    /**
+     * Vector b.
+     */
+    final Vector vector;
+
+    /**
+     * Factorization of matrix A, null when matrix is null.
+     */
+    final SingleFlight<LUDecomposition> factorization;
+
+    /**
+     * Structure analysis of matrix A, null when matrix is null or not square.
+     */
+    final SingleFlight<StructuredSolver> structure;
+
+    /**
+     * Result of last performed operation.
+     */
+    final Result lastResult;
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param matrix        Matrix A.
+     * @param vector        Vector b.
+     * @param factorization Factorization of matrix A.
+     * @param structure     Structure analysis of matrix A.
+     * @param lastResult    Result of last performed operation.
+     */
+    private ModelSnapshot(Matrix matrix, Vector vector, SingleFlight<LUDecomposition> factorization,
+                          SingleFlight<StructuredSolver> structure, Result lastResult) {
+        this.matrix = matrix;
+        this.vector = vector;
+        this.factorization = factorization;
+        this.structure = structure;
+        this.lastResult = lastResult;
+    }
+
+    /**
+     * Returns snapshot with new matrix and its pending factorization and structure analysis.
+     *
+     * @param newMatrix New matrix.
+     * @return New snapshot.
+     */
+    ModelSnapshot withMatrix(Matrix newMatrix) {
+        return new ModelSnapshot(newMatrix, vector, pendingFactorization(newMatrix), pendingStructure(newMatrix), lastResult);
+    }
+
+    /**
+     * Returns snapshot with new vector.
+     *
+     * @param newVector New vector.
+     * @return New snapshot.
+     */
+    ModelSnapshot withVector(Vector newVector) {
+        return new ModelSnapshot(matrix, newVector, factorization, structure, lastResult);
+    }
+
+    /**
+     * Returns snapshot with new last result.
+     *
+     * @param result Result of last performed operation.
+     * @return New snapshot.
+     */
+    ModelSnapshot withLastResult(Result result) {
+        return new ModelSnapshot(matrix, vector, factorization, structure, result);
+    }
+
+    /**
+     * Returns snapshot restored from a result.
+     * Factorization stored in the result is reused, otherwise it is computed on request.
+     *
+     * @param result Deserialized result.
+     * @param vector Vector of the result, may be null.
+     * @return New snapshot.
+     */
+    static ModelSnapshot fromResult(Result result, Vector vector) {
+        SingleFlight<LUDecomposition> factorization = result.isFactorized()
+                ? SingleFlight.completed(result.getLuDecomposition())
+                : pendingFactorization(result.getOriginalMatrix());
+        return new ModelSnapshot(result.getOriginalMatrix(), vector, factorization,
+                pendingStructure(result.getOriginalMatrix()), result);
+    }
+
+    /**
+     * Creates factorization computed on first request.
+     *
+     * @param matrix Matrix to factorize.
+     * @return Pending factorization or null for null matrix.
+     */
+    private static SingleFlight<LUDecomposition> pendingFactorization(Matrix matrix) {
+        return matrix == null ? null : new SingleFlight<>(() -> new LUDecomposition(matrix));
+    }
+
+    /**
+     * Creates structure analysis computed on first request.
+     *
+     * @param matrix Matrix to analyse.
+     * @return Pending analysis or null for null or not square matrix.
+     */
+    private static SingleFlight<StructuredSolver> pendingStructure(Matrix matrix) {
+        if (matrix == null || !matrix.isSquare()) {
+            return null;
+        }
+        return new SingleFlight<>(() -> {
+            try {
+                return StructuredSolver.of(matrix);
+            } catch (NonSquareMatrixException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
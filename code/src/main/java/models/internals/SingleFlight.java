@@ -0,0 +1,81 @@
+package models.internals;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Computation performed at most once no matter how many threads request its value.
+ * First caller computes the value, concurrent callers wait for that computation instead of repeating it.
+ *
+ * @param <T> Type of computed value.
+ */
+final class SingleFlight<T> {
+    /**
+     * Underlying task, run by the first caller.
+     */
+    private final FutureTask<T> task;
+
+    /**
+     * Parametrized constructor. Computation is not started.
+     *
+     * @param computation Computation of the value.
+     */
+    SingleFlight(Callable<T> computation) {
+        this.task = new FutureTask<>(computation);
+    }
+
+    /**
+     * Creates already completed computation.
+     *
+     * @param value Computed value.
+     * @param <T>   Type of the value.
+     * @return Completed computation.
+     */
+    static <T> SingleFlight<T> completed(T value) {
+        SingleFlight<T> flight = new SingleFlight<>(() -> value);
+        flight.task.run();
+        return flight;
+    }
+
+    /**
+     * Checks if the value is already computed.
+     *
+     * @return True when value is available without waiting. Otherwise false.
+     */
+    boolean isDone() {
+        return task.isDone();
+    }
+
+    /**
+     * Returns computed value, computes it when no other thread does.
+     * Waiting is not interruptible, interrupt status is restored before returning.
+     *
+     * @return Computed value.
+     */
+    T get() {
+        task.run();
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return task.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    } else if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw new IllegalStateException(cause);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
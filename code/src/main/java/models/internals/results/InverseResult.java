@@ -1,10 +1,15 @@
 package models.internals.results;
 
 import models.matrices.Matrix;
+import models.monitoring.Operation;
+import models.monitoring.SolverMetrics;
+import models.utilities.InverseOperator;
 import models.utilities.LUDecomposition;
+import models.utilities.MatrixStructure;
 
 /**
  * Result of inversion routine invoked from the controller.
+ * Inverse is kept as an operator, the inverse matrix is computed only when it is displayed or exported.
  * Created by Mateusz Gasior on 25-Feb-17.
  *
  * @author Mateusz Gasior
@@ -12,23 +17,56 @@ import models.utilities.LUDecomposition;
  */
 public class InverseResult extends Result {
     /**
-     * Inverted original Matrix.
+     * Inverse of original Matrix.
      */
-    private final Matrix inverse;
+    private final InverseOperator inverse;
 
     /**
      * Parameterized constructor.
      *
      * @param matrix          Original Matrix.
      * @param luDecomposition LU Decomposition of original Matrix.
-     * @param inverse         Inverse Matrix.
+     * @param inverse         Inverse of original Matrix, null when original matrix is singular.
      * @param determinant     Determinant of original Matrix.
      */
-    public InverseResult(Matrix matrix, LUDecomposition luDecomposition, Matrix inverse, Double determinant) {
-        super(matrix, luDecomposition, determinant);
+    public InverseResult(Matrix matrix, LUDecomposition luDecomposition, InverseOperator inverse, Double determinant) {
+        this(matrix, luDecomposition, inverse, determinant, null);
+    }
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param matrix          Original Matrix.
+     * @param luDecomposition LU Decomposition of original Matrix, null to compute it on request.
+     * @param inverse         Inverse of original Matrix, null when original matrix is singular.
+     * @param determinant     Determinant of original Matrix.
+     * @param structure       Detected structure of original Matrix, null when it was not analysed.
+     */
+    public InverseResult(Matrix matrix, LUDecomposition luDecomposition, InverseOperator inverse, Double determinant,
+                         MatrixStructure structure) {
+        super(matrix, luDecomposition, determinant, structure);
         this.inverse = inverse;
     }
 
+    /**
+     * Returns inverse matrix, computing it on first call.
+     * Use {@link #getInverseOperator()} to apply the inverse without materializing it.
+     *
+     * @return Inverse matrix or null when original matrix is singular.
+     */
+    public Matrix getInverse() {
+        return inverse == null ? null : inverse.toMatrix();
+    }
+
+    /**
+     * Returns inverse operator.
+     *
+     * @return Inverse of original matrix or null when original matrix is singular.
+     */
+    public InverseOperator getInverseOperator() {
+        return inverse;
+    }
+
     /**
      * Overridden toString routine.
      *
@@ -36,6 +74,7 @@ public class InverseResult extends Result {
      */
     @Override
     public String toString() {
+        long start = System.nanoTime();
         StringBuilder stringBuilder = new StringBuilder();
 
         stringBuilder.append("Matrix Inversion\n")
@@ -43,12 +82,17 @@ public class InverseResult extends Result {
         if (inverse == null) {
             stringBuilder.append("\nSingular matrix");
         } else {
-            stringBuilder.append("\nLower Matrix\n").append(luDecomposition.getL().toString())
-                    .append("\nUpper Matrix\n").append(luDecomposition.getU().toString())
-                    .append("\nInverse Matrix\n").append(inverse.toString())
-                    .append(String.format("\nDeterminant = %f", determinant));
+            if (rendersFactors()) {
+                stringBuilder.append("\nLower Matrix\n").append(lowerToString())
+                        .append("\nUpper Matrix\n").append(upperToString());
+            }
+            stringBuilder.append("\nInverse Matrix\n").append(inverse.toMatrix().toString())
+                    .append(String.format("\nDeterminant = %f", determinant))
+                    .append(structureToString());
         }
 
-        return stringBuilder.toString();
+        String text = stringBuilder.toString();
+        SolverMetrics.record(Operation.RENDER, originalMatrix.getRows(), System.nanoTime() - start, 0);
+        return text;
     }
 }
@@ -0,0 +1,81 @@
+package models.internals.results;
+
+import models.matrices.Matrix;
+import models.monitoring.Operation;
+import models.monitoring.SolverMetrics;
+import models.utilities.iterative.IterativeSolution;
+import models.vectors.Vector;
+
+/**
+ * Result of iterative solve routine invoked from controller.
+ *
+ * @see Result
+ */
+public class IterativeResult extends Result {
+    /**
+     * Original Vector.
+     */
+    private final Vector originalVector;
+
+    /**
+     * Solution with convergence history.
+     */
+    private final IterativeSolution solution;
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param matrix   Original Matrix.
+     * @param vector   Original Vector.
+     * @param solution Solution with convergence history.
+     */
+    public IterativeResult(Matrix matrix, Vector vector, IterativeSolution solution) {
+        super(matrix, null, null);
+        this.originalVector = vector;
+        this.solution = solution;
+    }
+
+    /**
+     * Returns original vector.
+     *
+     * @return Original vector.
+     */
+    public Vector getOriginalVector() {
+        return originalVector;
+    }
+
+    /**
+     * Returns solution with convergence history.
+     *
+     * @return Iterative solution.
+     */
+    public IterativeSolution getSolution() {
+        return solution;
+    }
+
+    /**
+     * Overridden toString routine.
+     *
+     * @return String with specific format.
+     */
+    @Override
+    public String toString() {
+        long start = System.nanoTime();
+        StringBuilder stringBuilder = new StringBuilder();
+
+        stringBuilder.append(String.format("Iterative solve with %s, %s preconditioner\n", solution.getMethod(), solution.getPreconditioner()))
+                .append("Original matrix\n").append(originalMatrix.toString())
+                .append("\nOriginal vector\n").append(originalVector.toString())
+                .append("\nSolution\n").append(solution.getSolution().toString())
+                .append(String.format("\nIterations = %d, converged = %b, relative residual = %e",
+                        solution.getIterations(), solution.isConverged(), solution.getRelativeResidual()))
+                .append("\nResidual history\n");
+        for (double residual : solution.getResidualHistory()) {
+            stringBuilder.append(String.format("\t%e\n", residual));
+        }
+
+        String text = stringBuilder.toString();
+        SolverMetrics.record(Operation.RENDER, originalMatrix.getRows(), System.nanoTime() - start, 0);
+        return text;
+    }
+}
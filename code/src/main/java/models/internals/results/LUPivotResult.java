@@ -1,7 +1,10 @@
 package models.internals.results;
 
 import models.matrices.Matrix;
+import models.monitoring.Operation;
+import models.monitoring.SolverMetrics;
 import models.utilities.LUDecomposition;
+import models.utilities.MatrixStructure;
 import models.vectors.Vector;
 
 /**
@@ -32,7 +35,22 @@ public class LUPivotResult extends Result {
      * @param determinant     Determinant of original Matrix.
      */
     public LUPivotResult(Matrix matrix, Vector vector, LUDecomposition luDecomposition, Vector solution, Double determinant) {
-        super(matrix, luDecomposition, determinant);
+        this(matrix, vector, luDecomposition, solution, determinant, null);
+    }
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param matrix          Original Matrix.
+     * @param vector          Original Vector.
+     * @param luDecomposition LU Decomposition of original matrix, null to compute it on request.
+     * @param solution        Solution Vector.
+     * @param determinant     Determinant of original Matrix.
+     * @param structure       Detected structure of original Matrix, null when it was not analysed.
+     */
+    public LUPivotResult(Matrix matrix, Vector vector, LUDecomposition luDecomposition, Vector solution, Double determinant,
+                         MatrixStructure structure) {
+        super(matrix, luDecomposition, determinant, structure);
         originalVector = vector;
         this.solution = solution;
     }
@@ -46,6 +64,15 @@ public class LUPivotResult extends Result {
         return originalVector;
     }
 
+    /**
+     * Returns solution vector.
+     *
+     * @return Solution vector.
+     */
+    public Vector getSolution() {
+        return solution;
+    }
+
     /**
      * Overridden toString routine.
      *
@@ -53,16 +80,26 @@ public class LUPivotResult extends Result {
      */
     @Override
     public String toString() {
+        long start = System.nanoTime();
         StringBuilder stringBuilder = new StringBuilder();
 
-        stringBuilder.append("LU Decomposition with scaled partial pivoting\n")
-                .append("Original matrix\n").append(originalMatrix.toString())
-                .append("\nOriginal vector\n").append(originalVector.toString())
-                .append("\nLower matrix\n").append(luDecomposition.getL().toString())
-                .append("\nUpper matrix\n").append(luDecomposition.getU().toString())
-                .append("\nSolution\n").append(solution.toString())
-                .append(String.format("\nDeterminant = %f", determinant));
+        if (rendersFactors()) {
+            stringBuilder.append("LU Decomposition with scaled partial pivoting\n")
+                    .append("Original matrix\n").append(originalMatrix.toString())
+                    .append("\nOriginal vector\n").append(originalVector.toString())
+                    .append("\nLower matrix\n").append(lowerToString())
+                    .append("\nUpper matrix\n").append(upperToString());
+        } else {
+            stringBuilder.append("Solution using detected matrix structure\n")
+                    .append("Original matrix\n").append(originalMatrix.toString())
+                    .append("\nOriginal vector\n").append(originalVector.toString());
+        }
+        stringBuilder.append("\nSolution\n").append(solution.toString())
+                .append(String.format("\nDeterminant = %f", determinant))
+                .append(structureToString());
 
-        return stringBuilder.toString();
+        String text = stringBuilder.toString();
+        SolverMetrics.record(Operation.RENDER, originalMatrix.getRows(), System.nanoTime() - start, 0);
+        return text;
     }
 }
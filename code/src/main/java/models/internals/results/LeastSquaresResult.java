@@ -0,0 +1,109 @@
+package models.internals.results;
+
+import models.matrices.Matrix;
+import models.matrices.PackedTriangularMatrix;
+import models.monitoring.Operation;
+import models.monitoring.SolverMetrics;
+import models.vectors.Vector;
+
+/**
+ * Result of least squares routine invoked from controller.
+ *
+ * @see Result
+ */
+public class LeastSquaresResult extends Result {
+    /**
+     * Original Vector.
+     */
+    private final Vector originalVector;
+
+    /**
+     * Upper triangular factor of QR decomposition in packed storage.
+     */
+    private final PackedTriangularMatrix r;
+
+    /**
+     * Solution Vector.
+     */
+    private final Vector solution;
+
+    /**
+     * Two norm of the residual b - Ax.
+     */
+    private final double residualNorm;
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param matrix       Original Matrix.
+     * @param vector       Original Vector.
+     * @param r            Upper triangular factor of QR decomposition in packed storage.
+     * @param solution     Solution Vector.
+     * @param residualNorm Two norm of the residual.
+     */
+    public LeastSquaresResult(Matrix matrix, Vector vector, PackedTriangularMatrix r, Vector solution, double residualNorm) {
+        super(matrix, null, null);
+        this.originalVector = vector;
+        this.r = r;
+        this.solution = solution;
+        this.residualNorm = residualNorm;
+    }
+
+    /**
+     * Returns original vector.
+     *
+     * @return Original vector.
+     */
+    public Vector getOriginalVector() {
+        return originalVector;
+    }
+
+    /**
+     * Returns upper triangular factor of QR decomposition.
+     *
+     * @return R in packed storage.
+     */
+    public PackedTriangularMatrix getR() {
+        return r;
+    }
+
+    /**
+     * Returns solution vector.
+     *
+     * @return Solution vector.
+     */
+    public Vector getSolution() {
+        return solution;
+    }
+
+    /**
+     * Returns two norm of the residual.
+     *
+     * @return Norm of b - Ax.
+     */
+    public double getResidualNorm() {
+        return residualNorm;
+    }
+
+    /**
+     * Overridden toString routine.
+     *
+     * @return String with specific format.
+     */
+    @Override
+    public String toString() {
+        long start = System.nanoTime();
+        StringBuilder stringBuilder = new StringBuilder();
+
+        stringBuilder.append("Least squares with Householder QR\n")
+                .append("Original matrix\n").append(originalMatrix.toString())
+                .append("\nOriginal vector\n").append(originalVector.toString())
+                .append("\nUpper matrix R\n").append(r.toString())
+                .append("\nSolution\n").append(solution.toString())
+                .append(String.format("\nResidual norm = %f", residualNorm));
+
+        String text = stringBuilder.toString();
+        SolverMetrics.record(Operation.RENDER, originalMatrix.getRows(), System.nanoTime() - start, 0);
+        return text;
+    }
+}
@@ -1,7 +1,9 @@
 package models.internals.results;
 
+import models.exceptions.NonSquareMatrixException;
 import models.matrices.Matrix;
 import models.utilities.LUDecomposition;
+import models.utilities.MatrixStructure;
 
 import java.io.Serializable;
 
@@ -19,25 +21,44 @@ public class Result implements Serializable {
 
     /**
      * LU Decomposition of original matrix.
+     * Computed on first request when the routine did not need it.
      */
-    protected final LUDecomposition luDecomposition;
+    private volatile LUDecomposition luDecomposition;
 
     /**
      * Determinant of original matrix.
      */
     protected final Double determinant;
 
+    /**
+     * Structure of original matrix detected before solving, null when it was not analysed.
+     */
+    private final MatrixStructure structure;
+
     /**
      * Parametrized constructor.
      *
      * @param originalMatrix  Original Matrix.
-     * @param luDecomposition LU Decomposition of original matrix.
+     * @param luDecomposition LU Decomposition of original matrix, null to compute it on request.
      * @param determinant     Determinant of original matrix.
      */
     public Result(Matrix originalMatrix, LUDecomposition luDecomposition, Double determinant) {
+        this(originalMatrix, luDecomposition, determinant, null);
+    }
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param originalMatrix  Original Matrix.
+     * @param luDecomposition LU Decomposition of original matrix, null to compute it on request.
+     * @param determinant     Determinant of original matrix.
+     * @param structure       Detected structure of original matrix, null when it was not analysed.
+     */
+    public Result(Matrix originalMatrix, LUDecomposition luDecomposition, Double determinant, MatrixStructure structure) {
         this.originalMatrix = originalMatrix;
         this.luDecomposition = luDecomposition;
         this.determinant = determinant;
+        this.structure = structure;
     }
 
     /**
@@ -51,10 +72,91 @@ public class Result implements Serializable {
 
     /**
      * Returns LU Decomposition of original matrix.
+     * Factorizes original matrix when the decomposition was not provided.
      *
-     * @return LU Decomposition of original matrix.
+     * @return LU Decomposition of original matrix or null when there is no matrix.
      */
     public LUDecomposition getLuDecomposition() {
-        return luDecomposition;
+        LUDecomposition decomposition = luDecomposition;
+        if (decomposition == null && originalMatrix != null) {
+            decomposition = new LUDecomposition(originalMatrix);
+            luDecomposition = decomposition;
+        }
+        return decomposition;
+    }
+
+    /**
+     * Checks if LU Decomposition is available without factorizing original matrix.
+     *
+     * @return True when the decomposition was provided or already computed.
+     */
+    public boolean isFactorized() {
+        return luDecomposition != null;
+    }
+
+    /**
+     * Checks if rendering shows LU factors.
+     * Results solved through a detected structure other than general are rendered without them,
+     * so displaying the result does not factorize the whole matrix.
+     *
+     * @return True when the decomposition is available, the matrix is general or its structure was not analysed.
+     */
+    protected boolean rendersFactors() {
+        return isFactorized() || structure == null || structure == MatrixStructure.GENERAL;
+    }
+
+    /**
+     * Renders lower factor, from packed storage for square matrices.
+     *
+     * @return Lower matrix in String format.
+     */
+    protected String lowerToString() {
+        LUDecomposition decomposition = getLuDecomposition();
+        try {
+            return decomposition.getPackedL().toString();
+        } catch (NonSquareMatrixException e) {
+            return decomposition.getL().toString();
+        }
+    }
+
+    /**
+     * Renders upper factor, from packed storage for square matrices.
+     *
+     * @return Upper matrix in String format.
+     */
+    protected String upperToString() {
+        LUDecomposition decomposition = getLuDecomposition();
+        try {
+            return decomposition.getPackedU().toString();
+        } catch (NonSquareMatrixException e) {
+            return decomposition.getU().toString();
+        }
+    }
+
+    /**
+     * Returns determinant of original matrix.
+     *
+     * @return Determinant of original matrix or null when it was not computed.
+     */
+    public Double getDeterminant() {
+        return determinant;
+    }
+
+    /**
+     * Returns structure of original matrix detected before solving.
+     *
+     * @return Structure or null when it was not analysed.
+     */
+    public MatrixStructure getStructure() {
+        return structure;
+    }
+
+    /**
+     * Renders detected structure of original matrix.
+     *
+     * @return Structure line or empty string when it was not analysed.
+     */
+    protected String structureToString() {
+        return structure == null ? "" : "\nStructure = " + structure;
     }
 }
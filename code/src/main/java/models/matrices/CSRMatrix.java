@@ -0,0 +1,318 @@
+package models.matrices;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Sparse matrix in compressed sparse row format.
+ * Large products are computed in parallel over row ranges holding equal numbers of nonzero elements,
+ * so a few long rows do not leave other threads idle. Range boundaries are multiples of a cache line of doubles
+ * and every element of the result is written once, so threads do not share cache lines of the output.
+ *
+ * @see LinearOperator
+ * @see SellCSigmaMatrix
+ */
+public final class CSRMatrix implements LinearOperator, Serializable {
+    /**
+     * Number of nonzero elements above which products are computed in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * Number of doubles in a cache line, row ranges of threads start at multiples of it.
+     */
+    static final int CACHE_LINE_DOUBLES = 8;
+
+    /**
+     * Number of row ranges per available processor, extra ranges even out uneven progress of threads.
+     */
+    private static final int RANGES_PER_PROCESSOR = 4;
+
+    /**
+     * Number of rows.
+     */
+    private final int rows;
+
+    /**
+     * Number of columns.
+     */
+    private final int columns;
+
+    /**
+     * Offsets of rows, row i occupies [rowStart[i], rowStart[i + 1]).
+     */
+    private final int[] rowStart;
+
+    /**
+     * Column indices of nonzero elements.
+     */
+    private final int[] columnIndices;
+
+    /**
+     * Values of nonzero elements.
+     */
+    private final double[] values;
+
+    /**
+     * First rows of ranges processed by separate tasks, the last element equals number of rows.
+     */
+    private final int[] partition;
+
+    /**
+     * Parametrized constructor, takes ownership of the arrays.
+     *
+     * @param rows          Number of rows.
+     * @param columns       Number of columns.
+     * @param rowStart      Offsets of rows, rows + 1 elements.
+     * @param columnIndices Column indices of nonzero elements.
+     * @param values        Values of nonzero elements.
+     * @throws IllegalArgumentException when arrays do not describe a rows by columns matrix.
+     */
+    public CSRMatrix(int rows, int columns, int[] rowStart, int[] columnIndices, double[] values) {
+        if (rowStart.length != rows + 1 || rowStart[0] != 0 || rowStart[rows] != values.length
+                || columnIndices.length != values.length) {
+            throw new IllegalArgumentException("Invalid compressed sparse row structure.");
+        }
+        for (int i = 0; i < rows; i++) {
+            if (rowStart[i] > rowStart[i + 1]) {
+                throw new IllegalArgumentException("Row offsets must not decrease.");
+            }
+        }
+        for (int column : columnIndices) {
+            if (column < 0 || column >= columns) {
+                throw new IllegalArgumentException("Column index out of range.");
+            }
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.rowStart = rowStart;
+        this.columnIndices = columnIndices;
+        this.values = values;
+        this.partition = balancedPartition(rowStart, rows, ForkJoinPool.getCommonPoolParallelism() * RANGES_PER_PROCESSOR);
+    }
+
+    /**
+     * Compresses nonzero elements of a dense matrix.
+     *
+     * @param matrix Dense matrix.
+     * @return Sparse matrix.
+     */
+    public static CSRMatrix of(Matrix matrix) {
+        int rows = matrix.getRows();
+        int columns = matrix.getColumns();
+        int[] rowStart = new int[rows + 1];
+        for (int i = 0; i < rows; i++) {
+            int count = 0;
+            for (int j = 0; j < columns; j++) {
+                if (matrix.getAt(i, j) != 0.0) {
+                    count++;
+                }
+            }
+            rowStart[i + 1] = rowStart[i] + count;
+        }
+        int[] columnIndices = new int[rowStart[rows]];
+        double[] values = new double[rowStart[rows]];
+        for (int i = 0, p = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                double value = matrix.getAt(i, j);
+                if (value != 0.0) {
+                    columnIndices[p] = j;
+                    values[p++] = value;
+                }
+            }
+        }
+        return new CSRMatrix(rows, columns, rowStart, columnIndices, values);
+    }
+
+    /**
+     * Splits rows into ranges with similar numbers of nonzero elements.
+     * Boundaries are rounded to multiples of a cache line of doubles.
+     *
+     * @param rowStart Offsets of rows.
+     * @param rows     Number of rows.
+     * @param ranges   Requested number of ranges.
+     * @return First rows of ranges followed by number of rows.
+     */
+    static int[] balancedPartition(int[] rowStart, int rows, int ranges) {
+        ranges = Math.max(1, Math.min(ranges, (rows + CACHE_LINE_DOUBLES - 1) / CACHE_LINE_DOUBLES));
+        long nonZeros = rowStart[rows];
+        int[] bounds = new int[ranges + 1];
+        int count = 1;
+        for (int k = 1; k < ranges; k++) {
+            long target = nonZeros * k / ranges;
+            int row = Arrays.binarySearch(rowStart, 0, rows + 1, (int) target);
+            if (row < 0) {
+                row = -row - 1;
+            }
+            row = Math.min(rows, (row + CACHE_LINE_DOUBLES / 2) / CACHE_LINE_DOUBLES * CACHE_LINE_DOUBLES);
+            if (row > bounds[count - 1] && row < rows) {
+                bounds[count++] = row;
+            }
+        }
+        bounds[count++] = rows;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    /**
+     * Returns number of rows.
+     *
+     * @return Number of rows.
+     */
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns number of columns.
+     *
+     * @return Number of columns.
+     */
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns number of stored elements.
+     *
+     * @return Number of nonzero elements.
+     */
+    public int getNonZeros() {
+        return values.length;
+    }
+
+    /**
+     * Returns offsets of rows.
+     *
+     * @return Row offsets, rows + 1 elements.
+     */
+    public int[] getRowStart() {
+        return rowStart;
+    }
+
+    /**
+     * Returns column indices of nonzero elements.
+     *
+     * @return Column indices.
+     */
+    public int[] getColumnIndices() {
+        return columnIndices;
+    }
+
+    /**
+     * Returns values of nonzero elements.
+     *
+     * @return Values.
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    /**
+     * Returns row ranges of parallel products.
+     *
+     * @return First rows of ranges followed by number of rows.
+     */
+    int[] getPartition() {
+        return partition;
+    }
+
+    /**
+     * Returns an element.
+     *
+     * @param row    Row of the element.
+     * @param column Column of the element.
+     * @return Element, zero when it is not stored.
+     */
+    public double getAt(int row, int column) {
+        for (int p = rowStart[row]; p < rowStart[row + 1]; p++) {
+            if (columnIndices[p] == column) {
+                return values[p];
+            }
+        }
+        return 0.0;
+    }
+
+    /**
+     * Computes y = Ax, large products in parallel over balanced row ranges.
+     *
+     * @param x Vector with as many elements as columns.
+     * @param y Array for the result with as many elements as rows.
+     */
+    @Override
+    public void apply(double[] x, double[] y) {
+        if (values.length < PARALLEL_THRESHOLD || partition.length <= 2) {
+            multiplyRows(0, rows, x, y);
+        } else {
+            IntStream.range(0, partition.length - 1).parallel()
+                    .forEach(k -> multiplyRows(partition[k], partition[k + 1], x, y));
+        }
+    }
+
+    /**
+     * Computes rows of y = Ax, every element of y is written once.
+     *
+     * @param from First row.
+     * @param to   Row after the last one.
+     * @param x    Vector.
+     * @param y    Result.
+     */
+    private void multiplyRows(int from, int to, double[] x, double[] y) {
+        for (int i = from; i < to; i++) {
+            double sum = 0.0;
+            for (int p = rowStart[i]; p < rowStart[i + 1]; p++) {
+                sum += values[p] * x[columnIndices[p]];
+            }
+            y[i] = sum;
+        }
+    }
+
+    /**
+     * Computes y = A^T x by scattering rows.
+     *
+     * @param x Vector with as many elements as rows.
+     * @param y Array for the result with as many elements as columns.
+     */
+    @Override
+    public void applyTranspose(double[] x, double[] y) {
+        Arrays.fill(y, 0, columns, 0.0);
+        for (int i = 0; i < rows; i++) {
+            double xi = x[i];
+            for (int p = rowStart[i]; p < rowStart[i + 1]; p++) {
+                y[columnIndices[p]] += values[p] * xi;
+            }
+        }
+    }
+
+    /**
+     * Returns diagonal elements.
+     *
+     * @return Array of min(rows, columns) diagonal elements.
+     */
+    @Override
+    public double[] getDiagonal() {
+        double[] diagonal = new double[Math.min(rows, columns)];
+        for (int i = 0; i < diagonal.length; i++) {
+            diagonal[i] = getAt(i, i);
+        }
+        return diagonal;
+    }
+
+    /**
+     * Expands to dense matrix.
+     *
+     * @return Dense matrix.
+     */
+    public Matrix toMatrix() {
+        double[][] data = new double[rows][columns];
+        for (int i = 0; i < rows; i++) {
+            for (int p = rowStart[i]; p < rowStart[i + 1]; p++) {
+                data[i][columnIndices[p]] += values[p];
+            }
+        }
+        return Matrix.wrap(data);
+    }
+}
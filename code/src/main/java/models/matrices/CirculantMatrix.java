@@ -0,0 +1,212 @@
+package models.matrices;
+
+import models.exceptions.InvalidMatrixSizesException;
+import models.vectors.Vector;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Square circulant matrix, every row is the previous one rotated right by one element.
+ * Only the first column is stored, n distinct elements in O(n) memory.
+ * Element (i, j) is column[(i - j) mod n].
+ *
+ * @see models.utilities.CirculantSolver
+ */
+public final class CirculantMatrix implements LinearOperator, Serializable {
+    /**
+     * First column.
+     */
+    private final double[] column;
+
+    /**
+     * Parametrized constructor, copies the array.
+     *
+     * @param column First column.
+     * @throws IllegalArgumentException when the column is empty.
+     */
+    public CirculantMatrix(double[] column) {
+        if (column.length == 0) {
+            throw new IllegalArgumentException("First column must not be empty.");
+        }
+        this.column = column.clone();
+    }
+
+    /**
+     * Checks if a matrix is square and every row is the previous one rotated right.
+     *
+     * @param matrix Matrix to check.
+     * @return True when the matrix is circulant.
+     */
+    public static boolean isCirculant(Matrix matrix) {
+        if (!ToeplitzMatrix.isToeplitz(matrix)) {
+            return false;
+        }
+        double[][] a = matrix.getData();
+        int n = a.length;
+        for (int j = 1; j < n; j++) {
+            if (a[0][j] != a[n - j][0]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Extracts circulant matrix from a dense one.
+     *
+     * @param matrix Square circulant matrix.
+     * @return Circulant matrix.
+     * @throws IllegalArgumentException when the matrix is not circulant.
+     */
+    public static CirculantMatrix of(Matrix matrix) {
+        if (!isCirculant(matrix)) {
+            throw new IllegalArgumentException("Matrix must be square and circulant.");
+        }
+        double[][] a = matrix.getData();
+        double[] column = new double[a.length];
+        for (int i = 0; i < a.length; i++) {
+            column[i] = a[i][0];
+        }
+        return new CirculantMatrix(column);
+    }
+
+    /**
+     * Returns number of rows and columns.
+     *
+     * @return Dimension of the matrix.
+     */
+    public int getDimension() {
+        return column.length;
+    }
+
+    /**
+     * Returns number of rows.
+     *
+     * @return Dimension of the matrix.
+     */
+    @Override
+    public int getRows() {
+        return column.length;
+    }
+
+    /**
+     * Returns number of columns.
+     *
+     * @return Dimension of the matrix.
+     */
+    @Override
+    public int getColumns() {
+        return column.length;
+    }
+
+    /**
+     * Returns copy of the first column.
+     *
+     * @return First column.
+     */
+    public double[] getFirstColumn() {
+        return column.clone();
+    }
+
+    /**
+     * Returns element at given position.
+     *
+     * @param row    Index of row.
+     * @param column Index of column.
+     * @return Element of the matrix.
+     */
+    public double getAt(int row, int column) {
+        int n = this.column.length;
+        if (row < 0 || column < 0 || row >= n || column >= n) {
+            throw new IndexOutOfBoundsException();
+        }
+        return this.column[row >= column ? row - column : row - column + n];
+    }
+
+    /**
+     * Multiplies the matrix by a vector.
+     *
+     * @param vector Vector with n elements.
+     * @return Product.
+     * @throws InvalidMatrixSizesException when size of the vector is not correct.
+     */
+    public Vector multiply(Vector vector) throws InvalidMatrixSizesException {
+        if (vector.getSize() != column.length) {
+            throw new InvalidMatrixSizesException();
+        }
+        double[] y = new double[column.length];
+        apply(vector.getData(), y);
+        return Vector.wrap(y);
+    }
+
+    /**
+     * Computes y = Ax in O(n^2) without forming the matrix, the cyclic convolution of the column and x.
+     *
+     * @param x Vector with n elements.
+     * @param y Array for the result with n elements.
+     */
+    @Override
+    public void apply(double[] x, double[] y) {
+        int n = column.length;
+        for (int i = 0; i < n; i++) {
+            double sum = 0.0;
+            for (int j = 0; j <= i; j++) {
+                sum += column[i - j] * x[j];
+            }
+            for (int j = i + 1; j < n; j++) {
+                sum += column[i - j + n] * x[j];
+            }
+            y[i] = sum;
+        }
+    }
+
+    /**
+     * Computes y = A^T x, the transpose is circulant with column c[(n - k) mod n].
+     *
+     * @param x Vector with n elements.
+     * @param y Array for the result with n elements.
+     */
+    @Override
+    public void applyTranspose(double[] x, double[] y) {
+        int n = column.length;
+        for (int i = 0; i < n; i++) {
+            double sum = 0.0;
+            for (int j = 0; j < i; j++) {
+                sum += column[j - i + n] * x[j];
+            }
+            for (int j = i; j < n; j++) {
+                sum += column[j - i] * x[j];
+            }
+            y[i] = sum;
+        }
+    }
+
+    /**
+     * Returns diagonal elements, all equal to the first element.
+     *
+     * @return Array of n diagonal elements.
+     */
+    @Override
+    public double[] getDiagonal() {
+        double[] diagonal = new double[column.length];
+        Arrays.fill(diagonal, column[0]);
+        return diagonal;
+    }
+
+    /**
+     * Expands to dense matrix.
+     *
+     * @return Dense circulant matrix.
+     */
+    public Matrix toMatrix() {
+        int n = column.length;
+        double[][] a = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                a[i][j] = column[i >= j ? i - j : i - j + n];
+            }
+        }
+        return Matrix.wrap(a);
+    }
+}
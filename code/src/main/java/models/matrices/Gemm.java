@@ -0,0 +1,432 @@
+package models.matrices;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * General matrix multiplication kernel C = C + alpha * A * B on arrays of rows.
+ * Operands are split into cache sized tiles, tiles are packed into contiguous strips
+ * and multiplied by a 4 by 4 register blocked micro kernel.
+ * Row blocks of C are computed in parallel on the common fork/join pool for large products.
+ *
+ * @see Matrix#multiply(Matrix)
+ */
+public final class Gemm {
+    /**
+     * Rows of the micro kernel.
+     */
+    private static final int MR = 4;
+
+    /**
+     * Columns of the micro kernel.
+     */
+    private static final int NR = 4;
+
+    /**
+     * Rows of a packed block of A, multiple of MR.
+     */
+    private static final int MC = 64;
+
+    /**
+     * Inner dimension of packed blocks.
+     */
+    private static final int KC = 256;
+
+    /**
+     * Columns of a packed panel of B, multiple of NR.
+     */
+    private static final int NC = 1024;
+
+    /**
+     * Number of multiply-add operations above which row blocks are computed in parallel.
+     */
+    private static final long PARALLEL_THRESHOLD = 1L << 21;
+
+    /**
+     * Number of multiply-add operations below which packing does not pay off.
+     */
+    private static final long PACKING_THRESHOLD = 1L << 12;
+
+    /**
+     * Private constructor, class contains only static routines.
+     */
+    private Gemm() {
+    }
+
+    /**
+     * Computes C[ci:ci+m, cj:cj+n] += alpha * A[ai:ai+m, aj:aj+k] * B[bi:bi+k, bj:bj+n].
+     * C must not overlap with A or B.
+     *
+     * @param alpha Scalar multiplying the product.
+     * @param A     Rows of the left operand.
+     * @param ai    First row of A.
+     * @param aj    First column of A.
+     * @param B     Rows of the right operand.
+     * @param bi    First row of B.
+     * @param bj    First column of B.
+     * @param C     Rows of the result.
+     * @param ci    First row of C.
+     * @param cj    First column of C.
+     * @param m     Number of rows of the product.
+     * @param n     Number of columns of the product.
+     * @param k     Inner dimension.
+     */
+    public static void multiplyAdd(double alpha, double[][] A, int ai, int aj, double[][] B, int bi, int bj,
+                                   double[][] C, int ci, int cj, int m, int n, int k) {
+        if (m <= 0 || n <= 0 || k <= 0 || alpha == 0.0) {
+            return;
+        }
+        long work = (long) m * n * k;
+        if (work < PACKING_THRESHOLD) {
+            multiplyAddSimple(alpha, A, ai, aj, B, bi, bj, C, ci, cj, m, n, k);
+            return;
+        }
+
+        boolean parallel = work >= PARALLEL_THRESHOLD && m > MC && ForkJoinPool.getCommonPoolParallelism() > 1;
+        double[] packedB = new double[KC * roundUp(Math.min(n, NC), NR)];
+        double[] packedA = parallel ? null : new double[roundUp(MC, MR) * KC];
+
+        for (int jc = 0; jc < n; jc += NC) {
+            int nc = Math.min(NC, n - jc);
+            for (int pc = 0; pc < k; pc += KC) {
+                int kc = Math.min(KC, k - pc);
+                packB(B, bi + pc, bj + jc, kc, nc, packedB);
+
+                if (parallel) {
+                    ForkJoinPool.commonPool().invoke(new RowBlocks(alpha, A, ai, aj + pc, packedB, C, ci, cj + jc,
+                            0, (m + MC - 1) / MC, m, nc, kc));
+                } else {
+                    for (int ic = 0; ic < m; ic += MC) {
+                        int mc = Math.min(MC, m - ic);
+                        packA(A, ai + ic, aj + pc, mc, kc, packedA);
+                        macroKernel(alpha, packedA, packedB, C, ci + ic, cj + jc, mc, nc, kc);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Plain triple loop for small products.
+     *
+     * @param alpha Scalar multiplying the product.
+     * @param A     Rows of the left operand.
+     * @param ai    First row of A.
+     * @param aj    First column of A.
+     * @param B     Rows of the right operand.
+     * @param bi    First row of B.
+     * @param bj    First column of B.
+     * @param C     Rows of the result.
+     * @param ci    First row of C.
+     * @param cj    First column of C.
+     * @param m     Number of rows of the product.
+     * @param n     Number of columns of the product.
+     * @param k     Inner dimension.
+     */
+    private static void multiplyAddSimple(double alpha, double[][] A, int ai, int aj, double[][] B, int bi, int bj,
+                                          double[][] C, int ci, int cj, int m, int n, int k) {
+        for (int i = 0; i < m; i++) {
+            double[] Arow = A[ai + i];
+            double[] Crow = C[ci + i];
+            for (int p = 0; p < k; p++) {
+                double a = alpha * Arow[aj + p];
+                if (a == 0.0) {
+                    continue;
+                }
+                double[] Brow = B[bi + p];
+                for (int j = 0; j < n; j++) {
+                    Crow[cj + j] += a * Brow[bj + j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Packs block of A into strips of MR rows stored column after column, missing rows are zero.
+     *
+     * @param A      Rows of A.
+     * @param row    First row of the block.
+     * @param column First column of the block.
+     * @param mc     Number of rows of the block.
+     * @param kc     Number of columns of the block.
+     * @param packed Destination.
+     */
+    private static void packA(double[][] A, int row, int column, int mc, int kc, double[] packed) {
+        int index = 0;
+        for (int i0 = 0; i0 < mc; i0 += MR) {
+            int rows = Math.min(MR, mc - i0);
+            for (int p = 0; p < kc; p++) {
+                for (int i = 0; i < MR; i++) {
+                    packed[index++] = i < rows ? A[row + i0 + i][column + p] : 0.0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Packs panel of B into strips of NR columns stored row after row, missing columns are zero.
+     *
+     * @param B      Rows of B.
+     * @param row    First row of the panel.
+     * @param column First column of the panel.
+     * @param kc     Number of rows of the panel.
+     * @param nc     Number of columns of the panel.
+     * @param packed Destination.
+     */
+    private static void packB(double[][] B, int row, int column, int kc, int nc, double[] packed) {
+        int index = 0;
+        for (int j0 = 0; j0 < nc; j0 += NR) {
+            int columns = Math.min(NR, nc - j0);
+            for (int p = 0; p < kc; p++) {
+                double[] Brow = B[row + p];
+                int offset = column + j0;
+                if (columns == NR) {
+                    packed[index] = Brow[offset];
+                    packed[index + 1] = Brow[offset + 1];
+                    packed[index + 2] = Brow[offset + 2];
+                    packed[index + 3] = Brow[offset + 3];
+                } else {
+                    for (int j = 0; j < NR; j++) {
+                        packed[index + j] = j < columns ? Brow[offset + j] : 0.0;
+                    }
+                }
+                index += NR;
+            }
+        }
+    }
+
+    /**
+     * Multiplies packed block of A with packed panel of B and adds the result to C.
+     *
+     * @param alpha   Scalar multiplying the product.
+     * @param packedA Packed block of A.
+     * @param packedB Packed panel of B.
+     * @param C       Rows of C.
+     * @param row     First row of C.
+     * @param column  First column of C.
+     * @param mc      Number of rows of the block.
+     * @param nc      Number of columns of the panel.
+     * @param kc      Inner dimension.
+     */
+    private static void macroKernel(double alpha, double[] packedA, double[] packedB, double[][] C,
+                                    int row, int column, int mc, int nc, int kc) {
+        for (int j0 = 0; j0 < nc; j0 += NR) {
+            int columns = Math.min(NR, nc - j0);
+            int bOffset = j0 * kc;
+            for (int i0 = 0; i0 < mc; i0 += MR) {
+                int rows = Math.min(MR, mc - i0);
+                microKernel(alpha, packedA, i0 * kc, packedB, bOffset, C, row + i0, column + j0, rows, columns, kc);
+            }
+        }
+    }
+
+    /**
+     * Computes 4 by 4 block of C in registers.
+     *
+     * @param alpha   Scalar multiplying the product.
+     * @param packedA Packed block of A.
+     * @param aOffset Offset of the strip of A.
+     * @param packedB Packed panel of B.
+     * @param bOffset Offset of the strip of B.
+     * @param C       Rows of C.
+     * @param row     First row of C.
+     * @param column  First column of C.
+     * @param rows    Number of valid rows.
+     * @param columns Number of valid columns.
+     * @param kc      Inner dimension.
+     */
+    private static void microKernel(double alpha, double[] packedA, int aOffset, double[] packedB, int bOffset,
+                                    double[][] C, int row, int column, int rows, int columns, int kc) {
+        double c00 = 0, c01 = 0, c02 = 0, c03 = 0;
+        double c10 = 0, c11 = 0, c12 = 0, c13 = 0;
+        double c20 = 0, c21 = 0, c22 = 0, c23 = 0;
+        double c30 = 0, c31 = 0, c32 = 0, c33 = 0;
+
+        int a = aOffset;
+        int b = bOffset;
+        for (int p = 0; p < kc; p++, a += MR, b += NR) {
+            double a0 = packedA[a], a1 = packedA[a + 1], a2 = packedA[a + 2], a3 = packedA[a + 3];
+            double b0 = packedB[b], b1 = packedB[b + 1], b2 = packedB[b + 2], b3 = packedB[b + 3];
+            c00 += a0 * b0;
+            c01 += a0 * b1;
+            c02 += a0 * b2;
+            c03 += a0 * b3;
+            c10 += a1 * b0;
+            c11 += a1 * b1;
+            c12 += a1 * b2;
+            c13 += a1 * b3;
+            c20 += a2 * b0;
+            c21 += a2 * b1;
+            c22 += a2 * b2;
+            c23 += a2 * b3;
+            c30 += a3 * b0;
+            c31 += a3 * b1;
+            c32 += a3 * b2;
+            c33 += a3 * b3;
+        }
+
+        if (rows == MR && columns == NR) {
+            addRow(C[row], column, alpha, c00, c01, c02, c03);
+            addRow(C[row + 1], column, alpha, c10, c11, c12, c13);
+            addRow(C[row + 2], column, alpha, c20, c21, c22, c23);
+            addRow(C[row + 3], column, alpha, c30, c31, c32, c33);
+        } else {
+            double[][] block = {{c00, c01, c02, c03}, {c10, c11, c12, c13}, {c20, c21, c22, c23}, {c30, c31, c32, c33}};
+            for (int i = 0; i < rows; i++) {
+                double[] Crow = C[row + i];
+                for (int j = 0; j < columns; j++) {
+                    Crow[column + j] += alpha * block[i][j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds four scaled values to a row of C.
+     *
+     * @param Crow   Row of C.
+     * @param column First column.
+     * @param alpha  Scalar.
+     * @param v0     First value.
+     * @param v1     Second value.
+     * @param v2     Third value.
+     * @param v3     Fourth value.
+     */
+    private static void addRow(double[] Crow, int column, double alpha, double v0, double v1, double v2, double v3) {
+        Crow[column] += alpha * v0;
+        Crow[column + 1] += alpha * v1;
+        Crow[column + 2] += alpha * v2;
+        Crow[column + 3] += alpha * v3;
+    }
+
+    /**
+     * Rounds value up to a multiple.
+     *
+     * @param value    Value.
+     * @param multiple Multiple.
+     * @return Smallest multiple not less than value.
+     */
+    private static int roundUp(int value, int multiple) {
+        return (value + multiple - 1) / multiple * multiple;
+    }
+
+    /**
+     * Range of row blocks computed in parallel, every leaf packs its own block of A.
+     */
+    private static final class RowBlocks extends RecursiveAction {
+        /**
+         * Scalar multiplying the product.
+         */
+        private final double alpha;
+
+        /**
+         * Rows of A.
+         */
+        private final double[][] A;
+
+        /**
+         * First row of A.
+         */
+        private final int ai;
+
+        /**
+         * First column of A in the current inner block.
+         */
+        private final int aj;
+
+        /**
+         * Shared packed panel of B.
+         */
+        private final double[] packedB;
+
+        /**
+         * Rows of C.
+         */
+        private final double[][] C;
+
+        /**
+         * First row of C.
+         */
+        private final int ci;
+
+        /**
+         * First column of C in the current panel.
+         */
+        private final int cj;
+
+        /**
+         * First row block.
+         */
+        private final int from;
+
+        /**
+         * Block after the last row block.
+         */
+        private final int to;
+
+        /**
+         * Number of rows of the product.
+         */
+        private final int m;
+
+        /**
+         * Number of columns of the panel.
+         */
+        private final int nc;
+
+        /**
+         * Inner dimension of the block.
+         */
+        private final int kc;
+
+        /**
+         * Parametrized constructor.
+         *
+         * @param alpha   Scalar multiplying the product.
+         * @param A       Rows of A.
+         * @param ai      First row of A.
+         * @param aj      First column of A in the current inner block.
+         * @param packedB Shared packed panel of B.
+         * @param C       Rows of C.
+         * @param ci      First row of C.
+         * @param cj      First column of C in the current panel.
+         * @param from    First row block.
+         * @param to      Block after the last row block.
+         * @param m       Number of rows of the product.
+         * @param nc      Number of columns of the panel.
+         * @param kc      Inner dimension of the block.
+         */
+        RowBlocks(double alpha, double[][] A, int ai, int aj, double[] packedB, double[][] C, int ci, int cj,
+                  int from, int to, int m, int nc, int kc) {
+            this.alpha = alpha;
+            this.A = A;
+            this.ai = ai;
+            this.aj = aj;
+            this.packedB = packedB;
+            this.C = C;
+            this.ci = ci;
+            this.cj = cj;
+            this.from = from;
+            this.to = to;
+            this.m = m;
+            this.nc = nc;
+            this.kc = kc;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RowBlocks(alpha, A, ai, aj, packedB, C, ci, cj, from, middle, m, nc, kc),
+                        new RowBlocks(alpha, A, ai, aj, packedB, C, ci, cj, middle, to, m, nc, kc));
+                return;
+            }
+
+            double[] packedA = new double[roundUp(MC, MR) * kc];
+            int ic = from * MC;
+            int mc = Math.min(MC, m - ic);
+            packA(A, ai + ic, aj, mc, kc, packedA);
+            macroKernel(alpha, packedA, packedB, C, ci + ic, cj, mc, nc, kc);
+        }
+    }
+}
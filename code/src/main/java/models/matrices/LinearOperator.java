@@ -0,0 +1,123 @@
+package models.matrices;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Linear map y = Ax given by its action on vectors.
+ * Lets solvers work with operators which are never stored explicitly, such as stencils or products of factors.
+ *
+ * @see Matrix
+ */
+public interface LinearOperator {
+    /**
+     * Returns number of rows, size of the result of apply.
+     *
+     * @return Number of rows.
+     */
+    int getRows();
+
+    /**
+     * Returns number of columns, size of the argument of apply.
+     *
+     * @return Number of columns.
+     */
+    int getColumns();
+
+    /**
+     * Computes y = Ax.
+     *
+     * @param x Vector with as many elements as columns.
+     * @param y Array for the result with as many elements as rows, different from x.
+     */
+    void apply(double[] x, double[] y);
+
+    /**
+     * Computes y = A^T x.
+     *
+     * @param x Vector with as many elements as rows.
+     * @param y Array for the result with as many elements as columns, different from x.
+     */
+    void applyTranspose(double[] x, double[] y);
+
+    /**
+     * Returns diagonal of the operator, used by diagonal preconditioners.
+     *
+     * @return Diagonal elements or null when they are not known.
+     */
+    default double[] getDiagonal() {
+        return null;
+    }
+
+    /**
+     * Computes Euclidean norm of the residual b - Ax.
+     *
+     * @param x Vector with as many elements as columns.
+     * @param b Vector with as many elements as rows.
+     * @return Norm of the residual.
+     */
+    default double residualNorm(double[] x, double[] b) {
+        double[] r = new double[getRows()];
+        apply(x, r);
+        double sum = 0.0;
+        for (int i = 0; i < r.length; i++) {
+            double d = b[i] - r[i];
+            sum += d * d;
+        }
+        return Math.sqrt(sum);
+    }
+
+    /**
+     * Creates symmetric operator from its action, which is also used as the transposed action.
+     *
+     * @param n     Number of rows and columns.
+     * @param apply Action computing y = Ax for arguments (x, y).
+     * @return Operator without diagonal.
+     */
+    static LinearOperator symmetric(int n, BiConsumer<double[], double[]> apply) {
+        return of(n, n, apply, apply, null);
+    }
+
+    /**
+     * Creates operator from its actions.
+     *
+     * @param rows           Number of rows.
+     * @param columns        Number of columns.
+     * @param apply          Action computing y = Ax for arguments (x, y).
+     * @param applyTranspose Action computing y = A^T x for arguments (x, y).
+     * @param diagonal       Diagonal elements or null when they are not known.
+     * @return Operator.
+     * @throws IllegalArgumentException when one of the actions is missing.
+     */
+    static LinearOperator of(int rows, int columns, BiConsumer<double[], double[]> apply,
+                             BiConsumer<double[], double[]> applyTranspose, double[] diagonal) {
+        if (apply == null || applyTranspose == null) {
+            throw new IllegalArgumentException("Operator needs both action and transposed action.");
+        }
+        return new LinearOperator() {
+            @Override
+            public int getRows() {
+                return rows;
+            }
+
+            @Override
+            public int getColumns() {
+                return columns;
+            }
+
+            @Override
+            public void apply(double[] x, double[] y) {
+                apply.accept(x, y);
+            }
+
+            @Override
+            public void applyTranspose(double[] x, double[] y) {
+                applyTranspose.accept(x, y);
+            }
+
+            @Override
+            public double[] getDiagonal() {
+                return diagonal;
+            }
+        };
+    }
+}
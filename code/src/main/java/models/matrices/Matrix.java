@@ -1,17 +1,26 @@
 package models.matrices;
 
+import models.exceptions.InvalidMatrixSizesException;
 import models.vectors.Vector;
 
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.stream.IntStream;
 
 /**
  * A matrix class for data storage od a 2D array of doubles.
  * Implementation uses 2D array of doubles.
+ * Copies never share storage, {@link #wrap(double[][])} takes ownership of an array without copying it.
  * Created by Mateusz Gasior on 24-Feb-17.
  *
  * @author Mateusz Gasior
  */
-public final class Matrix implements Serializable {
+public final class Matrix implements LinearOperator, Serializable {
+    /**
+     * Number of elements above which matrix-vector product is computed in parallel.
+     */
+    private static final long PARALLEL_MULTIPLY_THRESHOLD = 1L << 18;
+
     /**
      * Elements of matrix.
      */
@@ -53,9 +62,7 @@ public final class Matrix implements Serializable {
         this.columns = data[0].length;
         this.data = new double[rows][columns];
         for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < columns; j++) {
-                this.data[i][j] = data[i][j];
-            }
+            System.arraycopy(data[i], 0, this.data[i], 0, columns);
         }
     }
 
@@ -68,13 +75,41 @@ public final class Matrix implements Serializable {
     public Matrix(Matrix toCopy) {
         this.rows = toCopy.getRows();
         this.columns = toCopy.getColumns();
-        this.data = new double[rows][columns];
+        this.data = toCopy.getDataCopy();
+    }
 
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < columns; j++) {
-                this.data[i][j] = toCopy.data[i][j];
+    /**
+     * Constructor taking ownership of the given array.
+     *
+     * @param data    Elements of matrix.
+     * @param rows    Number of rows in matrix.
+     * @param columns Number of columns in matrix.
+     */
+    private Matrix(double[][] data, int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.data = data;
+    }
+
+    /**
+     * Creates matrix backed by the given array without copying it.
+     * Caller transfers ownership of the array and must not modify it afterwards.
+     *
+     * @param data Rectangular 2D array of elements.
+     * @return Matrix backed by the array.
+     * @throws IllegalArgumentException when array is empty or rows have different lengths.
+     */
+    public static Matrix wrap(double[][] data) {
+        if (data.length == 0 || data[0].length == 0) {
+            throw new IllegalArgumentException("Matrix must have at least one element.");
+        }
+        int columns = data[0].length;
+        for (double[] row : data) {
+            if (row.length != columns) {
+                throw new IllegalArgumentException("Rows of matrix have different lengths.");
             }
         }
+        return new Matrix(data, data.length, columns);
     }
 
     /**
@@ -135,7 +170,7 @@ public final class Matrix implements Serializable {
     }
 
     /**
-     * Returns data matrix
+     * Returns data matrix.
      *
      * @return elements of matrix
      */
@@ -172,7 +207,7 @@ public final class Matrix implements Serializable {
      */
     public Matrix getMatrix(int[] r, int initialColumnIndex, int finalColumnIndex) {
         Matrix X = new Matrix(r.length, finalColumnIndex - initialColumnIndex + 1);
-        double[][] B = X.getData();
+        double[][] B = X.data;
         try {
             for (int i = 0; i < r.length; i++) {
                 for (int j = initialColumnIndex; j <= finalColumnIndex; j++) {
@@ -191,15 +226,105 @@ public final class Matrix implements Serializable {
      * @return Copy of elements in matrix.
      */
     public double[][] getDataCopy() {
-        double[][] copy = new double[rows][columns];
+        double[][] copy = new double[rows][];
+        for (int i = 0; i < rows; i++) {
+            copy[i] = Arrays.copyOf(data[i], columns);
+        }
+        return copy;
+    }
 
-        for (int i = 0; i < rows; i++)
-            for (int j = 0; j < columns; j++)
-                copy[i][j] = data[i][j];
 
-        return copy;
+    /**
+     * Multiplies this matrix by another matrix.
+     * Uses cache tiled, register blocked kernel, large products are computed in parallel.
+     *
+     * @param other Right operand.
+     * @return Product of this and other matrix.
+     * @throws InvalidMatrixSizesException when number of columns of this matrix is not equal to number of rows of other.
+     */
+    public Matrix multiply(Matrix other) throws InvalidMatrixSizesException {
+        if (columns != other.rows) {
+            throw new InvalidMatrixSizesException();
+        }
+        Matrix product = new Matrix(rows, other.columns);
+        Gemm.multiplyAdd(1.0, data, 0, 0, other.data, 0, 0, product.data, 0, 0, rows, other.columns, columns);
+        return product;
+    }
+
+    /**
+     * Multiplies this matrix by a vector.
+     * Rows of large matrices are processed in parallel.
+     *
+     * @param vector Right operand.
+     * @return Product of this matrix and the vector.
+     * @throws InvalidMatrixSizesException when size of the vector is not equal to number of columns.
+     */
+    public Vector multiply(Vector vector) throws InvalidMatrixSizesException {
+        if (columns != vector.getSize()) {
+            throw new InvalidMatrixSizesException();
+        }
+        double[] y = new double[rows];
+        apply(vector.getData(), y);
+        return Vector.wrap(y);
+    }
+
+    /**
+     * Computes y = Ax, rows of large matrices are processed in parallel.
+     *
+     * @param x Vector with as many elements as columns.
+     * @param y Array for the result with as many elements as rows.
+     */
+    @Override
+    public void apply(double[] x, double[] y) {
+        double[][] a = data;
+        IntStream range = IntStream.range(0, rows);
+        if ((long) rows * columns >= PARALLEL_MULTIPLY_THRESHOLD) {
+            range = range.parallel();
+        }
+        range.forEach(i -> {
+            double[] row = a[i];
+            double sum = 0.0;
+            for (int j = 0; j < columns; j++) {
+                sum += row[j] * x[j];
+            }
+            y[i] = sum;
+        });
+    }
+
+    /**
+     * Computes y = A^T x row by row, so the matrix is read in storage order.
+     *
+     * @param x Vector with as many elements as rows.
+     * @param y Array for the result with as many elements as columns.
+     */
+    @Override
+    public void applyTranspose(double[] x, double[] y) {
+        Arrays.fill(y, 0, columns, 0.0);
+        for (int i = 0; i < rows; i++) {
+            double[] row = data[i];
+            double xi = x[i];
+            if (xi == 0.0) {
+                continue;
+            }
+            for (int j = 0; j < columns; j++) {
+                y[j] += row[j] * xi;
+            }
+        }
     }
 
+    /**
+     * Returns diagonal elements of the matrix.
+     *
+     * @return Array of min(rows, columns) diagonal elements.
+     */
+    @Override
+    public double[] getDiagonal() {
+        double[] diagonal = new double[Math.min(rows, columns)];
+        for (int i = 0; i < diagonal.length; i++) {
+            diagonal[i] = data[i][i];
+        }
+        return diagonal;
+    }
 
     /**
      * Generates identity matrix.
@@ -210,11 +335,9 @@ public final class Matrix implements Serializable {
      */
     public static Matrix identity(int m, int n) {
         Matrix A = new Matrix(m, n);
-        double[][] X = A.getData();
-        for (int i = 0; i < m; i++) {
-            for (int j = 0; j < n; j++) {
-                X[i][j] = (i == j ? 1.0 : 0.0);
-            }
+        double[][] X = A.data;
+        for (int i = 0; i < Math.min(m, n); i++) {
+            X[i][i] = 1.0;
         }
         return A;
     }
@@ -0,0 +1,130 @@
+package models.matrices;
+
+import models.exceptions.InvalidMatrixSizesException;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Batch of many small square matrices of the same dimension stored in interleaved (structure of arrays) layout.
+ * Element (i, j) of matrix b is stored at index (i * n + j) * count + b, so the same element
+ * of all matrices is contiguous and loops over the batch vectorize.
+ *
+ * @see models.utilities.BatchedLUDecomposition
+ */
+public final class MatrixBatch implements Serializable {
+    /**
+     * Dimension of every matrix.
+     */
+    private final int dimension;
+
+    /**
+     * Number of matrices.
+     */
+    private final int count;
+
+    /**
+     * Interleaved elements of all matrices.
+     */
+    private final double[] data;
+
+    /**
+     * Parametrized constructor. Allocates batch of zero matrices.
+     *
+     * @param dimension Dimension of every matrix.
+     * @param count     Number of matrices.
+     */
+    public MatrixBatch(int dimension, int count) {
+        this.dimension = dimension;
+        this.count = count;
+        this.data = new double[dimension * dimension * count];
+    }
+
+    /**
+     * Creates batch from separate matrices.
+     *
+     * @param matrices Square matrices of the same dimension.
+     * @return Batch with copies of the matrices.
+     * @throws InvalidMatrixSizesException when matrices are not square or have different dimensions.
+     */
+    public static MatrixBatch of(List<Matrix> matrices) throws InvalidMatrixSizesException {
+        int dimension = matrices.isEmpty() ? 0 : matrices.get(0).getRows();
+        MatrixBatch batch = new MatrixBatch(dimension, matrices.size());
+        for (int b = 0; b < matrices.size(); b++) {
+            Matrix matrix = matrices.get(b);
+            if (matrix.getRows() != dimension || matrix.getColumns() != dimension) {
+                throw new InvalidMatrixSizesException();
+            }
+            double[][] elements = matrix.getData();
+            for (int i = 0; i < dimension; i++)
+                for (int j = 0; j < dimension; j++)
+                    batch.data[(i * dimension + j) * batch.count + b] = elements[i][j];
+        }
+        return batch;
+    }
+
+    /**
+     * Returns dimension of every matrix.
+     *
+     * @return Number of rows and columns.
+     */
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Returns number of matrices.
+     *
+     * @return Number of matrices.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns element of a matrix.
+     *
+     * @param index  Index of the matrix.
+     * @param row    Index of row.
+     * @param column Index of column.
+     * @return Element of the matrix.
+     */
+    public double getAt(int index, int row, int column) {
+        return data[(row * dimension + column) * count + index];
+    }
+
+    /**
+     * Sets element of a matrix.
+     *
+     * @param index  Index of the matrix.
+     * @param row    Index of row.
+     * @param column Index of column.
+     * @param value  Value to be stored.
+     */
+    public void setAt(int index, int row, int column, double value) {
+        data[(row * dimension + column) * count + index] = value;
+    }
+
+    /**
+     * Copies single matrix out of the batch.
+     *
+     * @param index Index of the matrix.
+     * @return Copy of the matrix.
+     */
+    public Matrix getMatrix(int index) {
+        Matrix matrix = new Matrix(dimension, dimension);
+        for (int i = 0; i < dimension; i++)
+            for (int j = 0; j < dimension; j++)
+                matrix.setAt(i, j, getAt(index, i, j));
+        return matrix;
+    }
+
+    /**
+     * Returns interleaved elements of all matrices.
+     *
+     * @return Elements of the batch.
+     */
+    public double[] getData() {
+        return data;
+    }
+}
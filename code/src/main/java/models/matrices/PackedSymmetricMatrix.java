@@ -0,0 +1,210 @@
+package models.matrices;
+
+import models.exceptions.InvalidMatrixSizesException;
+import models.vectors.Vector;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Square symmetric matrix in packed storage.
+ * Only the lower triangle is stored row by row in one array of n(n+1)/2 elements.
+ *
+ * @see Matrix
+ * @see PackedTriangularMatrix
+ */
+public final class PackedSymmetricMatrix implements LinearOperator, Serializable {
+    /**
+     * Elements of the lower triangle row by row.
+     */
+    private final double[] data;
+
+    /**
+     * Number of rows and columns.
+     */
+    private final int n;
+
+    /**
+     * Parametrized constructor, creates zero matrix.
+     *
+     * @param n Number of rows and columns.
+     */
+    public PackedSymmetricMatrix(int n) {
+        this.n = n;
+        this.data = new double[n * (n + 1) / 2];
+    }
+
+    /**
+     * Packs a symmetric matrix.
+     *
+     * @param matrix Symmetric matrix.
+     * @return Packed matrix.
+     * @throws IllegalArgumentException when the matrix is not symmetric.
+     */
+    public static PackedSymmetricMatrix of(Matrix matrix) {
+        if (!matrix.isSquare()) {
+            throw new IllegalArgumentException("Matrix must be square.");
+        }
+        int n = matrix.getRows();
+        double[][] a = matrix.getData();
+        PackedSymmetricMatrix packed = new PackedSymmetricMatrix(n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= i; j++) {
+                if (a[i][j] != a[j][i]) {
+                    throw new IllegalArgumentException("Matrix must be symmetric.");
+                }
+                packed.data[indexOf(i, j)] = a[i][j];
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * Returns number of rows and columns.
+     *
+     * @return Dimension of the matrix.
+     */
+    public int getDimension() {
+        return n;
+    }
+
+    /**
+     * Returns packed elements of the lower triangle, row by row.
+     *
+     * @return Packed elements.
+     */
+    public double[] getPackedData() {
+        return data;
+    }
+
+    /**
+     * Returns an element.
+     *
+     * @param row    Row of the element.
+     * @param column Column of the element.
+     * @return Element.
+     */
+    public double getAt(int row, int column) {
+        return row >= column ? data[indexOf(row, column)] : data[indexOf(column, row)];
+    }
+
+    /**
+     * Sets an element and its mirror.
+     *
+     * @param row    Row of the element.
+     * @param column Column of the element.
+     * @param value  New value.
+     */
+    public void setAt(int row, int column, double value) {
+        data[row >= column ? indexOf(row, column) : indexOf(column, row)] = value;
+    }
+
+    /**
+     * Multiplies the matrix by a vector.
+     *
+     * @param vector Vector with n elements.
+     * @return Product.
+     * @throws InvalidMatrixSizesException when size of the vector is not correct.
+     */
+    public Vector multiply(Vector vector) throws InvalidMatrixSizesException {
+        if (vector.getSize() != n) {
+            throw new InvalidMatrixSizesException();
+        }
+        double[] y = new double[n];
+        apply(vector.getData(), y);
+        return Vector.wrap(y);
+    }
+
+    /**
+     * Returns number of rows.
+     *
+     * @return Dimension of the matrix.
+     */
+    @Override
+    public int getRows() {
+        return n;
+    }
+
+    /**
+     * Returns number of columns.
+     *
+     * @return Dimension of the matrix.
+     */
+    @Override
+    public int getColumns() {
+        return n;
+    }
+
+    /**
+     * Computes y = Ax reading every stored element once.
+     *
+     * @param x Vector with n elements.
+     * @param y Array for the result with n elements.
+     */
+    @Override
+    public void apply(double[] x, double[] y) {
+        Arrays.fill(y, 0, n, 0.0);
+        for (int i = 0; i < n; i++) {
+            int start = indexOf(i, 0);
+            double sum = data[start + i] * x[i];
+            for (int j = 0; j < i; j++) {
+                double a = data[start + j];
+                sum += a * x[j];
+                y[j] += a * x[i];
+            }
+            y[i] += sum;
+        }
+    }
+
+    /**
+     * Computes y = A^T x, equal to Ax for symmetric matrix.
+     *
+     * @param x Vector with n elements.
+     * @param y Array for the result with n elements.
+     */
+    @Override
+    public void applyTranspose(double[] x, double[] y) {
+        apply(x, y);
+    }
+
+    /**
+     * Returns diagonal elements.
+     *
+     * @return Array of n diagonal elements.
+     */
+    @Override
+    public double[] getDiagonal() {
+        double[] diagonal = new double[n];
+        for (int i = 0; i < n; i++) {
+            diagonal[i] = data[indexOf(i, i)];
+        }
+        return diagonal;
+    }
+
+    /**
+     * Unpacks to dense matrix.
+     *
+     * @return Dense symmetric matrix.
+     */
+    public Matrix toMatrix() {
+        Matrix matrix = new Matrix(n, n);
+        double[][] a = matrix.getData();
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= i; j++) {
+                a[i][j] = a[j][i] = data[indexOf(i, j)];
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Returns position of an element of the lower triangle.
+     *
+     * @param row    Row of the element.
+     * @param column Column of the element, not greater than row.
+     * @return Index in packed array.
+     */
+    private static int indexOf(int row, int column) {
+        return row * (row + 1) / 2 + column;
+    }
+}
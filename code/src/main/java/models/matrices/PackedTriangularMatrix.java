@@ -0,0 +1,337 @@
+package models.matrices;
+
+import models.exceptions.InvalidMatrixSizesException;
+import models.exceptions.SingularMatrixException;
+import models.vectors.Vector;
+
+import java.io.Serializable;
+
+/**
+ * Square triangular matrix in packed storage.
+ * Only the triangle is stored row by row in one array, n(n+1)/2 elements,
+ * and n(n-1)/2 when the diagonal is implicitly one.
+ *
+ * @see Matrix
+ */
+public final class PackedTriangularMatrix implements Serializable {
+    /**
+     * Elements of the triangle row by row.
+     */
+    private final double[] data;
+
+    /**
+     * Number of rows and columns.
+     */
+    private final int n;
+
+    /**
+     * True for upper, false for lower triangle.
+     */
+    private final boolean upper;
+
+    /**
+     * True when the diagonal is one and is not stored.
+     */
+    private final boolean unitDiagonal;
+
+    /**
+     * Parametrized constructor, creates zero triangle.
+     *
+     * @param n            Number of rows and columns.
+     * @param upper        True for upper, false for lower triangle.
+     * @param unitDiagonal True when the diagonal is one and is not stored.
+     */
+    public PackedTriangularMatrix(int n, boolean upper, boolean unitDiagonal) {
+        this.n = n;
+        this.upper = upper;
+        this.unitDiagonal = unitDiagonal;
+        this.data = new double[unitDiagonal ? n * (n - 1) / 2 : n * (n + 1) / 2];
+    }
+
+    /**
+     * Packs lower triangle of a square array.
+     *
+     * @param a            Rows of the array, at least n x n.
+     * @param n            Number of rows and columns.
+     * @param unitDiagonal True when the diagonal is one and is not stored.
+     * @return Packed lower triangle.
+     */
+    public static PackedTriangularMatrix lowerOf(double[][] a, int n, boolean unitDiagonal) {
+        PackedTriangularMatrix packed = new PackedTriangularMatrix(n, false, unitDiagonal);
+        for (int i = 0; i < n; i++) {
+            int length = unitDiagonal ? i : i + 1;
+            System.arraycopy(a[i], 0, packed.data, packed.rowStart(i), length);
+        }
+        return packed;
+    }
+
+    /**
+     * Packs upper triangle of a square array.
+     *
+     * @param a            Rows of the array, at least n x n.
+     * @param n            Number of rows and columns.
+     * @param unitDiagonal True when the diagonal is one and is not stored.
+     * @return Packed upper triangle.
+     */
+    public static PackedTriangularMatrix upperOf(double[][] a, int n, boolean unitDiagonal) {
+        PackedTriangularMatrix packed = new PackedTriangularMatrix(n, true, unitDiagonal);
+        for (int i = 0; i < n; i++) {
+            int first = unitDiagonal ? i + 1 : i;
+            System.arraycopy(a[i], first, packed.data, packed.rowStart(i), n - first);
+        }
+        return packed;
+    }
+
+    /**
+     * Returns number of rows and columns.
+     *
+     * @return Dimension of the matrix.
+     */
+    public int getDimension() {
+        return n;
+    }
+
+    /**
+     * Checks which triangle is stored.
+     *
+     * @return True for upper, false for lower triangle.
+     */
+    public boolean isUpper() {
+        return upper;
+    }
+
+    /**
+     * Checks if the diagonal is implicitly one.
+     *
+     * @return True when the diagonal is not stored.
+     */
+    public boolean isUnitDiagonal() {
+        return unitDiagonal;
+    }
+
+    /**
+     * Returns packed elements, row by row.
+     *
+     * @return Packed elements.
+     */
+    public double[] getPackedData() {
+        return data;
+    }
+
+    /**
+     * Returns an element.
+     *
+     * @param row    Row of the element.
+     * @param column Column of the element.
+     * @return Element, zero outside of the triangle.
+     */
+    public double getAt(int row, int column) {
+        if (row == column && unitDiagonal) {
+            return 1.0;
+        }
+        if (upper ? column < row : column > row) {
+            return 0.0;
+        }
+        return data[indexOf(row, column)];
+    }
+
+    /**
+     * Sets an element inside the stored triangle.
+     *
+     * @param row    Row of the element.
+     * @param column Column of the element.
+     * @param value  New value.
+     * @throws IllegalArgumentException when the element is not stored.
+     */
+    public void setAt(int row, int column, double value) {
+        if ((upper ? column < row : column > row) || (row == column && unitDiagonal)) {
+            throw new IllegalArgumentException("Element (" + row + ", " + column + ") is not stored.");
+        }
+        data[indexOf(row, column)] = value;
+    }
+
+    /**
+     * Solves Tx = b in place with forward or backward substitution on packed rows.
+     *
+     * @param x Right hand side, overwritten with the solution.
+     * @throws InvalidMatrixSizesException when size of the array is not correct.
+     * @throws SingularMatrixException     when there is zero on the diagonal.
+     */
+    public void solveInPlace(double[] x) throws InvalidMatrixSizesException, SingularMatrixException {
+        if (x.length != n) {
+            throw new InvalidMatrixSizesException();
+        }
+        if (upper) {
+            for (int i = n - 1; i >= 0; i--) {
+                int start = rowStart(i);
+                int offset = unitDiagonal ? 0 : 1;
+                double sum = x[i];
+                for (int j = i + 1; j < n; j++) {
+                    sum -= data[start + offset + j - i - 1] * x[j];
+                }
+                x[i] = unitDiagonal ? sum : divide(sum, data[start]);
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                int start = rowStart(i);
+                double sum = x[i];
+                for (int j = 0; j < i; j++) {
+                    sum -= data[start + j] * x[j];
+                }
+                x[i] = unitDiagonal ? sum : divide(sum, data[start + i]);
+            }
+        }
+    }
+
+    /**
+     * Solves T^T x = b in place, rows of T are read as columns of its transpose.
+     *
+     * @param x Right hand side, overwritten with the solution.
+     * @throws InvalidMatrixSizesException when size of the array is not correct.
+     * @throws SingularMatrixException     when there is zero on the diagonal.
+     */
+    public void solveTransposedInPlace(double[] x) throws InvalidMatrixSizesException, SingularMatrixException {
+        if (x.length != n) {
+            throw new InvalidMatrixSizesException();
+        }
+        int d = unitDiagonal ? 1 : 0;
+        if (upper) {
+            for (int i = 0; i < n; i++) {
+                int start = rowStart(i);
+                if (!unitDiagonal) {
+                    x[i] = divide(x[i], data[start]);
+                }
+                double xi = x[i];
+                for (int j = i + 1; j < n; j++) {
+                    x[j] -= data[start + j - i - d] * xi;
+                }
+            }
+        } else {
+            for (int i = n - 1; i >= 0; i--) {
+                int start = rowStart(i);
+                if (!unitDiagonal) {
+                    x[i] = divide(x[i], data[start + i]);
+                }
+                double xi = x[i];
+                for (int j = 0; j < i; j++) {
+                    x[j] -= data[start + j] * xi;
+                }
+            }
+        }
+    }
+
+    /**
+     * Solves Tx = b.
+     *
+     * @param b Right hand-side vector.
+     * @return Solution for linear system.
+     * @throws InvalidMatrixSizesException when size of the vector is not correct.
+     * @throws SingularMatrixException     when there is zero on the diagonal.
+     */
+    public Vector solve(Vector b) throws InvalidMatrixSizesException, SingularMatrixException {
+        Vector x = new Vector(b);
+        solveInPlace(x.getData());
+        return x;
+    }
+
+    /**
+     * Multiplies the triangle by a vector.
+     *
+     * @param vector Vector with n elements.
+     * @return Product.
+     * @throws InvalidMatrixSizesException when size of the vector is not correct.
+     */
+    public Vector multiply(Vector vector) throws InvalidMatrixSizesException {
+        if (vector.getSize() != n) {
+            throw new InvalidMatrixSizesException();
+        }
+        double[] x = vector.getData();
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            int first = upper ? i : 0;
+            int last = upper ? n - 1 : i;
+            double sum = 0.0;
+            for (int j = first; j <= last; j++) {
+                sum += getAt(i, j) * x[j];
+            }
+            y[i] = sum;
+        }
+        return Vector.wrap(y);
+    }
+
+    /**
+     * Unpacks to dense matrix.
+     *
+     * @return Dense matrix with zeros outside of the triangle.
+     */
+    public Matrix toMatrix() {
+        Matrix matrix = new Matrix(n, n);
+        double[][] a = matrix.getData();
+        for (int i = 0; i < n; i++) {
+            int first = upper ? i : 0;
+            int last = upper ? n - 1 : i;
+            for (int j = first; j <= last; j++) {
+                a[i][j] = getAt(i, j);
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Transforms matrix to string object in the format of Matrix.
+     *
+     * @return Matrix interpretation in String format.
+     */
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                stringBuilder.append(String.format("\t%10.7f", getAt(i, j)));
+            }
+            stringBuilder.append("\n");
+        }
+
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Returns position of the first stored element of a row.
+     *
+     * @param row Index of the row.
+     * @return Index in packed array.
+     */
+    private int rowStart(int row) {
+        int d = unitDiagonal ? 1 : 0;
+        return upper
+                ? row * n - row * (row - 1) / 2 - d * row
+                : row * (row + 1) / 2 - d * row;
+    }
+
+    /**
+     * Returns position of a stored element.
+     *
+     * @param row    Row of the element.
+     * @param column Column of the element.
+     * @return Index in packed array.
+     */
+    private int indexOf(int row, int column) {
+        int d = unitDiagonal ? 1 : 0;
+        return upper ? rowStart(row) + column - row - d : rowStart(row) + column;
+    }
+
+    /**
+     * Divides by a diagonal element.
+     *
+     * @param value    Dividend.
+     * @param diagonal Diagonal element.
+     * @return Quotient.
+     * @throws SingularMatrixException when the diagonal element is zero.
+     */
+    private static double divide(double value, double diagonal) throws SingularMatrixException {
+        if (diagonal == 0.0) {
+            throw new SingularMatrixException();
+        }
+        return value / diagonal;
+    }
+}
@@ -0,0 +1,294 @@
+package models.matrices;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Sparse matrix in SELL-C-sigma format.
+ * Rows are sorted by length within windows of sigma rows and grouped into chunks of C rows.
+ * Chunks are padded to their longest row and stored column by column, so the inner loop runs over C independent rows
+ * with unit stride and can be vectorized even when row lengths are irregular.
+ * Sorting keeps padding low, windows keep the permutation local, so rows of a window stay close to their position in x.
+ * A single very long row pads its whole chunk, so for power-law row lengths compressed sparse row format is faster.
+ *
+ * @see CSRMatrix
+ */
+public final class SellCSigmaMatrix implements LinearOperator, Serializable {
+    /**
+     * Default chunk height.
+     */
+    public static final int DEFAULT_CHUNK_HEIGHT = 8;
+
+    /**
+     * Default sorting window.
+     */
+    public static final int DEFAULT_SIGMA = 256;
+
+    /**
+     * Number of stored elements above which products are computed in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * Number of rows.
+     */
+    private final int rows;
+
+    /**
+     * Number of columns.
+     */
+    private final int columns;
+
+    /**
+     * Chunk height C.
+     */
+    private final int chunkHeight;
+
+    /**
+     * Sorting window sigma, a multiple of chunk height.
+     */
+    private final int sigma;
+
+    /**
+     * Offsets of chunks in values and columnIndices.
+     */
+    private final int[] chunkStart;
+
+    /**
+     * Lengths of chunks, number of stored columns of every chunk.
+     */
+    private final int[] chunkLength;
+
+    /**
+     * Column indices, padding refers to column 0.
+     */
+    private final int[] columnIndices;
+
+    /**
+     * Values, padding is zero.
+     */
+    private final double[] values;
+
+    /**
+     * Original row of every sorted row, rows past the end of the matrix are marked with -1.
+     */
+    private final int[] permutation;
+
+    /**
+     * Diagonal elements of the matrix.
+     */
+    private final double[] diagonal;
+
+    /**
+     * Number of nonzero elements of the matrix.
+     */
+    private final int nonZeros;
+
+    /**
+     * Converts compressed sparse row matrix.
+     *
+     * @param matrix      Matrix to convert.
+     * @param chunkHeight Chunk height C.
+     * @param sigma       Sorting window, a multiple of chunk height; chunk height disables sorting.
+     * @throws IllegalArgumentException when sigma is not a positive multiple of chunk height.
+     */
+    public SellCSigmaMatrix(CSRMatrix matrix, int chunkHeight, int sigma) {
+        if (chunkHeight < 1 || sigma < chunkHeight || sigma % chunkHeight != 0) {
+            throw new IllegalArgumentException("Sigma must be a positive multiple of chunk height.");
+        }
+        this.rows = matrix.getRows();
+        this.columns = matrix.getColumns();
+        this.chunkHeight = chunkHeight;
+        this.sigma = sigma;
+        this.nonZeros = matrix.getNonZeros();
+        this.diagonal = matrix.getDiagonal();
+        int[] rowStart = matrix.getRowStart();
+
+        int chunks = (rows + chunkHeight - 1) / chunkHeight;
+        permutation = new int[chunks * chunkHeight];
+        Arrays.fill(permutation, -1);
+        for (int window = 0; window < rows; window += sigma) {
+            int end = Math.min(rows, window + sigma);
+            Integer[] order = new Integer[end - window];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = window + i;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(rowStart[b + 1] - rowStart[b], rowStart[a + 1] - rowStart[a]));
+            for (int i = 0; i < order.length; i++) {
+                permutation[window + i] = order[i];
+            }
+        }
+
+        chunkStart = new int[chunks + 1];
+        chunkLength = new int[chunks];
+        for (int c = 0; c < chunks; c++) {
+            int length = 0;
+            for (int r = 0; r < chunkHeight; r++) {
+                int row = permutation[c * chunkHeight + r];
+                if (row >= 0) {
+                    length = Math.max(length, rowStart[row + 1] - rowStart[row]);
+                }
+            }
+            chunkLength[c] = length;
+            chunkStart[c + 1] = chunkStart[c] + length * chunkHeight;
+        }
+
+        columnIndices = new int[chunkStart[chunks]];
+        values = new double[chunkStart[chunks]];
+        int[] sourceColumns = matrix.getColumnIndices();
+        double[] sourceValues = matrix.getValues();
+        for (int c = 0; c < chunks; c++) {
+            for (int r = 0; r < chunkHeight; r++) {
+                int row = permutation[c * chunkHeight + r];
+                if (row < 0) {
+                    continue;
+                }
+                for (int p = rowStart[row], j = 0; p < rowStart[row + 1]; p++, j++) {
+                    int target = chunkStart[c] + j * chunkHeight + r;
+                    columnIndices[target] = sourceColumns[p];
+                    values[target] = sourceValues[p];
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts compressed sparse row matrix with default chunk height and sorting window.
+     *
+     * @param matrix Matrix to convert.
+     * @return Converted matrix.
+     */
+    public static SellCSigmaMatrix of(CSRMatrix matrix) {
+        return new SellCSigmaMatrix(matrix, DEFAULT_CHUNK_HEIGHT, DEFAULT_SIGMA);
+    }
+
+    /**
+     * Returns number of rows.
+     *
+     * @return Number of rows.
+     */
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns number of columns.
+     *
+     * @return Number of columns.
+     */
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns chunk height C.
+     *
+     * @return Chunk height.
+     */
+    public int getChunkHeight() {
+        return chunkHeight;
+    }
+
+    /**
+     * Returns sorting window sigma.
+     *
+     * @return Sorting window.
+     */
+    public int getSigma() {
+        return sigma;
+    }
+
+    /**
+     * Returns ratio of stored elements, padding included, to nonzero elements.
+     *
+     * @return Padding overhead, 1 when there is no padding.
+     */
+    public double getFillRatio() {
+        return nonZeros == 0 ? 1.0 : (double) values.length / nonZeros;
+    }
+
+    /**
+     * Computes y = Ax.
+     * Large products are computed in parallel over sorting windows,
+     * every task writes only rows of its own windows.
+     *
+     * @param x Vector with as many elements as columns.
+     * @param y Array for the result with as many elements as rows.
+     */
+    @Override
+    public void apply(double[] x, double[] y) {
+        int chunks = chunkLength.length;
+        int chunksPerWindow = sigma / chunkHeight;
+        int windows = (chunks + chunksPerWindow - 1) / chunksPerWindow;
+        if (values.length < PARALLEL_THRESHOLD || windows < 2) {
+            multiplyChunks(0, chunks, x, y, new double[chunkHeight]);
+        } else {
+            IntStream.range(0, windows).parallel().forEach(w -> multiplyChunks(w * chunksPerWindow,
+                    Math.min(chunks, (w + 1) * chunksPerWindow), x, y, new double[chunkHeight]));
+        }
+    }
+
+    /**
+     * Computes rows of chunks of y = Ax.
+     *
+     * @param from  First chunk.
+     * @param to    Chunk after the last one.
+     * @param x     Vector.
+     * @param y     Result.
+     * @param sums  Accumulators of chunk rows.
+     */
+    private void multiplyChunks(int from, int to, double[] x, double[] y, double[] sums) {
+        for (int c = from; c < to; c++) {
+            Arrays.fill(sums, 0.0);
+            int offset = chunkStart[c];
+            for (int j = 0; j < chunkLength[c]; j++, offset += chunkHeight) {
+                for (int r = 0; r < chunkHeight; r++) {
+                    sums[r] += values[offset + r] * x[columnIndices[offset + r]];
+                }
+            }
+            int base = c * chunkHeight;
+            for (int r = 0; r < chunkHeight; r++) {
+                int row = permutation[base + r];
+                if (row >= 0) {
+                    y[row] = sums[r];
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes y = A^T x by scattering chunks.
+     *
+     * @param x Vector with as many elements as rows.
+     * @param y Array for the result with as many elements as columns.
+     */
+    @Override
+    public void applyTranspose(double[] x, double[] y) {
+        Arrays.fill(y, 0, columns, 0.0);
+        for (int c = 0; c < chunkLength.length; c++) {
+            int offset = chunkStart[c];
+            int base = c * chunkHeight;
+            for (int j = 0; j < chunkLength[c]; j++, offset += chunkHeight) {
+                for (int r = 0; r < chunkHeight; r++) {
+                    int row = permutation[base + r];
+                    if (row >= 0) {
+                        y[columnIndices[offset + r]] += values[offset + r] * x[row];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns diagonal elements.
+     *
+     * @return Copy of min(rows, columns) diagonal elements.
+     */
+    @Override
+    public double[] getDiagonal() {
+        return diagonal.clone();
+    }
+}
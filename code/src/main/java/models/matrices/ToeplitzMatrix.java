@@ -0,0 +1,235 @@
+package models.matrices;
+
+import models.exceptions.InvalidMatrixSizesException;
+import models.vectors.Vector;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Square Toeplitz matrix, constant along every diagonal.
+ * Only the first column and the first row are stored, 2n-1 distinct elements in O(n) memory.
+ * Element (i, j) is column[i - j] below the diagonal and row[j - i] above it.
+ *
+ * @see models.utilities.ToeplitzSolver
+ */
+public final class ToeplitzMatrix implements LinearOperator, Serializable {
+    /**
+     * First column.
+     */
+    private final double[] column;
+
+    /**
+     * First row, its first element is equal to the first element of the column.
+     */
+    private final double[] row;
+
+    /**
+     * Parametrized constructor, copies the arrays.
+     *
+     * @param column First column.
+     * @param row    First row of the same length starting with the same element.
+     * @throws IllegalArgumentException when arrays are empty, have different lengths or first elements differ.
+     */
+    public ToeplitzMatrix(double[] column, double[] row) {
+        if (column.length == 0 || column.length != row.length) {
+            throw new IllegalArgumentException("First column and row must have the same non zero length.");
+        }
+        if (column[0] != row[0]) {
+            throw new IllegalArgumentException("First column and row must start with the same element.");
+        }
+        this.column = column.clone();
+        this.row = row.clone();
+    }
+
+    /**
+     * Checks if a matrix is square and constant along every diagonal.
+     *
+     * @param matrix Matrix to check.
+     * @return True when the matrix is Toeplitz.
+     */
+    public static boolean isToeplitz(Matrix matrix) {
+        if (!matrix.isSquare()) {
+            return false;
+        }
+        double[][] a = matrix.getData();
+        for (int i = 1; i < a.length; i++) {
+            double[] previous = a[i - 1];
+            double[] current = a[i];
+            for (int j = 1; j < current.length; j++) {
+                if (current[j] != previous[j - 1]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Extracts Toeplitz matrix from a dense one.
+     *
+     * @param matrix Square matrix constant along every diagonal.
+     * @return Toeplitz matrix.
+     * @throws IllegalArgumentException when the matrix is not Toeplitz.
+     */
+    public static ToeplitzMatrix of(Matrix matrix) {
+        if (!isToeplitz(matrix)) {
+            throw new IllegalArgumentException("Matrix must be square and constant along diagonals.");
+        }
+        double[][] a = matrix.getData();
+        double[] column = new double[a.length];
+        for (int i = 0; i < a.length; i++) {
+            column[i] = a[i][0];
+        }
+        return new ToeplitzMatrix(column, a[0]);
+    }
+
+    /**
+     * Returns number of rows and columns.
+     *
+     * @return Dimension of the matrix.
+     */
+    public int getDimension() {
+        return column.length;
+    }
+
+    /**
+     * Returns number of rows.
+     *
+     * @return Dimension of the matrix.
+     */
+    @Override
+    public int getRows() {
+        return column.length;
+    }
+
+    /**
+     * Returns number of columns.
+     *
+     * @return Dimension of the matrix.
+     */
+    @Override
+    public int getColumns() {
+        return column.length;
+    }
+
+    /**
+     * Returns copy of the first column.
+     *
+     * @return First column.
+     */
+    public double[] getFirstColumn() {
+        return column.clone();
+    }
+
+    /**
+     * Returns copy of the first row.
+     *
+     * @return First row.
+     */
+    public double[] getFirstRow() {
+        return row.clone();
+    }
+
+    /**
+     * Returns element at given position.
+     *
+     * @param row    Index of row.
+     * @param column Index of column.
+     * @return Element of the matrix.
+     */
+    public double getAt(int row, int column) {
+        if (row < 0 || column < 0 || row >= this.column.length || column >= this.column.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        return row >= column ? this.column[row - column] : this.row[column - row];
+    }
+
+    /**
+     * Multiplies the matrix by a vector.
+     *
+     * @param vector Vector with n elements.
+     * @return Product.
+     * @throws InvalidMatrixSizesException when size of the vector is not correct.
+     */
+    public Vector multiply(Vector vector) throws InvalidMatrixSizesException {
+        if (vector.getSize() != column.length) {
+            throw new InvalidMatrixSizesException();
+        }
+        double[] y = new double[column.length];
+        apply(vector.getData(), y);
+        return Vector.wrap(y);
+    }
+
+    /**
+     * Computes y = Ax in O(n^2) without forming the matrix.
+     *
+     * @param x Vector with n elements.
+     * @param y Array for the result with n elements.
+     */
+    @Override
+    public void apply(double[] x, double[] y) {
+        multiply(column, row, x, y);
+    }
+
+    /**
+     * Computes y = A^T x, the transpose is Toeplitz with column and row swapped.
+     *
+     * @param x Vector with n elements.
+     * @param y Array for the result with n elements.
+     */
+    @Override
+    public void applyTranspose(double[] x, double[] y) {
+        multiply(row, column, x, y);
+    }
+
+    /**
+     * Computes product of Toeplitz matrix given by its first column and row.
+     *
+     * @param c First column.
+     * @param r First row.
+     * @param x Vector with n elements.
+     * @param y Array for the result with n elements.
+     */
+    private static void multiply(double[] c, double[] r, double[] x, double[] y) {
+        int n = c.length;
+        for (int i = 0; i < n; i++) {
+            double sum = 0.0;
+            for (int j = 0; j <= i; j++) {
+                sum += c[i - j] * x[j];
+            }
+            for (int j = i + 1; j < n; j++) {
+                sum += r[j - i] * x[j];
+            }
+            y[i] = sum;
+        }
+    }
+
+    /**
+     * Returns diagonal elements, all equal to the first element.
+     *
+     * @return Array of n diagonal elements.
+     */
+    @Override
+    public double[] getDiagonal() {
+        double[] diagonal = new double[column.length];
+        Arrays.fill(diagonal, column[0]);
+        return diagonal;
+    }
+
+    /**
+     * Expands to dense matrix.
+     *
+     * @return Dense Toeplitz matrix.
+     */
+    public Matrix toMatrix() {
+        int n = column.length;
+        double[][] a = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                a[i][j] = i >= j ? column[i - j] : row[j - i];
+            }
+        }
+        return Matrix.wrap(a);
+    }
+}
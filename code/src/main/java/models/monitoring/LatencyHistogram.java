@@ -0,0 +1,119 @@
+package models.monitoring;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free histogram of durations in nanoseconds with log-linear buckets.
+ * Every power of two is split into eight buckets, so reported percentiles are within 12.5% of exact values.
+ */
+public final class LatencyHistogram {
+    /**
+     * Values below this limit have their own bucket.
+     */
+    private static final int LINEAR_LIMIT = 16;
+
+    /**
+     * Number of sub-buckets per power of two, as a shift.
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /**
+     * Number of buckets covering all non negative long values.
+     */
+    private static final int BUCKETS = LINEAR_LIMIT + (63 - 4) * (1 << SUB_BUCKET_BITS);
+
+    /**
+     * Counts of values in buckets.
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Records a value.
+     *
+     * @param nanos Duration in nanoseconds, negative values are recorded as zero.
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(indexOf(Math.max(0, nanos)));
+    }
+
+    /**
+     * Returns number of recorded values.
+     *
+     * @return Number of values.
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Returns value at given percentile.
+     *
+     * @param percentile Percentile in range (0, 100].
+     * @return Upper bound of the bucket containing the percentile in nanoseconds, 0 when histogram is empty.
+     */
+    public long getPercentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return upperBoundOf(i);
+            }
+        }
+        return upperBoundOf(BUCKETS - 1);
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    /**
+     * Returns bucket of a value.
+     *
+     * @param value Non negative value.
+     * @return Index of the bucket.
+     */
+    static int indexOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & ((1 << SUB_BUCKET_BITS) - 1);
+        return LINEAR_LIMIT + ((exponent - 4) << SUB_BUCKET_BITS) + subBucket;
+    }
+
+    /**
+     * Returns largest value of a bucket.
+     *
+     * @param index Index of the bucket.
+     * @return Largest value falling into the bucket.
+     */
+    static long upperBoundOf(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int exponent = ((index - LINEAR_LIMIT) >>> SUB_BUCKET_BITS) + 4;
+        long subBucket = (index - LINEAR_LIMIT) & ((1 << SUB_BUCKET_BITS) - 1);
+        long lower = (1L << exponent) + (subBucket << (exponent - SUB_BUCKET_BITS));
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,43 @@
+package models.monitoring;
+
+/**
+ * Measured operations of the solver.
+ *
+ * @see SolverMetrics
+ */
+public enum Operation {
+    /**
+     * Parsing matrices and vectors from text.
+     */
+    PARSE,
+
+    /**
+     * Factorization of a matrix.
+     */
+    FACTORIZE,
+
+    /**
+     * Solving factorized system for right hand sides.
+     */
+    SOLVE,
+
+    /**
+     * Inversion of a factorized matrix.
+     */
+    INVERSE,
+
+    /**
+     * Rendering results to text.
+     */
+    RENDER,
+
+    /**
+     * Writing results to a file.
+     */
+    SERIALIZE,
+
+    /**
+     * Reading results from a file.
+     */
+    DESERIALIZE
+}
@@ -0,0 +1,136 @@
+package models.monitoring;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of one operation for one matrix size bucket.
+ *
+ * @see SolverMetrics
+ */
+public final class OperationStats {
+    /**
+     * Measured operation.
+     */
+    private final Operation operation;
+
+    /**
+     * Largest matrix dimension falling into the bucket.
+     */
+    private final int sizeLimit;
+
+    /**
+     * Distribution of durations.
+     */
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /**
+     * Sum of durations in nanoseconds.
+     */
+    private final LongAdder totalNanos = new LongAdder();
+
+    /**
+     * Sum of floating point operations.
+     */
+    private final DoubleAdder flops = new DoubleAdder();
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param operation Measured operation.
+     * @param sizeLimit Largest matrix dimension falling into the bucket.
+     */
+    OperationStats(Operation operation, int sizeLimit) {
+        this.operation = operation;
+        this.sizeLimit = sizeLimit;
+    }
+
+    /**
+     * Records single execution.
+     *
+     * @param nanos Duration in nanoseconds.
+     * @param flop  Number of floating point operations, 0 when not applicable.
+     */
+    void record(long nanos, double flop) {
+        latency.record(nanos);
+        totalNanos.add(nanos);
+        if (flop > 0) {
+            flops.add(flop);
+        }
+    }
+
+    /**
+     * Returns measured operation.
+     *
+     * @return Measured operation.
+     */
+    public Operation getOperation() {
+        return operation;
+    }
+
+    /**
+     * Returns largest matrix dimension falling into the bucket.
+     *
+     * @return Upper limit of the size bucket.
+     */
+    public int getSizeLimit() {
+        return sizeLimit;
+    }
+
+    /**
+     * Returns number of executions.
+     *
+     * @return Number of executions.
+     */
+    public long getCount() {
+        return latency.getCount();
+    }
+
+    /**
+     * Returns latency percentile.
+     *
+     * @param percentile Percentile in range (0, 100].
+     * @return Latency in milliseconds.
+     */
+    public double getLatencyMillis(double percentile) {
+        return latency.getPercentile(percentile) / 1e6;
+    }
+
+    /**
+     * Returns mean latency.
+     *
+     * @return Mean latency in milliseconds.
+     */
+    public double getMeanMillis() {
+        long count = getCount();
+        return count == 0 ? 0 : totalNanos.sum() / 1e6 / count;
+    }
+
+    /**
+     * Returns sum of floating point operations.
+     *
+     * @return Number of floating point operations.
+     */
+    public double getFlops() {
+        return flops.sum();
+    }
+
+    /**
+     * Returns achieved floating point throughput.
+     *
+     * @return Billions of floating point operations per second.
+     */
+    public double getGflops() {
+        long nanos = totalNanos.sum();
+        return nanos == 0 ? 0 : flops.sum() / nanos;
+    }
+
+    /**
+     * Clears recorded executions.
+     */
+    void reset() {
+        latency.reset();
+        totalNanos.reset();
+        flops.reset();
+    }
+}
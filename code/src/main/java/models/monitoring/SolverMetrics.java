@@ -0,0 +1,250 @@
+package models.monitoring;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registry of solver metrics: latency histograms, flop counters and cache hit ratios
+ * per operation and matrix size bucket (powers of two).
+ * Recording is lock free and allocation free after the first execution in a bucket.
+ * Metrics are registered in the platform MBean server as {@value #OBJECT_NAME}
+ * and can be disabled with system property solver.metrics=false.
+ *
+ * @see Operation
+ */
+public final class SolverMetrics implements SolverMetricsMBean {
+    /**
+     * Name of the registered MBean.
+     */
+    public static final String OBJECT_NAME = "assignment.solver:type=SolverMetrics";
+
+    /**
+     * Name of the cache of factorizations.
+     */
+    public static final String FACTORIZATION_CACHE = "factorization";
+
+    /**
+     * Whether metrics are recorded.
+     */
+    public static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("solver.metrics"));
+
+    /**
+     * Number of size buckets, one per power of two.
+     */
+    private static final int SIZE_BUCKETS = 32;
+
+    /**
+     * Single instance of the registry.
+     */
+    private static final SolverMetrics INSTANCE = new SolverMetrics();
+
+    static {
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+            } catch (Exception ignored) {
+                // Metrics stay available through getInstance() when JMX is unavailable.
+            }
+        }
+    }
+
+    /**
+     * Statistics indexed by operation and size bucket, created on first use.
+     */
+    private final AtomicReferenceArray<OperationStats> stats =
+            new AtomicReferenceArray<>(Operation.values().length * SIZE_BUCKETS);
+
+    /**
+     * Hits and misses of caches by name.
+     */
+    private final Map<String, LongAdder[]> caches = new ConcurrentHashMap<>();
+
+    /**
+     * Private constructor, use getInstance().
+     */
+    private SolverMetrics() {
+    }
+
+    /**
+     * Returns the registry.
+     *
+     * @return Single instance of the registry.
+     */
+    public static SolverMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records execution of an operation.
+     *
+     * @param operation Executed operation.
+     * @param size      Largest matrix dimension involved.
+     * @param nanos     Duration in nanoseconds.
+     * @param flops     Number of floating point operations, 0 when not applicable.
+     */
+    public static void record(Operation operation, int size, long nanos, double flops) {
+        if (ENABLED) {
+            INSTANCE.statsOf(operation, size).record(nanos, flops);
+        }
+    }
+
+    /**
+     * Records lookup in a cache.
+     *
+     * @param cache Name of the cache.
+     * @param hit   True when value was found.
+     */
+    public static void recordCacheLookup(String cache, boolean hit) {
+        if (ENABLED) {
+            LongAdder[] counters = INSTANCE.caches.get(cache);
+            if (counters == null) {
+                counters = INSTANCE.caches.computeIfAbsent(cache, name -> new LongAdder[]{new LongAdder(), new LongAdder()});
+            }
+            counters[hit ? 0 : 1].increment();
+        }
+    }
+
+    /**
+     * Returns floating point operations of LU factorization.
+     *
+     * @param m Number of rows.
+     * @param n Number of columns.
+     * @return Number of floating point operations.
+     */
+    public static double factorizationFlops(int m, int n) {
+        double k = Math.min(m, n);
+        return (double) m * n * k - (m + n) * k * k / 2.0 + k * k * k / 3.0;
+    }
+
+    /**
+     * Returns floating point operations of forward and backward substitution.
+     *
+     * @param n                Dimension of the system.
+     * @param rightHandSides Number of right hand sides.
+     * @return Number of floating point operations.
+     */
+    public static double solveFlops(int n, int rightHandSides) {
+        return 2.0 * n * n * rightHandSides;
+    }
+
+    /**
+     * Returns statistics of an operation for a size bucket.
+     *
+     * @param operation Operation.
+     * @param size      Matrix dimension.
+     * @return Statistics, created when missing.
+     */
+    public OperationStats statsOf(Operation operation, int size) {
+        int bucket = bucketOf(size);
+        int index = operation.ordinal() * SIZE_BUCKETS + bucket;
+        OperationStats current = stats.get(index);
+        if (current == null) {
+            stats.compareAndSet(index, null, new OperationStats(operation, bucket == SIZE_BUCKETS - 1 ? Integer.MAX_VALUE : 1 << bucket));
+            current = stats.get(index);
+        }
+        return current;
+    }
+
+    /**
+     * Returns all statistics with at least one execution.
+     *
+     * @return Statistics ordered by operation and size.
+     */
+    public List<OperationStats> getAllStats() {
+        List<OperationStats> all = new ArrayList<>();
+        for (int i = 0; i < stats.length(); i++) {
+            OperationStats current = stats.get(i);
+            if (current != null && current.getCount() > 0) {
+                all.add(current);
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Returns hit ratio of a cache.
+     *
+     * @param cache Name of the cache.
+     * @return Ratio of hits to lookups, 0 when there were no lookups.
+     */
+    public double getCacheHitRatio(String cache) {
+        LongAdder[] counters = caches.get(cache);
+        if (counters == null) {
+            return 0;
+        }
+        long hits = counters[0].sum();
+        long lookups = hits + counters[1].sum();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public double getFactorizationCacheHitRatio() {
+        return getCacheHitRatio(FACTORIZATION_CACHE);
+    }
+
+    @Override
+    public double latencyMillis(String operation, int size, double percentile) {
+        return statsOf(Operation.valueOf(operation.toUpperCase()), size).getLatencyMillis(percentile);
+    }
+
+    @Override
+    public double gflops(String operation, int size) {
+        return statsOf(Operation.valueOf(operation.toUpperCase()), size).getGflops();
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < stats.length(); i++) {
+            OperationStats current = stats.get(i);
+            if (current != null) {
+                current.reset();
+            }
+        }
+        caches.clear();
+    }
+
+    @Override
+    public String getReport() {
+        return dump();
+    }
+
+    /**
+     * Renders all metrics as text table.
+     *
+     * @return Text report.
+     */
+    public String dump() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-12s %10s %10s %10s %10s %10s %10s%n",
+                "operation", "size<=", "count", "mean[ms]", "p50[ms]", "p99[ms]", "GFLOP/s"));
+        for (OperationStats current : getAllStats()) {
+            report.append(String.format("%-12s %10d %10d %10.4f %10.4f %10.4f %10.3f%n",
+                    current.getOperation().name().toLowerCase(), current.getSizeLimit(), current.getCount(),
+                    current.getMeanMillis(), current.getLatencyMillis(50), current.getLatencyMillis(99), current.getGflops()));
+        }
+
+        Map<String, LongAdder[]> sorted = new TreeMap<>(caches);
+        for (Map.Entry<String, LongAdder[]> cache : sorted.entrySet()) {
+            report.append(String.format("cache %-12s hits=%d misses=%d ratio=%.3f%n", cache.getKey(),
+                    cache.getValue()[0].sum(), cache.getValue()[1].sum(), getCacheHitRatio(cache.getKey())));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Returns size bucket of a dimension.
+     *
+     * @param size Matrix dimension.
+     * @return Index of the smallest power of two not less than size.
+     */
+    private static int bucketOf(int size) {
+        return Math.min(SIZE_BUCKETS - 1, 32 - Integer.numberOfLeadingZeros(Math.max(1, size) - 1));
+    }
+}
@@ -0,0 +1,46 @@
+package models.monitoring;
+
+/**
+ * JMX interface of solver metrics.
+ *
+ * @see SolverMetrics
+ */
+public interface SolverMetricsMBean {
+    /**
+     * Returns text report of all metrics.
+     *
+     * @return Text report.
+     */
+    String getReport();
+
+    /**
+     * Returns hit ratio of factorization caches.
+     *
+     * @return Ratio of hits to lookups, 0 when there were no lookups.
+     */
+    double getFactorizationCacheHitRatio();
+
+    /**
+     * Returns latency percentile of an operation for a size bucket.
+     *
+     * @param operation  Name of the operation.
+     * @param size       Matrix dimension, selects the size bucket.
+     * @param percentile Percentile in range (0, 100].
+     * @return Latency in milliseconds.
+     */
+    double latencyMillis(String operation, int size, double percentile);
+
+    /**
+     * Returns floating point throughput of an operation for a size bucket.
+     *
+     * @param operation Name of the operation.
+     * @param size      Matrix dimension, selects the size bucket.
+     * @return Billions of floating point operations per second.
+     */
+    double gflops(String operation, int size);
+
+    /**
+     * Clears all metrics.
+     */
+    void reset();
+}
@@ -0,0 +1,14 @@
+package models.monitoring.events;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * LU factorization of a matrix.
+ */
+@Name("assignment.Factorization")
+@Label("Factorization")
+@Description("LU factorization of a matrix")
+public final class FactorizationEvent extends SolverEvent {
+}
@@ -0,0 +1,14 @@
+package models.monitoring.events;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Inversion of a factorized matrix.
+ */
+@Name("assignment.Inversion")
+@Label("Inversion")
+@Description("Inversion of a factorized matrix")
+public final class InversionEvent extends SolverEvent {
+}
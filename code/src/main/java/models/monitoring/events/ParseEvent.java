@@ -0,0 +1,19 @@
+package models.monitoring.events;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Parsing of a matrix or vector from text.
+ */
+@Name("assignment.Parse")
+@Label("Parse")
+@Description("Parsing of a matrix or vector from text")
+public final class ParseEvent extends SolverEvent {
+    /**
+     * Number of parsed characters.
+     */
+    @Label("Characters")
+    public int characters;
+}
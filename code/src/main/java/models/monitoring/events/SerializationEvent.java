@@ -0,0 +1,27 @@
+package models.monitoring.events;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Writing or reading a result file.
+ */
+@Name("assignment.Serialization")
+@Label("Serialization")
+@Description("Writing or reading a result file")
+public final class SerializationEvent extends SolverEvent {
+    /**
+     * True for writing, false for reading.
+     */
+    @Label("Write")
+    public boolean write;
+
+    /**
+     * Number of bytes written or read.
+     */
+    @Label("Bytes")
+    @DataAmount(DataAmount.BYTES)
+    public long bytes;
+}
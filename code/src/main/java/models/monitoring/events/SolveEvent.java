@@ -0,0 +1,19 @@
+package models.monitoring.events;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Forward and backward substitution for right hand sides.
+ */
+@Name("assignment.Solve")
+@Label("Solve")
+@Description("Forward and backward substitution for right hand sides")
+public final class SolveEvent extends SolverEvent {
+    /**
+     * Number of right hand sides solved together.
+     */
+    @Label("Right Hand Sides")
+    public int rightHandSides;
+}
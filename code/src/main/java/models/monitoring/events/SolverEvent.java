@@ -0,0 +1,52 @@
+package models.monitoring.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Common fields of solver flight recorder events.
+ * Events follow the usual begin, work, shouldCommit, commit pattern, so a disabled event costs next to nothing.
+ */
+@Category({"Assignment", "Solver"})
+@StackTrace(false)
+public abstract class SolverEvent extends jdk.jfr.Event {
+    /**
+     * Number of rows of the matrix.
+     */
+    @Label("Rows")
+    public int rows;
+
+    /**
+     * Number of columns of the matrix.
+     */
+    @Label("Columns")
+    public int columns;
+
+    /**
+     * Structure of the matrix the algorithm was chosen for.
+     */
+    @Label("Structure")
+    public String structure;
+
+    /**
+     * Estimated bytes allocated by the operation.
+     */
+    @Label("Allocation Estimate")
+    @Description("Estimated bytes allocated on the heap by the operation")
+    @DataAmount(DataAmount.BYTES)
+    public long allocationEstimate;
+
+    /**
+     * Estimates bytes of a double matrix stored as array of rows.
+     *
+     * @param rows    Number of rows.
+     * @param columns Number of columns.
+     * @return Estimated bytes including array headers.
+     */
+    public static long matrixBytes(int rows, int columns) {
+        return 16L + 8L * rows + rows * (16L + 8L * columns);
+    }
+}
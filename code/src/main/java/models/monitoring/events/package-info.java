@@ -0,0 +1,4 @@
+/**
+ * Contains JDK Flight Recorder events emitted by the solver hot paths.
+ */
+package models.monitoring.events;
@@ -0,0 +1,4 @@
+/**
+ * Contains low overhead metrics of the solver hot paths exposed through JMX.
+ */
+package models.monitoring;
@@ -0,0 +1,465 @@
+package models.outofcore;
+
+import models.exceptions.InvalidMatrixSizesException;
+import models.exceptions.SingularMatrixException;
+import models.monitoring.Operation;
+import models.monitoring.SolverMetrics;
+import models.vectors.Vector;
+
+import java.io.IOException;
+
+/**
+ * Right-looking tiled LU decomposition with partial pivoting of a matrix kept in a tile store.
+ * Factors overwrite the tiles of the store. Only the current panel, the tile column being updated
+ * and the prefetched next tile column have to fit into the memory budget.
+ * Row interchanges are applied to the trailing columns only, like in LINPACK,
+ * so columns of L already written are never read again during factorization;
+ * solve applies the interchanges step by step while it streams tile columns from disk.
+ *
+ * @see TileStore
+ * @see TileCache
+ */
+public final class OutOfCoreLUDecomposition {
+    /**
+     * Store holding the factors.
+     */
+    private final TileStore store;
+
+    /**
+     * Maximum number of bytes of tiles in memory.
+     */
+    private final long memoryBudget;
+
+    /**
+     * Row interchanged with every row during elimination.
+     */
+    private final int[] interchanges;
+
+    /**
+     * Diagonal of U.
+     */
+    private final double[] diagonal;
+
+    /**
+     * Pivot sign.
+     */
+    private int pivSign = 1;
+
+    /**
+     * Number of tiles read during factorization.
+     */
+    private long loads;
+
+    /**
+     * Private constructor, use factorize().
+     *
+     * @param store        Store of the matrix.
+     * @param memoryBudget Maximum number of bytes of tiles in memory.
+     */
+    private OutOfCoreLUDecomposition(TileStore store, long memoryBudget) {
+        this.store = store;
+        this.memoryBudget = memoryBudget;
+        this.interchanges = new int[store.getDimension()];
+        this.diagonal = new double[store.getDimension()];
+    }
+
+    /**
+     * Factorizes the matrix of the store in place.
+     * Memory budget must hold three tile columns.
+     *
+     * @param store        Store of the matrix, overwritten with L and U.
+     * @param memoryBudget Maximum number of bytes of tiles in memory.
+     * @return Decomposition backed by the store.
+     * @throws IOException when the store cannot be read or written.
+     */
+    public static OutOfCoreLUDecomposition factorize(TileStore store, long memoryBudget) throws IOException {
+        if (memoryBudget < minimumBudget(store)) {
+            throw new IllegalArgumentException("Memory budget must hold at least " + minimumBudget(store) + " bytes.");
+        }
+        OutOfCoreLUDecomposition decomposition = new OutOfCoreLUDecomposition(store, memoryBudget);
+        long start = System.nanoTime();
+        try (TileCache cache = new TileCache(store, memoryBudget)) {
+            for (int k = 0; k < store.getTiles(); k++) {
+                decomposition.step(cache, k);
+            }
+            decomposition.loads = cache.getLoads();
+        }
+        SolverMetrics.record(Operation.FACTORIZE, store.getDimension(), System.nanoTime() - start,
+                SolverMetrics.factorizationFlops(store.getDimension(), store.getDimension()));
+        return decomposition;
+    }
+
+    /**
+     * Returns smallest memory budget accepted for a store, three tile columns.
+     *
+     * @param store Store of the matrix.
+     * @return Number of bytes.
+     */
+    public static long minimumBudget(TileStore store) {
+        return 3L * store.getTiles() * store.getTileBytes();
+    }
+
+    /**
+     * Returns number of tiles read during factorization.
+     *
+     * @return Number of loads.
+     */
+    public long getLoads() {
+        return loads;
+    }
+
+    /**
+     * Returns pivot permutation vector.
+     *
+     * @return Pivot permutation vector.
+     */
+    public int[] getPivot() {
+        int[] piv = new int[interchanges.length];
+        for (int i = 0; i < piv.length; i++) {
+            piv[i] = i;
+        }
+        for (int i = 0; i < piv.length; i++) {
+            int t = piv[i];
+            piv[i] = piv[interchanges[i]];
+            piv[interchanges[i]] = t;
+        }
+        return piv;
+    }
+
+    /**
+     * Calculates determinant.
+     *
+     * @return Determinant of the matrix.
+     */
+    public double det() {
+        double d = pivSign;
+        for (double value : diagonal) {
+            d *= value;
+        }
+        return d;
+    }
+
+    /**
+     * Checks if the matrix is non singular.
+     *
+     * @return Non singularity of matrix. When there is no zeros at diagonal.
+     */
+    public boolean isNonSingular() {
+        for (double value : diagonal) {
+            if (value == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Solves linear system Ax = b streaming tile columns of the factors from the store.
+     *
+     * @param B Right hand-side vector.
+     * @return Solution for linear system.
+     * @throws InvalidMatrixSizesException when size of the vector is not correct.
+     * @throws SingularMatrixException     when matrix is singular.
+     * @throws IOException                 when the store cannot be read.
+     */
+    public Vector solve(Vector B) throws InvalidMatrixSizesException, SingularMatrixException, IOException {
+        int n = store.getDimension();
+        if (B.getSize() != n) {
+            throw new InvalidMatrixSizesException();
+        }
+        if (!isNonSingular()) {
+            throw new SingularMatrixException();
+        }
+        long start = System.nanoTime();
+        int ts = store.getTileSize();
+        int tiles = store.getTiles();
+        double[] x = new double[tiles * ts];
+        for (int i = 0; i < n; i++) {
+            x[i] = B.getAt(i);
+        }
+
+        try (TileCache cache = new TileCache(store, memoryBudget)) {
+            // Solve L*Y = P*B, interchanges of every step precede its column of L.
+            for (int k = 0; k < tiles; k++) {
+                prefetchColumn(cache, k + 1, k + 1, tiles);
+                int k0 = k * ts;
+                for (int r = k0; r < Math.min(n, k0 + ts); r++) {
+                    double t = x[r];
+                    x[r] = x[interchanges[r]];
+                    x[interchanges[r]] = t;
+                }
+                double[] diagonalTile = cache.acquire(k, k);
+                for (int i = 1; i < ts; i++) {
+                    for (int c = 0; c < i; c++) {
+                        x[k0 + i] -= diagonalTile[i * ts + c] * x[k0 + c];
+                    }
+                }
+                cache.release(k, k, false);
+                for (int ti = k + 1; ti < tiles; ti++) {
+                    multiplySubtract(cache, ti, k, x);
+                }
+            }
+
+            // Solve U*X = Y
+            for (int k = tiles - 1; k >= 0; k--) {
+                if (k > 0) {
+                    prefetchColumn(cache, k - 1, 0, k);
+                }
+                int k0 = k * ts;
+                int w = Math.min(ts, n - k0);
+                double[] diagonalTile = cache.acquire(k, k);
+                for (int i = w - 1; i >= 0; i--) {
+                    for (int c = i + 1; c < w; c++) {
+                        x[k0 + i] -= diagonalTile[i * ts + c] * x[k0 + c];
+                    }
+                    x[k0 + i] /= diagonalTile[i * ts + i];
+                }
+                cache.release(k, k, false);
+                for (int ti = 0; ti < k; ti++) {
+                    multiplySubtract(cache, ti, k, x);
+                }
+            }
+        }
+        SolverMetrics.record(Operation.SOLVE, n, System.nanoTime() - start, SolverMetrics.solveFlops(n, 1));
+
+        double[] solution = new double[n];
+        System.arraycopy(x, 0, solution, 0, n);
+        return Vector.wrap(solution);
+    }
+
+    /**
+     * Performs one step: factorizes tile column k and updates the trailing tile columns.
+     *
+     * @param cache Cache of tiles.
+     * @param k     Index of the diagonal tile.
+     * @throws IOException when the store cannot be read or written.
+     */
+    private void step(TileCache cache, int k) throws IOException {
+        int tiles = store.getTiles();
+        double[][] panel = acquireColumn(cache, k, k);
+        factorizePanel(k, panel);
+
+        for (int j = k + 1; j < tiles; j++) {
+            if (j + 1 < tiles) {
+                prefetchColumn(cache, j + 1, k, tiles);
+            }
+            double[][] column = acquireColumn(cache, j, k);
+            applyInterchanges(k, column);
+            solveLower(panel[0], column[0]);
+            for (int i = 1; i < column.length; i++) {
+                multiplySubtract(panel[i], column[0], column[i]);
+            }
+            releaseColumn(cache, j, k, true);
+        }
+        releaseColumn(cache, k, k, true);
+    }
+
+    /**
+     * Factorizes panel with partial pivoting, pivots are chosen like in LUDecomposition.
+     *
+     * @param k     Index of the diagonal tile.
+     * @param panel Tiles of column k from the diagonal down.
+     */
+    private void factorizePanel(int k, double[][] panel) {
+        int n = store.getDimension();
+        int ts = store.getTileSize();
+        int k0 = k * ts;
+        int w = Math.min(ts, n - k0);
+        for (int c = 0; c < w; c++) {
+            int r0 = k0 + c;
+            int p = r0;
+            double largest = Math.abs(element(panel, k0, r0, c));
+            for (int r = r0 + 1; r < n; r++) {
+                double value = Math.abs(element(panel, k0, r, c));
+                if (value > largest) {
+                    largest = value;
+                    p = r;
+                }
+            }
+            interchanges[r0] = p;
+            if (p != r0) {
+                swapRows(panel, k0, r0, p);
+                pivSign = -pivSign;
+            }
+
+            double[] pivotTile = panel[0];
+            double pivot = pivotTile[c * ts + c];
+            diagonal[r0] = pivot;
+            for (int r = r0 + 1; r < n; r++) {
+                double[] tile = panel[(r - k0) / ts];
+                int offset = ((r - k0) % ts) * ts;
+                if (pivot != 0.0) {
+                    tile[offset + c] /= pivot;
+                }
+                double l = tile[offset + c];
+                if (l != 0.0) {
+                    for (int j = c + 1; j < w; j++) {
+                        tile[offset + j] -= l * pivotTile[c * ts + j];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies interchanges of step k to a tile column.
+     *
+     * @param k      Index of the diagonal tile.
+     * @param column Tiles of the column from the diagonal down.
+     */
+    private void applyInterchanges(int k, double[][] column) {
+        int ts = store.getTileSize();
+        int k0 = k * ts;
+        for (int r = k0; r < Math.min(store.getDimension(), k0 + ts); r++) {
+            if (interchanges[r] != r) {
+                swapRows(column, k0, r, interchanges[r]);
+            }
+        }
+    }
+
+    /**
+     * Computes tile = L^-1 * tile for unit lower triangular part of the diagonal tile.
+     *
+     * @param lower Diagonal tile.
+     * @param tile  Tile right of the diagonal tile.
+     */
+    private void solveLower(double[] lower, double[] tile) {
+        int ts = store.getTileSize();
+        for (int r = 1; r < ts; r++) {
+            for (int c = 0; c < r; c++) {
+                double l = lower[r * ts + c];
+                if (l != 0.0) {
+                    for (int j = 0; j < ts; j++) {
+                        tile[r * ts + j] -= l * tile[c * ts + j];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes C -= A * B for tiles.
+     *
+     * @param A Left tile.
+     * @param B Right tile.
+     * @param C Updated tile.
+     */
+    private void multiplySubtract(double[] A, double[] B, double[] C) {
+        int ts = store.getTileSize();
+        for (int i = 0; i < ts; i++) {
+            for (int p = 0; p < ts; p++) {
+                double a = A[i * ts + p];
+                if (a != 0.0) {
+                    for (int j = 0; j < ts; j++) {
+                        C[i * ts + j] -= a * B[p * ts + j];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes x[ti] -= tile(ti, tj) * x[tj] streaming the tile through the cache.
+     *
+     * @param cache Cache of tiles.
+     * @param ti    Index of tile row.
+     * @param tj    Index of tile column.
+     * @param x     Solution in progress, padded to whole tiles.
+     * @throws IOException when the store cannot be read.
+     */
+    private void multiplySubtract(TileCache cache, int ti, int tj, double[] x) throws IOException {
+        int ts = store.getTileSize();
+        double[] tile = cache.acquire(ti, tj);
+        for (int i = 0; i < ts; i++) {
+            double sum = 0.0;
+            for (int c = 0; c < ts; c++) {
+                sum += tile[i * ts + c] * x[tj * ts + c];
+            }
+            x[ti * ts + i] -= sum;
+        }
+        cache.release(ti, tj, false);
+    }
+
+    /**
+     * Returns element of a tile column.
+     *
+     * @param column Tiles of the column from tile row of first down.
+     * @param first  First global row of the column.
+     * @param row    Global row.
+     * @param c      Column inside the tile.
+     * @return Element.
+     */
+    private double element(double[][] column, int first, int row, int c) {
+        int ts = store.getTileSize();
+        return column[(row - first) / ts][((row - first) % ts) * ts + c];
+    }
+
+    /**
+     * Swaps two rows of a tile column.
+     *
+     * @param column Tiles of the column.
+     * @param first  First global row of the column.
+     * @param a      First global row.
+     * @param b      Second global row.
+     */
+    private void swapRows(double[][] column, int first, int a, int b) {
+        int ts = store.getTileSize();
+        double[] tileA = column[(a - first) / ts];
+        double[] tileB = column[(b - first) / ts];
+        int offsetA = ((a - first) % ts) * ts;
+        int offsetB = ((b - first) % ts) * ts;
+        for (int j = 0; j < ts; j++) {
+            double t = tileA[offsetA + j];
+            tileA[offsetA + j] = tileB[offsetB + j];
+            tileB[offsetB + j] = t;
+        }
+    }
+
+    /**
+     * Pins tiles of a column from a tile row down.
+     *
+     * @param cache Cache of tiles.
+     * @param tj    Index of tile column.
+     * @param from  First tile row.
+     * @return Tiles of the column.
+     * @throws IOException when the store cannot be read.
+     */
+    private double[][] acquireColumn(TileCache cache, int tj, int from) throws IOException {
+        double[][] column = new double[store.getTiles() - from][];
+        for (int ti = from; ti < store.getTiles(); ti++) {
+            column[ti - from] = cache.acquire(ti, tj);
+        }
+        return column;
+    }
+
+    /**
+     * Unpins tiles of a column from a tile row down.
+     *
+     * @param cache    Cache of tiles.
+     * @param tj       Index of tile column.
+     * @param from     First tile row.
+     * @param modified True when elements were changed.
+     */
+    private void releaseColumn(TileCache cache, int tj, int from, boolean modified) {
+        for (int ti = from; ti < store.getTiles(); ti++) {
+            cache.release(ti, tj, modified);
+        }
+    }
+
+    /**
+     * Starts loading tiles of a column in background.
+     *
+     * @param cache Cache of tiles.
+     * @param tj    Index of tile column.
+     * @param from  First tile row.
+     * @param to    Tile row after the last one.
+     */
+    private void prefetchColumn(TileCache cache, int tj, int from, int to) {
+        if (tj >= store.getTiles()) {
+            return;
+        }
+        for (int ti = from; ti < to; ti++) {
+            cache.prefetch(ti, tj);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package models.outofcore;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Tiles of a store held in memory within a fixed budget.
+ * Least recently used unpinned tiles are evicted first, modified tiles are written back on eviction.
+ * Loads and write-backs run on one background thread in submission order,
+ * so prefetched tiles arrive while the caller computes and a reload always sees the last write.
+ *
+ * @see TileStore
+ */
+public final class TileCache implements AutoCloseable {
+    /**
+     * Store of the tiles.
+     */
+    private final TileStore store;
+
+    /**
+     * Maximum number of tiles in memory.
+     */
+    private final int capacity;
+
+    /**
+     * Thread performing loads and write-backs.
+     */
+    private final ExecutorService io;
+
+    /**
+     * Tiles in access order.
+     */
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Pending write-backs.
+     */
+    private final List<Future<?>> writes = new ArrayList<>();
+
+    /**
+     * Number of tiles read from the store.
+     */
+    private long loads;
+
+    /**
+     * Number of tiles evicted.
+     */
+    private long evictions;
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param store        Store of the tiles.
+     * @param memoryBudget Maximum number of bytes of tiles in memory.
+     */
+    public TileCache(TileStore store, long memoryBudget) {
+        this.store = store;
+        this.capacity = (int) Math.min(Integer.MAX_VALUE, memoryBudget / store.getTileBytes());
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Memory budget is smaller than one tile.");
+        }
+        this.io = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tile-io");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns maximum number of tiles in memory.
+     *
+     * @return Capacity in tiles.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns number of tiles read from the store.
+     *
+     * @return Number of loads.
+     */
+    public synchronized long getLoads() {
+        return loads;
+    }
+
+    /**
+     * Returns number of evicted tiles.
+     *
+     * @return Number of evictions.
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Starts loading a tile in background unless it is already in memory.
+     *
+     * @param ti Index of tile row.
+     * @param tj Index of tile column.
+     */
+    public synchronized void prefetch(int ti, int tj) {
+        long key = key(ti, tj);
+        if (!entries.containsKey(key) && makeRoom(false)) {
+            entries.put(key, load(ti, tj));
+        }
+    }
+
+    /**
+     * Returns a tile and pins it in memory until released.
+     *
+     * @param ti Index of tile row.
+     * @param tj Index of tile column.
+     * @return Elements of the tile, changes are written back when the tile is released as modified.
+     * @throws IOException when reading fails.
+     */
+    public double[] acquire(int ti, int tj) throws IOException {
+        Entry entry;
+        synchronized (this) {
+            long key = key(ti, tj);
+            entry = entries.get(key);
+            if (entry == null) {
+                makeRoom(true);
+                entry = load(ti, tj);
+                entries.put(key, entry);
+            }
+            entry.pins++;
+        }
+        return await(entry.data);
+    }
+
+    /**
+     * Unpins a tile.
+     *
+     * @param ti       Index of tile row.
+     * @param tj       Index of tile column.
+     * @param modified True when elements were changed.
+     */
+    public synchronized void release(int ti, int tj, boolean modified) {
+        Entry entry = entries.get(key(ti, tj));
+        entry.pins--;
+        entry.dirty |= modified;
+    }
+
+    /**
+     * Writes all modified tiles and waits for the store.
+     *
+     * @throws IOException when writing fails.
+     */
+    public void flush() throws IOException {
+        List<Future<?>> pending;
+        synchronized (this) {
+            for (Map.Entry<Long, Entry> entry : entries.entrySet()) {
+                if (entry.getValue().dirty) {
+                    writeBack(entry.getKey(), entry.getValue());
+                }
+            }
+            pending = new ArrayList<>(writes);
+            writes.clear();
+        }
+        for (Future<?> write : pending) {
+            await(write);
+        }
+    }
+
+    /**
+     * Flushes modified tiles and stops the background thread.
+     *
+     * @throws IOException when writing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            io.shutdown();
+        }
+    }
+
+    /**
+     * Evicts least recently used unpinned tiles until there is room for one more.
+     *
+     * @param required True when the tile is needed now, false for prefetch.
+     * @return True when there is room.
+     * @throws IllegalStateException when all tiles are pinned and the tile is required.
+     */
+    private boolean makeRoom(boolean required) {
+        Iterator<Map.Entry<Long, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() >= capacity && iterator.hasNext()) {
+            Map.Entry<Long, Entry> eldest = iterator.next();
+            if (eldest.getValue().pins == 0) {
+                if (eldest.getValue().dirty) {
+                    writeBack(eldest.getKey(), eldest.getValue());
+                }
+                iterator.remove();
+                evictions++;
+            }
+        }
+        if (entries.size() >= capacity && required) {
+            throw new IllegalStateException("Memory budget of " + capacity + " tiles is too small, all tiles are in use.");
+        }
+        return entries.size() < capacity;
+    }
+
+    /**
+     * Submits load of a tile.
+     *
+     * @param ti Index of tile row.
+     * @param tj Index of tile column.
+     * @return New entry of the tile.
+     */
+    private Entry load(int ti, int tj) {
+        loads++;
+        return new Entry(io.submit(() -> store.read(ti, tj)));
+    }
+
+    /**
+     * Submits write of a modified tile.
+     *
+     * @param key   Key of the tile.
+     * @param entry Entry of the tile, already loaded.
+     */
+    private void writeBack(long key, Entry entry) {
+        int ti = (int) (key >>> 32);
+        int tj = (int) key;
+        Future<double[]> data = entry.data;
+        writes.removeIf(TileCache::succeeded);
+        writes.add(io.submit(() -> {
+            store.write(ti, tj, data.get());
+            return null;
+        }));
+        entry.dirty = false;
+    }
+
+    /**
+     * Checks if a background operation finished without failure.
+     *
+     * @param future Result of the operation.
+     * @return True when the operation is done and succeeded.
+     */
+    private static boolean succeeded(Future<?> future) {
+        if (!future.isDone()) {
+            return false;
+        }
+        try {
+            future.get();
+            return true;
+        } catch (InterruptedException | ExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Waits for a background operation.
+     *
+     * @param future Result of the operation.
+     * @param <T>    Type of the result.
+     * @return Result of the operation.
+     * @throws IOException when the operation failed.
+     */
+    private static <T> T await(Future<T> future) throws IOException {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException) {
+                        throw (IOException) e.getCause();
+                    }
+                    throw new IOException(e.getCause());
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Returns key of a tile.
+     *
+     * @param ti Index of tile row.
+     * @param tj Index of tile column.
+     * @return Key of the tile.
+     */
+    private static long key(int ti, int tj) {
+        return ((long) ti << 32) | tj;
+    }
+
+    /**
+     * Tile in memory.
+     */
+    private static final class Entry {
+        /**
+         * Elements of the tile, available when loaded.
+         */
+        private final Future<double[]> data;
+
+        /**
+         * Number of callers using the tile.
+         */
+        private int pins;
+
+        /**
+         * True when elements differ from the store.
+         */
+        private boolean dirty;
+
+        /**
+         * Parametrized constructor.
+         *
+         * @param data Pending or finished load.
+         */
+        Entry(Future<double[]> data) {
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package models.outofcore;
+
+import models.matrices.Matrix;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Square matrix stored in a file as square tiles.
+ * Every tile occupies tileSize x tileSize doubles at a fixed offset, edge tiles are padded with zeros.
+ * Positional reads and writes are safe for concurrent use.
+ *
+ * @see TileCache
+ * @see OutOfCoreLUDecomposition
+ */
+public final class TileStore implements Closeable {
+    /**
+     * Channel of the file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Dimension of the matrix.
+     */
+    private final int n;
+
+    /**
+     * Number of rows and columns of a tile.
+     */
+    private final int tileSize;
+
+    /**
+     * Number of tiles along one dimension.
+     */
+    private final int tiles;
+
+    /**
+     * Private constructor, use create().
+     *
+     * @param channel  Channel of the file.
+     * @param n        Dimension of the matrix.
+     * @param tileSize Number of rows and columns of a tile.
+     */
+    private TileStore(FileChannel channel, int n, int tileSize) {
+        this.channel = channel;
+        this.n = n;
+        this.tileSize = tileSize;
+        this.tiles = (n + tileSize - 1) / tileSize;
+    }
+
+    /**
+     * Creates zero matrix in a new or truncated file.
+     *
+     * @param path     Path of the file.
+     * @param n        Dimension of the matrix.
+     * @param tileSize Number of rows and columns of a tile.
+     * @return Store of the matrix.
+     * @throws IOException when the file cannot be created.
+     */
+    public static TileStore create(Path path, int n, int tileSize) throws IOException {
+        if (n < 1 || tileSize < 1) {
+            throw new IllegalArgumentException("Dimension and tile size must be positive.");
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        TileStore store = new TileStore(channel, n, tileSize);
+        if (store.tiles > 0) {
+            store.write(store.tiles - 1, store.tiles - 1, new double[tileSize * tileSize]);
+        }
+        return store;
+    }
+
+    /**
+     * Creates store with elements of a matrix.
+     *
+     * @param matrix   Square matrix.
+     * @param path     Path of the file.
+     * @param tileSize Number of rows and columns of a tile.
+     * @return Store of the matrix.
+     * @throws IOException when the file cannot be written.
+     */
+    public static TileStore fromMatrix(Matrix matrix, Path path, int tileSize) throws IOException {
+        if (!matrix.isSquare()) {
+            throw new IllegalArgumentException("Matrix must be square.");
+        }
+        TileStore store = create(path, matrix.getRows(), tileSize);
+        for (int i = 0; i < matrix.getRows(); i++) {
+            store.writeRow(i, matrix.getData()[i]);
+        }
+        return store;
+    }
+
+    /**
+     * Returns dimension of the matrix.
+     *
+     * @return Dimension of the matrix.
+     */
+    public int getDimension() {
+        return n;
+    }
+
+    /**
+     * Returns number of rows and columns of a tile.
+     *
+     * @return Tile size.
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Returns number of tiles along one dimension.
+     *
+     * @return Number of tiles.
+     */
+    public int getTiles() {
+        return tiles;
+    }
+
+    /**
+     * Returns number of bytes of one tile.
+     *
+     * @return Size of a tile in bytes.
+     */
+    public long getTileBytes() {
+        return 8L * tileSize * tileSize;
+    }
+
+    /**
+     * Writes one row of the matrix directly to the tiles it crosses.
+     *
+     * @param row    Index of the row.
+     * @param values Elements of the row.
+     * @throws IOException when writing fails.
+     */
+    public void writeRow(int row, double[] values) throws IOException {
+        if (values.length != n) {
+            throw new IllegalArgumentException("Row must have " + n + " elements.");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(8 * tileSize);
+        for (int tj = 0; tj < tiles; tj++) {
+            int columns = Math.min(tileSize, n - tj * tileSize);
+            buffer.clear();
+            buffer.asDoubleBuffer().put(values, tj * tileSize, columns);
+            buffer.limit(8 * columns);
+            writeFully(buffer, offsetOf(row / tileSize, tj) + 8L * (row % tileSize) * tileSize);
+        }
+    }
+
+    /**
+     * Reads a tile.
+     *
+     * @param ti Index of tile row.
+     * @param tj Index of tile column.
+     * @return Elements of the tile, row by row.
+     * @throws IOException when reading fails.
+     */
+    public double[] read(int ti, int tj) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) getTileBytes());
+        long position = offsetOf(ti, tj);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.clear();
+        double[] tile = new double[tileSize * tileSize];
+        buffer.asDoubleBuffer().get(tile);
+        return tile;
+    }
+
+    /**
+     * Writes a tile.
+     *
+     * @param ti   Index of tile row.
+     * @param tj   Index of tile column.
+     * @param tile Elements of the tile, row by row.
+     * @throws IOException when writing fails.
+     */
+    public void write(int ti, int tj, double[] tile) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) getTileBytes());
+        buffer.asDoubleBuffer().put(tile);
+        writeFully(buffer, offsetOf(ti, tj));
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException when closing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Returns position of a tile in the file.
+     *
+     * @param ti Index of tile row.
+     * @param tj Index of tile column.
+     * @return Offset in bytes.
+     */
+    private long offsetOf(int ti, int tj) {
+        return ((long) ti * tiles + tj) * getTileBytes();
+    }
+
+    /**
+     * Writes whole buffer at a position.
+     *
+     * @param buffer   Bytes to write.
+     * @param position Offset in the file.
+     * @throws IOException when writing fails.
+     */
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        int start = buffer.position();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position() - start);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Contains LU decomposition of matrices kept as tiles in a disk file.
+ */
+package models.outofcore;
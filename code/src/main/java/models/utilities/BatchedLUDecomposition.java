@@ -0,0 +1,284 @@
+package models.utilities;
+
+import models.exceptions.InvalidMatrixSizesException;
+import models.matrices.MatrixBatch;
+import models.vectors.VectorBatch;
+
+import java.io.Serializable;
+import java.util.stream.IntStream;
+
+/**
+ * LU decompositions with partial pivoting of a whole batch of small matrices computed in one pass.
+ * Works on interleaved layout: innermost loops run over the batch, so they vectorize,
+ * and chunks of the batch are processed on separate cores.
+ * Pivots are chosen per matrix exactly like in LUDecomposition.
+ *
+ * @see MatrixBatch
+ * @see VectorBatch
+ * @see LUDecomposition
+ */
+public class BatchedLUDecomposition implements Serializable {
+    /**
+     * Number of matrices processed together by a single thread.
+     */
+    private static final int CHUNK = 256;
+
+    /**
+     * Dimension of every matrix.
+     */
+    private final int n;
+
+    /**
+     * Number of matrices.
+     */
+    private final int count;
+
+    /**
+     * Interleaved combined L and U factors.
+     */
+    private final double[] LU;
+
+    /**
+     * Interleaved pivot vectors, element i of matrix b is at i * count + b.
+     */
+    private final int[] piv;
+
+    /**
+     * Pivot signs of all matrices.
+     */
+    private final int[] pivSign;
+
+    /**
+     * Factorizes all matrices of the batch.
+     *
+     * @param batch Batch of square matrices, it is not modified.
+     */
+    public BatchedLUDecomposition(MatrixBatch batch) {
+        this.n = batch.getDimension();
+        this.count = batch.getCount();
+        this.LU = batch.getData().clone();
+        this.piv = new int[n * count];
+        this.pivSign = new int[count];
+        for (int i = 0; i < n; i++)
+            for (int b = 0; b < count; b++)
+                piv[i * count + b] = i;
+        for (int b = 0; b < count; b++)
+            pivSign[b] = 1;
+
+        chunks().forEach(chunk -> factorize(chunk * CHUNK, Math.min(count, (chunk + 1) * CHUNK)));
+    }
+
+    /**
+     * Returns dimension of every matrix.
+     *
+     * @return Number of rows and columns.
+     */
+    public int getDimension() {
+        return n;
+    }
+
+    /**
+     * Returns number of matrices.
+     *
+     * @return Number of matrices.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns determinants of all matrices.
+     *
+     * @return Determinant of every matrix of the batch.
+     */
+    public double[] det() {
+        double[] determinants = new double[count];
+        for (int b = 0; b < count; b++)
+            determinants[b] = pivSign[b];
+        for (int j = 0; j < n; j++) {
+            int jj = (j * n + j) * count;
+            for (int b = 0; b < count; b++)
+                determinants[b] *= LU[jj + b];
+        }
+        return determinants;
+    }
+
+    /**
+     * Checks if a matrix of the batch is non singular.
+     *
+     * @param index Index of the matrix.
+     * @return Non singularity of matrix. When there is no zeros at diagonal.
+     */
+    public boolean isNonSingular(int index) {
+        for (int j = 0; j < n; j++)
+            if (LU[(j * n + j) * count + index] == 0)
+                return false;
+        return true;
+    }
+
+    /**
+     * Returns pivot permutation vector of a matrix.
+     *
+     * @param index Index of the matrix.
+     * @return Pivot permutation vector.
+     */
+    public int[] getPivot(int index) {
+        int[] p = new int[n];
+        for (int i = 0; i < n; i++)
+            p[i] = piv[i * count + index];
+        return p;
+    }
+
+    /**
+     * Solves A_b x_b = r_b for every matrix of the batch.
+     * Solutions of singular matrices are filled with NaN, use isNonSingular to tell them apart.
+     *
+     * @param rhs Right hand sides, one per matrix.
+     * @return Solutions, one per matrix.
+     * @throws InvalidMatrixSizesException when size or number of right hand sides does not match the batch.
+     */
+    public VectorBatch solve(VectorBatch rhs) throws InvalidMatrixSizesException {
+        if (rhs.getSize() != n || rhs.getCount() != count) {
+            throw new InvalidMatrixSizesException();
+        }
+        VectorBatch solution = new VectorBatch(n, count);
+        double[] b = rhs.getData();
+        double[] x = solution.getData();
+        chunks().forEach(chunk -> substitute(b, x, chunk * CHUNK, Math.min(count, (chunk + 1) * CHUNK)));
+        return solution;
+    }
+
+    /**
+     * Returns stream of chunk indices, parallel when the batch spans several chunks.
+     *
+     * @return Indices of chunks.
+     */
+    private IntStream chunks() {
+        IntStream chunks = IntStream.range(0, (count + CHUNK - 1) / CHUNK);
+        return count > CHUNK ? chunks.parallel() : chunks;
+    }
+
+    /**
+     * Right-looking factorization of matrices [b0, b1).
+     *
+     * @param b0 First matrix.
+     * @param b1 Matrix after the last one.
+     */
+    private void factorize(int b0, int b1) {
+        int width = b1 - b0;
+        double[] largest = new double[width];
+        int[] pivotRow = new int[width];
+
+        for (int k = 0; k < n; k++) {
+            int kk = (k * n + k) * count;
+
+            // Find pivots of all matrices.
+            for (int b = b0; b < b1; b++) {
+                largest[b - b0] = Math.abs(LU[kk + b]);
+                pivotRow[b - b0] = k;
+            }
+            for (int i = k + 1; i < n; i++) {
+                int ik = (i * n + k) * count;
+                for (int b = b0; b < b1; b++) {
+                    double value = Math.abs(LU[ik + b]);
+                    if (value > largest[b - b0]) {
+                        largest[b - b0] = value;
+                        pivotRow[b - b0] = i;
+                    }
+                }
+            }
+
+            // Exchange rows where necessary.
+            for (int b = b0; b < b1; b++) {
+                int p = pivotRow[b - b0];
+                if (p != k) {
+                    for (int j = 0; j < n; j++) {
+                        int pj = (p * n + j) * count + b;
+                        int kj = (k * n + j) * count + b;
+                        double t = LU[pj];
+                        LU[pj] = LU[kj];
+                        LU[kj] = t;
+                    }
+                    int t = piv[p * count + b];
+                    piv[p * count + b] = piv[k * count + b];
+                    piv[k * count + b] = t;
+                    pivSign[b] = -pivSign[b];
+                }
+            }
+
+            // Compute multipliers.
+            for (int i = k + 1; i < n; i++) {
+                int ik = (i * n + k) * count;
+                for (int b = b0; b < b1; b++) {
+                    double d = LU[kk + b];
+                    LU[ik + b] = d != 0.0 ? LU[ik + b] / d : LU[ik + b];
+                }
+            }
+
+            // Update trailing matrices.
+            for (int i = k + 1; i < n; i++) {
+                int ik = (i * n + k) * count;
+                for (int j = k + 1; j < n; j++) {
+                    int ij = (i * n + j) * count;
+                    int kj = (k * n + j) * count;
+                    for (int b = b0; b < b1; b++) {
+                        LU[ij + b] -= LU[ik + b] * LU[kj + b];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Forward and backward substitution for matrices [b0, b1).
+     *
+     * @param rhs Interleaved right hand sides.
+     * @param x   Interleaved solutions.
+     * @param b0  First matrix.
+     * @param b1  Matrix after the last one.
+     */
+    private void substitute(double[] rhs, double[] x, int b0, int b1) {
+        for (int i = 0; i < n; i++) {
+            int row = i * count;
+            for (int b = b0; b < b1; b++) {
+                x[row + b] = rhs[piv[row + b] * count + b];
+            }
+        }
+
+        // Solve L*Y = B(piv)
+        for (int i = 1; i < n; i++) {
+            int xi = i * count;
+            for (int k = 0; k < i; k++) {
+                int ik = (i * n + k) * count;
+                int xk = k * count;
+                for (int b = b0; b < b1; b++) {
+                    x[xi + b] -= LU[ik + b] * x[xk + b];
+                }
+            }
+        }
+
+        // Solve U*X = Y
+        for (int i = n - 1; i >= 0; i--) {
+            int xi = i * count;
+            for (int k = i + 1; k < n; k++) {
+                int ik = (i * n + k) * count;
+                int xk = k * count;
+                for (int b = b0; b < b1; b++) {
+                    x[xi + b] -= LU[ik + b] * x[xk + b];
+                }
+            }
+            int ii = (i * n + i) * count;
+            for (int b = b0; b < b1; b++) {
+                x[xi + b] /= LU[ii + b];
+            }
+        }
+
+        for (int b = b0; b < b1; b++) {
+            if (!isNonSingular(b)) {
+                for (int i = 0; i < n; i++) {
+                    x[i * count + b] = Double.NaN;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package models.utilities;
+
+import models.exceptions.InvalidMatrixSizesException;
+import models.exceptions.NotPositiveDefiniteMatrixException;
+import models.exceptions.SingularMatrixException;
+import models.matrices.PackedSymmetricMatrix;
+import models.matrices.PackedTriangularMatrix;
+import models.monitoring.Operation;
+import models.monitoring.SolverMetrics;
+import models.vectors.Vector;
+
+import java.io.Serializable;
+
+/**
+ * Cholesky decomposition A = L L^T of symmetric positive definite matrix in packed storage.
+ * Rows of L are computed from dot products of contiguous packed rows,
+ * solve runs forward and backward substitution on the packed factor.
+ *
+ * @see PackedSymmetricMatrix
+ * @see PackedTriangularMatrix
+ */
+public class CholeskyDecomposition implements Serializable {
+    /**
+     * Lower triangular factor.
+     */
+    private final PackedTriangularMatrix L;
+
+    /**
+     * True when the matrix is positive definite.
+     */
+    private final boolean positiveDefinite;
+
+    /**
+     * Factorizes a matrix.
+     *
+     * @param A Symmetric matrix.
+     */
+    public CholeskyDecomposition(PackedSymmetricMatrix A) {
+        long start = System.nanoTime();
+        int n = A.getDimension();
+        this.L = new PackedTriangularMatrix(n, false, false);
+        double[] l = L.getPackedData();
+        double[] a = A.getPackedData();
+        boolean definite = true;
+        for (int i = 0; i < n && definite; i++) {
+            int rowI = i * (i + 1) / 2;
+            for (int j = 0; j <= i; j++) {
+                int rowJ = j * (j + 1) / 2;
+                double sum = a[rowI + j];
+                for (int k = 0; k < j; k++) {
+                    sum -= l[rowI + k] * l[rowJ + k];
+                }
+                if (j < i) {
+                    l[rowI + j] = sum / l[rowJ + j];
+                } else if (sum > 0.0) {
+                    l[rowI + i] = Math.sqrt(sum);
+                } else {
+                    definite = false;
+                }
+            }
+        }
+        this.positiveDefinite = definite;
+        SolverMetrics.record(Operation.FACTORIZE, n, System.nanoTime() - start, (double) n * n * n / 3.0);
+    }
+
+    /**
+     * Checks if the matrix is symmetric positive definite.
+     *
+     * @return True when the factorization succeeded.
+     */
+    public boolean isPositiveDefinite() {
+        return positiveDefinite;
+    }
+
+    /**
+     * Returns lower triangular factor.
+     *
+     * @return L in packed storage.
+     */
+    public PackedTriangularMatrix getL() {
+        return L;
+    }
+
+    /**
+     * Calculates determinant.
+     *
+     * @return Determinant of the matrix.
+     * @throws NotPositiveDefiniteMatrixException when matrix is not positive definite.
+     */
+    public double det() throws NotPositiveDefiniteMatrixException {
+        checkPositiveDefinite();
+        double d = 1.0;
+        for (int i = 0; i < L.getDimension(); i++) {
+            d *= L.getAt(i, i) * L.getAt(i, i);
+        }
+        return d;
+    }
+
+    /**
+     * Solves linear system Ax = b.
+     *
+     * @param b Right hand-side vector.
+     * @return Solution for linear system.
+     * @throws InvalidMatrixSizesException        when size of the vector is not correct.
+     * @throws NotPositiveDefiniteMatrixException when matrix is not positive definite.
+     */
+    public Vector solve(Vector b) throws InvalidMatrixSizesException, NotPositiveDefiniteMatrixException {
+        checkPositiveDefinite();
+        long start = System.nanoTime();
+        Vector x = new Vector(b);
+        try {
+            L.solveInPlace(x.getData());
+            L.solveTransposedInPlace(x.getData());
+        } catch (SingularMatrixException e) {
+            throw new NotPositiveDefiniteMatrixException();
+        }
+        SolverMetrics.record(Operation.SOLVE, L.getDimension(), System.nanoTime() - start,
+                SolverMetrics.solveFlops(L.getDimension(), 1));
+        return x;
+    }
+
+    /**
+     * Checks if the factorization succeeded.
+     *
+     * @throws NotPositiveDefiniteMatrixException when matrix is not positive definite.
+     */
+    private void checkPositiveDefinite() throws NotPositiveDefiniteMatrixException {
+        if (!positiveDefinite) {
+            throw new NotPositiveDefiniteMatrixException();
+        }
+    }
+}
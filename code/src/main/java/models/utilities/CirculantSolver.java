@@ -0,0 +1,230 @@
+package models.utilities;
+
+import models.exceptions.InvalidMatrixSizesException;
+import models.exceptions.SingularMatrixException;
+import models.matrices.CirculantMatrix;
+import models.monitoring.Operation;
+import models.monitoring.SolverMetrics;
+import models.vectors.Vector;
+
+import java.io.Serializable;
+
+/**
+ * Solver of circulant systems in O(n log n) time and O(n) memory.
+ * Circulant matrix is diagonalized by the discrete Fourier transform, its eigenvalues are the transform of
+ * the first column c, so Cx = b is solved as x = IFFT(FFT(b) / FFT(c)).
+ * The transpose has conjugate eigenvalues, the inverse is circulant with first column IFFT(1 / FFT(c))
+ * and the determinant is the product of eigenvalues.
+ * For real c the spectrum is conjugate symmetric, only its first n / 2 + 1 eigenvalues are kept
+ * and all transforms are real input ones.
+ *
+ * @see CirculantMatrix
+ * @see FFTPlan
+ */
+public final class CirculantSolver implements Serializable {
+    /**
+     * Dimension of the matrix.
+     */
+    private final int n;
+
+    /**
+     * Real parts of the first n / 2 + 1 eigenvalues.
+     */
+    private final double[] eigenRe;
+
+    /**
+     * Imaginary parts of the first n / 2 + 1 eigenvalues.
+     */
+    private final double[] eigenIm;
+
+    /**
+     * True when no eigenvalue vanishes relative to the largest one.
+     */
+    private final boolean nonSingular;
+
+    /**
+     * Shared plan of the transform, looked up again after deserialization.
+     */
+    private transient FFTPlan plan;
+
+    /**
+     * Computes eigenvalues of the matrix.
+     *
+     * @param matrix Circulant matrix.
+     */
+    public CirculantSolver(CirculantMatrix matrix) {
+        long start = System.nanoTime();
+        this.n = matrix.getDimension();
+        int h = n / 2 + 1;
+        this.eigenRe = new double[h];
+        this.eigenIm = new double[h];
+        plan().realForward(matrix.getFirstColumn(), eigenRe, eigenIm);
+        double largest = 0.0;
+        for (int k = 0; k < h; k++) {
+            largest = Math.max(largest, Math.hypot(eigenRe[k], eigenIm[k]));
+        }
+        // Eigenvalues carry rounding error of the transform, about n ulp of the largest one
+        double tolerance = 8.0 * n * Math.ulp(largest);
+        boolean regular = largest > 0.0;
+        for (int k = 0; k < h && regular; k++) {
+            regular = Math.hypot(eigenRe[k], eigenIm[k]) > tolerance;
+        }
+        this.nonSingular = regular;
+        SolverMetrics.record(Operation.FACTORIZE, n, System.nanoTime() - start, transformFlops());
+    }
+
+    /**
+     * Returns shared plan of the transform.
+     *
+     * @return Plan of size n.
+     */
+    private FFTPlan plan() {
+        if (plan == null) {
+            plan = FFTPlan.of(n);
+        }
+        return plan;
+    }
+
+    /**
+     * Estimates floating point operations of one real transform.
+     *
+     * @return Approximately 2.5 n log2 n.
+     */
+    private double transformFlops() {
+        return 2.5 * n * Math.max(1.0, Math.log(n) / Math.log(2.0));
+    }
+
+    /**
+     * Returns dimension of the matrix.
+     *
+     * @return Number of rows and columns.
+     */
+    public int getDimension() {
+        return n;
+    }
+
+    /**
+     * Checks if the matrix is non singular.
+     *
+     * @return True when no eigenvalue is zero up to rounding of the transform.
+     */
+    public boolean isNonSingular() {
+        return nonSingular;
+    }
+
+    /**
+     * Returns determinant, product of eigenvalues.
+     * Eigenvalues k and n - k are conjugate, so the product is real.
+     *
+     * @return Determinant of the matrix.
+     */
+    public double det() {
+        double d = eigenRe[0];
+        for (int k = 1; k < eigenRe.length; k++) {
+            if (2 * k == n) {
+                d *= eigenRe[k];
+            } else {
+                d *= eigenRe[k] * eigenRe[k] + eigenIm[k] * eigenIm[k];
+            }
+        }
+        return d;
+    }
+
+    /**
+     * Solves linear system Cx = b.
+     *
+     * @param b Right hand-side vector.
+     * @return Solution for linear system.
+     * @throws InvalidMatrixSizesException when size of the vector is not correct.
+     * @throws SingularMatrixException     when matrix is singular.
+     */
+    public Vector solve(Vector b) throws InvalidMatrixSizesException, SingularMatrixException {
+        double[] x = new double[n];
+        solve(b.getData(), x);
+        return Vector.wrap(x);
+    }
+
+    /**
+     * Solves linear system Cx = b in O(n log n).
+     *
+     * @param b Right hand-side vector.
+     * @param x Array for the solution, may be the same array as b.
+     * @throws InvalidMatrixSizesException when dimensions of the system are not correct.
+     * @throws SingularMatrixException     when matrix is singular.
+     */
+    public void solve(double[] b, double[] x) throws InvalidMatrixSizesException, SingularMatrixException {
+        divide(b, x, false);
+    }
+
+    /**
+     * Solves transposed linear system C^T x = b in O(n log n).
+     *
+     * @param b Right hand-side vector.
+     * @param x Array for the solution, may be the same array as b.
+     * @throws InvalidMatrixSizesException when dimensions of the system are not correct.
+     * @throws SingularMatrixException     when matrix is singular.
+     */
+    public void solveTranspose(double[] b, double[] x) throws InvalidMatrixSizesException, SingularMatrixException {
+        divide(b, x, true);
+    }
+
+    /**
+     * Divides spectrum of the right hand-side by eigenvalues or their conjugates.
+     *
+     * @param b         Right hand-side vector.
+     * @param x         Array for the solution.
+     * @param transpose True to solve with the transpose.
+     * @throws InvalidMatrixSizesException when dimensions of the system are not correct.
+     * @throws SingularMatrixException     when matrix is singular.
+     */
+    private void divide(double[] b, double[] x, boolean transpose) throws InvalidMatrixSizesException, SingularMatrixException {
+        if (b.length != n || x.length != n) {
+            throw new InvalidMatrixSizesException();
+        }
+        if (!nonSingular) {
+            throw new SingularMatrixException();
+        }
+        long start = System.nanoTime();
+        int h = eigenRe.length;
+        double[] re = new double[h];
+        double[] im = new double[h];
+        plan().realForward(b, re, im);
+        double sign = transpose ? -1.0 : 1.0;
+        for (int k = 0; k < h; k++) {
+            double lambdaRe = eigenRe[k];
+            double lambdaIm = sign * eigenIm[k];
+            double norm = lambdaRe * lambdaRe + lambdaIm * lambdaIm;
+            double qRe = (re[k] * lambdaRe + im[k] * lambdaIm) / norm;
+            double qIm = (im[k] * lambdaRe - re[k] * lambdaIm) / norm;
+            re[k] = qRe;
+            im[k] = qIm;
+        }
+        plan().realInverse(re, im, x);
+        SolverMetrics.record(Operation.SOLVE, n, System.nanoTime() - start, 2.0 * transformFlops() + 6.0 * h);
+    }
+
+    /**
+     * Calculates the inverse of matrix in O(n log n), it is circulant again.
+     *
+     * @return Inverse of matrix.
+     * @throws SingularMatrixException when matrix is singular.
+     */
+    public CirculantMatrix inverse() throws SingularMatrixException {
+        if (!nonSingular) {
+            throw new SingularMatrixException();
+        }
+        long start = System.nanoTime();
+        int h = eigenRe.length;
+        double[] re = new double[h];
+        double[] im = new double[h];
+        for (int k = 0; k < h; k++) {
+            double norm = eigenRe[k] * eigenRe[k] + eigenIm[k] * eigenIm[k];
+            re[k] = eigenRe[k] / norm;
+            im[k] = -eigenIm[k] / norm;
+        }
+        double[] column = new double[n];
+        plan().realInverse(re, im, column);
+        SolverMetrics.record(Operation.INVERSE, n, System.nanoTime() - start, transformFlops() + 4.0 * h);
+        return new CirculantMatrix(column);
+    }
+}
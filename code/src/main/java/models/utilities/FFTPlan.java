@@ -0,0 +1,513 @@
+package models.utilities;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Precomputed fast Fourier transform of one size, shared by all callers of that size.
+ * Sizes are split into radix 4, 2 and small odd prime factors, transformed by recursive mixed radix Cooley-Tukey.
+ * Sizes with a prime factor above {@link #MAX_RADIX} are transformed with Bluestein's chirp z algorithm
+ * on top of a power of two plan, so every size costs O(n log n).
+ * Real input of even size is packed into a complex transform of half the size.
+ * Complex vectors are passed as separate arrays of real and imaginary parts.
+ * Plans are immutable and thread safe, the transforms allocate only O(n) scratch.
+ *
+ * @see CirculantSolver
+ */
+public final class FFTPlan {
+    /**
+     * Largest prime factor transformed by the generic butterfly.
+     */
+    private static final int MAX_RADIX = 31;
+
+    /**
+     * Plans by size, released under memory pressure.
+     */
+    private static final ConcurrentMap<Integer, SoftReference<FFTPlan>> PLANS = new ConcurrentHashMap<>();
+
+    /**
+     * Size of the transform.
+     */
+    private final int n;
+
+    /**
+     * Pairs of radix and remaining length of every stage, null for Bluestein plans.
+     */
+    private final int[] factors;
+
+    /**
+     * Real parts of exp(-2 pi i k / n).
+     */
+    private final double[] twiddleRe;
+
+    /**
+     * Imaginary parts of exp(-2 pi i k / n).
+     */
+    private final double[] twiddleIm;
+
+    /**
+     * Power of two plan of the convolution, null for mixed radix plans.
+     */
+    private final FFTPlan convolution;
+
+    /**
+     * Real parts of the chirp exp(-pi i k^2 / n).
+     */
+    private final double[] chirpRe;
+
+    /**
+     * Imaginary parts of the chirp exp(-pi i k^2 / n).
+     */
+    private final double[] chirpIm;
+
+    /**
+     * Real parts of the transformed conjugate chirp filter.
+     */
+    private final double[] filterRe;
+
+    /**
+     * Imaginary parts of the transformed conjugate chirp filter.
+     */
+    private final double[] filterIm;
+
+    /**
+     * Plan of half the size used for real input, created on first real transform.
+     */
+    private volatile FFTPlan half;
+
+    /**
+     * Creates plan.
+     *
+     * @param n Size of the transform.
+     */
+    private FFTPlan(int n) {
+        this.n = n;
+        this.twiddleRe = new double[n];
+        this.twiddleIm = new double[n];
+        for (int k = 0; k < n; k++) {
+            double angle = -2.0 * Math.PI * k / n;
+            twiddleRe[k] = Math.cos(angle);
+            twiddleIm[k] = Math.sin(angle);
+        }
+        int[] stages = factorize(n);
+        if (stages != null) {
+            this.factors = stages;
+            this.convolution = null;
+            this.chirpRe = null;
+            this.chirpIm = null;
+            this.filterRe = null;
+            this.filterIm = null;
+        } else {
+            int m = Integer.highestOneBit(2 * n - 1);
+            if (m < 2 * n - 1) {
+                m <<= 1;
+            }
+            this.factors = null;
+            this.convolution = of(m);
+            this.chirpRe = new double[n];
+            this.chirpIm = new double[n];
+            this.filterRe = new double[m];
+            this.filterIm = new double[m];
+            for (int k = 0; k < n; k++) {
+                // k^2 is reduced modulo 2n, exp(-pi i k^2 / n) has period 2n
+                double angle = -Math.PI * (double) ((long) k * k % (2L * n)) / n;
+                chirpRe[k] = Math.cos(angle);
+                chirpIm[k] = Math.sin(angle);
+                filterRe[k] = chirpRe[k];
+                filterIm[k] = -chirpIm[k];
+                if (k > 0) {
+                    filterRe[m - k] = chirpRe[k];
+                    filterIm[m - k] = -chirpIm[k];
+                }
+            }
+            convolution.forward(filterRe, filterIm);
+        }
+    }
+
+    /**
+     * Returns plan of the given size, creates it when no plan of that size is cached.
+     *
+     * @param n Size of the transform.
+     * @return Shared plan.
+     * @throws IllegalArgumentException when size is not positive.
+     */
+    public static FFTPlan of(int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Size of the transform must be positive.");
+        }
+        SoftReference<FFTPlan> reference = PLANS.get(n);
+        FFTPlan plan = reference == null ? null : reference.get();
+        if (plan == null) {
+            plan = new FFTPlan(n);
+            PLANS.put(n, new SoftReference<>(plan));
+        }
+        return plan;
+    }
+
+    /**
+     * Splits size into stages, radix 4 first, then 2 and odd primes.
+     *
+     * @param n Size of the transform.
+     * @return Pairs of radix and remaining length or null when a prime factor exceeds MAX_RADIX.
+     */
+    private static int[] factorize(int n) {
+        int[] stages = new int[64];
+        int count = 0;
+        int remaining = n;
+        int p = 4;
+        while (remaining > 1) {
+            while (remaining % p != 0) {
+                p = p == 4 ? 2 : p == 2 ? 3 : p + 2;
+                if (p > MAX_RADIX) {
+                    return null;
+                }
+            }
+            remaining /= p;
+            stages[count++] = p;
+            stages[count++] = remaining;
+        }
+        if (count == 0) {
+            stages[count++] = 1;
+            stages[count++] = 1;
+        }
+        return Arrays.copyOf(stages, count);
+    }
+
+    /**
+     * Returns size of the transform.
+     *
+     * @return Number of elements.
+     */
+    public int getSize() {
+        return n;
+    }
+
+    /**
+     * Computes forward transform X(k) = sum x(j) exp(-2 pi i jk / n) in place.
+     *
+     * @param re Real parts, n elements.
+     * @param im Imaginary parts, n elements.
+     * @throws IllegalArgumentException when arrays do not have n elements.
+     */
+    public void forward(double[] re, double[] im) {
+        checkLength(re.length);
+        checkLength(im.length);
+        if (factors == null) {
+            bluestein(re, im);
+            return;
+        }
+        double[] inRe = re.clone();
+        double[] inIm = im.clone();
+        work(re, im, 0, inRe, inIm, 0, 1, 0, new double[4 * MAX_RADIX]);
+    }
+
+    /**
+     * Computes inverse transform x(j) = sum X(k) exp(2 pi i jk / n) / n in place.
+     *
+     * @param re Real parts, n elements.
+     * @param im Imaginary parts, n elements.
+     * @throws IllegalArgumentException when arrays do not have n elements.
+     */
+    public void inverse(double[] re, double[] im) {
+        checkLength(im.length);
+        for (int k = 0; k < n; k++) {
+            im[k] = -im[k];
+        }
+        forward(re, im);
+        double scale = 1.0 / n;
+        for (int k = 0; k < n; k++) {
+            re[k] *= scale;
+            im[k] = -im[k] * scale;
+        }
+    }
+
+    /**
+     * Computes forward transform of real input.
+     * Only the first n / 2 + 1 coefficients are returned, the others are their complex conjugates.
+     *
+     * @param x  Real input, n elements.
+     * @param re Array for real parts, at least n / 2 + 1 elements.
+     * @param im Array for imaginary parts, at least n / 2 + 1 elements.
+     * @throws IllegalArgumentException when input does not have n elements.
+     */
+    public void realForward(double[] x, double[] re, double[] im) {
+        checkLength(x.length);
+        int h = n / 2;
+        if (n % 2 != 0) {
+            double[] fullRe = x.clone();
+            double[] fullIm = new double[n];
+            forward(fullRe, fullIm);
+            System.arraycopy(fullRe, 0, re, 0, h + 1);
+            System.arraycopy(fullIm, 0, im, 0, h + 1);
+            return;
+        }
+        // z(k) = x(2k) + i x(2k+1), X(k) = E(k) + W^k O(k) with E and O recovered from Z(k) and Z(h-k)
+        double[] zRe = new double[h];
+        double[] zIm = new double[h];
+        for (int k = 0; k < h; k++) {
+            zRe[k] = x[2 * k];
+            zIm[k] = x[2 * k + 1];
+        }
+        halfPlan().forward(zRe, zIm);
+        for (int k = 0; k <= h; k++) {
+            int a = k == h ? 0 : k;
+            int b = k == 0 ? 0 : h - k;
+            double evenRe = 0.5 * (zRe[a] + zRe[b]);
+            double evenIm = 0.5 * (zIm[a] - zIm[b]);
+            double oddRe = 0.5 * (zIm[a] + zIm[b]);
+            double oddIm = -0.5 * (zRe[a] - zRe[b]);
+            double wRe = twiddleRe[k % n];
+            double wIm = twiddleIm[k % n];
+            re[k] = evenRe + wRe * oddRe - wIm * oddIm;
+            im[k] = evenIm + wRe * oddIm + wIm * oddRe;
+        }
+    }
+
+    /**
+     * Computes inverse transform of conjugate symmetric spectrum with real result.
+     *
+     * @param re Real parts of the first n / 2 + 1 coefficients.
+     * @param im Imaginary parts of the first n / 2 + 1 coefficients.
+     * @param x  Array for the real result, n elements.
+     * @throws IllegalArgumentException when result does not have n elements.
+     */
+    public void realInverse(double[] re, double[] im, double[] x) {
+        checkLength(x.length);
+        int h = n / 2;
+        if (n % 2 != 0) {
+            double[] fullRe = new double[n];
+            double[] fullIm = new double[n];
+            for (int k = 0; k <= h; k++) {
+                fullRe[k] = re[k];
+                fullIm[k] = im[k];
+                if (k > 0) {
+                    fullRe[n - k] = re[k];
+                    fullIm[n - k] = -im[k];
+                }
+            }
+            inverse(fullRe, fullIm);
+            System.arraycopy(fullRe, 0, x, 0, n);
+            return;
+        }
+        // E(k) = (X(k) + conj X(h-k)) / 2, O(k) = (X(k) - conj X(h-k)) conj W^k / 2, Z(k) = E(k) + i O(k)
+        double[] zRe = new double[h];
+        double[] zIm = new double[h];
+        for (int k = 0; k < h; k++) {
+            double evenRe = 0.5 * (re[k] + re[h - k]);
+            double evenIm = 0.5 * (im[k] - im[h - k]);
+            double diffRe = 0.5 * (re[k] - re[h - k]);
+            double diffIm = 0.5 * (im[k] + im[h - k]);
+            double oddRe = diffRe * twiddleRe[k] + diffIm * twiddleIm[k];
+            double oddIm = diffIm * twiddleRe[k] - diffRe * twiddleIm[k];
+            zRe[k] = evenRe - oddIm;
+            zIm[k] = evenIm + oddRe;
+        }
+        halfPlan().inverse(zRe, zIm);
+        for (int k = 0; k < h; k++) {
+            x[2 * k] = zRe[k];
+            x[2 * k + 1] = zIm[k];
+        }
+    }
+
+    /**
+     * Returns plan of half the size.
+     *
+     * @return Plan of size n / 2.
+     */
+    private FFTPlan halfPlan() {
+        FFTPlan plan = half;
+        if (plan == null) {
+            plan = of(n / 2);
+            half = plan;
+        }
+        return plan;
+    }
+
+    /**
+     * Checks length of an argument.
+     *
+     * @param length Length of the argument.
+     * @throws IllegalArgumentException when length is not n.
+     */
+    private void checkLength(int length) {
+        if (length != n) {
+            throw new IllegalArgumentException("Transform of size " + n + " got " + length + " elements.");
+        }
+    }
+
+    /**
+     * Transforms strided input into contiguous output, stage by stage.
+     *
+     * @param oRe     Real parts of the output.
+     * @param oIm     Imaginary parts of the output.
+     * @param oOff    First index of the output.
+     * @param iRe     Real parts of the input.
+     * @param iIm     Imaginary parts of the input.
+     * @param iOff    First index of the input.
+     * @param fstride Stride of the input and of the twiddle factors.
+     * @param stage   Index of the stage in factors.
+     * @param scratch Scratch for the generic butterfly.
+     */
+    private void work(double[] oRe, double[] oIm, int oOff, double[] iRe, double[] iIm, int iOff,
+                      int fstride, int stage, double[] scratch) {
+        int p = factors[stage];
+        int m = factors[stage + 1];
+        if (m == 1) {
+            for (int q = 0; q < p; q++) {
+                oRe[oOff + q] = iRe[iOff + q * fstride];
+                oIm[oOff + q] = iIm[iOff + q * fstride];
+            }
+        } else {
+            for (int q = 0; q < p; q++) {
+                work(oRe, oIm, oOff + q * m, iRe, iIm, iOff + q * fstride, fstride * p, stage + 2, scratch);
+            }
+        }
+        switch (p) {
+            case 1:
+                break;
+            case 2:
+                butterfly2(oRe, oIm, oOff, fstride, m);
+                break;
+            case 4:
+                butterfly4(oRe, oIm, oOff, fstride, m);
+                break;
+            default:
+                butterfly(oRe, oIm, oOff, fstride, m, p, scratch);
+                break;
+        }
+    }
+
+    /**
+     * Radix 2 butterflies of one stage.
+     *
+     * @param re      Real parts.
+     * @param im      Imaginary parts.
+     * @param off     First index.
+     * @param fstride Stride of the twiddle factors.
+     * @param m       Length of the sub-transforms.
+     */
+    private void butterfly2(double[] re, double[] im, int off, int fstride, int m) {
+        for (int k = 0; k < m; k++) {
+            int a = off + k;
+            int b = a + m;
+            double wRe = twiddleRe[k * fstride];
+            double wIm = twiddleIm[k * fstride];
+            double tRe = re[b] * wRe - im[b] * wIm;
+            double tIm = re[b] * wIm + im[b] * wRe;
+            re[b] = re[a] - tRe;
+            im[b] = im[a] - tIm;
+            re[a] += tRe;
+            im[a] += tIm;
+        }
+    }
+
+    /**
+     * Radix 4 butterflies of one stage.
+     *
+     * @param re      Real parts.
+     * @param im      Imaginary parts.
+     * @param off     First index.
+     * @param fstride Stride of the twiddle factors.
+     * @param m       Length of the sub-transforms.
+     */
+    private void butterfly4(double[] re, double[] im, int off, int fstride, int m) {
+        for (int k = 0; k < m; k++) {
+            int i0 = off + k;
+            int i1 = i0 + m;
+            int i2 = i1 + m;
+            int i3 = i2 + m;
+            int t1 = k * fstride;
+            int t2 = 2 * t1;
+            int t3 = 3 * t1;
+            double s0Re = re[i1] * twiddleRe[t1] - im[i1] * twiddleIm[t1];
+            double s0Im = re[i1] * twiddleIm[t1] + im[i1] * twiddleRe[t1];
+            double s1Re = re[i2] * twiddleRe[t2] - im[i2] * twiddleIm[t2];
+            double s1Im = re[i2] * twiddleIm[t2] + im[i2] * twiddleRe[t2];
+            double s2Re = re[i3] * twiddleRe[t3] - im[i3] * twiddleIm[t3];
+            double s2Im = re[i3] * twiddleIm[t3] + im[i3] * twiddleRe[t3];
+            double s5Re = re[i0] - s1Re;
+            double s5Im = im[i0] - s1Im;
+            double aRe = re[i0] + s1Re;
+            double aIm = im[i0] + s1Im;
+            double s3Re = s0Re + s2Re;
+            double s3Im = s0Im + s2Im;
+            double s4Re = s0Re - s2Re;
+            double s4Im = s0Im - s2Im;
+            re[i2] = aRe - s3Re;
+            im[i2] = aIm - s3Im;
+            re[i0] = aRe + s3Re;
+            im[i0] = aIm + s3Im;
+            re[i1] = s5Re + s4Im;
+            im[i1] = s5Im - s4Re;
+            re[i3] = s5Re - s4Im;
+            im[i3] = s5Im + s4Re;
+        }
+    }
+
+    /**
+     * Butterflies of odd prime radix, O(p) operations per element.
+     *
+     * @param re      Real parts.
+     * @param im      Imaginary parts.
+     * @param off     First index.
+     * @param fstride Stride of the twiddle factors.
+     * @param m       Length of the sub-transforms.
+     * @param p       Radix.
+     * @param scratch At least 2p elements.
+     */
+    private void butterfly(double[] re, double[] im, int off, int fstride, int m, int p, double[] scratch) {
+        for (int u = 0; u < m; u++) {
+            for (int q = 0, k = off + u; q < p; q++, k += m) {
+                scratch[2 * q] = re[k];
+                scratch[2 * q + 1] = im[k];
+            }
+            for (int q1 = 0, k = u; q1 < p; q1++, k += m) {
+                double sumRe = scratch[0];
+                double sumIm = scratch[1];
+                int twiddle = 0;
+                for (int q = 1; q < p; q++) {
+                    twiddle += fstride * k;
+                    if (twiddle >= n) {
+                        twiddle -= n;
+                    }
+                    double wRe = twiddleRe[twiddle];
+                    double wIm = twiddleIm[twiddle];
+                    sumRe += scratch[2 * q] * wRe - scratch[2 * q + 1] * wIm;
+                    sumIm += scratch[2 * q] * wIm + scratch[2 * q + 1] * wRe;
+                }
+                re[off + k] = sumRe;
+                im[off + k] = sumIm;
+            }
+        }
+    }
+
+    /**
+     * Bluestein's algorithm, the transform as a convolution with the chirp of power of two length.
+     *
+     * @param re Real parts, n elements.
+     * @param im Imaginary parts, n elements.
+     */
+    private void bluestein(double[] re, double[] im) {
+        int m = convolution.getSize();
+        double[] aRe = new double[m];
+        double[] aIm = new double[m];
+        for (int k = 0; k < n; k++) {
+            aRe[k] = re[k] * chirpRe[k] - im[k] * chirpIm[k];
+            aIm[k] = re[k] * chirpIm[k] + im[k] * chirpRe[k];
+        }
+        convolution.forward(aRe, aIm);
+        for (int k = 0; k < m; k++) {
+            double tRe = aRe[k] * filterRe[k] - aIm[k] * filterIm[k];
+            double tIm = aRe[k] * filterIm[k] + aIm[k] * filterRe[k];
+            aRe[k] = tRe;
+            aIm[k] = tIm;
+        }
+        convolution.inverse(aRe, aIm);
+        for (int k = 0; k < n; k++) {
+            re[k] = aRe[k] * chirpRe[k] - aIm[k] * chirpIm[k];
+            im[k] = aRe[k] * chirpIm[k] + aIm[k] * chirpRe[k];
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package models.utilities;
+
+import models.exceptions.InvalidMatrixSizesException;
+import models.exceptions.NonSquareMatrixException;
+import models.exceptions.SingularMatrixException;
+import models.matrices.LinearOperator;
+import models.matrices.Matrix;
+import models.vectors.Vector;
+
+import java.io.Serializable;
+
+/**
+ * Inverse of a square matrix applied through its LU Decomposition or structured solver.
+ * Products, columns, rows and single entries cost O(n^2) each, the inverse matrix itself
+ * is materialized only by {@link #toMatrix()} and kept afterwards.
+ *
+ * @see LUDecomposition
+ */
+public final class InverseOperator implements LinearOperator, Serializable {
+    /**
+     * Number of unit vectors solved together when the diagonal is computed.
+     */
+    private static final int DIAGONAL_BLOCK_COLUMNS = 64;
+
+    /**
+     * Factorization of the inverted matrix, null when the inverse was given explicitly or structured solver is used.
+     */
+    private final LUDecomposition decomposition;
+
+    /**
+     * Solver using structure of the inverted matrix, null when LU Decomposition is used.
+     */
+    private final StructuredSolver structured;
+
+    /**
+     * Size of the inverted matrix.
+     */
+    private final int n;
+
+    /**
+     * Materialized inverse, null until requested.
+     */
+    private volatile Matrix inverse;
+
+    /**
+     * Diagonal of the inverse, null until requested.
+     */
+    private volatile double[] diagonal;
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param decomposition LU Decomposition of non singular square matrix.
+     * @throws NonSquareMatrixException when decomposed matrix is not square.
+     * @throws SingularMatrixException  when decomposed matrix is singular.
+     */
+    public InverseOperator(LUDecomposition decomposition) throws NonSquareMatrixException, SingularMatrixException {
+        if (decomposition.getRows() != decomposition.getColumns()) {
+            throw new NonSquareMatrixException();
+        }
+        if (!decomposition.isNonSingular()) {
+            throw new SingularMatrixException();
+        }
+        this.decomposition = decomposition;
+        this.structured = null;
+        this.n = decomposition.getRows();
+    }
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param structured Solver of non singular matrix which does not require LU Decomposition.
+     * @throws SingularMatrixException when the matrix is singular.
+     * @throws IllegalStateException   when the matrix requires LU Decomposition.
+     */
+    public InverseOperator(StructuredSolver structured) throws SingularMatrixException {
+        if (!structured.isNonSingular()) {
+            throw new SingularMatrixException();
+        }
+        this.decomposition = null;
+        this.structured = structured;
+        this.n = structured.getDimension();
+    }
+
+    /**
+     * Parametrized constructor for an inverse which is already computed, e.g. by small matrix kernels.
+     *
+     * @param inverse Inverse matrix.
+     * @throws NonSquareMatrixException when inverse is not square.
+     */
+    public InverseOperator(Matrix inverse) throws NonSquareMatrixException {
+        if (!inverse.isSquare()) {
+            throw new NonSquareMatrixException();
+        }
+        this.decomposition = null;
+        this.structured = null;
+        this.n = inverse.getRows();
+        this.inverse = inverse;
+    }
+
+    /**
+     * Returns number of rows.
+     *
+     * @return Size of the inverted matrix.
+     */
+    @Override
+    public int getRows() {
+        return n;
+    }
+
+    /**
+     * Returns number of columns.
+     *
+     * @return Size of the inverted matrix.
+     */
+    @Override
+    public int getColumns() {
+        return n;
+    }
+
+    /**
+     * Checks if the inverse matrix is already stored.
+     *
+     * @return True when {@link #toMatrix()} does not compute anything.
+     */
+    public boolean isMaterialized() {
+        return inverse != null;
+    }
+
+    /**
+     * Computes y = A^-1 x by forward and backward substitution.
+     *
+     * @param x Vector with n elements.
+     * @param y Array for the result with n elements.
+     * @throws IllegalArgumentException when sizes of the arrays are not n.
+     */
+    @Override
+    public void apply(double[] x, double[] y) {
+        Matrix explicit = inverse;
+        if (explicit != null) {
+            if (x.length != n || y.length != n) {
+                throw new IllegalArgumentException("Vectors must have " + n + " elements.");
+            }
+            explicit.apply(x, y);
+            return;
+        }
+        try {
+            if (structured != null) {
+                structured.solve(x, y);
+            } else {
+                decomposition.solve(x, y, LUWorkspace.forCurrentThread());
+            }
+        } catch (InvalidMatrixSizesException e) {
+            throw new IllegalArgumentException("Vectors must have " + n + " elements.", e);
+        } catch (SingularMatrixException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Computes y = A^-T x by substitution with transposed factors.
+     *
+     * @param x Vector with n elements.
+     * @param y Array for the result with n elements.
+     * @throws IllegalArgumentException when sizes of the arrays are not n.
+     */
+    @Override
+    public void applyTranspose(double[] x, double[] y) {
+        Matrix explicit = inverse;
+        if (explicit != null) {
+            if (x.length != n || y.length != n) {
+                throw new IllegalArgumentException("Vectors must have " + n + " elements.");
+            }
+            explicit.applyTranspose(x, y);
+            return;
+        }
+        try {
+            if (structured != null) {
+                structured.solveTranspose(x, y);
+            } else {
+                decomposition.solveTranspose(x, y, LUWorkspace.forCurrentThread());
+            }
+        } catch (InvalidMatrixSizesException e) {
+            throw new IllegalArgumentException("Vectors must have " + n + " elements.", e);
+        } catch (SingularMatrixException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Multiplies the inverse by a vector.
+     *
+     * @param vector Right operand.
+     * @return Product A^-1 v, i.e. solution of Ax = v.
+     * @throws InvalidMatrixSizesException when size of the vector is not n.
+     */
+    public Vector multiply(Vector vector) throws InvalidMatrixSizesException {
+        if (vector.getSize() != n) {
+            throw new InvalidMatrixSizesException();
+        }
+        double[] y = new double[n];
+        apply(vector.getData(), y);
+        return Vector.wrap(y);
+    }
+
+    /**
+     * Returns column of the inverse.
+     *
+     * @param column Index of the column.
+     * @return Column of the inverse, i.e. A^-1 e_column.
+     * @throws IndexOutOfBoundsException when index is not smaller than n.
+     */
+    public Vector getColumn(int column) {
+        double[] y = new double[n];
+        apply(unit(column), y);
+        return Vector.wrap(y);
+    }
+
+    /**
+     * Returns row of the inverse.
+     *
+     * @param row Index of the row.
+     * @return Row of the inverse, i.e. A^-T e_row.
+     * @throws IndexOutOfBoundsException when index is not smaller than n.
+     */
+    public Vector getRow(int row) {
+        double[] y = new double[n];
+        applyTranspose(unit(row), y);
+        return Vector.wrap(y);
+    }
+
+    /**
+     * Returns single entry of the inverse.
+     *
+     * @param row    Index of the row.
+     * @param column Index of the column.
+     * @return Entry of the inverse.
+     * @throws IndexOutOfBoundsException when either index is not smaller than n.
+     */
+    public double getAt(int row, int column) {
+        Matrix explicit = inverse;
+        if (explicit != null) {
+            return explicit.getAt(row, column);
+        }
+        if (row < 0 || row >= n) {
+            throw new IndexOutOfBoundsException();
+        }
+        return getColumn(column).getAt(row);
+    }
+
+    /**
+     * Returns diagonal of the inverse.
+     * Unit vectors are solved in blocks or one by one, so the work is the same as for the full inverse
+     * but the inverse is not kept.
+     *
+     * @return Copy of the diagonal elements.
+     */
+    @Override
+    public double[] getDiagonal() {
+        double[] result = diagonal;
+        if (result == null) {
+            result = new double[n];
+            Matrix explicit = inverse;
+            if (explicit != null) {
+                for (int i = 0; i < n; i++) {
+                    result[i] = explicit.getAt(i, i);
+                }
+            } else if (structured != null) {
+                for (int j = 0; j < n; j++) {
+                    result[j] = getColumn(j).getAt(j);
+                }
+            } else {
+                for (int j0 = 0; j0 < n; j0 += DIAGONAL_BLOCK_COLUMNS) {
+                    int width = Math.min(DIAGONAL_BLOCK_COLUMNS, n - j0);
+                    Matrix block = new Matrix(n, width);
+                    for (int j = 0; j < width; j++) {
+                        block.setAt(j0 + j, j, 1.0);
+                    }
+                    Matrix solved = solve(block);
+                    for (int j = 0; j < width; j++) {
+                        result[j0 + j] = solved.getAt(j0 + j, j);
+                    }
+                }
+            }
+            diagonal = result;
+        }
+        return result.clone();
+    }
+
+    /**
+     * Returns the inverse matrix, computing it on first call.
+     * Meant for displaying or exporting the inverse, other uses should apply the operator instead.
+     *
+     * @return Inverse matrix, shared with later calls.
+     */
+    public Matrix toMatrix() {
+        Matrix result = inverse;
+        if (result == null) {
+            synchronized (this) {
+                result = inverse;
+                if (result == null) {
+                    try {
+                        result = structured != null ? structured.inverse() : decomposition.inverse();
+                    } catch (InvalidMatrixSizesException | SingularMatrixException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    inverse = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Solves for many right hand sides with the factorization.
+     *
+     * @param B Right hand sides with n rows.
+     * @return Solutions.
+     */
+    private Matrix solve(Matrix B) {
+        try {
+            return decomposition.solve(B);
+        } catch (InvalidMatrixSizesException | SingularMatrixException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Creates unit vector.
+     *
+     * @param index Index of the non zero element.
+     * @return Array with one at the index and zeros elsewhere.
+     * @throws IndexOutOfBoundsException when index is not smaller than n.
+     */
+    private double[] unit(int index) {
+        if (index < 0 || index >= n) {
+            throw new IndexOutOfBoundsException();
+        }
+        double[] e = new double[n];
+        e[index] = 1.0;
+        return e;
+    }
+}
@@ -4,6 +4,13 @@ import models.exceptions.InvalidMatrixSizesException;
 import models.exceptions.NonSquareMatrixException;
 import models.exceptions.SingularMatrixException;
 import models.matrices.Matrix;
+import models.matrices.PackedTriangularMatrix;
+import models.monitoring.Operation;
+import models.monitoring.SolverMetrics;
+import models.monitoring.events.FactorizationEvent;
+import models.monitoring.events.InversionEvent;
+import models.monitoring.events.SolveEvent;
+import models.monitoring.events.SolverEvent;
 import models.vectors.Vector;
 
 import java.io.Serializable;
@@ -19,58 +26,86 @@ import java.io.Serializable;
  */
 public class LUDecomposition implements Serializable {
 
+    /**
+     * Number of right hand side columns processed together by solve.
+     */
+    private static final int SOLVE_BLOCK_COLUMNS = 32;
+
+    /**
+     * Structure of matrices handled by this decomposition, reported in flight recorder events.
+     */
+    private static final String STRUCTURE = "GENERAL";
+
     /**
      * Array for internal storage of decomposition.
      */
-    private double[][] LU;
+    private final double[][] LU;
 
     /**
      * Row dimension.
      */
-    private int m;
+    private final int m;
 
     /**
      * Column dimension.
      */
-    private int n;
+    private final int n;
 
     /**
      * Pivot sign.
      */
-    private int pivSign;
+    private final int pivSign;
 
     /**
      * Internal storage of pivot vector.
      */
-    private int[] piv;
+    private final int[] piv;
 
     /**
      * LU Decomposition
-     * Structure to access L, U and piv.
+     * Structure to access L, U and pivot.
      *
-     * @param A Rectangular matrix
+     * @param A Rectangular matrix.
      */
+    public LUDecomposition(Matrix A) {
+        this(A, null);
+    }
 
     /**
      * LU Decomposition
      * Structure to access L, U and pivot.
+     * Factors are stored in the given workspace and stay valid until the next factorization in the same workspace,
+     * so the decomposition is only for short-lived internal use and must not be cached.
      *
-     * @param A Rectangular matrix.
+     * @param A         Rectangular matrix.
+     * @param workspace Workspace lending storage for factors or null to allocate new storage.
      */
-    public LUDecomposition(Matrix A) {
+    LUDecomposition(Matrix A, LUWorkspace workspace) {
 
         // Use a "left-looking", dot-product, Crout/Doolittle algorithm.
 
-        LU = A.getDataCopy();
+        FactorizationEvent event = new FactorizationEvent();
+        event.begin();
+        long start = System.nanoTime();
         m = A.getRows();
         n = A.getColumns();
-        piv = new int[m];
+        if (workspace == null) {
+            LU = A.getDataCopy();
+            piv = new int[m];
+        } else {
+            LU = workspace.factors(m, n);
+            double[][] source = A.getData();
+            for (int i = 0; i < m; i++) {
+                System.arraycopy(source[i], 0, LU[i], 0, n);
+            }
+            piv = workspace.pivot(m);
+        }
         for (int i = 0; i < m; i++) {
             piv[i] = i;
         }
-        pivSign = 1;
+        int sign = 1;
         double[] LUrowi;
-        double[] LUcolj = new double[m];
+        double[] LUcolj = (workspace == null ? LUWorkspace.forCurrentThread() : workspace).scratch(m);
 
         // Outer loop.
 
@@ -115,17 +150,74 @@ public class LUDecomposition implements Serializable {
                 int k = piv[p];
                 piv[p] = piv[j];
                 piv[j] = k;
-                pivSign = -pivSign;
+                sign = -sign;
             }
 
             // Compute multipliers.
 
-            if (j < m & LU[j][j] != 0.0) {
+            if (j < m && LU[j][j] != 0.0) {
                 for (int i = j + 1; i < m; i++) {
                     LU[i][j] /= LU[j][j];
                 }
             }
         }
+        pivSign = sign;
+        recordFactorization(event, start, m, n);
+    }
+
+    /**
+     * Creates decomposition from already computed factors.
+     * Arrays are taken over without copying.
+     *
+     * @param LU      Combined L and U factors, unit diagonal of L is not stored.
+     * @param piv     Pivot permutation vector.
+     * @param pivSign Sign of the permutation.
+     * @param n       Number of columns.
+     */
+    LUDecomposition(double[][] LU, int[] piv, int pivSign, int n) {
+        this.LU = LU;
+        this.m = LU.length;
+        this.n = n;
+        this.piv = piv;
+        this.pivSign = pivSign;
+    }
+
+    /**
+     * Records metrics and flight recorder event of finished factorization.
+     *
+     * @param event Started event.
+     * @param start Start time in nanoseconds.
+     * @param m     Number of rows.
+     * @param n     Number of columns.
+     */
+    static void recordFactorization(FactorizationEvent event, long start, int m, int n) {
+        SolverMetrics.record(Operation.FACTORIZE, Math.max(m, n), System.nanoTime() - start, SolverMetrics.factorizationFlops(m, n));
+        event.end();
+        if (event.shouldCommit()) {
+            event.rows = m;
+            event.columns = n;
+            event.structure = STRUCTURE;
+            event.allocationEstimate = SolverEvent.matrixBytes(m, n) + 12L * m + 32;
+            event.commit();
+        }
+    }
+
+    /**
+     * Returns row dimension of decomposed matrix.
+     *
+     * @return Number of rows.
+     */
+    public int getRows() {
+        return m;
+    }
+
+    /**
+     * Returns column dimension of decomposed matrix.
+     *
+     * @return Number of columns.
+     */
+    public int getColumns() {
+        return n;
     }
 
     /**
@@ -153,12 +245,15 @@ public class LUDecomposition implements Serializable {
     /**
      * Return upper triangular matrix from LU decomposition.
      *
+     * For matrices with fewer rows than columns U has as many rows as the matrix.
+     *
      * @return Upper triangular matrix.
      */
     public Matrix getU() {
-        Matrix X = new Matrix(n, n);
+        int rows = Math.min(m, n);
+        Matrix X = new Matrix(rows, n);
         double[][] U = X.getData();
-        for (int i = 0; i < n; i++) {
+        for (int i = 0; i < rows; i++) {
             for (int j = 0; j < n; j++) {
                 if (i <= j) {
                     U[i][j] = LU[i][j];
@@ -170,6 +265,32 @@ public class LUDecomposition implements Serializable {
         return X;
     }
 
+    /**
+     * Returns unit lower triangular factor in packed storage, without the unit diagonal.
+     *
+     * @return Packed L.
+     * @throws NonSquareMatrixException when Matrix is not square.
+     */
+    public PackedTriangularMatrix getPackedL() throws NonSquareMatrixException {
+        if (m != n) {
+            throw new NonSquareMatrixException();
+        }
+        return PackedTriangularMatrix.lowerOf(LU, n, true);
+    }
+
+    /**
+     * Returns upper triangular factor in packed storage.
+     *
+     * @return Packed U.
+     * @throws NonSquareMatrixException when Matrix is not square.
+     */
+    public PackedTriangularMatrix getPackedU() throws NonSquareMatrixException {
+        if (m != n) {
+            throw new NonSquareMatrixException();
+        }
+        return PackedTriangularMatrix.upperOf(LU, n, false);
+    }
+
     /**
      * Returns pivot permutation vector.
      *
@@ -222,19 +343,99 @@ public class LUDecomposition implements Serializable {
      * @throws SingularMatrixException     when matrix is singular.
      */
     public Vector solve(Vector B) throws SingularMatrixException, InvalidMatrixSizesException {
-        Matrix matrix = new Matrix(B.getSize(), 1);
-        for (int i = 0; i < B.getSize(); i++) {
-            matrix.getData()[i][0] = B.getAt(i);
-        }
-
-        Matrix solve = this.solve(matrix);
+        double[] x = new double[n];
+        solve(B.getData(), x, LUWorkspace.forCurrentThread());
+        return Vector.wrap(x);
+    }
 
-        double[] doubles = new double[solve.getRows()];
-        for (int i = 0; i < doubles.length; i++) {
-            doubles[i] = solve.getData()[i][0];
+    /**
+     * Solves linear system Ax = b without allocating memory.
+     *
+     * @param b         Right hand-side vector.
+     * @param x         Array for the solution, may be the same array as b.
+     * @param workspace Workspace providing the scratch vector.
+     * @throws InvalidMatrixSizesException when dimensions of the system are not correct
+     * @throws SingularMatrixException     when matrix is singular.
+     */
+    public void solve(double[] b, double[] x, LUWorkspace workspace) throws SingularMatrixException, InvalidMatrixSizesException {
+        if (b.length != m || x.length != n) {
+            throw new InvalidMatrixSizesException();
         }
+        if (!this.isNonSingular()) {
+            throw new SingularMatrixException();
+        }
+        SolveEvent event = new SolveEvent();
+        event.begin();
+        long start = System.nanoTime();
+        double[] y = workspace.scratch(m);
+        for (int i = 0; i < m; i++) {
+            y[i] = b[piv[i]];
+        }
+        // Solve L*Y = B(piv)
+        for (int i = 1; i < n; i++) {
+            double[] LUrowi = LU[i];
+            double s = y[i];
+            for (int k = 0; k < i; k++) {
+                s -= LUrowi[k] * y[k];
+            }
+            y[i] = s;
+        }
+        // Solve U*X = Y
+        for (int i = n - 1; i >= 0; i--) {
+            double[] LUrowi = LU[i];
+            double s = y[i];
+            for (int k = i + 1; k < n; k++) {
+                s -= LUrowi[k] * y[k];
+            }
+            y[i] = s / LUrowi[i];
+        }
+        System.arraycopy(y, 0, x, 0, n);
+        recordSolve(event, start, 1);
+    }
 
-        return new Vector(doubles);
+    /**
+     * Solves transposed linear system A^T x = b without allocating memory.
+     *
+     * @param b         Right hand-side vector.
+     * @param x         Array for the solution, may be the same array as b.
+     * @param workspace Workspace providing the scratch vector.
+     * @throws InvalidMatrixSizesException when dimensions of the system are not correct
+     * @throws SingularMatrixException     when matrix is singular.
+     */
+    public void solveTranspose(double[] b, double[] x, LUWorkspace workspace) throws SingularMatrixException, InvalidMatrixSizesException {
+        if (m != n || b.length != n || x.length != n) {
+            throw new InvalidMatrixSizesException();
+        }
+        if (!this.isNonSingular()) {
+            throw new SingularMatrixException();
+        }
+        SolveEvent event = new SolveEvent();
+        event.begin();
+        long start = System.nanoTime();
+        double[] y = workspace.scratch(n);
+        System.arraycopy(b, 0, y, 0, n);
+        // Solve U^T*Z = B, U is read by rows
+        for (int k = 0; k < n; k++) {
+            double[] LUrowk = LU[k];
+            double z = y[k] / LUrowk[k];
+            y[k] = z;
+            for (int i = k + 1; i < n; i++) {
+                y[i] -= LUrowk[i] * z;
+            }
+        }
+        // Solve L^T*W = Z, L is read by rows
+        for (int k = n - 1; k > 0; k--) {
+            double[] LUrowk = LU[k];
+            double w = y[k];
+            for (int i = 0; i < k; i++) {
+                y[i] -= LUrowk[i] * w;
+            }
+        }
+        // X = P^T*W
+        for (int i = 0; i < n; i++) {
+            x[piv[i]] = y[i];
+        }
+        recordSolve(event, start, 1);
     }
 
     /**
@@ -246,7 +447,76 @@ public class LUDecomposition implements Serializable {
      * @throws SingularMatrixException     when matrix is singular.
      */
     public Matrix solve(Matrix B) throws SingularMatrixException, InvalidMatrixSizesException {
-        if (B.getRows() != m) {
+        SolveEvent event = new SolveEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Matrix X = substitute(B);
+        recordSolve(event, start, B.getColumns());
+        return X;
+    }
+
+    /**
+     * Solves linear system AX = B into caller owned storage without allocating memory.
+     *
+     * @param B       Right hand sides, as many rows as A and at least given number of columns.
+     * @param X       Array for the solutions, different from B, as many rows as A and at least given number of columns.
+     * @param columns Number of right hand sides.
+     * @throws InvalidMatrixSizesException when dimensions of the system are not correct
+     * @throws SingularMatrixException     when matrix is singular.
+     */
+    public void solve(double[][] B, double[][] X, int columns) throws SingularMatrixException, InvalidMatrixSizesException {
+        SolveEvent event = new SolveEvent();
+        event.begin();
+        long start = System.nanoTime();
+        substitute(B, X, columns);
+        recordSolve(event, start, columns);
+    }
+
+    /**
+     * Records metrics and flight recorder event of finished solve.
+     *
+     * @param event          Started event.
+     * @param start          Start time in nanoseconds.
+     * @param rightHandSides Number of right hand sides.
+     */
+    private void recordSolve(SolveEvent event, long start, int rightHandSides) {
+        SolverMetrics.record(Operation.SOLVE, n, System.nanoTime() - start, SolverMetrics.solveFlops(n, rightHandSides));
+        event.end();
+        if (event.shouldCommit()) {
+            event.rows = m;
+            event.columns = n;
+            event.structure = STRUCTURE;
+            event.rightHandSides = rightHandSides;
+            event.allocationEstimate = SolverEvent.matrixBytes(m, rightHandSides);
+            event.commit();
+        }
+    }
+
+    /**
+     * Performs forward and backward substitution for given right hand sides.
+     *
+     * @param B A Matrix with as many rows as A and any number of columns.
+     * @return Solution for linear system.
+     * @throws InvalidMatrixSizesException when dimensions of the system are not correct
+     * @throws SingularMatrixException     when matrix is singular.
+     */
+    private Matrix substitute(Matrix B) throws SingularMatrixException, InvalidMatrixSizesException {
+        Matrix Xmat = new Matrix(m, B.getColumns());
+        substitute(B.getData(), Xmat.getData(), B.getColumns());
+        return Xmat;
+    }
+
+    /**
+     * Performs forward and backward substitution for given right hand sides into caller owned storage.
+     *
+     * @param B  Right hand sides, as many rows as A and at least nx columns.
+     * @param X  Array for the solutions, different from B, as many rows as A and at least nx columns.
+     * @param nx Number of right hand sides.
+     * @throws InvalidMatrixSizesException when dimensions of the system are not correct
+     * @throws SingularMatrixException     when matrix is singular.
+     */
+    private void substitute(double[][] B, double[][] X, int nx) throws SingularMatrixException, InvalidMatrixSizesException {
+        if (B.length != m || X.length != m || B == X || nx < 0 || m > 0 && (B[0].length < nx || X[0].length < nx)) {
             throw new InvalidMatrixSizesException();
         }
         if (!this.isNonSingular()) {
@@ -254,30 +524,50 @@ public class LUDecomposition implements Serializable {
         }
 
         // Copy right hand side with pivoting
-        int nx = B.getColumns();
-        Matrix Xmat = B.getMatrix(piv, 0, nx - 1);
-        double[][] X = Xmat.getData();
+        for (int i = 0; i < m; i++) {
+            System.arraycopy(B[piv[i]], 0, X[i], 0, nx);
+        }
 
-        // Solve L*Y = B(piv,:)
-        for (int k = 0; k < n; k++) {
-            for (int i = k + 1; i < n; i++) {
-                for (int j = 0; j < nx; j++) {
-                    X[i][j] -= X[k][j] * LU[i][k];
+        // Right hand sides are processed in blocks of columns so the rows of a block stay in cache,
+        // LU is read row by row once per block.
+        for (int j0 = 0; j0 < nx; j0 += SOLVE_BLOCK_COLUMNS) {
+            int j1 = Math.min(nx, j0 + SOLVE_BLOCK_COLUMNS);
+
+            // Solve L*Y = B(piv,:)
+            for (int i = 1; i < n; i++) {
+                double[] LUrowi = LU[i];
+                double[] Xi = X[i];
+                for (int k = 0; k < i; k++) {
+                    double l = LUrowi[k];
+                    if (l == 0.0) {
+                        continue;
+                    }
+                    double[] Xk = X[k];
+                    for (int j = j0; j < j1; j++) {
+                        Xi[j] -= Xk[j] * l;
+                    }
                 }
             }
-        }
-        // Solve U*X = Y;
-        for (int k = n - 1; k >= 0; k--) {
-            for (int j = 0; j < nx; j++) {
-                X[k][j] /= LU[k][k];
-            }
-            for (int i = 0; i < k; i++) {
-                for (int j = 0; j < nx; j++) {
-                    X[i][j] -= X[k][j] * LU[i][k];
+            // Solve U*X = Y;
+            for (int i = n - 1; i >= 0; i--) {
+                double[] LUrowi = LU[i];
+                double[] Xi = X[i];
+                for (int k = i + 1; k < n; k++) {
+                    double u = LUrowi[k];
+                    if (u == 0.0) {
+                        continue;
+                    }
+                    double[] Xk = X[k];
+                    for (int j = j0; j < j1; j++) {
+                        Xi[j] -= Xk[j] * u;
+                    }
+                }
+                double d = LUrowi[i];
+                for (int j = j0; j < j1; j++) {
+                    Xi[j] /= d;
                 }
             }
         }
-        return Xmat;
     }
 
     /**
@@ -301,6 +591,19 @@ public class LUDecomposition implements Serializable {
      * @throws SingularMatrixException     when matrix is singular.
      */
     public Matrix inverse() throws SingularMatrixException, InvalidMatrixSizesException {
-        return solve(Matrix.identity(m, m));
+        InversionEvent event = new InversionEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Matrix inverse = substitute(Matrix.identity(m, m));
+        SolverMetrics.record(Operation.INVERSE, n, System.nanoTime() - start, SolverMetrics.solveFlops(n, m));
+        event.end();
+        if (event.shouldCommit()) {
+            event.rows = m;
+            event.columns = n;
+            event.structure = STRUCTURE;
+            event.allocationEstimate = 2 * SolverEvent.matrixBytes(m, m);
+            event.commit();
+        }
+        return inverse;
     }
 }
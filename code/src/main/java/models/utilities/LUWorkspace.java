@@ -0,0 +1,172 @@
+package models.utilities;
+
+import java.lang.ref.SoftReference;
+
+/**
+ * Reusable storage for temporaries of LU factorization and solve.
+ * Buffers are allocated on demand and kept through soft references, so they are released under memory pressure.
+ * A workspace is not thread safe, every thread should use its own instance or {@link #forCurrentThread()}.
+ *
+ * @see LUDecomposition
+ */
+public final class LUWorkspace {
+    /**
+     * Workspaces of threads, used for scratch vectors when caller does not pass own workspace.
+     */
+    private static final ThreadLocal<LUWorkspace> THREAD_WORKSPACES = ThreadLocal.withInitial(LUWorkspace::new);
+
+    /**
+     * Storage lent to the last decomposition factorized in this workspace.
+     */
+    private SoftReference<double[][]> factors = new SoftReference<>(null);
+
+    /**
+     * Pivot vector lent to the last decomposition factorized in this workspace.
+     */
+    private SoftReference<int[]> pivot = new SoftReference<>(null);
+
+    /**
+     * Scratch vector for columns and permuted right hand sides.
+     */
+    private SoftReference<double[]> scratch = new SoftReference<>(null);
+
+    /**
+     * Block of right hand sides gathered for a multiple right hand side solve.
+     */
+    private SoftReference<double[][]> rightHandSides = new SoftReference<>(null);
+
+    /**
+     * Block of solutions of a multiple right hand side solve.
+     */
+    private SoftReference<double[][]> solutions = new SoftReference<>(null);
+
+    /**
+     * Number of buffers allocated by this workspace.
+     */
+    private long allocations;
+
+    /**
+     * Returns workspace of the current thread.
+     * It is used only for scratch vectors, factors are never lent from it.
+     *
+     * @return Workspace of the current thread.
+     */
+    public static LUWorkspace forCurrentThread() {
+        return THREAD_WORKSPACES.get();
+    }
+
+    /**
+     * Returns storage for factors of given shape, previous contents are overwritten by the caller.
+     *
+     * @param rows    Number of rows.
+     * @param columns Number of columns.
+     * @return Array of given shape.
+     */
+    double[][] factors(int rows, int columns) {
+        double[][] array = factors.get();
+        if (array == null || array.length != rows || rows > 0 && array[0].length != columns) {
+            array = new double[rows][columns];
+            factors = new SoftReference<>(array);
+            allocations++;
+        }
+        return array;
+    }
+
+    /**
+     * Returns pivot vector of given length.
+     *
+     * @param length Length of the vector.
+     * @return Array of given length.
+     */
+    int[] pivot(int length) {
+        int[] array = pivot.get();
+        if (array == null || array.length != length) {
+            array = new int[length];
+            pivot = new SoftReference<>(array);
+            allocations++;
+        }
+        return array;
+    }
+
+    /**
+     * Returns scratch vector with at least given length.
+     *
+     * @param length Minimal length of the vector.
+     * @return Scratch vector.
+     */
+    double[] scratch(int length) {
+        double[] array = scratch.get();
+        if (array == null || array.length < length) {
+            array = new double[length];
+            scratch = new SoftReference<>(array);
+            allocations++;
+        }
+        return array;
+    }
+
+    /**
+     * Returns block for right hand sides with given number of rows and at least given number of columns.
+     *
+     * @param rows    Number of rows.
+     * @param columns Minimal number of columns.
+     * @return Block of right hand sides.
+     */
+    double[][] rightHandSides(int rows, int columns) {
+        double[][] array = block(rightHandSides.get(), rows, columns);
+        if (array != rightHandSides.get()) {
+            rightHandSides = new SoftReference<>(array);
+        }
+        return array;
+    }
+
+    /**
+     * Returns block for solutions with given number of rows and at least given number of columns.
+     *
+     * @param rows    Number of rows.
+     * @param columns Minimal number of columns.
+     * @return Block of solutions.
+     */
+    double[][] solutions(int rows, int columns) {
+        double[][] array = block(solutions.get(), rows, columns);
+        if (array != solutions.get()) {
+            solutions = new SoftReference<>(array);
+        }
+        return array;
+    }
+
+    /**
+     * Reuses given block when it has the requested shape or allocates a new one.
+     *
+     * @param array   Cached block or null.
+     * @param rows    Number of rows.
+     * @param columns Minimal number of columns.
+     * @return Block with given number of rows and at least given number of columns.
+     */
+    private double[][] block(double[][] array, int rows, int columns) {
+        if (array == null || array.length != rows || rows > 0 && array[0].length < columns) {
+            array = new double[rows][columns];
+            allocations++;
+        }
+        return array;
+    }
+
+    /**
+     * Drops all buffers, decompositions using factors of this workspace keep them alive.
+     */
+    public void release() {
+        factors = new SoftReference<>(null);
+        pivot = new SoftReference<>(null);
+        scratch = new SoftReference<>(null);
+        rightHandSides = new SoftReference<>(null);
+        solutions = new SoftReference<>(null);
+    }
+
+    /**
+     * Returns number of buffers allocated by this workspace.
+     *
+     * @return Number of allocations.
+     */
+    public long getAllocations() {
+        return allocations;
+    }
+}
@@ -0,0 +1,55 @@
+package models.utilities;
+
+/**
+ * Structure of a square matrix detected before solving.
+ * Constants are ordered from the cheapest to the most expensive solve path,
+ * a matrix is classified by the first structure it has.
+ *
+ * @see StructuredSolver
+ */
+public enum MatrixStructure {
+    /**
+     * Non zero elements only on the diagonal, solved in O(n).
+     */
+    DIAGONAL,
+
+    /**
+     * Exactly one non zero element in every row and column (scaled permutation), solved in O(n).
+     */
+    PERMUTATION,
+
+    /**
+     * Zeros above the diagonal, solved by forward substitution in O(n^2).
+     */
+    LOWER_TRIANGULAR,
+
+    /**
+     * Zeros below the diagonal, solved by backward substitution in O(n^2).
+     */
+    UPPER_TRIANGULAR,
+
+    /**
+     * Every row is the previous one rotated right, diagonalized by the fast Fourier transform in O(n log n).
+     */
+    CIRCULANT,
+
+    /**
+     * Constant along every diagonal, solved by Levinson recursion in O(n^2) time and O(n) memory.
+     */
+    TOEPLITZ,
+
+    /**
+     * Independent square blocks on the diagonal, blocks are factorized and solved in parallel.
+     */
+    BLOCK_DIAGONAL,
+
+    /**
+     * Symmetric matrix, factorized with Cholesky decomposition when positive definite.
+     */
+    SYMMETRIC,
+
+    /**
+     * No exploitable structure, factorized with LU decomposition.
+     */
+    GENERAL
+}
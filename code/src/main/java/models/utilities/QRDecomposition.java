@@ -0,0 +1,400 @@
+package models.utilities;
+
+import models.exceptions.InvalidMatrixSizesException;
+import models.exceptions.SingularMatrixException;
+import models.matrices.Matrix;
+import models.monitoring.Operation;
+import models.monitoring.SolverMetrics;
+import models.vectors.Vector;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Blocked Householder QR decomposition.
+ * Columns are factorized in panels, reflectors of a panel are accumulated in compact WY form
+ * Q = I - V T V^T, so the trailing matrix is updated with two matrix products
+ * computed in parallel over column chunks instead of one reflector at a time.
+ * For m greater or equal n it gives the least squares solution of Ax = b without forming A^T A.
+ *
+ * @see TSQRDecomposition
+ */
+public class QRDecomposition implements Serializable {
+    /**
+     * Number of columns of a panel.
+     */
+    private static final int PANEL = 32;
+
+    /**
+     * Number of columns updated by one task.
+     */
+    private static final int CHUNK = 64;
+
+    /**
+     * Number of multiply-adds of an update above which it runs in parallel.
+     */
+    private static final long PARALLEL_THRESHOLD = 1L << 18;
+
+    /**
+     * Householder vectors below the diagonal, R on and above the diagonal.
+     */
+    private final double[][] QR;
+
+    /**
+     * Number of rows.
+     */
+    private final int m;
+
+    /**
+     * Number of columns.
+     */
+    private final int n;
+
+    /**
+     * Scalar factors of the reflectors.
+     */
+    private final double[] tau;
+
+    /**
+     * Triangular factors T of the panels.
+     */
+    private final List<double[][]> T = new ArrayList<>();
+
+    /**
+     * Factorizes a matrix.
+     *
+     * @param A Rectangular matrix.
+     */
+    public QRDecomposition(Matrix A) {
+        long start = System.nanoTime();
+        this.QR = A.getDataCopy();
+        this.m = A.getRows();
+        this.n = A.getColumns();
+        int k = Math.min(m, n);
+        this.tau = new double[k];
+
+        for (int k0 = 0; k0 < k; k0 += PANEL) {
+            int b = Math.min(PANEL, k - k0);
+            factorizePanel(k0, b);
+            double[][] t = triangularFactor(k0, b);
+            T.add(t);
+            applyTranspose(k0, b, t, QR, k0 + b, n);
+        }
+        SolverMetrics.record(Operation.FACTORIZE, m, System.nanoTime() - start, flops(m, n));
+    }
+
+    /**
+     * Returns floating point operations of Householder QR.
+     *
+     * @param m Number of rows.
+     * @param n Number of columns.
+     * @return Number of operations.
+     */
+    static double flops(int m, int n) {
+        double k = Math.min(m, n);
+        return 2.0 * m * n * k - (m + n) * k * k + 2.0 * k * k * k / 3.0;
+    }
+
+    /**
+     * Returns number of rows.
+     *
+     * @return Number of rows.
+     */
+    public int getRows() {
+        return m;
+    }
+
+    /**
+     * Returns number of columns.
+     *
+     * @return Number of columns.
+     */
+    public int getColumns() {
+        return n;
+    }
+
+    /**
+     * Checks if R has no zeros on the diagonal.
+     *
+     * @return True when columns of A are linearly independent.
+     */
+    public boolean isFullRank() {
+        for (int j = 0; j < Math.min(m, n); j++) {
+            if (QR[j][j] == 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns upper triangular factor.
+     *
+     * @return R, min(m, n) x n.
+     */
+    public Matrix getR() {
+        int k = Math.min(m, n);
+        Matrix R = new Matrix(k, n);
+        double[][] r = R.getData();
+        for (int i = 0; i < k; i++) {
+            for (int j = i; j < n; j++) {
+                r[i][j] = QR[i][j];
+            }
+        }
+        return R;
+    }
+
+    /**
+     * Returns orthogonal factor with orthonormal columns.
+     *
+     * @return Q, m x min(m, n).
+     */
+    public Matrix getQ() {
+        int k = Math.min(m, n);
+        Matrix Q = new Matrix(m, k);
+        double[][] q = Q.getData();
+        for (int j = 0; j < k; j++) {
+            q[j][j] = 1.0;
+        }
+        for (int j = k - 1; j >= 0; j--) {
+            applyReflector(j, q, j, k);
+        }
+        return Q;
+    }
+
+    /**
+     * Computes Q^T B.
+     *
+     * @param B Matrix with m rows.
+     * @return Q^T B, m rows.
+     * @throws InvalidMatrixSizesException when number of rows is not correct.
+     */
+    public Matrix multiplyQTranspose(Matrix B) throws InvalidMatrixSizesException {
+        if (B.getRows() != m) {
+            throw new InvalidMatrixSizesException();
+        }
+        Matrix result = new Matrix(B);
+        double[][] c = result.getData();
+        for (int p = 0; p < T.size(); p++) {
+            int k0 = p * PANEL;
+            applyTranspose(k0, T.get(p).length, T.get(p), c, 0, B.getColumns());
+        }
+        return result;
+    }
+
+    /**
+     * Least squares solution of AX = B.
+     *
+     * @param B Matrix with m rows.
+     * @return X minimizing the two norm of B - AX, n rows.
+     * @throws InvalidMatrixSizesException when number of rows is not correct or m is less than n.
+     * @throws SingularMatrixException     when A is rank deficient.
+     */
+    public Matrix solve(Matrix B) throws InvalidMatrixSizesException, SingularMatrixException {
+        if (B.getRows() != m || m < n) {
+            throw new InvalidMatrixSizesException();
+        }
+        if (!isFullRank()) {
+            throw new SingularMatrixException();
+        }
+        long start = System.nanoTime();
+        double[][] c = multiplyQTranspose(B).getData();
+        int nx = B.getColumns();
+        Matrix X = new Matrix(n, nx);
+        double[][] x = X.getData();
+        for (int i = n - 1; i >= 0; i--) {
+            for (int j = 0; j < nx; j++) {
+                double sum = c[i][j];
+                for (int p = i + 1; p < n; p++) {
+                    sum -= QR[i][p] * x[p][j];
+                }
+                x[i][j] = sum / QR[i][i];
+            }
+        }
+        SolverMetrics.record(Operation.SOLVE, n, System.nanoTime() - start, 4.0 * m * n * nx);
+        return X;
+    }
+
+    /**
+     * Least squares solution of Ax = b.
+     *
+     * @param b Vector with m elements.
+     * @return x minimizing the two norm of b - Ax.
+     * @throws InvalidMatrixSizesException when size of vector is not correct or m is less than n.
+     * @throws SingularMatrixException     when A is rank deficient.
+     */
+    public Vector solve(Vector b) throws InvalidMatrixSizesException, SingularMatrixException {
+        Matrix B = new Matrix(b.getSize(), 1);
+        for (int i = 0; i < b.getSize(); i++) {
+            B.getData()[i][0] = b.getAt(i);
+        }
+        Matrix X = solve(B);
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = X.getData()[i][0];
+        }
+        return Vector.wrap(x);
+    }
+
+    /**
+     * Factorizes columns [k0, k0 + b) with one reflector per column.
+     * Reflector H = I - tau v v^T has v[0] = 1 which is not stored.
+     *
+     * @param k0 First column of the panel.
+     * @param b  Number of columns of the panel.
+     */
+    private void factorizePanel(int k0, int b) {
+        for (int j = k0; j < k0 + b; j++) {
+            double norm = 0.0;
+            for (int i = j; i < m; i++) {
+                norm = Math.hypot(norm, QR[i][j]);
+            }
+            if (norm == 0.0) {
+                tau[j] = 0.0;
+                continue;
+            }
+            double alpha = QR[j][j];
+            double beta = alpha > 0 ? -norm : norm;
+            double scale = 1.0 / (alpha - beta);
+            for (int i = j + 1; i < m; i++) {
+                QR[i][j] *= scale;
+            }
+            tau[j] = (beta - alpha) / beta;
+            QR[j][j] = beta;
+            applyReflector(j, QR, j + 1, k0 + b);
+        }
+    }
+
+    /**
+     * Applies one reflector to columns [c0, c1) of a matrix.
+     *
+     * @param j  Index of the reflector.
+     * @param C  Rows of the matrix, m rows.
+     * @param c0 First column.
+     * @param c1 Column after the last one.
+     */
+    private void applyReflector(int j, double[][] C, int c0, int c1) {
+        if (tau[j] == 0.0) {
+            return;
+        }
+        for (int c = c0; c < c1; c++) {
+            double s = C[j][c];
+            for (int i = j + 1; i < m; i++) {
+                s += QR[i][j] * C[i][c];
+            }
+            s *= tau[j];
+            C[j][c] -= s;
+            for (int i = j + 1; i < m; i++) {
+                C[i][c] -= s * QR[i][j];
+            }
+        }
+    }
+
+    /**
+     * Builds upper triangular T such that H(k0) ... H(k0 + b - 1) = I - V T V^T.
+     *
+     * @param k0 First column of the panel.
+     * @param b  Number of columns of the panel.
+     * @return Rows of T.
+     */
+    private double[][] triangularFactor(int k0, int b) {
+        double[][] t = new double[b][b];
+        double[] w = new double[b];
+        for (int p = 0; p < b; p++) {
+            int row = k0 + p;
+            // w = V[:, 0:p]^T v_p
+            for (int q = 0; q < p; q++) {
+                double s = QR[row][k0 + q];
+                for (int i = row + 1; i < m; i++) {
+                    s += QR[i][k0 + q] * QR[i][row];
+                }
+                w[q] = s;
+            }
+            // T[0:p, p] = -tau_p T[0:p, 0:p] w
+            for (int q = 0; q < p; q++) {
+                double s = 0.0;
+                for (int r = q; r < p; r++) {
+                    s += t[q][r] * w[r];
+                }
+                t[q][p] = -tau[row] * s;
+            }
+            t[p][p] = tau[row];
+        }
+        return t;
+    }
+
+    /**
+     * Computes C = (I - V T V^T)^T C for rows [k0, m) and columns [c0, c1) of C.
+     * Column chunks are independent, so they are updated in parallel for large updates.
+     *
+     * @param k0 First column of the panel.
+     * @param b  Number of columns of the panel.
+     * @param t  Triangular factor of the panel.
+     * @param C  Rows of the updated matrix, m rows.
+     * @param c0 First column.
+     * @param c1 Column after the last one.
+     */
+    private void applyTranspose(int k0, int b, double[][] t, double[][] C, int c0, int c1) {
+        if (c1 <= c0) {
+            return;
+        }
+        int chunks = (c1 - c0 + CHUNK - 1) / CHUNK;
+        IntStream range = IntStream.range(0, chunks);
+        if ((long) (m - k0) * (c1 - c0) * b > PARALLEL_THRESHOLD) {
+            range = range.parallel();
+        }
+        range.forEach(chunk -> applyTransposeChunk(k0, b, t, C, c0 + chunk * CHUNK, Math.min(c1, c0 + (chunk + 1) * CHUNK)));
+    }
+
+    /**
+     * Computes W = V^T C, W = T^T W, C -= V W for columns [c0, c1).
+     *
+     * @param k0 First column of the panel.
+     * @param b  Number of columns of the panel.
+     * @param t  Triangular factor of the panel.
+     * @param C  Rows of the updated matrix, m rows.
+     * @param c0 First column.
+     * @param c1 Column after the last one.
+     */
+    private void applyTransposeChunk(int k0, int b, double[][] t, double[][] C, int c0, int c1) {
+        int width = c1 - c0;
+        double[][] W = new double[b][width];
+        for (int i = k0; i < m; i++) {
+            double[] row = C[i];
+            int last = Math.min(b - 1, i - k0);
+            for (int p = 0; p <= last; p++) {
+                double v = p == i - k0 ? 1.0 : QR[i][k0 + p];
+                if (v != 0.0) {
+                    double[] w = W[p];
+                    for (int j = 0; j < width; j++) {
+                        w[j] += v * row[c0 + j];
+                    }
+                }
+            }
+        }
+        for (int p = b - 1; p >= 0; p--) {
+            double[] w = W[p];
+            for (int j = 0; j < width; j++) {
+                double s = 0.0;
+                for (int q = 0; q <= p; q++) {
+                    s += t[q][p] * W[q][j];
+                }
+                w[j] = s;
+            }
+        }
+        for (int i = k0; i < m; i++) {
+            double[] row = C[i];
+            int last = Math.min(b - 1, i - k0);
+            for (int p = 0; p <= last; p++) {
+                double v = p == i - k0 ? 1.0 : QR[i][k0 + p];
+                if (v != 0.0) {
+                    double[] w = W[p];
+                    for (int j = 0; j < width; j++) {
+                        row[c0 + j] -= v * w[j];
+                    }
+                }
+            }
+        }
+    }
+}
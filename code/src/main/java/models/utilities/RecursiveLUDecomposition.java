@@ -0,0 +1,219 @@
+package models.utilities;
+
+import models.matrices.Matrix;
+import models.monitoring.events.FactorizationEvent;
+
+/**
+ * Cache oblivious recursive LU decomposition with partial pivoting (Toledo, Gustavson).
+ * Columns are split in half, the left half is factorized recursively, the right half is updated
+ * with a triangular solve and a matrix multiplication, then the trailing part is factorized recursively.
+ * Triangular solve and multiplication recurse as well, so every level of the memory hierarchy
+ * is used efficiently without block size parameters.
+ * Pivots are chosen like in LUDecomposition, so both produce the same permutation.
+ *
+ * @see LUDecomposition
+ */
+public final class RecursiveLUDecomposition {
+    /**
+     * Size below which triangular solve and multiplication are computed with plain loops.
+     * Small enough for register and L1 reuse on any hardware, it is not a tuning parameter.
+     */
+    private static final int LEAF = 16;
+
+    /**
+     * Working copy of the matrix, overwritten with the factors.
+     */
+    private final double[][] LU;
+
+    /**
+     * Pivot permutation vector.
+     */
+    private final int[] piv;
+
+    /**
+     * Number of rows.
+     */
+    private final int m;
+
+    /**
+     * Number of columns.
+     */
+    private final int n;
+
+    /**
+     * Pivot sign.
+     */
+    private int pivSign = 1;
+
+    /**
+     * Private constructor, use decompose().
+     *
+     * @param A Rectangular matrix.
+     */
+    private RecursiveLUDecomposition(Matrix A) {
+        this.LU = A.getDataCopy();
+        this.m = A.getRows();
+        this.n = A.getColumns();
+        this.piv = new int[m];
+        for (int i = 0; i < m; i++) {
+            piv[i] = i;
+        }
+    }
+
+    /**
+     * Factorizes matrix recursively.
+     *
+     * @param A Rectangular matrix.
+     * @return LU decomposition equivalent to new LUDecomposition(A).
+     */
+    public static LUDecomposition decompose(Matrix A) {
+        FactorizationEvent event = new FactorizationEvent();
+        event.begin();
+        long start = System.nanoTime();
+
+        RecursiveLUDecomposition decomposition = new RecursiveLUDecomposition(A);
+        int k = Math.min(decomposition.m, decomposition.n);
+        decomposition.factorize(0, k);
+        if (decomposition.n > k) {
+            // Wide matrix: remaining columns only need U12 = L11^-1 * A12.
+            decomposition.solveLower(0, k, k, decomposition.n);
+        }
+
+        LUDecomposition.recordFactorization(event, start, decomposition.m, decomposition.n);
+        return new LUDecomposition(decomposition.LU, decomposition.piv, decomposition.pivSign, decomposition.n);
+    }
+
+    /**
+     * Factorizes columns [c0, c0 + count) of rows [c0, m).
+     * Row exchanges are applied to whole rows.
+     *
+     * @param c0    First column, also first row of the panel.
+     * @param count Number of columns.
+     */
+    private void factorize(int c0, int count) {
+        if (count == 1) {
+            factorizeColumn(c0);
+            return;
+        }
+
+        int left = count / 2;
+        int right = count - left;
+        factorize(c0, left);
+        // A12 = L11^-1 * A12
+        solveLower(c0, left, c0 + left, c0 + count);
+        // A22 = A22 - A21 * A12
+        multiplySubtract(c0 + left, m, c0 + left, c0 + count, c0, c0 + left);
+        factorize(c0 + left, right);
+    }
+
+    /**
+     * Finds pivot of a single, already updated column, exchanges rows and computes multipliers.
+     *
+     * @param j Index of the column.
+     */
+    private void factorizeColumn(int j) {
+        int p = j;
+        for (int i = j + 1; i < m; i++) {
+            if (Math.abs(LU[i][j]) > Math.abs(LU[p][j])) {
+                p = i;
+            }
+        }
+        if (p != j) {
+            double[] t = LU[p];
+            LU[p] = LU[j];
+            LU[j] = t;
+            int k = piv[p];
+            piv[p] = piv[j];
+            piv[j] = k;
+            pivSign = -pivSign;
+        }
+
+        double d = LU[j][j];
+        if (d != 0.0) {
+            for (int i = j + 1; i < m; i++) {
+                LU[i][j] /= d;
+            }
+        }
+    }
+
+    /**
+     * Solves L * X = B in place, L is unit lower triangular LU[r0:r0+count, r0:r0+count],
+     * B is LU[r0:r0+count, c0:c1].
+     *
+     * @param r0    First row and column of L.
+     * @param count Dimension of L.
+     * @param c0    First column of B.
+     * @param c1    Column after the last column of B.
+     */
+    private void solveLower(int r0, int count, int c0, int c1) {
+        if (count <= LEAF) {
+            for (int i = r0 + 1; i < r0 + count; i++) {
+                double[] LUrowi = LU[i];
+                for (int k = r0; k < i; k++) {
+                    double l = LUrowi[k];
+                    if (l == 0.0) {
+                        continue;
+                    }
+                    double[] LUrowk = LU[k];
+                    for (int j = c0; j < c1; j++) {
+                        LUrowi[j] -= l * LUrowk[j];
+                    }
+                }
+            }
+            return;
+        }
+
+        int top = count / 2;
+        solveLower(r0, top, c0, c1);
+        multiplySubtract(r0 + top, r0 + count, c0, c1, r0, r0 + top);
+        solveLower(r0 + top, count - top, c0, c1);
+    }
+
+    /**
+     * Computes C = C - A * B where C = LU[r0:r1, c0:c1], A = LU[r0:r1, k0:k1] and B = LU[k0:k1, c0:c1].
+     * Largest dimension is halved until the block fits the leaf size.
+     *
+     * @param r0 First row of C.
+     * @param r1 Row after the last row of C.
+     * @param c0 First column of C.
+     * @param c1 Column after the last column of C.
+     * @param k0 First index of the inner dimension.
+     * @param k1 Index after the last index of the inner dimension.
+     */
+    private void multiplySubtract(int r0, int r1, int c0, int c1, int k0, int k1) {
+        int rows = r1 - r0;
+        int columns = c1 - c0;
+        int inner = k1 - k0;
+        if (rows <= 0 || columns <= 0 || inner <= 0) {
+            return;
+        }
+
+        if (rows <= LEAF && columns <= LEAF && inner <= LEAF) {
+            for (int i = r0; i < r1; i++) {
+                double[] LUrowi = LU[i];
+                for (int k = k0; k < k1; k++) {
+                    double a = LUrowi[k];
+                    if (a == 0.0) {
+                        continue;
+                    }
+                    double[] LUrowk = LU[k];
+                    for (int j = c0; j < c1; j++) {
+                        LUrowi[j] -= a * LUrowk[j];
+                    }
+                }
+            }
+        } else if (rows >= columns && rows >= inner) {
+            int half = r0 + rows / 2;
+            multiplySubtract(r0, half, c0, c1, k0, k1);
+            multiplySubtract(half, r1, c0, c1, k0, k1);
+        } else if (columns >= inner) {
+            int half = c0 + columns / 2;
+            multiplySubtract(r0, r1, c0, half, k0, k1);
+            multiplySubtract(r0, r1, half, c1, k0, k1);
+        } else {
+            int half = k0 + inner / 2;
+            multiplySubtract(r0, r1, c0, c1, k0, half);
+            multiplySubtract(r0, r1, c0, c1, half, k1);
+        }
+    }
+}
@@ -0,0 +1,941 @@
+package models.utilities;
+
+import models.exceptions.InvalidMatrixSizesException;
+import models.exceptions.SingularMatrixException;
+import models.matrices.Matrix;
+import models.vectors.Vector;
+
+/**
+ * Kernels for square matrices of size 2, 3 and 4.
+ * Every size has straight-line Gaussian elimination with partial pivoting that keeps the elements in local variables,
+ * so determinant, inverse and solution are backward stable like {@link LUDecomposition}
+ * but allocate nothing beyond the result and skip its objects, metrics and flight recorder events.
+ *
+ * @see LUDecomposition
+ */
+public final class SmallMatrixKernels {
+    /**
+     * Smallest supported dimension.
+     */
+    public static final int MIN_DIMENSION = 2;
+
+    /**
+     * Largest supported dimension.
+     */
+    public static final int MAX_DIMENSION = 4;
+
+    /**
+     * Utility class.
+     */
+    private SmallMatrixKernels() {
+    }
+
+    /**
+     * Checks if kernels are available for the matrix.
+     *
+     * @param matrix Matrix to check.
+     * @return True for square matrices of size 2, 3 or 4.
+     */
+    public static boolean supports(Matrix matrix) {
+        return matrix.isSquare() && matrix.getRows() >= MIN_DIMENSION && matrix.getRows() <= MAX_DIMENSION;
+    }
+
+    /**
+     * Calculates determinant as signed product of pivots.
+     *
+     * @param matrix Square matrix of supported size.
+     * @return Determinant of matrix.
+     * @throws InvalidMatrixSizesException when size of matrix is not supported.
+     */
+    public static double det(Matrix matrix) throws InvalidMatrixSizesException {
+        double[][] a = matrix.getData();
+        switch (sizeOf(matrix)) {
+            case 2:
+                return det2(a);
+            case 3:
+                return det3(a);
+            default:
+                return det4(a);
+        }
+    }
+
+    /**
+     * Calculates the inverse of matrix.
+     *
+     * @param matrix Square matrix of supported size.
+     * @return Inverse of matrix.
+     * @throws InvalidMatrixSizesException when size of matrix is not supported.
+     * @throws SingularMatrixException     when matrix is singular.
+     */
+    public static Matrix inverse(Matrix matrix) throws InvalidMatrixSizesException, SingularMatrixException {
+        int n = sizeOf(matrix);
+        double[][] a = matrix.getData();
+        double[][] r = new double[n][n];
+        boolean regular;
+        switch (n) {
+            case 2:
+                regular = inverse2(a, r);
+                break;
+            case 3:
+                regular = inverse3(a, r);
+                break;
+            default:
+                regular = inverse4(a, r);
+                break;
+        }
+        if (!regular) {
+            throw new SingularMatrixException();
+        }
+        return Matrix.wrap(r);
+    }
+
+    /**
+     * Solves linear system Ax = b.
+     *
+     * @param matrix Square matrix of supported size.
+     * @param vector Right hand-side vector.
+     * @return Solution for linear system.
+     * @throws InvalidMatrixSizesException when size of matrix is not supported or size of vector is not correct.
+     * @throws SingularMatrixException     when matrix is singular.
+     */
+    public static Vector solve(Matrix matrix, Vector vector) throws InvalidMatrixSizesException, SingularMatrixException {
+        int n = sizeOf(matrix);
+        if (vector.getSize() != n) {
+            throw new InvalidMatrixSizesException();
+        }
+        double[][] a = matrix.getData();
+        double[] b = vector.getData();
+        double[] x = new double[n];
+        boolean regular;
+        switch (n) {
+            case 2:
+                regular = solve2(a, b, x);
+                break;
+            case 3:
+                regular = solve3(a, b, x);
+                break;
+            default:
+                regular = solve4(a, b, x);
+                break;
+        }
+        if (!regular) {
+            throw new SingularMatrixException();
+        }
+        return Vector.wrap(x);
+    }
+
+    /**
+     * Returns dimension of supported matrix.
+     *
+     * @param matrix Matrix to check.
+     * @return Dimension of matrix.
+     * @throws InvalidMatrixSizesException when size of matrix is not supported.
+     */
+    private static int sizeOf(Matrix matrix) throws InvalidMatrixSizesException {
+        if (!supports(matrix)) {
+            throw new InvalidMatrixSizesException();
+        }
+        return matrix.getRows();
+    }
+
+    /**
+     * Calculates determinant of 2x2 matrix as signed product of pivots.
+     *
+     * @param a Elements of matrix.
+     * @return Determinant of matrix.
+     */
+    private static double det2(double[][] a) {
+        double a00 = a[0][0], a01 = a[0][1];
+        double a10 = a[1][0], a11 = a[1][1];
+        double sign = 1.0;
+        double max;
+        double t;
+
+        // Column 0: pivot is the largest of rows 0 to 1
+        int p0 = 0;
+        max = Math.abs(a00);
+        if (Math.abs(a10) > max) {
+            p0 = 1;
+            max = Math.abs(a10);
+        }
+        if (max == 0.0) {
+            return 0.0;
+        }
+        if (p0 == 1) {
+            t = a00; a00 = a10; a10 = t;
+            t = a01; a01 = a11; a11 = t;
+            sign = -sign;
+        }
+        double l10 = a10 / a00;
+        a11 -= l10 * a01;
+        return sign * a00 * a11;
+    }
+
+    /**
+     * Calculates determinant of 3x3 matrix as signed product of pivots.
+     *
+     * @param a Elements of matrix.
+     * @return Determinant of matrix.
+     */
+    private static double det3(double[][] a) {
+        double a00 = a[0][0], a01 = a[0][1], a02 = a[0][2];
+        double a10 = a[1][0], a11 = a[1][1], a12 = a[1][2];
+        double a20 = a[2][0], a21 = a[2][1], a22 = a[2][2];
+        double sign = 1.0;
+        double max;
+        double t;
+
+        // Column 0: pivot is the largest of rows 0 to 2
+        int p0 = 0;
+        max = Math.abs(a00);
+        if (Math.abs(a10) > max) {
+            p0 = 1;
+            max = Math.abs(a10);
+        }
+        if (Math.abs(a20) > max) {
+            p0 = 2;
+            max = Math.abs(a20);
+        }
+        if (max == 0.0) {
+            return 0.0;
+        }
+        if (p0 == 1) {
+            t = a00; a00 = a10; a10 = t;
+            t = a01; a01 = a11; a11 = t;
+            t = a02; a02 = a12; a12 = t;
+            sign = -sign;
+        } else if (p0 == 2) {
+            t = a00; a00 = a20; a20 = t;
+            t = a01; a01 = a21; a21 = t;
+            t = a02; a02 = a22; a22 = t;
+            sign = -sign;
+        }
+        double l10 = a10 / a00;
+        a11 -= l10 * a01;
+        a12 -= l10 * a02;
+        double l20 = a20 / a00;
+        a21 -= l20 * a01;
+        a22 -= l20 * a02;
+
+        // Column 1: pivot is the largest of rows 1 to 2
+        int p1 = 1;
+        max = Math.abs(a11);
+        if (Math.abs(a21) > max) {
+            p1 = 2;
+            max = Math.abs(a21);
+        }
+        if (max == 0.0) {
+            return 0.0;
+        }
+        if (p1 == 2) {
+            t = a11; a11 = a21; a21 = t;
+            t = a12; a12 = a22; a22 = t;
+            sign = -sign;
+        }
+        double l21 = a21 / a11;
+        a22 -= l21 * a12;
+        return sign * a00 * a11 * a22;
+    }
+
+    /**
+     * Calculates determinant of 4x4 matrix as signed product of pivots.
+     *
+     * @param a Elements of matrix.
+     * @return Determinant of matrix.
+     */
+    private static double det4(double[][] a) {
+        double a00 = a[0][0], a01 = a[0][1], a02 = a[0][2], a03 = a[0][3];
+        double a10 = a[1][0], a11 = a[1][1], a12 = a[1][2], a13 = a[1][3];
+        double a20 = a[2][0], a21 = a[2][1], a22 = a[2][2], a23 = a[2][3];
+        double a30 = a[3][0], a31 = a[3][1], a32 = a[3][2], a33 = a[3][3];
+        double sign = 1.0;
+        double max;
+        double t;
+
+        // Column 0: pivot is the largest of rows 0 to 3
+        int p0 = 0;
+        max = Math.abs(a00);
+        if (Math.abs(a10) > max) {
+            p0 = 1;
+            max = Math.abs(a10);
+        }
+        if (Math.abs(a20) > max) {
+            p0 = 2;
+            max = Math.abs(a20);
+        }
+        if (Math.abs(a30) > max) {
+            p0 = 3;
+            max = Math.abs(a30);
+        }
+        if (max == 0.0) {
+            return 0.0;
+        }
+        if (p0 == 1) {
+            t = a00; a00 = a10; a10 = t;
+            t = a01; a01 = a11; a11 = t;
+            t = a02; a02 = a12; a12 = t;
+            t = a03; a03 = a13; a13 = t;
+            sign = -sign;
+        } else if (p0 == 2) {
+            t = a00; a00 = a20; a20 = t;
+            t = a01; a01 = a21; a21 = t;
+            t = a02; a02 = a22; a22 = t;
+            t = a03; a03 = a23; a23 = t;
+            sign = -sign;
+        } else if (p0 == 3) {
+            t = a00; a00 = a30; a30 = t;
+            t = a01; a01 = a31; a31 = t;
+            t = a02; a02 = a32; a32 = t;
+            t = a03; a03 = a33; a33 = t;
+            sign = -sign;
+        }
+        double l10 = a10 / a00;
+        a11 -= l10 * a01;
+        a12 -= l10 * a02;
+        a13 -= l10 * a03;
+        double l20 = a20 / a00;
+        a21 -= l20 * a01;
+        a22 -= l20 * a02;
+        a23 -= l20 * a03;
+        double l30 = a30 / a00;
+        a31 -= l30 * a01;
+        a32 -= l30 * a02;
+        a33 -= l30 * a03;
+
+        // Column 1: pivot is the largest of rows 1 to 3
+        int p1 = 1;
+        max = Math.abs(a11);
+        if (Math.abs(a21) > max) {
+            p1 = 2;
+            max = Math.abs(a21);
+        }
+        if (Math.abs(a31) > max) {
+            p1 = 3;
+            max = Math.abs(a31);
+        }
+        if (max == 0.0) {
+            return 0.0;
+        }
+        if (p1 == 2) {
+            t = a11; a11 = a21; a21 = t;
+            t = a12; a12 = a22; a22 = t;
+            t = a13; a13 = a23; a23 = t;
+            sign = -sign;
+        } else if (p1 == 3) {
+            t = a11; a11 = a31; a31 = t;
+            t = a12; a12 = a32; a32 = t;
+            t = a13; a13 = a33; a33 = t;
+            sign = -sign;
+        }
+        double l21 = a21 / a11;
+        a22 -= l21 * a12;
+        a23 -= l21 * a13;
+        double l31 = a31 / a11;
+        a32 -= l31 * a12;
+        a33 -= l31 * a13;
+
+        // Column 2: pivot is the largest of rows 2 to 3
+        int p2 = 2;
+        max = Math.abs(a22);
+        if (Math.abs(a32) > max) {
+            p2 = 3;
+            max = Math.abs(a32);
+        }
+        if (max == 0.0) {
+            return 0.0;
+        }
+        if (p2 == 3) {
+            t = a22; a22 = a32; a32 = t;
+            t = a23; a23 = a33; a33 = t;
+            sign = -sign;
+        }
+        double l32 = a32 / a22;
+        a33 -= l32 * a23;
+        return sign * a00 * a11 * a22 * a33;
+    }
+
+    /**
+     * Solves 2x2 linear system Ax = b.
+     *
+     * @param a Elements of matrix.
+     * @param b Right hand side.
+     * @param x Array for the solution.
+     * @return False when matrix is singular.
+     */
+    private static boolean solve2(double[][] a, double[] b, double[] x) {
+        double a00 = a[0][0], a01 = a[0][1];
+        double a10 = a[1][0], a11 = a[1][1];
+        double b0 = b[0], b1 = b[1];
+        double max;
+        double t;
+
+        // Column 0: pivot is the largest of rows 0 to 1
+        int p0 = 0;
+        max = Math.abs(a00);
+        if (Math.abs(a10) > max) {
+            p0 = 1;
+            max = Math.abs(a10);
+        }
+        if (max == 0.0) {
+            return false;
+        }
+        if (p0 == 1) {
+            t = a00; a00 = a10; a10 = t;
+            t = a01; a01 = a11; a11 = t;
+            t = b0; b0 = b1; b1 = t;
+        }
+        double l10 = a10 / a00;
+        a11 -= l10 * a01;
+        b1 -= l10 * b0;
+        if (a11 == 0.0) {
+            return false;
+        }
+
+        // Back substitution with U
+        x[1] = b1 / a11;
+        x[0] = (b0 - a01 * x[1]) / a00;
+        return true;
+    }
+
+    /**
+     * Solves 3x3 linear system Ax = b.
+     *
+     * @param a Elements of matrix.
+     * @param b Right hand side.
+     * @param x Array for the solution.
+     * @return False when matrix is singular.
+     */
+    private static boolean solve3(double[][] a, double[] b, double[] x) {
+        double a00 = a[0][0], a01 = a[0][1], a02 = a[0][2];
+        double a10 = a[1][0], a11 = a[1][1], a12 = a[1][2];
+        double a20 = a[2][0], a21 = a[2][1], a22 = a[2][2];
+        double b0 = b[0], b1 = b[1], b2 = b[2];
+        double max;
+        double t;
+
+        // Column 0: pivot is the largest of rows 0 to 2
+        int p0 = 0;
+        max = Math.abs(a00);
+        if (Math.abs(a10) > max) {
+            p0 = 1;
+            max = Math.abs(a10);
+        }
+        if (Math.abs(a20) > max) {
+            p0 = 2;
+            max = Math.abs(a20);
+        }
+        if (max == 0.0) {
+            return false;
+        }
+        if (p0 == 1) {
+            t = a00; a00 = a10; a10 = t;
+            t = a01; a01 = a11; a11 = t;
+            t = a02; a02 = a12; a12 = t;
+            t = b0; b0 = b1; b1 = t;
+        } else if (p0 == 2) {
+            t = a00; a00 = a20; a20 = t;
+            t = a01; a01 = a21; a21 = t;
+            t = a02; a02 = a22; a22 = t;
+            t = b0; b0 = b2; b2 = t;
+        }
+        double l10 = a10 / a00;
+        a11 -= l10 * a01;
+        a12 -= l10 * a02;
+        b1 -= l10 * b0;
+        double l20 = a20 / a00;
+        a21 -= l20 * a01;
+        a22 -= l20 * a02;
+        b2 -= l20 * b0;
+
+        // Column 1: pivot is the largest of rows 1 to 2
+        int p1 = 1;
+        max = Math.abs(a11);
+        if (Math.abs(a21) > max) {
+            p1 = 2;
+            max = Math.abs(a21);
+        }
+        if (max == 0.0) {
+            return false;
+        }
+        if (p1 == 2) {
+            t = a11; a11 = a21; a21 = t;
+            t = a12; a12 = a22; a22 = t;
+            t = b1; b1 = b2; b2 = t;
+        }
+        double l21 = a21 / a11;
+        a22 -= l21 * a12;
+        b2 -= l21 * b1;
+        if (a22 == 0.0) {
+            return false;
+        }
+
+        // Back substitution with U
+        x[2] = b2 / a22;
+        x[1] = (b1 - a12 * x[2]) / a11;
+        x[0] = (b0 - a01 * x[1] - a02 * x[2]) / a00;
+        return true;
+    }
+
+    /**
+     * Solves 4x4 linear system Ax = b.
+     *
+     * @param a Elements of matrix.
+     * @param b Right hand side.
+     * @param x Array for the solution.
+     * @return False when matrix is singular.
+     */
+    private static boolean solve4(double[][] a, double[] b, double[] x) {
+        double a00 = a[0][0], a01 = a[0][1], a02 = a[0][2], a03 = a[0][3];
+        double a10 = a[1][0], a11 = a[1][1], a12 = a[1][2], a13 = a[1][3];
+        double a20 = a[2][0], a21 = a[2][1], a22 = a[2][2], a23 = a[2][3];
+        double a30 = a[3][0], a31 = a[3][1], a32 = a[3][2], a33 = a[3][3];
+        double b0 = b[0], b1 = b[1], b2 = b[2], b3 = b[3];
+        double max;
+        double t;
+
+        // Column 0: pivot is the largest of rows 0 to 3
+        int p0 = 0;
+        max = Math.abs(a00);
+        if (Math.abs(a10) > max) {
+            p0 = 1;
+            max = Math.abs(a10);
+        }
+        if (Math.abs(a20) > max) {
+            p0 = 2;
+            max = Math.abs(a20);
+        }
+        if (Math.abs(a30) > max) {
+            p0 = 3;
+            max = Math.abs(a30);
+        }
+        if (max == 0.0) {
+            return false;
+        }
+        if (p0 == 1) {
+            t = a00; a00 = a10; a10 = t;
+            t = a01; a01 = a11; a11 = t;
+            t = a02; a02 = a12; a12 = t;
+            t = a03; a03 = a13; a13 = t;
+            t = b0; b0 = b1; b1 = t;
+        } else if (p0 == 2) {
+            t = a00; a00 = a20; a20 = t;
+            t = a01; a01 = a21; a21 = t;
+            t = a02; a02 = a22; a22 = t;
+            t = a03; a03 = a23; a23 = t;
+            t = b0; b0 = b2; b2 = t;
+        } else if (p0 == 3) {
+            t = a00; a00 = a30; a30 = t;
+            t = a01; a01 = a31; a31 = t;
+            t = a02; a02 = a32; a32 = t;
+            t = a03; a03 = a33; a33 = t;
+            t = b0; b0 = b3; b3 = t;
+        }
+        double l10 = a10 / a00;
+        a11 -= l10 * a01;
+        a12 -= l10 * a02;
+        a13 -= l10 * a03;
+        b1 -= l10 * b0;
+        double l20 = a20 / a00;
+        a21 -= l20 * a01;
+        a22 -= l20 * a02;
+        a23 -= l20 * a03;
+        b2 -= l20 * b0;
+        double l30 = a30 / a00;
+        a31 -= l30 * a01;
+        a32 -= l30 * a02;
+        a33 -= l30 * a03;
+        b3 -= l30 * b0;
+
+        // Column 1: pivot is the largest of rows 1 to 3
+        int p1 = 1;
+        max = Math.abs(a11);
+        if (Math.abs(a21) > max) {
+            p1 = 2;
+            max = Math.abs(a21);
+        }
+        if (Math.abs(a31) > max) {
+            p1 = 3;
+            max = Math.abs(a31);
+        }
+        if (max == 0.0) {
+            return false;
+        }
+        if (p1 == 2) {
+            t = a11; a11 = a21; a21 = t;
+            t = a12; a12 = a22; a22 = t;
+            t = a13; a13 = a23; a23 = t;
+            t = b1; b1 = b2; b2 = t;
+        } else if (p1 == 3) {
+            t = a11; a11 = a31; a31 = t;
+            t = a12; a12 = a32; a32 = t;
+            t = a13; a13 = a33; a33 = t;
+            t = b1; b1 = b3; b3 = t;
+        }
+        double l21 = a21 / a11;
+        a22 -= l21 * a12;
+        a23 -= l21 * a13;
+        b2 -= l21 * b1;
+        double l31 = a31 / a11;
+        a32 -= l31 * a12;
+        a33 -= l31 * a13;
+        b3 -= l31 * b1;
+
+        // Column 2: pivot is the largest of rows 2 to 3
+        int p2 = 2;
+        max = Math.abs(a22);
+        if (Math.abs(a32) > max) {
+            p2 = 3;
+            max = Math.abs(a32);
+        }
+        if (max == 0.0) {
+            return false;
+        }
+        if (p2 == 3) {
+            t = a22; a22 = a32; a32 = t;
+            t = a23; a23 = a33; a33 = t;
+            t = b2; b2 = b3; b3 = t;
+        }
+        double l32 = a32 / a22;
+        a33 -= l32 * a23;
+        b3 -= l32 * b2;
+        if (a33 == 0.0) {
+            return false;
+        }
+
+        // Back substitution with U
+        x[3] = b3 / a33;
+        x[2] = (b2 - a23 * x[3]) / a22;
+        x[1] = (b1 - a12 * x[2] - a13 * x[3]) / a11;
+        x[0] = (b0 - a01 * x[1] - a02 * x[2] - a03 * x[3]) / a00;
+        return true;
+    }
+
+    /**
+     * Calculates the inverse of 2x2 matrix, eliminates all columns of the identity at once.
+     *
+     * @param a Elements of matrix.
+     * @param r Array for the inverse.
+     * @return False when matrix is singular.
+     */
+    private static boolean inverse2(double[][] a, double[][] r) {
+        double a00 = a[0][0], a01 = a[0][1];
+        double a10 = a[1][0], a11 = a[1][1];
+        double e00 = 1.0, e01 = 0.0;
+        double e10 = 0.0, e11 = 1.0;
+        double max;
+        double t;
+
+        // Column 0: pivot is the largest of rows 0 to 1
+        int p0 = 0;
+        max = Math.abs(a00);
+        if (Math.abs(a10) > max) {
+            p0 = 1;
+            max = Math.abs(a10);
+        }
+        if (max == 0.0) {
+            return false;
+        }
+        if (p0 == 1) {
+            t = a00; a00 = a10; a10 = t;
+            t = a01; a01 = a11; a11 = t;
+            t = e00; e00 = e10; e10 = t;
+            t = e01; e01 = e11; e11 = t;
+        }
+        double l10 = a10 / a00;
+        a11 -= l10 * a01;
+        e10 -= l10 * e00;
+        e11 -= l10 * e01;
+        if (a11 == 0.0) {
+            return false;
+        }
+
+        // Back substitution with U
+        r[1][0] = e10 / a11;
+        r[0][0] = (e00 - a01 * r[1][0]) / a00;
+        r[1][1] = e11 / a11;
+        r[0][1] = (e01 - a01 * r[1][1]) / a00;
+        return true;
+    }
+
+    /**
+     * Calculates the inverse of 3x3 matrix, eliminates all columns of the identity at once.
+     *
+     * @param a Elements of matrix.
+     * @param r Array for the inverse.
+     * @return False when matrix is singular.
+     */
+    private static boolean inverse3(double[][] a, double[][] r) {
+        double a00 = a[0][0], a01 = a[0][1], a02 = a[0][2];
+        double a10 = a[1][0], a11 = a[1][1], a12 = a[1][2];
+        double a20 = a[2][0], a21 = a[2][1], a22 = a[2][2];
+        double e00 = 1.0, e01 = 0.0, e02 = 0.0;
+        double e10 = 0.0, e11 = 1.0, e12 = 0.0;
+        double e20 = 0.0, e21 = 0.0, e22 = 1.0;
+        double max;
+        double t;
+
+        // Column 0: pivot is the largest of rows 0 to 2
+        int p0 = 0;
+        max = Math.abs(a00);
+        if (Math.abs(a10) > max) {
+            p0 = 1;
+            max = Math.abs(a10);
+        }
+        if (Math.abs(a20) > max) {
+            p0 = 2;
+            max = Math.abs(a20);
+        }
+        if (max == 0.0) {
+            return false;
+        }
+        if (p0 == 1) {
+            t = a00; a00 = a10; a10 = t;
+            t = a01; a01 = a11; a11 = t;
+            t = a02; a02 = a12; a12 = t;
+            t = e00; e00 = e10; e10 = t;
+            t = e01; e01 = e11; e11 = t;
+            t = e02; e02 = e12; e12 = t;
+        } else if (p0 == 2) {
+            t = a00; a00 = a20; a20 = t;
+            t = a01; a01 = a21; a21 = t;
+            t = a02; a02 = a22; a22 = t;
+            t = e00; e00 = e20; e20 = t;
+            t = e01; e01 = e21; e21 = t;
+            t = e02; e02 = e22; e22 = t;
+        }
+        double l10 = a10 / a00;
+        a11 -= l10 * a01;
+        a12 -= l10 * a02;
+        e10 -= l10 * e00;
+        e11 -= l10 * e01;
+        e12 -= l10 * e02;
+        double l20 = a20 / a00;
+        a21 -= l20 * a01;
+        a22 -= l20 * a02;
+        e20 -= l20 * e00;
+        e21 -= l20 * e01;
+        e22 -= l20 * e02;
+
+        // Column 1: pivot is the largest of rows 1 to 2
+        int p1 = 1;
+        max = Math.abs(a11);
+        if (Math.abs(a21) > max) {
+            p1 = 2;
+            max = Math.abs(a21);
+        }
+        if (max == 0.0) {
+            return false;
+        }
+        if (p1 == 2) {
+            t = a11; a11 = a21; a21 = t;
+            t = a12; a12 = a22; a22 = t;
+            t = e10; e10 = e20; e20 = t;
+            t = e11; e11 = e21; e21 = t;
+            t = e12; e12 = e22; e22 = t;
+        }
+        double l21 = a21 / a11;
+        a22 -= l21 * a12;
+        e20 -= l21 * e10;
+        e21 -= l21 * e11;
+        e22 -= l21 * e12;
+        if (a22 == 0.0) {
+            return false;
+        }
+
+        // Back substitution with U
+        r[2][0] = e20 / a22;
+        r[1][0] = (e10 - a12 * r[2][0]) / a11;
+        r[0][0] = (e00 - a01 * r[1][0] - a02 * r[2][0]) / a00;
+        r[2][1] = e21 / a22;
+        r[1][1] = (e11 - a12 * r[2][1]) / a11;
+        r[0][1] = (e01 - a01 * r[1][1] - a02 * r[2][1]) / a00;
+        r[2][2] = e22 / a22;
+        r[1][2] = (e12 - a12 * r[2][2]) / a11;
+        r[0][2] = (e02 - a01 * r[1][2] - a02 * r[2][2]) / a00;
+        return true;
+    }
+
+    /**
+     * Calculates the inverse of 4x4 matrix, eliminates all columns of the identity at once.
+     *
+     * @param a Elements of matrix.
+     * @param r Array for the inverse.
+     * @return False when matrix is singular.
+     */
+    private static boolean inverse4(double[][] a, double[][] r) {
+        double a00 = a[0][0], a01 = a[0][1], a02 = a[0][2], a03 = a[0][3];
+        double a10 = a[1][0], a11 = a[1][1], a12 = a[1][2], a13 = a[1][3];
+        double a20 = a[2][0], a21 = a[2][1], a22 = a[2][2], a23 = a[2][3];
+        double a30 = a[3][0], a31 = a[3][1], a32 = a[3][2], a33 = a[3][3];
+        double e00 = 1.0, e01 = 0.0, e02 = 0.0, e03 = 0.0;
+        double e10 = 0.0, e11 = 1.0, e12 = 0.0, e13 = 0.0;
+        double e20 = 0.0, e21 = 0.0, e22 = 1.0, e23 = 0.0;
+        double e30 = 0.0, e31 = 0.0, e32 = 0.0, e33 = 1.0;
+        double max;
+        double t;
+
+        // Column 0: pivot is the largest of rows 0 to 3
+        int p0 = 0;
+        max = Math.abs(a00);
+        if (Math.abs(a10) > max) {
+            p0 = 1;
+            max = Math.abs(a10);
+        }
+        if (Math.abs(a20) > max) {
+            p0 = 2;
+            max = Math.abs(a20);
+        }
+        if (Math.abs(a30) > max) {
+            p0 = 3;
+            max = Math.abs(a30);
+        }
+        if (max == 0.0) {
+            return false;
+        }
+        if (p0 == 1) {
+            t = a00; a00 = a10; a10 = t;
+            t = a01; a01 = a11; a11 = t;
+            t = a02; a02 = a12; a12 = t;
+            t = a03; a03 = a13; a13 = t;
+            t = e00; e00 = e10; e10 = t;
+            t = e01; e01 = e11; e11 = t;
+            t = e02; e02 = e12; e12 = t;
+            t = e03; e03 = e13; e13 = t;
+        } else if (p0 == 2) {
+            t = a00; a00 = a20; a20 = t;
+            t = a01; a01 = a21; a21 = t;
+            t = a02; a02 = a22; a22 = t;
+            t = a03; a03 = a23; a23 = t;
+            t = e00; e00 = e20; e20 = t;
+            t = e01; e01 = e21; e21 = t;
+            t = e02; e02 = e22; e22 = t;
+            t = e03; e03 = e23; e23 = t;
+        } else if (p0 == 3) {
+            t = a00; a00 = a30; a30 = t;
+            t = a01; a01 = a31; a31 = t;
+            t = a02; a02 = a32; a32 = t;
+            t = a03; a03 = a33; a33 = t;
+            t = e00; e00 = e30; e30 = t;
+            t = e01; e01 = e31; e31 = t;
+            t = e02; e02 = e32; e32 = t;
+            t = e03; e03 = e33; e33 = t;
+        }
+        double l10 = a10 / a00;
+        a11 -= l10 * a01;
+        a12 -= l10 * a02;
+        a13 -= l10 * a03;
+        e10 -= l10 * e00;
+        e11 -= l10 * e01;
+        e12 -= l10 * e02;
+        e13 -= l10 * e03;
+        double l20 = a20 / a00;
+        a21 -= l20 * a01;
+        a22 -= l20 * a02;
+        a23 -= l20 * a03;
+        e20 -= l20 * e00;
+        e21 -= l20 * e01;
+        e22 -= l20 * e02;
+        e23 -= l20 * e03;
+        double l30 = a30 / a00;
+        a31 -= l30 * a01;
+        a32 -= l30 * a02;
+        a33 -= l30 * a03;
+        e30 -= l30 * e00;
+        e31 -= l30 * e01;
+        e32 -= l30 * e02;
+        e33 -= l30 * e03;
+
+        // Column 1: pivot is the largest of rows 1 to 3
+        int p1 = 1;
+        max = Math.abs(a11);
+        if (Math.abs(a21) > max) {
+            p1 = 2;
+            max = Math.abs(a21);
+        }
+        if (Math.abs(a31) > max) {
+            p1 = 3;
+            max = Math.abs(a31);
+        }
+        if (max == 0.0) {
+            return false;
+        }
+        if (p1 == 2) {
+            t = a11; a11 = a21; a21 = t;
+            t = a12; a12 = a22; a22 = t;
+            t = a13; a13 = a23; a23 = t;
+            t = e10; e10 = e20; e20 = t;
+            t = e11; e11 = e21; e21 = t;
+            t = e12; e12 = e22; e22 = t;
+            t = e13; e13 = e23; e23 = t;
+        } else if (p1 == 3) {
+            t = a11; a11 = a31; a31 = t;
+            t = a12; a12 = a32; a32 = t;
+            t = a13; a13 = a33; a33 = t;
+            t = e10; e10 = e30; e30 = t;
+            t = e11; e11 = e31; e31 = t;
+            t = e12; e12 = e32; e32 = t;
+            t = e13; e13 = e33; e33 = t;
+        }
+        double l21 = a21 / a11;
+        a22 -= l21 * a12;
+        a23 -= l21 * a13;
+        e20 -= l21 * e10;
+        e21 -= l21 * e11;
+        e22 -= l21 * e12;
+        e23 -= l21 * e13;
+        double l31 = a31 / a11;
+        a32 -= l31 * a12;
+        a33 -= l31 * a13;
+        e30 -= l31 * e10;
+        e31 -= l31 * e11;
+        e32 -= l31 * e12;
+        e33 -= l31 * e13;
+
+        // Column 2: pivot is the largest of rows 2 to 3
+        int p2 = 2;
+        max = Math.abs(a22);
+        if (Math.abs(a32) > max) {
+            p2 = 3;
+            max = Math.abs(a32);
+        }
+        if (max == 0.0) {
+            return false;
+        }
+        if (p2 == 3) {
+            t = a22; a22 = a32; a32 = t;
+            t = a23; a23 = a33; a33 = t;
+            t = e20; e20 = e30; e30 = t;
+            t = e21; e21 = e31; e31 = t;
+            t = e22; e22 = e32; e32 = t;
+            t = e23; e23 = e33; e33 = t;
+        }
+        double l32 = a32 / a22;
+        a33 -= l32 * a23;
+        e30 -= l32 * e20;
+        e31 -= l32 * e21;
+        e32 -= l32 * e22;
+        e33 -= l32 * e23;
+        if (a33 == 0.0) {
+            return false;
+        }
+
+        // Back substitution with U
+        r[3][0] = e30 / a33;
+        r[2][0] = (e20 - a23 * r[3][0]) / a22;
+        r[1][0] = (e10 - a12 * r[2][0] - a13 * r[3][0]) / a11;
+        r[0][0] = (e00 - a01 * r[1][0] - a02 * r[2][0] - a03 * r[3][0]) / a00;
+        r[3][1] = e31 / a33;
+        r[2][1] = (e21 - a23 * r[3][1]) / a22;
+        r[1][1] = (e11 - a12 * r[2][1] - a13 * r[3][1]) / a11;
+        r[0][1] = (e01 - a01 * r[1][1] - a02 * r[2][1] - a03 * r[3][1]) / a00;
+        r[3][2] = e32 / a33;
+        r[2][2] = (e22 - a23 * r[3][2]) / a22;
+        r[1][2] = (e12 - a12 * r[2][2] - a13 * r[3][2]) / a11;
+        r[0][2] = (e02 - a01 * r[1][2] - a02 * r[2][2] - a03 * r[3][2]) / a00;
+        r[3][3] = e33 / a33;
+        r[2][3] = (e23 - a23 * r[3][3]) / a22;
+        r[1][3] = (e13 - a12 * r[2][3] - a13 * r[3][3]) / a11;
+        r[0][3] = (e03 - a01 * r[1][3] - a02 * r[2][3] - a03 * r[3][3]) / a00;
+        return true;
+    }
+}
@@ -0,0 +1,235 @@
+package models.utilities;
+
+import models.exceptions.InvalidMatrixSizesException;
+import models.exceptions.SingularMatrixException;
+import models.matrices.Matrix;
+import models.vectors.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Merges concurrent solves against the same LU decomposition into one multi right hand side solve.
+ * First caller of a batch becomes its leader: it waits until the batch is full or the window elapses,
+ * solves all gathered right hand sides at once and hands the solutions back to the waiting callers.
+ *
+ * @see LUDecomposition#solve(Matrix)
+ */
+public final class SolveCoalescer {
+    /**
+     * Shared decomposition.
+     */
+    private final LUDecomposition decomposition;
+
+    /**
+     * Maximum number of right hand sides in one batch.
+     */
+    private final int maxBatchSize;
+
+    /**
+     * Time the leader waits for other right hand sides in nanoseconds.
+     */
+    private final long windowNanos;
+
+    /**
+     * Guards the gathering batch.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Batch that currently gathers right hand sides, null when there is none.
+     */
+    private List<Pending> gathering;
+
+    /**
+     * Number of executed batches.
+     */
+    private final AtomicLong batches = new AtomicLong();
+
+    /**
+     * Number of right hand sides solved in all batches.
+     */
+    private final AtomicLong solved = new AtomicLong();
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param decomposition Decomposition used to solve the systems.
+     * @param maxBatchSize  Maximum number of right hand sides in one batch.
+     * @param window        Time the first caller waits for others.
+     * @param unit          Unit of the window.
+     */
+    public SolveCoalescer(LUDecomposition decomposition, int maxBatchSize, long window, TimeUnit unit) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+        this.decomposition = decomposition;
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = unit.toNanos(window);
+    }
+
+    /**
+     * Returns shared decomposition.
+     *
+     * @return Decomposition used to solve the systems.
+     */
+    public LUDecomposition getDecomposition() {
+        return decomposition;
+    }
+
+    /**
+     * Returns number of multi right hand side solves executed so far.
+     *
+     * @return Number of executed batches.
+     */
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    /**
+     * Returns number of right hand sides solved in all batches so far.
+     *
+     * @return Number of solved right hand sides.
+     */
+    public long getSolvedCount() {
+        return solved.get();
+    }
+
+    /**
+     * Solves Ax = b, possibly together with right hand sides of concurrent callers.
+     *
+     * @param b Right hand side vector.
+     * @return Solution for linear system.
+     * @throws InvalidMatrixSizesException when size of the vector is not equal to number of rows.
+     * @throws SingularMatrixException     when matrix is singular.
+     * @throws InterruptedException        when waiting for the batch is interrupted.
+     */
+    public Vector solve(Vector b) throws InvalidMatrixSizesException, SingularMatrixException, InterruptedException {
+        if (b.getSize() != decomposition.getRows()) {
+            throw new InvalidMatrixSizesException();
+        }
+
+        Pending pending = new Pending(b);
+        List<Pending> batch;
+        boolean leader;
+        synchronized (lock) {
+            leader = gathering == null;
+            if (leader) {
+                gathering = new ArrayList<>(Math.min(maxBatchSize, 64));
+            }
+            batch = gathering;
+            batch.add(pending);
+            if (batch.size() >= maxBatchSize) {
+                gathering = null;
+                lock.notifyAll();
+            }
+        }
+
+        if (leader) {
+            try {
+                gather(batch);
+            } finally {
+                execute(batch);
+            }
+        }
+
+        try {
+            return pending.solution.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SingularMatrixException) {
+                throw (SingularMatrixException) cause;
+            } else if (cause instanceof InvalidMatrixSizesException) {
+                throw (InvalidMatrixSizesException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Waits until the batch is closed by a caller that filled it or until the window elapses.
+     *
+     * @param batch Batch led by current thread.
+     * @throws InterruptedException when waiting is interrupted.
+     */
+    private void gather(List<Pending> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + windowNanos;
+        synchronized (lock) {
+            try {
+                long remaining = windowNanos;
+                while (gathering == batch && remaining > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                    remaining = deadline - System.nanoTime();
+                }
+            } finally {
+                if (gathering == batch) {
+                    gathering = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Solves all right hand sides of the batch at once and completes their futures.
+     *
+     * @param batch Closed batch.
+     */
+    private void execute(List<Pending> batch) {
+        int n = decomposition.getRows();
+        int count = batch.size();
+        batches.incrementAndGet();
+        solved.addAndGet(count);
+        LUWorkspace workspace = LUWorkspace.forCurrentThread();
+        double[][] B = workspace.rightHandSides(n, count);
+        double[][] X = workspace.solutions(n, count);
+        for (int j = 0; j < count; j++) {
+            double[] b = batch.get(j).rhs.getData();
+            for (int i = 0; i < n; i++) {
+                B[i][j] = b[i];
+            }
+        }
+
+        try {
+            decomposition.solve(B, X, count);
+            for (int j = 0; j < count; j++) {
+                double[] x = new double[n];
+                for (int i = 0; i < x.length; i++) {
+                    x[i] = X[i][j];
+                }
+                batch.get(j).solution.complete(Vector.wrap(x));
+            }
+        } catch (Throwable t) {
+            for (Pending pending : batch) {
+                pending.solution.completeExceptionally(t);
+            }
+        }
+    }
+
+    /**
+     * Right hand side waiting for its solution.
+     */
+    private static final class Pending {
+        /**
+         * Right hand side vector.
+         */
+        private final Vector rhs;
+
+        /**
+         * Solution completed by the leader of the batch.
+         */
+        private final CompletableFuture<Vector> solution = new CompletableFuture<>();
+
+        /**
+         * Parametrized constructor.
+         *
+         * @param rhs Right hand side vector.
+         */
+        private Pending(Vector rhs) {
+            this.rhs = rhs;
+        }
+    }
+}
@@ -0,0 +1,668 @@
+package models.utilities;
+
+import models.exceptions.InvalidMatrixSizesException;
+import models.exceptions.NonSquareMatrixException;
+import models.exceptions.SingularMatrixException;
+import models.matrices.CirculantMatrix;
+import models.matrices.Matrix;
+import models.matrices.PackedSymmetricMatrix;
+import models.matrices.PackedTriangularMatrix;
+import models.matrices.ToeplitzMatrix;
+import models.monitoring.Operation;
+import models.monitoring.SolverMetrics;
+import models.monitoring.events.SolveEvent;
+import models.vectors.Vector;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Solver choosing the cheapest correct path for the structure of a square matrix.
+ * Structure is detected in a single O(n^2) pass over the matrix, then only the data needed by the path is kept:
+ * diagonal and scaled permutation matrices are solved in O(n), triangular ones by substitution in O(n^2),
+ * circulant ones by the fast Fourier transform in O(n log n), Toeplitz ones by Levinson recursion in O(n^2), block diagonal ones block by block in parallel
+ * and symmetric positive definite ones with Cholesky decomposition.
+ * Symmetric matrices keep their packed triangle, Cholesky decomposition is computed when the path is first used.
+ * General, symmetric indefinite matrices and Toeplitz matrices on which the recursion breaks down
+ * are left to LU decomposition, see {@link #requiresLU()}.
+ *
+ * @see MatrixStructure
+ */
+public final class StructuredSolver implements Serializable {
+    /**
+     * Dimension from which blocks are factorized and solved in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    /**
+     * Detected structure.
+     */
+    private final MatrixStructure structure;
+
+    /**
+     * Dimension of the matrix.
+     */
+    private final int n;
+
+    /**
+     * Diagonal of diagonal matrix or non zero element of every row of permutation matrix.
+     */
+    private double[] values;
+
+    /**
+     * Column of the non zero element of every row of permutation matrix.
+     */
+    private int[] permutation;
+
+    /**
+     * Triangle of triangular matrix.
+     */
+    private PackedTriangularMatrix triangle;
+
+    /**
+     * Fourier solver of circulant matrix.
+     */
+    private CirculantSolver circulant;
+
+    /**
+     * Levinson solver of Toeplitz matrix.
+     */
+    private ToeplitzSolver toeplitz;
+
+    /**
+     * First index of every block and the dimension at the end.
+     */
+    private int[] blockStarts;
+
+    /**
+     * Factorizations of diagonal blocks.
+     */
+    private LUDecomposition[] blocks;
+
+    /**
+     * Triangle of symmetric matrix waiting for Cholesky decomposition, released once it is computed.
+     */
+    private PackedSymmetricMatrix symmetric;
+
+    /**
+     * Factorization of symmetric positive definite matrix, null when not computed yet or not positive definite.
+     */
+    private CholeskyDecomposition cholesky;
+
+    /**
+     * Constructor, detected data is set by the factory.
+     *
+     * @param structure Detected structure.
+     * @param n         Dimension of the matrix.
+     */
+    private StructuredSolver(MatrixStructure structure, int n) {
+        this.structure = structure;
+        this.n = n;
+    }
+
+    /**
+     * Detects structure of the matrix and prepares the solve path for it.
+     *
+     * @param matrix Square matrix.
+     * @return Solver for the matrix.
+     * @throws NonSquareMatrixException when matrix does not have a square shape.
+     */
+    public static StructuredSolver of(Matrix matrix) throws NonSquareMatrixException {
+        if (!matrix.isSquare()) {
+            throw new NonSquareMatrixException();
+        }
+        int n = matrix.getRows();
+        double[][] a = matrix.getData();
+        boolean lower = true;
+        boolean upper = true;
+        boolean symmetric = true;
+        boolean permutation = true;
+        boolean toeplitz = true;
+        int[] columnOf = new int[n];
+        int[] columnCounts = new int[n];
+        // reach[i] is the largest index j with a[i][j] or a[j][i] non zero
+        int[] reach = new int[n];
+        for (int i = 0; i < n; i++) {
+            reach[i] = i;
+        }
+        for (int i = 0; i < n; i++) {
+            double[] row = a[i];
+            int rowCount = 0;
+            for (int j = 0; j < n; j++) {
+                double value = row[j];
+                if (symmetric && j < i && value != a[j][i]) {
+                    symmetric = false;
+                }
+                if (toeplitz && i > 0 && j > 0 && value != a[i - 1][j - 1]) {
+                    toeplitz = false;
+                }
+                if (value == 0.0) {
+                    continue;
+                }
+                rowCount++;
+                columnCounts[j]++;
+                columnOf[i] = j;
+                if (j > i) {
+                    lower = false;
+                    if (j > reach[i]) {
+                        reach[i] = j;
+                    }
+                } else if (j < i) {
+                    upper = false;
+                    if (i > reach[j]) {
+                        reach[j] = i;
+                    }
+                }
+            }
+            permutation &= rowCount == 1;
+        }
+        for (int j = 0; j < n && permutation; j++) {
+            permutation = columnCounts[j] == 1;
+        }
+
+        StructuredSolver solver;
+        if (lower && upper) {
+            solver = new StructuredSolver(MatrixStructure.DIAGONAL, n);
+            solver.values = new double[n];
+            for (int i = 0; i < n; i++) {
+                solver.values[i] = a[i][i];
+            }
+        } else if (permutation) {
+            solver = new StructuredSolver(MatrixStructure.PERMUTATION, n);
+            solver.values = new double[n];
+            solver.permutation = columnOf;
+            for (int i = 0; i < n; i++) {
+                solver.values[i] = a[i][columnOf[i]];
+            }
+        } else if (lower || upper) {
+            solver = new StructuredSolver(lower ? MatrixStructure.LOWER_TRIANGULAR : MatrixStructure.UPPER_TRIANGULAR, n);
+            solver.triangle = lower ? PackedTriangularMatrix.lowerOf(a, n, false) : PackedTriangularMatrix.upperOf(a, n, false);
+        } else if (toeplitz && isCirculant(a, n)) {
+            solver = new StructuredSolver(MatrixStructure.CIRCULANT, n);
+            double[] column = new double[n];
+            for (int i = 0; i < n; i++) {
+                column[i] = a[i][0];
+            }
+            solver.circulant = new CirculantSolver(new CirculantMatrix(column));
+        } else if (toeplitz) {
+            solver = new StructuredSolver(MatrixStructure.TOEPLITZ, n);
+            try {
+                solver.toeplitz = new ToeplitzSolver(ToeplitzMatrix.of(matrix));
+            } catch (SingularMatrixException e) {
+                solver.toeplitz = null;
+            }
+        } else {
+            int[] blockStarts = blockStarts(reach);
+            if (blockStarts.length > 2) {
+                solver = new StructuredSolver(MatrixStructure.BLOCK_DIAGONAL, n);
+                solver.blockStarts = blockStarts;
+                solver.blocks = factorizeBlocks(a, blockStarts, n);
+            } else if (symmetric) {
+                solver = new StructuredSolver(MatrixStructure.SYMMETRIC, n);
+                solver.symmetric = PackedSymmetricMatrix.of(matrix);
+            } else {
+                solver = new StructuredSolver(MatrixStructure.GENERAL, n);
+            }
+        }
+        return solver;
+    }
+
+    /**
+     * Checks if Toeplitz matrix wraps around, its first row is the first column reversed after the first element.
+     *
+     * @param a Elements of Toeplitz matrix.
+     * @param n Dimension of the matrix.
+     * @return True when the matrix is circulant.
+     */
+    private static boolean isCirculant(double[][] a, int n) {
+        for (int j = 1; j < n; j++) {
+            if (a[0][j] != a[n - j][0]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Splits indices into diagonal blocks.
+     * Block may end at index k when no element of rows or columns up to k reaches beyond k.
+     *
+     * @param reach Largest index connected to every index.
+     * @return First index of every block and the dimension at the end.
+     */
+    private static int[] blockStarts(int[] reach) {
+        int[] starts = new int[reach.length + 1];
+        int count = 0;
+        int furthest = 0;
+        for (int k = 0; k < reach.length; k++) {
+            furthest = Math.max(furthest, reach[k]);
+            if (furthest == k) {
+                starts[++count] = k + 1;
+            }
+        }
+        return Arrays.copyOf(starts, count + 1);
+    }
+
+    /**
+     * Factorizes diagonal blocks, in parallel for large matrices.
+     *
+     * @param a           Rows of the matrix.
+     * @param blockStarts First index of every block and the dimension at the end.
+     * @param n           Dimension of the matrix.
+     * @return Factorizations of the blocks.
+     */
+    private static LUDecomposition[] factorizeBlocks(double[][] a, int[] blockStarts, int n) {
+        LUDecomposition[] blocks = new LUDecomposition[blockStarts.length - 1];
+        blockRange(blocks.length, n).forEach(b -> {
+            int start = blockStarts[b];
+            int size = blockStarts[b + 1] - start;
+            double[][] block = new double[size][];
+            for (int i = 0; i < size; i++) {
+                block[i] = Arrays.copyOfRange(a[start + i], start, start + size);
+            }
+            blocks[b] = new LUDecomposition(Matrix.wrap(block));
+        });
+        return blocks;
+    }
+
+    /**
+     * Returns range of block indices, parallel for large matrices.
+     *
+     * @param count Number of blocks.
+     * @param n     Dimension of the matrix.
+     * @return Range of block indices.
+     */
+    private static IntStream blockRange(int count, int n) {
+        IntStream range = IntStream.range(0, count);
+        return n >= PARALLEL_THRESHOLD ? range.parallel() : range;
+    }
+
+    /**
+     * Returns detected structure.
+     *
+     * @return Structure of the matrix.
+     */
+    public MatrixStructure getStructure() {
+        return structure;
+    }
+
+    /**
+     * Returns dimension of the matrix.
+     *
+     * @return Number of rows and columns.
+     */
+    public int getDimension() {
+        return n;
+    }
+
+    /**
+     * Returns number of independent diagonal blocks.
+     *
+     * @return Number of blocks, one unless the matrix is block diagonal.
+     */
+    public int getBlockCount() {
+        return blocks == null ? 1 : blocks.length;
+    }
+
+    /**
+     * Checks if the matrix has to be solved with LU decomposition of the whole matrix.
+     * Symmetric matrices are factorized with Cholesky decomposition on the first call.
+     *
+     * @return True for general, symmetric indefinite matrices and Toeplitz matrices on which the recursion broke down.
+     */
+    public boolean requiresLU() {
+        return structure == MatrixStructure.GENERAL
+                || (structure == MatrixStructure.SYMMETRIC && cholesky() == null)
+                || (structure == MatrixStructure.TOEPLITZ && toeplitz == null);
+    }
+
+    /**
+     * Returns Cholesky decomposition of symmetric matrix, computed on the first call.
+     *
+     * @return Decomposition or null when the matrix is not positive definite.
+     */
+    private synchronized CholeskyDecomposition cholesky() {
+        if (symmetric != null) {
+            CholeskyDecomposition decomposition = new CholeskyDecomposition(symmetric);
+            cholesky = decomposition.isPositiveDefinite() ? decomposition : null;
+            symmetric = null;
+        }
+        return cholesky;
+    }
+
+    /**
+     * Checks if the matrix is non singular.
+     *
+     * @return True when linear systems can be solved.
+     * @throws IllegalStateException when matrix requires LU decomposition.
+     */
+    public boolean isNonSingular() {
+        switch (structure) {
+            case DIAGONAL:
+            case PERMUTATION:
+                for (double value : values) {
+                    if (value == 0.0) {
+                        return false;
+                    }
+                }
+                return true;
+            case LOWER_TRIANGULAR:
+            case UPPER_TRIANGULAR:
+                for (int i = 0; i < n; i++) {
+                    if (triangle.getAt(i, i) == 0.0) {
+                        return false;
+                    }
+                }
+                return true;
+            case CIRCULANT:
+                return circulant.isNonSingular();
+            case BLOCK_DIAGONAL:
+                for (LUDecomposition block : blocks) {
+                    if (!block.isNonSingular()) {
+                        return false;
+                    }
+                }
+                return true;
+            default:
+                checkStructured();
+                return true;
+        }
+    }
+
+    /**
+     * Calculates determinant.
+     *
+     * @return Determinant of the matrix.
+     * @throws IllegalStateException when matrix requires LU decomposition.
+     */
+    public double det() {
+        double d = 1.0;
+        switch (structure) {
+            case DIAGONAL:
+                for (double value : values) {
+                    d *= value;
+                }
+                return d;
+            case PERMUTATION:
+                for (double value : values) {
+                    d *= value;
+                }
+                return permutationSign() * d;
+            case LOWER_TRIANGULAR:
+            case UPPER_TRIANGULAR:
+                for (int i = 0; i < n; i++) {
+                    d *= triangle.getAt(i, i);
+                }
+                return d;
+            case CIRCULANT:
+                return circulant.det();
+            case TOEPLITZ:
+                checkStructured();
+                return toeplitz.det();
+            case BLOCK_DIAGONAL:
+                try {
+                    for (LUDecomposition block : blocks) {
+                        d *= block.det();
+                    }
+                } catch (NonSquareMatrixException e) {
+                    throw new IllegalStateException(e);
+                }
+                return d;
+            default:
+                checkStructured();
+                try {
+                    return cholesky().det();
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+        }
+    }
+
+    /**
+     * Computes sign of the permutation from its cycles.
+     *
+     * @return One for even and minus one for odd permutation.
+     */
+    private int permutationSign() {
+        boolean[] visited = new boolean[n];
+        int sign = 1;
+        for (int i = 0; i < n; i++) {
+            if (visited[i]) {
+                continue;
+            }
+            int length = 0;
+            for (int j = i; !visited[j]; j = permutation[j]) {
+                visited[j] = true;
+                length++;
+            }
+            if (length % 2 == 0) {
+                sign = -sign;
+            }
+        }
+        return sign;
+    }
+
+    /**
+     * Solves linear system Ax = b.
+     *
+     * @param b Right hand-side vector.
+     * @return Solution for linear system.
+     * @throws InvalidMatrixSizesException when size of the vector is not correct.
+     * @throws SingularMatrixException     when matrix is singular.
+     * @throws IllegalStateException       when matrix requires LU decomposition.
+     */
+    public Vector solve(Vector b) throws SingularMatrixException, InvalidMatrixSizesException {
+        double[] x = new double[n];
+        solve(b.getData(), x);
+        return Vector.wrap(x);
+    }
+
+    /**
+     * Solves linear system Ax = b.
+     *
+     * @param b Right hand-side vector.
+     * @param x Array for the solution, different from b.
+     * @throws InvalidMatrixSizesException when dimensions of the system are not correct.
+     * @throws SingularMatrixException     when matrix is singular.
+     * @throws IllegalStateException       when matrix requires LU decomposition.
+     */
+    public void solve(double[] b, double[] x) throws SingularMatrixException, InvalidMatrixSizesException {
+        substitute(b, x, false);
+    }
+
+    /**
+     * Solves transposed linear system A^T x = b.
+     *
+     * @param b Right hand-side vector.
+     * @param x Array for the solution, different from b.
+     * @throws InvalidMatrixSizesException when dimensions of the system are not correct.
+     * @throws SingularMatrixException     when matrix is singular.
+     * @throws IllegalStateException       when matrix requires LU decomposition.
+     */
+    public void solveTranspose(double[] b, double[] x) throws SingularMatrixException, InvalidMatrixSizesException {
+        substitute(b, x, true);
+    }
+
+    /**
+     * Solves linear system with the matrix or its transpose.
+     *
+     * @param b         Right hand-side vector.
+     * @param x         Array for the solution, different from b.
+     * @param transpose True to solve with the transpose.
+     * @throws InvalidMatrixSizesException when dimensions of the system are not correct.
+     * @throws SingularMatrixException     when matrix is singular.
+     */
+    private void substitute(double[] b, double[] x, boolean transpose) throws SingularMatrixException, InvalidMatrixSizesException {
+        checkStructured();
+        if (b.length != n || x.length != n) {
+            throw new InvalidMatrixSizesException();
+        }
+        if (!isNonSingular()) {
+            throw new SingularMatrixException();
+        }
+        if (structure == MatrixStructure.BLOCK_DIAGONAL) {
+            solveBlocks(b, x, transpose);
+            return;
+        }
+        if (structure == MatrixStructure.CIRCULANT) {
+            if (transpose) {
+                circulant.solveTranspose(b, x);
+            } else {
+                circulant.solve(b, x);
+            }
+            return;
+        }
+        if (structure == MatrixStructure.TOEPLITZ) {
+            if (transpose) {
+                toeplitz.solveTranspose(b, x);
+            } else {
+                toeplitz.solve(b, x);
+            }
+            return;
+        }
+        SolveEvent event = new SolveEvent();
+        event.begin();
+        long start = System.nanoTime();
+        double flops;
+        switch (structure) {
+            case DIAGONAL:
+                for (int i = 0; i < n; i++) {
+                    x[i] = b[i] / values[i];
+                }
+                flops = n;
+                break;
+            case PERMUTATION:
+                for (int i = 0; i < n; i++) {
+                    if (transpose) {
+                        x[i] = b[permutation[i]] / values[i];
+                    } else {
+                        x[permutation[i]] = b[i] / values[i];
+                    }
+                }
+                flops = n;
+                break;
+            case LOWER_TRIANGULAR:
+            case UPPER_TRIANGULAR:
+                System.arraycopy(b, 0, x, 0, n);
+                if (transpose) {
+                    triangle.solveTransposedInPlace(x);
+                } else {
+                    triangle.solveInPlace(x);
+                }
+                flops = (double) n * n;
+                break;
+            default:
+                System.arraycopy(b, 0, x, 0, n);
+                CholeskyDecomposition decomposition = cholesky();
+                decomposition.getL().solveInPlace(x);
+                decomposition.getL().solveTransposedInPlace(x);
+                flops = SolverMetrics.solveFlops(n, 1);
+                break;
+        }
+        SolverMetrics.record(Operation.SOLVE, n, System.nanoTime() - start, flops);
+        event.end();
+        if (event.shouldCommit()) {
+            event.rows = n;
+            event.columns = n;
+            event.structure = structure.name();
+            event.rightHandSides = 1;
+            event.commit();
+        }
+    }
+
+    /**
+     * Solves every block independently, in parallel for large matrices.
+     *
+     * @param b         Right hand-side vector.
+     * @param x         Array for the solution.
+     * @param transpose True to solve with the transpose.
+     */
+    private void solveBlocks(double[] b, double[] x, boolean transpose) {
+        blockRange(blocks.length, n).forEach(k -> {
+            int start = blockStarts[k];
+            double[] part = Arrays.copyOfRange(b, start, blockStarts[k + 1]);
+            try {
+                if (transpose) {
+                    blocks[k].solveTranspose(part, part, LUWorkspace.forCurrentThread());
+                } else {
+                    blocks[k].solve(part, part, LUWorkspace.forCurrentThread());
+                }
+            } catch (SingularMatrixException | InvalidMatrixSizesException e) {
+                throw new IllegalStateException(e);
+            }
+            System.arraycopy(part, 0, x, start, part.length);
+        });
+    }
+
+    /**
+     * Calculates the inverse of matrix using its structure.
+     *
+     * @return Inverse of matrix.
+     * @throws SingularMatrixException when matrix is singular.
+     * @throws IllegalStateException   when matrix requires LU decomposition.
+     */
+    public Matrix inverse() throws SingularMatrixException {
+        checkStructured();
+        if (!isNonSingular()) {
+            throw new SingularMatrixException();
+        }
+        long start = System.nanoTime();
+        Matrix inverse = new Matrix(n, n);
+        double[][] r = inverse.getData();
+        try {
+            switch (structure) {
+                case DIAGONAL:
+                    for (int i = 0; i < n; i++) {
+                        r[i][i] = 1.0 / values[i];
+                    }
+                    break;
+                case PERMUTATION:
+                    for (int i = 0; i < n; i++) {
+                        r[permutation[i]][i] = 1.0 / values[i];
+                    }
+                    break;
+                case CIRCULANT:
+                    return circulant.inverse().toMatrix();
+                case TOEPLITZ:
+                    return toeplitz.inverse();
+                case BLOCK_DIAGONAL:
+                    for (int k = 0; k < blocks.length; k++) {
+                        double[][] block = blocks[k].inverse().getData();
+                        int offset = blockStarts[k];
+                        for (int i = 0; i < block.length; i++) {
+                            System.arraycopy(block[i], 0, r[offset + i], offset, block.length);
+                        }
+                    }
+                    break;
+                default:
+                    double[] e = new double[n];
+                    double[] column = new double[n];
+                    for (int j = 0; j < n; j++) {
+                        e[j] = 1.0;
+                        substitute(e, column, false);
+                        e[j] = 0.0;
+                        for (int i = 0; i < n; i++) {
+                            r[i][j] = column[i];
+                        }
+                    }
+                    break;
+            }
+        } catch (InvalidMatrixSizesException e) {
+            throw new IllegalStateException(e);
+        }
+        SolverMetrics.record(Operation.INVERSE, n, System.nanoTime() - start, 0);
+        return inverse;
+    }
+
+    /**
+     * Checks if the structure has own solve path.
+     *
+     * @throws IllegalStateException when matrix requires LU decomposition.
+     */
+    private void checkStructured() {
+        if (requiresLU()) {
+            throw new IllegalStateException("Matrix with structure " + structure + " requires LU decomposition.");
+        }
+    }
+}
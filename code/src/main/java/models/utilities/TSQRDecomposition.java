@@ -0,0 +1,199 @@
+package models.utilities;
+
+import models.exceptions.InvalidMatrixSizesException;
+import models.exceptions.SingularMatrixException;
+import models.matrices.Matrix;
+import models.vectors.Vector;
+
+import java.util.stream.IntStream;
+
+/**
+ * Communication avoiding QR decomposition of tall and skinny matrices.
+ * Row blocks are factorized independently in parallel, their R factors are stacked
+ * and factorized once more, so every row block is read exactly once.
+ * Least squares solution reduces right hand sides the same way.
+ *
+ * @see QRDecomposition
+ */
+public class TSQRDecomposition {
+    /**
+     * Minimal ratio of rows to columns of a tall and skinny matrix.
+     */
+    private static final int TALL_SKINNY_RATIO = 16;
+
+    /**
+     * Minimal number of rows of a tall and skinny matrix.
+     */
+    private static final int MIN_ROWS = 4096;
+
+    /**
+     * Number of columns.
+     */
+    private final int n;
+
+    /**
+     * First row of every row block and number of rows at the end.
+     */
+    private final int[] bounds;
+
+    /**
+     * Decompositions of row blocks.
+     */
+    private final QRDecomposition[] leaves;
+
+    /**
+     * Decomposition of stacked R factors of the row blocks.
+     */
+    private final QRDecomposition root;
+
+    /**
+     * Factorizes a matrix with one row block per available processor.
+     *
+     * @param A Matrix with m at least n.
+     * @throws InvalidMatrixSizesException when m is less than n.
+     */
+    public TSQRDecomposition(Matrix A) throws InvalidMatrixSizesException {
+        this(A, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Factorizes a matrix with given number of row blocks.
+     * Number of row blocks is reduced so that every block has at least n rows.
+     *
+     * @param A      Matrix with m at least n.
+     * @param blocks Requested number of row blocks.
+     * @throws InvalidMatrixSizesException when m is less than n.
+     */
+    public TSQRDecomposition(Matrix A, int blocks) throws InvalidMatrixSizesException {
+        int m = A.getRows();
+        this.n = A.getColumns();
+        if (m < n) {
+            throw new InvalidMatrixSizesException();
+        }
+        int count = Math.max(1, Math.min(blocks, m / Math.max(1, n)));
+        this.bounds = new int[count + 1];
+        for (int p = 0; p <= count; p++) {
+            bounds[p] = (int) ((long) m * p / count);
+        }
+        double[][] a = A.getData();
+        this.leaves = new QRDecomposition[count];
+        IntStream.range(0, count).parallel().forEach(p -> leaves[p] = new QRDecomposition(rows(a, bounds[p], bounds[p + 1])));
+
+        Matrix stacked = new Matrix(count * n, n);
+        for (int p = 0; p < count; p++) {
+            double[][] r = leaves[p].getR().getData();
+            for (int i = 0; i < n; i++) {
+                System.arraycopy(r[i], 0, stacked.getData()[p * n + i], 0, n);
+            }
+        }
+        this.root = new QRDecomposition(stacked);
+    }
+
+    /**
+     * Checks if a matrix is tall and skinny enough for this decomposition to pay off.
+     *
+     * @param m Number of rows.
+     * @param n Number of columns.
+     * @return True for tall and skinny matrices.
+     */
+    public static boolean isTallSkinny(int m, int n) {
+        return m >= MIN_ROWS && m >= (long) TALL_SKINNY_RATIO * n;
+    }
+
+    /**
+     * Returns number of row blocks.
+     *
+     * @return Number of row blocks.
+     */
+    public int getBlocks() {
+        return leaves.length;
+    }
+
+    /**
+     * Checks if R has no zeros on the diagonal.
+     *
+     * @return True when columns of A are linearly independent.
+     */
+    public boolean isFullRank() {
+        return root.isFullRank();
+    }
+
+    /**
+     * Returns upper triangular factor.
+     *
+     * @return R, n x n.
+     */
+    public Matrix getR() {
+        return root.getR();
+    }
+
+    /**
+     * Least squares solution of AX = B.
+     *
+     * @param B Matrix with m rows.
+     * @return X minimizing the two norm of B - AX, n rows.
+     * @throws InvalidMatrixSizesException when number of rows is not correct.
+     * @throws SingularMatrixException     when A is rank deficient.
+     */
+    public Matrix solve(Matrix B) throws InvalidMatrixSizesException, SingularMatrixException {
+        if (B.getRows() != bounds[bounds.length - 1]) {
+            throw new InvalidMatrixSizesException();
+        }
+        int nx = B.getColumns();
+        double[][] b = B.getData();
+        Matrix stacked = new Matrix(leaves.length * n, nx);
+        double[][] s = stacked.getData();
+        try {
+            IntStream.range(0, leaves.length).parallel().forEach(p -> {
+                try {
+                    double[][] c = leaves[p].multiplyQTranspose(rows(b, bounds[p], bounds[p + 1])).getData();
+                    for (int i = 0; i < n; i++) {
+                        System.arraycopy(c[i], 0, s[p * n + i], 0, nx);
+                    }
+                } catch (InvalidMatrixSizesException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        } catch (IllegalStateException e) {
+            throw new InvalidMatrixSizesException();
+        }
+        return root.solve(stacked);
+    }
+
+    /**
+     * Least squares solution of Ax = b.
+     *
+     * @param b Vector with m elements.
+     * @return x minimizing the two norm of b - Ax.
+     * @throws InvalidMatrixSizesException when size of vector is not correct.
+     * @throws SingularMatrixException     when A is rank deficient.
+     */
+    public Vector solve(Vector b) throws InvalidMatrixSizesException, SingularMatrixException {
+        Matrix B = new Matrix(b.getSize(), 1);
+        for (int i = 0; i < b.getSize(); i++) {
+            B.getData()[i][0] = b.getAt(i);
+        }
+        Matrix X = solve(B);
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = X.getData()[i][0];
+        }
+        return Vector.wrap(x);
+    }
+
+    /**
+     * Returns rows [from, to) as a matrix sharing no data with the source.
+     *
+     * @param a    Rows of the source.
+     * @param from First row.
+     * @param to   Row after the last one.
+     * @return Matrix of the rows.
+     */
+    private static Matrix rows(double[][] a, int from, int to) {
+        Matrix matrix = new Matrix(to - from, a[from].length);
+        for (int i = from; i < to; i++) {
+            System.arraycopy(a[i], 0, matrix.getData()[i - from], 0, a[i].length);
+        }
+        return matrix;
+    }
+}
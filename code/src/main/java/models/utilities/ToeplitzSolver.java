@@ -0,0 +1,374 @@
+package models.utilities;
+
+import models.exceptions.InvalidMatrixSizesException;
+import models.exceptions.SingularMatrixException;
+import models.matrices.Matrix;
+import models.matrices.ToeplitzMatrix;
+import models.monitoring.Operation;
+import models.monitoring.SolverMetrics;
+import models.vectors.Vector;
+
+import java.io.Serializable;
+
+/**
+ * Solver of Toeplitz systems in O(n^2) time and O(n) memory.
+ * Levinson recursion computes the first column x and the last column y of the inverse.
+ * By the Gohberg-Semencul formula the inverse is then a difference of products of triangular Toeplitz matrices
+ * built from x and y, x0 B = L(x) L(J y)^T - L(S y) L(S J x)^T, where J reverses and S shifts a vector down.
+ * Solves apply this formula, entries and the whole inverse follow from the Trench recurrence
+ * x0 (B(i, j) - B(i-1, j-1)) = x(i) y(n-1-j) - y(i-1) x(n-j).
+ * Recursion requires non singular leading principal submatrices, it is stable for symmetric positive definite
+ * and diagonally dominant matrices, other Toeplitz matrices may need pivoted LU decomposition.
+ * Nearly singular leading submatrices are detected from the residuals of x and y, which are refined once,
+ * and from the residual of a probe solve, the formula divides by x0 and cancels when it is small.
+ * The recursion is rejected when either residual stays large.
+ * The recursion is only weakly stable, for ill-conditioned matrices its residuals grow with the condition number
+ * while its error stays comparable with pivoted LU, so the tolerance is scaled by an estimate of the condition number
+ * once it exceeds 1 / sqrt(eps).
+ *
+ * @see ToeplitzMatrix
+ */
+public final class ToeplitzSolver implements Serializable {
+    /**
+     * Relative residual per dimension of the matrix above which the recursion is rejected for well-conditioned matrices.
+     */
+    private static final double RESIDUAL_TOLERANCE = 32 * Math.ulp(1.0);
+
+    /**
+     * Factor of the condition number scaling the tolerance, condition numbers below its inverse keep the tolerance.
+     */
+    private static final double CONDITION_SCALE = Math.sqrt(Math.ulp(1.0));
+
+    /**
+     * Dimension of the matrix.
+     */
+    private final int n;
+
+    /**
+     * First column of the inverse, x.
+     */
+    private final double[] first;
+
+    /**
+     * First row of the inverse, J y.
+     */
+    private final double[] firstRow;
+
+    /**
+     * Last column of the inverse shifted down, S y.
+     */
+    private final double[] shiftedLast;
+
+    /**
+     * Last row of the inverse shifted right, S J x.
+     */
+    private final double[] shiftedLastRow;
+
+    /**
+     * Determinant of the matrix.
+     */
+    private final double determinant;
+
+    /**
+     * Runs Levinson recursion for the matrix.
+     *
+     * @param matrix Toeplitz matrix.
+     * @throws SingularMatrixException when a leading principal submatrix is singular
+     *                                 or so close to singular that the recursion is inaccurate.
+     */
+    public ToeplitzSolver(ToeplitzMatrix matrix) throws SingularMatrixException {
+        long start = System.nanoTime();
+        this.n = matrix.getDimension();
+        double[] c = matrix.getFirstColumn();
+        double[] r = matrix.getFirstRow();
+        if (c[0] == 0.0) {
+            throw new SingularMatrixException();
+        }
+        // f solves T_k f = e_0 and g solves T_k g = e_(k-1) for the leading k x k submatrix
+        double[] f = new double[n];
+        double[] g = new double[n];
+        f[0] = 1.0 / c[0];
+        g[0] = 1.0 / c[0];
+        double det = c[0];
+        for (int k = 1; k < n; k++) {
+            double forwardError = 0.0;
+            double backwardError = 0.0;
+            for (int i = 0; i < k; i++) {
+                forwardError += c[k - i] * f[i];
+                backwardError += r[i + 1] * g[i];
+            }
+            double denominator = 1.0 - forwardError * backwardError;
+            if (denominator == 0.0 || !Double.isFinite(denominator)) {
+                throw new SingularMatrixException();
+            }
+            // Indices descend, so f(i) and g(i-1) are still the values of step k when they are read
+            for (int i = k; i >= 0; i--) {
+                double fi = i < k ? f[i] : 0.0;
+                double gi = i > 0 ? g[i - 1] : 0.0;
+                f[i] = (fi - forwardError * gi) / denominator;
+                g[i] = (gi - backwardError * fi) / denominator;
+            }
+            det /= g[k];
+        }
+        this.first = f;
+        this.firstRow = new double[n];
+        this.shiftedLast = new double[n];
+        this.shiftedLastRow = new double[n];
+        this.determinant = det;
+        setGenerators(g);
+
+        double norm = 0.0;
+        for (int i = 0; i < n; i++) {
+            norm += Math.abs(c[i]) + (i > 0 ? Math.abs(r[i]) : 0.0);
+        }
+        double condition = norm * inverseNorm();
+        if (!Double.isFinite(condition)) {
+            throw new SingularMatrixException();
+        }
+        double tolerance = RESIDUAL_TOLERANCE * n * Math.max(1.0, condition * CONDITION_SCALE);
+        double[] firstUnit = new double[n];
+        double[] lastUnit = new double[n];
+        firstUnit[0] = 1.0;
+        lastUnit[n - 1] = 1.0;
+        double[] forwardResidual = new double[n];
+        double[] backwardResidual = new double[n];
+        try {
+            if (Math.max(residual(matrix, f, firstUnit, norm, forwardResidual),
+                    residual(matrix, g, lastUnit, norm, backwardResidual)) > tolerance) {
+                // One step of iterative refinement, x += T^-1 (e_0 - T x) and y += T^-1 (e_(n-1) - T y)
+                apply(first, firstRow, shiftedLast, shiftedLastRow, forwardResidual, forwardResidual);
+                apply(first, firstRow, shiftedLast, shiftedLastRow, backwardResidual, backwardResidual);
+                for (int i = 0; i < n; i++) {
+                    f[i] += forwardResidual[i];
+                    g[i] += backwardResidual[i];
+                }
+                setGenerators(g);
+                if (Math.max(residual(matrix, f, firstUnit, norm, forwardResidual),
+                        residual(matrix, g, lastUnit, norm, backwardResidual)) > tolerance) {
+                    throw new SingularMatrixException();
+                }
+            }
+            double[] probe = new double[n];
+            for (int i = 0; i < n; i++) {
+                probe[i] = 1.0 / (i + 1);
+            }
+            double[] solution = new double[n];
+            apply(first, firstRow, shiftedLast, shiftedLastRow, probe, solution);
+            if (residual(matrix, solution, probe, norm, forwardResidual) > tolerance) {
+                throw new SingularMatrixException();
+            }
+        } catch (InvalidMatrixSizesException e) {
+            throw new IllegalStateException(e);
+        }
+        SolverMetrics.record(Operation.FACTORIZE, n, System.nanoTime() - start, 19.0 * n * n);
+    }
+
+    /**
+     * Fills rows and shifted columns of the inverse from the first column x and the last column y.
+     *
+     * @param last Last column of the inverse, y.
+     */
+    private void setGenerators(double[] last) {
+        for (int i = 0; i < n; i++) {
+            firstRow[i] = last[n - 1 - i];
+            if (i > 0) {
+                shiftedLast[i] = last[i - 1];
+                shiftedLastRow[i] = first[n - i];
+            }
+        }
+    }
+
+    /**
+     * Computes infinity norm of the inverse in O(n^2) from the Trench recurrence, keeping only two rows.
+     *
+     * @return Largest absolute row sum of the inverse.
+     */
+    private double inverseNorm() {
+        double[] previous = firstRow.clone();
+        double[] current = new double[n];
+        double largest = 0.0;
+        for (double value : previous) {
+            largest += Math.abs(value);
+        }
+        double scale = 1.0 / first[0];
+        for (int i = 1; i < n; i++) {
+            double xi = first[i];
+            double si = shiftedLast[i];
+            current[0] = xi;
+            double sum = Math.abs(xi);
+            for (int j = 1; j < n; j++) {
+                current[j] = previous[j - 1] + (xi * firstRow[j] - si * shiftedLastRow[j]) * scale;
+                sum += Math.abs(current[j]);
+            }
+            largest = Math.max(largest, sum);
+            double[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return largest;
+    }
+
+    /**
+     * Computes residual b - T x.
+     *
+     * @param matrix   Toeplitz matrix.
+     * @param x        Approximate solution of T x = b.
+     * @param b        Right hand side.
+     * @param norm     Bound of the norm of the matrix.
+     * @param residual Array receiving the residual.
+     * @return Relative residual, infinite when it is not finite.
+     */
+    private static double residual(ToeplitzMatrix matrix, double[] x, double[] b, double norm, double[] residual) {
+        matrix.apply(x, residual);
+        double largest = 0.0;
+        double size = 0.0;
+        for (int i = 0; i < residual.length; i++) {
+            residual[i] = b[i] - residual[i];
+            largest = Math.max(largest, Math.abs(residual[i]));
+            size = Math.max(size, Math.abs(x[i]));
+        }
+        double relative = largest / (norm * size);
+        return Double.isNaN(relative) ? Double.POSITIVE_INFINITY : relative;
+    }
+
+    /**
+     * Returns dimension of the matrix.
+     *
+     * @return Number of rows and columns.
+     */
+    public int getDimension() {
+        return n;
+    }
+
+    /**
+     * Returns determinant, product of ratios of determinants of leading principal submatrices.
+     *
+     * @return Determinant of the matrix.
+     */
+    public double det() {
+        return determinant;
+    }
+
+    /**
+     * Solves linear system Tx = b.
+     *
+     * @param b Right hand-side vector.
+     * @return Solution for linear system.
+     * @throws InvalidMatrixSizesException when size of the vector is not correct.
+     */
+    public Vector solve(Vector b) throws InvalidMatrixSizesException {
+        double[] x = new double[n];
+        solve(b.getData(), x);
+        return Vector.wrap(x);
+    }
+
+    /**
+     * Solves linear system Tx = b in O(n^2).
+     *
+     * @param b Right hand-side vector.
+     * @param x Array for the solution, may be the same array as b.
+     * @throws InvalidMatrixSizesException when dimensions of the system are not correct.
+     */
+    public void solve(double[] b, double[] x) throws InvalidMatrixSizesException {
+        long start = System.nanoTime();
+        apply(first, firstRow, shiftedLast, shiftedLastRow, b, x);
+        SolverMetrics.record(Operation.SOLVE, n, System.nanoTime() - start, 4.0 * n * n);
+    }
+
+    /**
+     * Solves transposed linear system T^T x = b in O(n^2).
+     *
+     * @param b Right hand-side vector.
+     * @param x Array for the solution, may be the same array as b.
+     * @throws InvalidMatrixSizesException when dimensions of the system are not correct.
+     */
+    public void solveTranspose(double[] b, double[] x) throws InvalidMatrixSizesException {
+        long start = System.nanoTime();
+        apply(firstRow, first, shiftedLastRow, shiftedLast, b, x);
+        SolverMetrics.record(Operation.SOLVE, n, System.nanoTime() - start, 4.0 * n * n);
+    }
+
+    /**
+     * Computes x = (L(a) L(b)^T - L(c) L(d)^T) v / x0.
+     *
+     * @param a First column of the first product.
+     * @param b First row of the first product.
+     * @param c First column of the second product.
+     * @param d First row of the second product.
+     * @param v Vector with n elements.
+     * @param x Array for the result with n elements.
+     * @throws InvalidMatrixSizesException when sizes of the arrays are not correct.
+     */
+    private void apply(double[] a, double[] b, double[] c, double[] d, double[] v, double[] x)
+            throws InvalidMatrixSizesException {
+        if (v.length != n || x.length != n) {
+            throw new InvalidMatrixSizesException();
+        }
+        // u = L(b)^T v, w = L(d)^T v
+        double[] u = new double[n];
+        double[] w = new double[n];
+        for (int i = 0; i < n; i++) {
+            double su = 0.0;
+            double sw = 0.0;
+            for (int k = i; k < n; k++) {
+                su += b[k - i] * v[k];
+                sw += d[k - i] * v[k];
+            }
+            u[i] = su;
+            w[i] = sw;
+        }
+        // x = (L(a) u - L(c) w) / x0
+        double scale = 1.0 / first[0];
+        for (int i = 0; i < n; i++) {
+            double sum = 0.0;
+            for (int k = 0; k <= i; k++) {
+                sum += a[i - k] * u[k] - c[i - k] * w[k];
+            }
+            x[i] = sum * scale;
+        }
+    }
+
+    /**
+     * Returns entry of the inverse in O(n) from the Trench recurrence.
+     *
+     * @param row    Index of row.
+     * @param column Index of column.
+     * @return Entry of the inverse.
+     */
+    public double inverseAt(int row, int column) {
+        if (row < 0 || column < 0 || row >= n || column >= n) {
+            throw new IndexOutOfBoundsException();
+        }
+        double sum = 0.0;
+        for (int k = Math.min(row, column); k >= 0; k--) {
+            sum += first[row - k] * firstRow[column - k] - shiftedLast[row - k] * shiftedLastRow[column - k];
+        }
+        return sum / first[0];
+    }
+
+    /**
+     * Calculates the inverse of matrix in O(n^2) from the Trench recurrence.
+     *
+     * @return Inverse of matrix.
+     */
+    public Matrix inverse() {
+        long start = System.nanoTime();
+        double[][] b = new double[n][n];
+        double scale = 1.0 / first[0];
+        for (int j = 0; j < n; j++) {
+            b[0][j] = firstRow[j];
+        }
+        for (int i = 1; i < n; i++) {
+            double[] previous = b[i - 1];
+            double[] current = b[i];
+            current[0] = first[i];
+            double xi = first[i];
+            double si = shiftedLast[i];
+            for (int j = 1; j < n; j++) {
+                current[j] = previous[j - 1] + (xi * firstRow[j] - si * shiftedLastRow[j]) * scale;
+            }
+        }
+        SolverMetrics.record(Operation.INVERSE, n, System.nanoTime() - start, 3.0 * n * n);
+        return Matrix.wrap(b);
+    }
+}
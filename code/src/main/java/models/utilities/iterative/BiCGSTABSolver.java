@@ -0,0 +1,111 @@
+package models.utilities.iterative;
+
+import models.matrices.LinearOperator;
+
+/**
+ * Right preconditioned stabilized bi-conjugate gradient method for general matrices.
+ *
+ * @see IterativeSolver
+ */
+public final class BiCGSTABSolver extends IterativeSolver {
+    /**
+     * Constructor with default tolerance and iteration cap.
+     */
+    public BiCGSTABSolver() {
+        this(DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS);
+    }
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param tolerance     Relative residual tolerance.
+     * @param maxIterations Maximal number of iterations.
+     */
+    public BiCGSTABSolver(double tolerance, int maxIterations) {
+        super(tolerance, maxIterations);
+    }
+
+    /**
+     * Returns name of the method.
+     *
+     * @return Name of the method.
+     */
+    @Override
+    public String getMethod() {
+        return "BiCGSTAB";
+    }
+
+    /**
+     * Performs BiCGSTAB iterations, stops without convergence on breakdown.
+     *
+     * @param A              System operator.
+     * @param b              Right hand side.
+     * @param x              Initial guess, overwritten with the solution.
+     * @param preconditioner Preconditioner of the system.
+     * @param history        History receiving relative residual after every iteration.
+     * @return True when tolerance was reached.
+     */
+    @Override
+    protected boolean iterate(LinearOperator A, double[] b, double[] x, Preconditioner preconditioner, ResidualHistory history) {
+        int n = b.length;
+        double[] r = new double[n];
+        double[] shadow = new double[n];
+        double[] p = new double[n];
+        double[] v = new double[n];
+        double[] pHat = new double[n];
+        double[] s = new double[n];
+        double[] sHat = new double[n];
+        double[] t = new double[n];
+
+        residual(A, b, x, r);
+        if (history.add(norm(r))) {
+            return true;
+        }
+        System.arraycopy(r, 0, shadow, 0, n);
+        double bNorm = norm(b);
+        double rho = 1.0;
+        double alpha = 1.0;
+        double omega = 1.0;
+
+        while (history.canIterate()) {
+            double rhoNext = dot(shadow, r);
+            if (rhoNext == 0.0 || omega == 0.0) {
+                return false;
+            }
+            double beta = (rhoNext / rho) * (alpha / omega);
+            for (int i = 0; i < n; i++) {
+                p[i] = r[i] + beta * (p[i] - omega * v[i]);
+            }
+            preconditioner.apply(p, pHat);
+            multiply(A, pHat, v);
+            double shadowV = dot(shadow, v);
+            if (shadowV == 0.0) {
+                return false;
+            }
+            alpha = rhoNext / shadowV;
+            for (int i = 0; i < n; i++) {
+                s[i] = r[i] - alpha * v[i];
+            }
+            double sNorm = norm(s);
+            if (sNorm <= tolerance * bNorm) {
+                for (int i = 0; i < n; i++) {
+                    x[i] += alpha * pHat[i];
+                }
+                return history.add(sNorm);
+            }
+            preconditioner.apply(s, sHat);
+            multiply(A, sHat, t);
+            double tt = dot(t, t);
+            omega = tt == 0.0 ? 0.0 : dot(t, s) / tt;
+            for (int i = 0; i < n; i++) {
+                x[i] += alpha * pHat[i] + omega * sHat[i];
+                r[i] = s[i] - omega * t[i];
+            }
+            if (history.add(norm(r))) {
+                return true;
+            }
+            rho = rhoNext;
+        }
+        return false;
+    }
+}
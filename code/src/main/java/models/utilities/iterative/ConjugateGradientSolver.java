@@ -0,0 +1,89 @@
+package models.utilities.iterative;
+
+import models.matrices.LinearOperator;
+
+/**
+ * Preconditioned conjugate gradient method for symmetric positive definite matrices.
+ * Stops without convergence when a direction of non-positive curvature shows the matrix is not positive definite.
+ *
+ * @see IterativeSolver
+ */
+public final class ConjugateGradientSolver extends IterativeSolver {
+    /**
+     * Constructor with default tolerance and iteration cap.
+     */
+    public ConjugateGradientSolver() {
+        this(DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS);
+    }
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param tolerance     Relative residual tolerance.
+     * @param maxIterations Maximal number of iterations.
+     */
+    public ConjugateGradientSolver(double tolerance, int maxIterations) {
+        super(tolerance, maxIterations);
+    }
+
+    /**
+     * Returns name of the method.
+     *
+     * @return Name of the method.
+     */
+    @Override
+    public String getMethod() {
+        return "CG";
+    }
+
+    /**
+     * Performs conjugate gradient iterations.
+     *
+     * @param A              System operator.
+     * @param b              Right hand side.
+     * @param x              Initial guess, overwritten with the solution.
+     * @param preconditioner Preconditioner of the system.
+     * @param history        History receiving relative residual after every iteration.
+     * @return True when tolerance was reached.
+     */
+    @Override
+    protected boolean iterate(LinearOperator A, double[] b, double[] x, Preconditioner preconditioner, ResidualHistory history) {
+        int n = b.length;
+        double[] r = new double[n];
+        double[] z = new double[n];
+        double[] p = new double[n];
+        double[] q = new double[n];
+
+        residual(A, b, x, r);
+        if (history.add(norm(r))) {
+            return true;
+        }
+        preconditioner.apply(r, z);
+        System.arraycopy(z, 0, p, 0, n);
+        double rz = dot(r, z);
+
+        while (history.canIterate()) {
+            multiply(A, p, q);
+            double curvature = dot(p, q);
+            if (!(curvature > 0.0)) {
+                return false;
+            }
+            double alpha = rz / curvature;
+            for (int i = 0; i < n; i++) {
+                x[i] += alpha * p[i];
+                r[i] -= alpha * q[i];
+            }
+            if (history.add(norm(r))) {
+                return true;
+            }
+            preconditioner.apply(r, z);
+            double rzNext = dot(r, z);
+            double beta = rzNext / rz;
+            for (int i = 0; i < n; i++) {
+                p[i] = z[i] + beta * p[i];
+            }
+            rz = rzNext;
+        }
+        return false;
+    }
+}
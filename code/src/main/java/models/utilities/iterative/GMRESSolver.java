@@ -0,0 +1,154 @@
+package models.utilities.iterative;
+
+import models.matrices.LinearOperator;
+
+import java.util.Arrays;
+
+/**
+ * Restarted generalized minimal residual method GMRES(m) with right preconditioning for general matrices.
+ * Arnoldi basis is orthogonalized with modified Gram-Schmidt, least squares problem is updated with Givens rotations,
+ * so the residual norm of every iteration is known without forming the solution.
+ *
+ * @see IterativeSolver
+ */
+public final class GMRESSolver extends IterativeSolver {
+    /**
+     * Default number of iterations between restarts.
+     */
+    public static final int DEFAULT_RESTART = 30;
+
+    /**
+     * Number of iterations between restarts.
+     */
+    private final int restart;
+
+    /**
+     * Constructor with default tolerance, iteration cap and restart.
+     */
+    public GMRESSolver() {
+        this(DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS, DEFAULT_RESTART);
+    }
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param tolerance     Relative residual tolerance.
+     * @param maxIterations Maximal number of iterations.
+     * @param restart       Number of iterations between restarts, dimension of the Krylov subspace.
+     */
+    public GMRESSolver(double tolerance, int maxIterations, int restart) {
+        super(tolerance, maxIterations);
+        if (restart < 1) {
+            throw new IllegalArgumentException("Restart must be positive.");
+        }
+        this.restart = restart;
+    }
+
+    /**
+     * Returns name of the method.
+     *
+     * @return Name of the method.
+     */
+    @Override
+    public String getMethod() {
+        return "GMRES(" + restart + ")";
+    }
+
+    /**
+     * Performs restarted GMRES cycles.
+     *
+     * @param A              System operator.
+     * @param b              Right hand side.
+     * @param x              Initial guess, overwritten with the solution.
+     * @param preconditioner Preconditioner of the system.
+     * @param history        History receiving relative residual after every iteration.
+     * @return True when tolerance was reached.
+     */
+    @Override
+    protected boolean iterate(LinearOperator A, double[] b, double[] x, Preconditioner preconditioner, ResidualHistory history) {
+        int n = b.length;
+        int m = Math.min(restart, n);
+        double[][] V = new double[m + 1][n];
+        double[][] Z = new double[m][n];
+        double[][] H = new double[m + 1][m];
+        double[] cs = new double[m];
+        double[] sn = new double[m];
+        double[] g = new double[m + 1];
+        double[] w = new double[n];
+
+        residual(A, b, x, V[0]);
+        double beta = norm(V[0]);
+        if (history.add(beta)) {
+            return true;
+        }
+        while (true) {
+            for (int i = 0; i < n; i++) {
+                V[0][i] /= beta;
+            }
+            Arrays.fill(g, 0.0);
+            g[0] = beta;
+
+            int k = 0;
+            boolean converged = false;
+            boolean breakdown = false;
+            while (k < m && history.canIterate() && !converged) {
+                preconditioner.apply(V[k], Z[k]);
+                multiply(A, Z[k], w);
+                for (int i = 0; i <= k; i++) {
+                    double h = dot(w, V[i]);
+                    H[i][k] = h;
+                    for (int j = 0; j < n; j++) {
+                        w[j] -= h * V[i][j];
+                    }
+                }
+                double h = norm(w);
+                H[k + 1][k] = h;
+                if (h != 0.0) {
+                    for (int j = 0; j < n; j++) {
+                        V[k + 1][j] = w[j] / h;
+                    }
+                }
+
+                for (int i = 0; i < k; i++) {
+                    double upper = H[i][k];
+                    H[i][k] = cs[i] * upper + sn[i] * H[i + 1][k];
+                    H[i + 1][k] = -sn[i] * upper + cs[i] * H[i + 1][k];
+                }
+                double radius = Math.hypot(H[k][k], H[k + 1][k]);
+                if (radius == 0.0) {
+                    breakdown = true;
+                    break;
+                }
+                cs[k] = H[k][k] / radius;
+                sn[k] = H[k + 1][k] / radius;
+                H[k][k] = radius;
+                H[k + 1][k] = 0.0;
+                g[k + 1] = -sn[k] * g[k];
+                g[k] = cs[k] * g[k];
+
+                converged = history.add(Math.abs(g[k + 1]));
+                k++;
+            }
+
+            double[] y = new double[k];
+            for (int i = k - 1; i >= 0; i--) {
+                double s = g[i];
+                for (int j = i + 1; j < k; j++) {
+                    s -= H[i][j] * y[j];
+                }
+                y[i] = s / H[i][i];
+            }
+            for (int i = 0; i < k; i++) {
+                for (int j = 0; j < n; j++) {
+                    x[j] += y[i] * Z[i][j];
+                }
+            }
+
+            if (converged || breakdown || !history.canIterate()) {
+                return converged;
+            }
+            residual(A, b, x, V[0]);
+            beta = norm(V[0]);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package models.utilities.iterative;
+
+import models.exceptions.NonSquareMatrixException;
+import models.exceptions.SingularMatrixException;
+import models.matrices.Matrix;
+
+import java.util.Arrays;
+
+/**
+ * Incomplete LU preconditioner with zero fill-in.
+ * L and U keep the sparsity pattern of nonzero elements of the system matrix,
+ * factors are stored row by row in compressed sparse row format.
+ *
+ * @see Preconditioner
+ */
+public final class ILU0Preconditioner implements Preconditioner {
+    /**
+     * Offsets of rows in columns and values, row i occupies [rowStart[i], rowStart[i + 1]).
+     */
+    private final int[] rowStart;
+
+    /**
+     * Column indices of stored elements, increasing within a row.
+     */
+    private final int[] columns;
+
+    /**
+     * Multipliers of L below the diagonal, elements of U on and above the diagonal.
+     */
+    private final double[] values;
+
+    /**
+     * Positions of diagonal elements in values.
+     */
+    private final int[] diagonal;
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param A System matrix.
+     * @throws NonSquareMatrixException when matrix is not square.
+     * @throws SingularMatrixException  when zero pivot occurs.
+     */
+    public ILU0Preconditioner(Matrix A) throws NonSquareMatrixException, SingularMatrixException {
+        if (!A.isSquare()) {
+            throw new NonSquareMatrixException();
+        }
+        int n = A.getRows();
+        rowStart = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            int count = 0;
+            for (int j = 0; j < n; j++) {
+                if (A.getAt(i, j) != 0.0 || i == j) {
+                    count++;
+                }
+            }
+            rowStart[i + 1] = rowStart[i] + count;
+        }
+        columns = new int[rowStart[n]];
+        values = new double[rowStart[n]];
+        diagonal = new int[n];
+        for (int i = 0, p = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                double value = A.getAt(i, j);
+                if (value != 0.0 || i == j) {
+                    if (i == j) {
+                        diagonal[i] = p;
+                    }
+                    columns[p] = j;
+                    values[p++] = value;
+                }
+            }
+        }
+        factorize(n);
+    }
+
+    /**
+     * Performs IKJ variant of Gaussian elimination restricted to the pattern.
+     *
+     * @param n Dimension of the matrix.
+     * @throws SingularMatrixException when zero pivot occurs.
+     */
+    private void factorize(int n) throws SingularMatrixException {
+        int[] position = new int[n];
+        Arrays.fill(position, -1);
+        for (int i = 0; i < n; i++) {
+            for (int p = rowStart[i]; p < rowStart[i + 1]; p++) {
+                position[columns[p]] = p;
+            }
+            for (int p = rowStart[i]; p < diagonal[i]; p++) {
+                int k = columns[p];
+                double multiplier = values[p] / values[diagonal[k]];
+                values[p] = multiplier;
+                for (int q = diagonal[k] + 1; q < rowStart[k + 1]; q++) {
+                    int target = position[columns[q]];
+                    if (target >= 0) {
+                        values[target] -= multiplier * values[q];
+                    }
+                }
+            }
+            if (values[diagonal[i]] == 0.0) {
+                throw new SingularMatrixException();
+            }
+            for (int p = rowStart[i]; p < rowStart[i + 1]; p++) {
+                position[columns[p]] = -1;
+            }
+        }
+    }
+
+    /**
+     * Solves LUz = r.
+     *
+     * @param r Residual.
+     * @param z Array for the preconditioned residual.
+     */
+    @Override
+    public void apply(double[] r, double[] z) {
+        int n = r.length;
+        for (int i = 0; i < n; i++) {
+            double s = r[i];
+            for (int p = rowStart[i]; p < diagonal[i]; p++) {
+                s -= values[p] * z[columns[p]];
+            }
+            z[i] = s;
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            double s = z[i];
+            for (int p = diagonal[i] + 1; p < rowStart[i + 1]; p++) {
+                s -= values[p] * z[columns[p]];
+            }
+            z[i] = s / values[diagonal[i]];
+        }
+    }
+
+    /**
+     * Returns number of stored elements of both factors.
+     *
+     * @return Number of nonzero elements.
+     */
+    public int getNonZeros() {
+        return values.length;
+    }
+
+    /**
+     * Returns name of the preconditioner.
+     *
+     * @return Name of the preconditioner.
+     */
+    @Override
+    public String getName() {
+        return "ILU(0)";
+    }
+}
@@ -0,0 +1,124 @@
+package models.utilities.iterative;
+
+import models.vectors.Vector;
+
+import java.io.Serializable;
+
+/**
+ * Outcome of an iterative solver: approximate solution and convergence history.
+ *
+ * @see IterativeSolver
+ */
+public final class IterativeSolution implements Serializable {
+    /**
+     * Name of the method.
+     */
+    private final String method;
+
+    /**
+     * Name of the preconditioner.
+     */
+    private final String preconditioner;
+
+    /**
+     * Approximate solution.
+     */
+    private final Vector solution;
+
+    /**
+     * Number of performed iterations.
+     */
+    private final int iterations;
+
+    /**
+     * True when the tolerance was reached.
+     */
+    private final boolean converged;
+
+    /**
+     * Relative residual norms ||b - Ax|| / ||b||, the first one for the initial guess.
+     */
+    private final double[] residualHistory;
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param method          Name of the method.
+     * @param preconditioner  Name of the preconditioner.
+     * @param solution        Approximate solution.
+     * @param iterations      Number of performed iterations.
+     * @param converged       True when the tolerance was reached.
+     * @param residualHistory Relative residual norms.
+     */
+    IterativeSolution(String method, String preconditioner, Vector solution, int iterations, boolean converged, double[] residualHistory) {
+        this.method = method;
+        this.preconditioner = preconditioner;
+        this.solution = solution;
+        this.iterations = iterations;
+        this.converged = converged;
+        this.residualHistory = residualHistory;
+    }
+
+    /**
+     * Returns name of the method.
+     *
+     * @return Name of the method.
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Returns name of the preconditioner.
+     *
+     * @return Name of the preconditioner.
+     */
+    public String getPreconditioner() {
+        return preconditioner;
+    }
+
+    /**
+     * Returns approximate solution.
+     *
+     * @return Solution vector.
+     */
+    public Vector getSolution() {
+        return solution;
+    }
+
+    /**
+     * Returns number of performed iterations.
+     *
+     * @return Number of iterations.
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Checks if the tolerance was reached.
+     *
+     * @return True when solver converged.
+     */
+    public boolean isConverged() {
+        return converged;
+    }
+
+    /**
+     * Returns relative residual norms, the first one for the initial guess.
+     *
+     * @return Copy of residual history.
+     */
+    public double[] getResidualHistory() {
+        return residualHistory.clone();
+    }
+
+    /**
+     * Returns relative residual norm of the solution.
+     *
+     * @return Last relative residual norm.
+     */
+    public double getRelativeResidual() {
+        return residualHistory[residualHistory.length - 1];
+    }
+}
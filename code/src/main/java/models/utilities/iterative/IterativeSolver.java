@@ -0,0 +1,225 @@
+package models.utilities.iterative;
+
+import models.exceptions.InvalidMatrixSizesException;
+import models.exceptions.NonSquareMatrixException;
+import models.matrices.LinearOperator;
+import models.matrices.Matrix;
+import models.monitoring.Operation;
+import models.monitoring.SolverMetrics;
+import models.vectors.Vector;
+
+import java.util.Arrays;
+
+/**
+ * Base of Krylov subspace solvers of Ax = b.
+ * Iterations start from zero vector and stop when relative residual ||b - Ax|| / ||b||
+ * drops to the tolerance or the iteration cap is reached.
+ *
+ * @see IterativeSolution
+ * @see Preconditioner
+ */
+public abstract class IterativeSolver {
+    /**
+     * Default relative residual tolerance.
+     */
+    public static final double DEFAULT_TOLERANCE = 1e-10;
+
+    /**
+     * Default maximal number of iterations.
+     */
+    public static final int DEFAULT_MAX_ITERATIONS = 1000;
+
+    /**
+     * Relative residual tolerance.
+     */
+    protected final double tolerance;
+
+    /**
+     * Maximal number of iterations.
+     */
+    protected final int maxIterations;
+
+    /**
+     * Number of matrix-vector products of the current solve, used for flop count.
+     */
+    private int products;
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param tolerance     Relative residual tolerance.
+     * @param maxIterations Maximal number of iterations.
+     */
+    protected IterativeSolver(double tolerance, int maxIterations) {
+        if (!(tolerance > 0.0) || maxIterations < 1) {
+            throw new IllegalArgumentException("Tolerance and iteration cap must be positive.");
+        }
+        this.tolerance = tolerance;
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Solves Ax = b.
+     * Solver instances are not thread safe.
+     *
+     * Only actions of the operator are used, so memory of the solver is linear in the dimension.
+     *
+     * @param A              Square system operator, dense matrices included.
+     * @param b              Right hand side.
+     * @param preconditioner Preconditioner of the system.
+     * @return Solution with convergence history.
+     * @throws NonSquareMatrixException    when operator is not square.
+     * @throws InvalidMatrixSizesException when size of the vector is not equal to dimension of the operator.
+     */
+    public IterativeSolution solve(LinearOperator A, Vector b, Preconditioner preconditioner)
+            throws NonSquareMatrixException, InvalidMatrixSizesException {
+        if (A.getRows() != A.getColumns()) {
+            throw new NonSquareMatrixException();
+        }
+        int n = A.getRows();
+        if (b.getSize() != n) {
+            throw new InvalidMatrixSizesException();
+        }
+        long start = System.nanoTime();
+        products = 0;
+        double[] x = new double[n];
+        ResidualHistory history = new ResidualHistory(norm(b.getData()));
+        boolean converged = history.bNorm == 0.0 ? history.add(0.0) : iterate(A, b.getData(), x, preconditioner, history);
+        double productFlops = A instanceof Matrix ? 2.0 * n * n : 0.0;
+        SolverMetrics.record(Operation.SOLVE, n, System.nanoTime() - start, productFlops * products);
+        return new IterativeSolution(getMethod(), preconditioner.getName(), Vector.wrap(x), history.size - 1, converged, history.toArray());
+    }
+
+    /**
+     * Returns name of the method.
+     *
+     * @return Name of the method.
+     */
+    public abstract String getMethod();
+
+    /**
+     * Performs iterations of the method.
+     *
+     * @param A              System operator.
+     * @param b              Right hand side.
+     * @param x              Initial guess, overwritten with the solution.
+     * @param preconditioner Preconditioner of the system.
+     * @param history        History receiving relative residual after every iteration.
+     * @return True when tolerance was reached.
+     */
+    protected abstract boolean iterate(LinearOperator A, double[] b, double[] x, Preconditioner preconditioner, ResidualHistory history);
+
+    /**
+     * Computes y = Ax and counts the product.
+     *
+     * @param A Operator.
+     * @param x Vector.
+     * @param y Array for the product.
+     */
+    protected final void multiply(LinearOperator A, double[] x, double[] y) {
+        products++;
+        A.apply(x, y);
+    }
+
+    /**
+     * Computes residual r = b - Ax.
+     *
+     * @param A Operator.
+     * @param b Right hand side.
+     * @param x Current solution.
+     * @param r Array for the residual.
+     */
+    protected final void residual(LinearOperator A, double[] b, double[] x, double[] r) {
+        multiply(A, x, r);
+        for (int i = 0; i < r.length; i++) {
+            r[i] = b[i] - r[i];
+        }
+    }
+
+    /**
+     * Computes dot product.
+     *
+     * @param x First vector.
+     * @param y Second vector.
+     * @return Dot product of the vectors.
+     */
+    protected static double dot(double[] x, double[] y) {
+        double sum = 0.0;
+        for (int i = 0; i < x.length; i++) {
+            sum += x[i] * y[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Computes Euclidean norm.
+     *
+     * @param x Vector.
+     * @return Norm of the vector.
+     */
+    protected static double norm(double[] x) {
+        return Math.sqrt(dot(x, x));
+    }
+
+    /**
+     * Relative residual norms recorded during iterations.
+     */
+    protected final class ResidualHistory {
+        /**
+         * Norm of the right hand side.
+         */
+        private final double bNorm;
+
+        /**
+         * Recorded relative residuals.
+         */
+        private double[] values = new double[16];
+
+        /**
+         * Number of recorded residuals.
+         */
+        private int size;
+
+        /**
+         * Parametrized constructor.
+         *
+         * @param bNorm Norm of the right hand side.
+         */
+        private ResidualHistory(double bNorm) {
+            this.bNorm = bNorm;
+        }
+
+        /**
+         * Records residual norm.
+         *
+         * @param residualNorm Absolute norm of the residual.
+         * @return True when relative residual reached the tolerance.
+         */
+        public boolean add(double residualNorm) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            double relative = bNorm == 0.0 ? residualNorm : residualNorm / bNorm;
+            values[size++] = relative;
+            return relative <= tolerance;
+        }
+
+        /**
+         * Checks if another iteration may be performed.
+         *
+         * @return True when iteration cap is not reached.
+         */
+        public boolean canIterate() {
+            return size <= maxIterations;
+        }
+
+        /**
+         * Returns recorded residuals.
+         *
+         * @return Relative residual norms.
+         */
+        private double[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
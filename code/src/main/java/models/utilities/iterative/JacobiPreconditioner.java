@@ -0,0 +1,67 @@
+package models.utilities.iterative;
+
+import models.exceptions.NonSquareMatrixException;
+import models.exceptions.SingularMatrixException;
+import models.matrices.LinearOperator;
+
+/**
+ * Jacobi preconditioner, M is the diagonal of the system matrix.
+ *
+ * @see Preconditioner
+ */
+public final class JacobiPreconditioner implements Preconditioner {
+    /**
+     * Reciprocals of diagonal elements.
+     */
+    private final double[] inverseDiagonal;
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param A System operator providing its diagonal.
+     * @throws NonSquareMatrixException when operator is not square.
+     * @throws SingularMatrixException  when diagonal contains zero.
+     * @throws IllegalArgumentException when operator does not provide its diagonal.
+     */
+    public JacobiPreconditioner(LinearOperator A) throws NonSquareMatrixException, SingularMatrixException {
+        if (A.getRows() != A.getColumns()) {
+            throw new NonSquareMatrixException();
+        }
+        double[] diagonal = A.getDiagonal();
+        if (diagonal == null) {
+            throw new IllegalArgumentException("Operator does not provide its diagonal.");
+        }
+        int n = A.getRows();
+        inverseDiagonal = new double[n];
+        for (int i = 0; i < n; i++) {
+            double d = diagonal[i];
+            if (d == 0.0) {
+                throw new SingularMatrixException();
+            }
+            inverseDiagonal[i] = 1.0 / d;
+        }
+    }
+
+    /**
+     * Solves Mz = r.
+     *
+     * @param r Residual.
+     * @param z Array for the preconditioned residual.
+     */
+    @Override
+    public void apply(double[] r, double[] z) {
+        for (int i = 0; i < r.length; i++) {
+            z[i] = r[i] * inverseDiagonal[i];
+        }
+    }
+
+    /**
+     * Returns name of the preconditioner.
+     *
+     * @return Name of the preconditioner.
+     */
+    @Override
+    public String getName() {
+        return "Jacobi";
+    }
+}
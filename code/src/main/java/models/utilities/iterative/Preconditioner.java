@@ -0,0 +1,38 @@
+package models.utilities.iterative;
+
+/**
+ * Preconditioner M of iterative solvers, approximates inverse of the system matrix.
+ *
+ * @see IterativeSolver
+ */
+public interface Preconditioner {
+    /**
+     * Preconditioner which does not change the residual.
+     */
+    Preconditioner IDENTITY = new Preconditioner() {
+        @Override
+        public void apply(double[] r, double[] z) {
+            System.arraycopy(r, 0, z, 0, r.length);
+        }
+
+        @Override
+        public String getName() {
+            return "none";
+        }
+    };
+
+    /**
+     * Solves Mz = r.
+     *
+     * @param r Residual.
+     * @param z Array for the preconditioned residual, different from r.
+     */
+    void apply(double[] r, double[] z);
+
+    /**
+     * Returns name of the preconditioner.
+     *
+     * @return Name of the preconditioner.
+     */
+    String getName();
+}
@@ -0,0 +1,98 @@
+package models.utilities.iterative;
+
+import models.exceptions.NonSquareMatrixException;
+import models.exceptions.SingularMatrixException;
+import models.matrices.Matrix;
+
+/**
+ * Symmetric successive over-relaxation preconditioner
+ * M = omega / (2 - omega) (D / omega + L) (D / omega)^-1 (D / omega + U).
+ *
+ * @see Preconditioner
+ */
+public final class SSORPreconditioner implements Preconditioner {
+    /**
+     * System matrix, strictly lower and upper parts are used.
+     */
+    private final double[][] a;
+
+    /**
+     * Diagonal divided by relaxation factor.
+     */
+    private final double[] scaledDiagonal;
+
+    /**
+     * Factor (2 - omega) / omega applied to the result.
+     */
+    private final double scale;
+
+    /**
+     * Parametrized constructor.
+     *
+     * @param A     System matrix.
+     * @param omega Relaxation factor from the open interval (0, 2).
+     * @throws NonSquareMatrixException when matrix is not square.
+     * @throws SingularMatrixException  when diagonal contains zero.
+     */
+    public SSORPreconditioner(Matrix A, double omega) throws NonSquareMatrixException, SingularMatrixException {
+        if (!A.isSquare()) {
+            throw new NonSquareMatrixException();
+        }
+        if (!(omega > 0.0 && omega < 2.0)) {
+            throw new IllegalArgumentException("Relaxation factor must be in (0, 2).");
+        }
+        int n = A.getRows();
+        a = A.getDataCopy();
+        scaledDiagonal = new double[n];
+        for (int i = 0; i < n; i++) {
+            if (a[i][i] == 0.0) {
+                throw new SingularMatrixException();
+            }
+            scaledDiagonal[i] = a[i][i] / omega;
+        }
+        scale = (2.0 - omega) / omega;
+    }
+
+    /**
+     * Solves Mz = r with a forward and a backward sweep.
+     *
+     * @param r Residual.
+     * @param z Array for the preconditioned residual.
+     */
+    @Override
+    public void apply(double[] r, double[] z) {
+        int n = r.length;
+        for (int i = 0; i < n; i++) {
+            double[] row = a[i];
+            double s = r[i];
+            for (int k = 0; k < i; k++) {
+                s -= row[k] * z[k];
+            }
+            z[i] = s / scaledDiagonal[i];
+        }
+        for (int i = 0; i < n; i++) {
+            z[i] *= scaledDiagonal[i];
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            double[] row = a[i];
+            double s = z[i];
+            for (int k = i + 1; k < n; k++) {
+                s -= row[k] * z[k];
+            }
+            z[i] = s / scaledDiagonal[i];
+        }
+        for (int i = 0; i < n; i++) {
+            z[i] *= scale;
+        }
+    }
+
+    /**
+     * Returns name of the preconditioner.
+     *
+     * @return Name of the preconditioner.
+     */
+    @Override
+    public String getName() {
+        return "SSOR";
+    }
+}
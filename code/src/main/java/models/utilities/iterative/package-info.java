@@ -0,0 +1,4 @@
+/**
+ * Contains Krylov subspace solvers and preconditioners for large linear systems.
+ */
+package models.utilities.iterative;
@@ -1,10 +1,12 @@
 package models.vectors;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
 /**
  * A Vector class for data storage of a 1D array of doubles.
  * Implementation uses array of doubles to store data.
+ * Copies never share storage, {@link #wrap(double[])} takes ownership of an array without copying it.
  * Created by Mateusz Gasior on 24-Feb-17.
  *
  * @author Mateusz Gasior
@@ -29,23 +31,16 @@ public class Vector implements Serializable {
     public Vector(int size) {
         this.size = size;
         this.data = new double[size];
-        for (int i = 0; i < size; i++) {
-            this.data[i] = 0;
-        }
     }
 
     /**
      * Copy constructor.
-     * Copies all elements from given Vector.
+     * Copies all elements of given Vector.
      *
      * @param toCopy Vector with elements to be copied.
      */
     public Vector(Vector toCopy) {
-        this.size = toCopy.getSize();
-        this.data = new double[size];
-        for (int i = 0; i < size; i++) {
-            this.data[i] = toCopy.data[i];
-        }
+        this(toCopy.data);
     }
 
     /**
@@ -56,10 +51,29 @@ public class Vector implements Serializable {
      */
     public Vector(double[] vectorData) {
         this.size = vectorData.length;
-        this.data = new double[size];
-        for (int i = 0; i < size; i++) {
-            this.data[i] = vectorData[i];
-        }
+        this.data = Arrays.copyOf(vectorData, size);
+    }
+
+    /**
+     * Constructor taking ownership of the given array.
+     *
+     * @param vectorData Array of elements for Vector.
+     * @param size       Number of elements in the array.
+     */
+    private Vector(double[] vectorData, int size) {
+        this.size = size;
+        this.data = vectorData;
+    }
+
+    /**
+     * Creates vector backed by the given array without copying it.
+     * Caller transfers ownership of the array and must not modify it afterwards.
+     *
+     * @param vectorData Array of elements for Vector.
+     * @return Vector backed by the array.
+     */
+    public static Vector wrap(double[] vectorData) {
+        return new Vector(vectorData, vectorData.length);
     }
 
     /**
@@ -119,7 +133,7 @@ public class Vector implements Serializable {
     }
 
     /**
-     * Return vector array of elements
+     * Return vector array of elements.
      *
      * @return Elements of vector
      */
@@ -0,0 +1,124 @@
+package models.vectors;
+
+import models.exceptions.InvalidMatrixSizesException;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Batch of many vectors of the same size stored in interleaved layout.
+ * Element i of vector b is stored at index i * count + b.
+ *
+ * @see models.utilities.BatchedLUDecomposition
+ */
+public final class VectorBatch implements Serializable {
+    /**
+     * Size of every vector.
+     */
+    private final int size;
+
+    /**
+     * Number of vectors.
+     */
+    private final int count;
+
+    /**
+     * Interleaved elements of all vectors.
+     */
+    private final double[] data;
+
+    /**
+     * Parametrized constructor. Allocates batch of zero vectors.
+     *
+     * @param size  Size of every vector.
+     * @param count Number of vectors.
+     */
+    public VectorBatch(int size, int count) {
+        this.size = size;
+        this.count = count;
+        this.data = new double[size * count];
+    }
+
+    /**
+     * Creates batch from separate vectors.
+     *
+     * @param vectors Vectors of the same size.
+     * @return Batch with copies of the vectors.
+     * @throws InvalidMatrixSizesException when vectors have different sizes.
+     */
+    public static VectorBatch of(List<Vector> vectors) throws InvalidMatrixSizesException {
+        int size = vectors.isEmpty() ? 0 : vectors.get(0).getSize();
+        VectorBatch batch = new VectorBatch(size, vectors.size());
+        for (int b = 0; b < vectors.size(); b++) {
+            Vector vector = vectors.get(b);
+            if (vector.getSize() != size) {
+                throw new InvalidMatrixSizesException();
+            }
+            for (int i = 0; i < size; i++)
+                batch.data[i * batch.count + b] = vector.getAt(i);
+        }
+        return batch;
+    }
+
+    /**
+     * Returns size of every vector.
+     *
+     * @return Size of the vectors.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns number of vectors.
+     *
+     * @return Number of vectors.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns element of a vector.
+     *
+     * @param index Index of the vector.
+     * @param i     Index of the element.
+     * @return Element of the vector.
+     */
+    public double getAt(int index, int i) {
+        return data[i * count + index];
+    }
+
+    /**
+     * Sets element of a vector.
+     *
+     * @param index Index of the vector.
+     * @param i     Index of the element.
+     * @param value Value to be stored.
+     */
+    public void setAt(int index, int i, double value) {
+        data[i * count + index] = value;
+    }
+
+    /**
+     * Copies single vector out of the batch.
+     *
+     * @param index Index of the vector.
+     * @return Copy of the vector.
+     */
+    public Vector getVector(int index) {
+        double[] vector = new double[size];
+        for (int i = 0; i < size; i++)
+            vector[i] = data[i * count + index];
+        return Vector.wrap(vector);
+    }
+
+    /**
+     * Returns interleaved elements of all vectors.
+     *
+     * @return Elements of the batch.
+     */
+    public double[] getData() {
+        return data;
+    }
+}
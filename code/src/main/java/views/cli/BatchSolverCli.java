@@ -0,0 +1,113 @@
+package views.cli;
+
+import controllers.batch.BatchJob;
+import controllers.batch.BatchReport;
+import controllers.batch.BatchRunner;
+import models.monitoring.SolverMetrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Headless entry point solving many systems without a display.
+ * Usage: BatchSolverCli input output [--cpu-threads n] [--io-threads n] [--in-flight n]
+ * Input is a directory with *.matrix/*.vector files or a manifest file.
+ * Output is a JSON lines file, "-" writes to standard output.
+ *
+ * @see BatchRunner
+ */
+public class BatchSolverCli {
+    /**
+     * Usage message.
+     */
+    private static final String USAGE = "Usage: BatchSolverCli <input directory|manifest> <output.jsonl|-> "
+            + "[--cpu-threads n] [--io-threads n] [--in-flight n]";
+
+    /**
+     * Starts the batch.
+     *
+     * @param args Command line arguments.
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        int cpuThreads = Runtime.getRuntime().availableProcessors();
+        int ioThreads = 4;
+        int inFlight = -1;
+        try {
+            for (int i = 2; i < args.length; i += 2) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value of " + args[i]);
+                }
+                int value = Integer.parseInt(args[i + 1]);
+                switch (args[i]) {
+                    case "--cpu-threads":
+                        cpuThreads = value;
+                        break;
+                    case "--io-threads":
+                        ioThreads = value;
+                        break;
+                    case "--in-flight":
+                        inFlight = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        try {
+            List<BatchJob> jobs = BatchJob.discover(Paths.get(args[0]));
+            BatchRunner runner = new BatchRunner(ioThreads, cpuThreads, inFlight > 0 ? inFlight : 4 * (cpuThreads + ioThreads));
+            BatchReport report;
+            try (Writer output = openOutput(args[1])) {
+                report = runner.run(jobs, output);
+            }
+            System.err.print(report);
+            if (SolverMetrics.ENABLED) {
+                System.err.print(SolverMetrics.getInstance().dump());
+            }
+            System.exit(report.getFailed() == 0 ? 0 : 1);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(3);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(4);
+        }
+    }
+
+    /**
+     * Opens output for JSON lines.
+     *
+     * @param path Path to the output file or "-" for standard output.
+     * @return Buffered writer.
+     * @throws IOException when file cannot be created.
+     */
+    private static Writer openOutput(String path) throws IOException {
+        if ("-".equals(path)) {
+            return new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)) {
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            };
+        }
+        Path output = Paths.get(path);
+        return Files.newBufferedWriter(output, StandardCharsets.UTF_8);
+    }
+}
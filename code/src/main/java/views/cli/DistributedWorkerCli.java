@@ -0,0 +1,58 @@
+package views.cli;
+
+import models.distributed.DistributedWorker;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+
+/**
+ * Starts worker process of distributed LU decomposition.
+ * Usage: DistributedWorkerCli port [--bind address]
+ *
+ * @see DistributedWorker
+ */
+public class DistributedWorkerCli {
+    /**
+     * Usage message.
+     */
+    private static final String USAGE = "Usage: DistributedWorkerCli port [--bind address]";
+
+    /**
+     * Starts the worker.
+     *
+     * @param args Command line arguments.
+     */
+    public static void main(String[] args) {
+        int port = 0;
+        InetAddress bind = InetAddress.getLoopbackAddress();
+        try {
+            if (args.length != 1 && args.length != 3) {
+                throw new IllegalArgumentException("Missing port.");
+            }
+            port = Integer.parseInt(args[0]);
+            if (args.length == 3) {
+                if (!"--bind".equals(args[1])) {
+                    throw new IllegalArgumentException("Unknown option " + args[1]);
+                }
+                bind = InetAddress.getByName(args[2]);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        try {
+            ServerSocket serverSocket = new ServerSocket();
+            serverSocket.bind(new InetSocketAddress(bind, port));
+            DistributedWorker worker = new DistributedWorker(serverSocket);
+            System.err.println("Distributed worker listening on " + serverSocket.getLocalSocketAddress());
+            worker.run();
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(3);
+        }
+    }
+}
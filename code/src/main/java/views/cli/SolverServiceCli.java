@@ -0,0 +1,75 @@
+package views.cli;
+
+import controllers.http.SolverHttpServer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+/**
+ * Starts embedded solver service bound to the loopback interface.
+ * Usage: SolverServiceCli [port] [--threads n] [--handles n] [--max-body-mb n]
+ *
+ * @see SolverHttpServer
+ */
+public class SolverServiceCli {
+    /**
+     * Usage message.
+     */
+    private static final String USAGE = "Usage: SolverServiceCli [port] [--threads n] [--handles n] [--max-body-mb n]";
+
+    /**
+     * Default port of the service.
+     */
+    private static final int DEFAULT_PORT = 8631;
+
+    /**
+     * Starts the service.
+     *
+     * @param args Command line arguments.
+     */
+    public static void main(String[] args) {
+        int port = DEFAULT_PORT;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int handles = 1024;
+        int maxBodyMegabytes = 256;
+        try {
+            int i = 0;
+            if (args.length % 2 == 1) {
+                port = Integer.parseInt(args[0]);
+                i = 1;
+            }
+            for (; i < args.length; i += 2) {
+                int value = Integer.parseInt(args[i + 1]);
+                switch (args[i]) {
+                    case "--threads":
+                        threads = value;
+                        break;
+                    case "--handles":
+                        handles = value;
+                        break;
+                    case "--max-body-mb":
+                        maxBodyMegabytes = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        try {
+            SolverHttpServer server = new SolverHttpServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                    threads, handles, maxBodyMegabytes * 1024 * 1024);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(1)));
+            server.start();
+            System.err.println("Solver service listening on " + server.getAddress());
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(3);
+        }
+    }
+}
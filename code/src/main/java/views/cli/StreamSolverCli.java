@@ -0,0 +1,76 @@
+package views.cli;
+
+import controllers.MainController;
+import controllers.streaming.StreamingSolver;
+import models.internals.ApplicationModel;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Solves right hand sides read from standard input for one matrix, one vector per line.
+ * Usage: StreamSolverCli matrix-file [--batch n] [--capacity n]
+ *
+ * @see StreamingSolver
+ */
+public class StreamSolverCli {
+    /**
+     * Usage message.
+     */
+    private static final String USAGE = "Usage: StreamSolverCli matrix-file [--batch n] [--capacity n]";
+
+    /**
+     * Runs the stream.
+     *
+     * @param args Command line arguments.
+     */
+    public static void main(String[] args) {
+        int batchSize = StreamingSolver.DEFAULT_BATCH_SIZE;
+        int capacity = StreamingSolver.DEFAULT_CAPACITY;
+        try {
+            if (args.length % 2 == 0) {
+                throw new IllegalArgumentException("Missing matrix file.");
+            }
+            for (int i = 1; i < args.length; i += 2) {
+                int value = Integer.parseInt(args[i + 1]);
+                switch (args[i]) {
+                    case "--batch":
+                        batchSize = value;
+                        break;
+                    case "--capacity":
+                        capacity = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        try {
+            MainController controller = new MainController(new ApplicationModel());
+            controller.extractAndSetMatrix(new String(Files.readAllBytes(Paths.get(args[0])), StandardCharsets.UTF_8));
+            StreamingSolver solver = controller.streamingSolver(batchSize, capacity);
+            BufferedReader input = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+            Writer output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            long solved = solver.solve(input, output);
+            System.err.println("Solved " + solved + " right hand sides.");
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(3);
+        } catch (Throwable e) {
+            System.err.println("Error: " + (e.getCause() != null ? e.getCause() : e));
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Contains headless command line views of the application.
+ */
+package views.cli;
@@ -0,0 +1,49 @@
+package controllers.batch;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchRunnerTests {
+    @Test
+    void failingJobsAreReportedAndRunFinishes() throws Throwable {
+        Path directory = Files.createTempDirectory("batch");
+        Path matrix = Files.write(directory.resolve("good.matrix"), "2 1\n1 3".getBytes(StandardCharsets.UTF_8));
+        Path vector = Files.write(directory.resolve("good.vector"), "3 5".getBytes(StandardCharsets.UTF_8));
+        Path malformed = Files.write(directory.resolve("bad.matrix"), "1 x\n2".getBytes(StandardCharsets.UTF_8));
+        List<BatchJob> jobs = Arrays.asList(
+                new BatchJob("good", matrix, vector),
+                new BatchJob("malformed", malformed, null),
+                new BatchJob("missing", directory.resolve("missing.matrix"), null),
+                new BatchJob("unreadable", null, null));
+
+        StringWriter output = new StringWriter();
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<BatchReport> run = caller.submit(() -> new BatchRunner(2, 2, 2).run(jobs, output));
+            BatchReport report = run.get(30, TimeUnit.SECONDS);
+            assertEquals(1, report.getSucceeded());
+            assertEquals(3, report.getFailed());
+        } finally {
+            caller.shutdownNow();
+        }
+
+        String[] lines = output.toString().trim().split("\n");
+        assertEquals(4, lines.length);
+        for (String name : new String[]{"malformed", "missing", "unreadable"}) {
+            assertTrue(Arrays.stream(lines).anyMatch(line -> line.contains("\"" + name + "\"") && line.contains("\"error\"")));
+        }
+        assertTrue(Arrays.stream(lines).anyMatch(line -> line.contains("\"good\"") && line.contains("\"ok\"")));
+    }
+}
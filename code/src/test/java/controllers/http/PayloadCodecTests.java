@@ -0,0 +1,43 @@
+package controllers.http;
+
+import controllers.exceptions.InvalidRequestException;
+import models.matrices.Matrix;
+import models.vectors.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayloadCodecTests {
+    @Test
+    void binaryPayloadsRoundTrip() throws Throwable {
+        Matrix matrix = new Matrix(new double[][]{{1.5, -2, 3}, {0, 1e-3, Math.PI}});
+        Matrix decoded = PayloadCodec.decodeMatrix(PayloadCodec.encode(matrix, true));
+        assertEquals(2, decoded.getRows());
+        assertEquals(3, decoded.getColumns());
+        for (int i = 0; i < 2; i++)
+            for (int j = 0; j < 3; j++)
+                assertEquals(matrix.getAt(i, j), decoded.getAt(i, j), 1e-12);
+
+        Vector vector = new Vector(new double[]{-1, 0.25, 7e10});
+        Vector decodedVector = PayloadCodec.decodeVector(PayloadCodec.encode(vector, true));
+        assertEquals(3, decodedVector.getSize());
+        for (int i = 0; i < 3; i++)
+            assertEquals(vector.getAt(i), decodedVector.getAt(i), 1e-12);
+
+        assertEquals("1.5 -2.0 3.0\n", PayloadCodec.text(PayloadCodec.encode(new Matrix(new double[][]{{1.5, -2, 3}}), false)));
+        assertEquals("-1.0 0.25 7.0E10\n", PayloadCodec.text(PayloadCodec.encode(vector, false)));
+    }
+
+    @Test
+    void malformedAndOversizedPayloadsAreRejected() throws Throwable {
+        byte[] truncated = Arrays.copyOf(PayloadCodec.encode(new Vector(new double[]{1, 2}), true), 12);
+        InvalidRequestException vector = (InvalidRequestException) assertThrows(InvalidRequestException.class, () -> PayloadCodec.decodeVector(truncated));
+        assertEquals(400, vector.getStatus());
+        InvalidRequestException matrix = (InvalidRequestException) assertThrows(InvalidRequestException.class, () -> PayloadCodec.decodeMatrix(new byte[]{0, 0}));
+        assertEquals(400, matrix.getStatus());
+        long elements = 60000L * 60000L;
+        assertThrows(InvalidRequestException.class, () -> PayloadCodec.checkedSize(8 + elements * 8));
+    }
+}
@@ -0,0 +1,95 @@
+package controllers.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverHttpServerTests {
+    @Test
+    void factorizedHandleSolvesSystems() throws Throwable {
+        SolverHttpServer server = new SolverHttpServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2, 4, 1 << 20);
+        server.start();
+        try {
+            Response factorized = request(server, "POST", "/factorize", "4 1 0\n1 3 1\n0 1 2");
+            assertEquals(200, factorized.status);
+            String handle = factorized.body.trim();
+            assertEquals(1, server.getHandleCount());
+
+            Response solved = request(server, "POST", "/solve?handle=" + handle, "5 5 3");
+            assertEquals(200, solved.status);
+            String[] solution = solved.body.trim().split(" ");
+            assertEquals(3, solution.length);
+            for (String value : solution)
+                assertEquals(1.0, Double.parseDouble(value), 1e-12);
+
+            Response determinant = request(server, "GET", "/determinant?handle=" + handle, null);
+            assertEquals(18.0, Double.parseDouble(determinant.body.trim()), 1e-12);
+
+            assertEquals(200, request(server, "DELETE", "/factorize?handle=" + handle, null).status);
+            assertEquals(0, server.getHandleCount());
+            assertEquals(404, request(server, "POST", "/solve?handle=" + handle, "5 5 3").status);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void errorsAreMappedToStatusCodes() throws Throwable {
+        SolverHttpServer server = new SolverHttpServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2, 4, 1 << 20);
+        server.start();
+        try {
+            assertEquals(400, request(server, "POST", "/factorize", "1 x\n2 3").status);
+            assertEquals(422, request(server, "POST", "/inverse", "1 2\n2 4").status);
+            assertEquals(400, request(server, "POST", "/solve", "1 2").status);
+            assertEquals(405, request(server, "POST", "/metrics", "").status);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static Response request(SolverHttpServer server, String method, String path, String body) throws IOException {
+        URL url = new URL("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream output = connection.getOutputStream()) {
+                output.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (InputStream input = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            if (input != null) {
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = input.read(buffer)) != -1)
+                    content.write(buffer, 0, read);
+            }
+        } finally {
+            connection.disconnect();
+        }
+        return new Response(status, new String(content.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private static final class Response {
+        private final int status;
+
+        private final String body;
+
+        private Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package controllers.streaming;
+
+import models.exceptions.SingularMatrixException;
+import models.matrices.Matrix;
+import models.utilities.LUDecomposition;
+import models.vectors.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingSolverTests {
+    @Test
+    void solutionsKeepInputOrder() throws Throwable {
+        Random random = new Random(3);
+        int n = 6;
+        Matrix matrix = new Matrix(n, n);
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++)
+                matrix.setAt(i, j, random.nextDouble() + (i == j ? n : 0));
+        LUDecomposition decomposition = new LUDecomposition(matrix);
+
+        List<String> lines = new ArrayList<>();
+        List<Vector> expected = new ArrayList<>();
+        for (int k = 0; k < 500; k++) {
+            double[] b = new double[n];
+            StringBuilder line = new StringBuilder();
+            for (int i = 0; i < n; i++) {
+                b[i] = random.nextDouble();
+                line.append(b[i]).append(' ');
+            }
+            lines.add(line.toString());
+            expected.add(decomposition.solve(new Vector(b)));
+        }
+
+        StreamingSolver solver = new StreamingSolver(decomposition, 16, 8);
+        List<String> solutions;
+        try (Stream<String> stream = solver.solve(lines.stream())) {
+            solutions = stream.collect(Collectors.toList());
+        }
+
+        assertEquals(expected.size(), solutions.size());
+        for (int k = 0; k < expected.size(); k++) {
+            String[] values = solutions.get(k).split(" ");
+            for (int i = 0; i < n; i++)
+                assertEquals(expected.get(k).getAt(i), Double.parseDouble(values[i]), 1e-12);
+        }
+    }
+
+    @Test
+    void producerIsThrottledBySlowConsumer() throws Throwable {
+        AtomicInteger pulled = new AtomicInteger();
+        Iterator<String> endless = new Iterator<String>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public String next() {
+                pulled.incrementAndGet();
+                return "1 2";
+            }
+        };
+
+        StreamingSolver solver = new StreamingSolver(new LUDecomposition(new Matrix(new double[][]{{2, 0}, {0, 4}})), 4, 4);
+        try (SolutionStream solutions = solver.solve(endless)) {
+            assertEquals("0.5 0.5", solutions.next());
+            Thread.sleep(200);
+            assertTrue(pulled.get() < 32);
+        }
+    }
+
+    @Test
+    void failuresReachTheConsumer() throws Throwable {
+        StreamingSolver solver = new StreamingSolver(new LUDecomposition(new Matrix(new double[][]{{1, 0}, {0, 1}})), 4, 4);
+        StringWriter output = new StringWriter();
+        assertThrows(IllegalStateException.class,
+                () -> solver.solve(new BufferedReader(new StringReader("1 2\n1 2 3\n")), output));
+        assertThrows(SingularMatrixException.class,
+                () -> new StreamingSolver(new LUDecomposition(new Matrix(new double[][]{{1, 2}, {2, 4}})), 4, 4));
+    }
+}
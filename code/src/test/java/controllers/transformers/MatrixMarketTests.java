@@ -0,0 +1,144 @@
+package controllers.transformers;
+
+import controllers.exceptions.MatrixMarketFormatException;
+import models.matrices.CSRMatrix;
+import models.matrices.Matrix;
+import models.vectors.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatrixMarketTests {
+    private static final double[][] SYMMETRIC = {
+            {4.0, 1.0, 0.0},
+            {1.0, 5.0, -2.5},
+            {0.0, -2.5, 6.0}
+    };
+
+    private static final double[][] SKEW = {
+            {0.0, 2.0, -1.0},
+            {-2.0, 0.0, 3.0},
+            {1.0, -3.0, 0.0}
+    };
+
+    @Test
+    void coordinateRoundTrip() throws Throwable {
+        Matrix matrix = new Matrix(new double[][]{{1.0, 0.0, 2.0, 0.0}, {0.0, 0.0, 0.0, 3.0}, {0.1, 0.0, 0.0, 0.0}});
+        for (MatrixMarketSymmetry symmetry : MatrixMarketSymmetry.values()) {
+            Matrix source = symmetry == MatrixMarketSymmetry.GENERAL ? matrix
+                    : new Matrix(symmetry == MatrixMarketSymmetry.SYMMETRIC ? SYMMETRIC : SKEW);
+            Path file = Files.createTempFile("coordinate", ".mtx");
+            try {
+                MatrixMarketWriter.write(file, CSRMatrix.of(source), symmetry);
+                try (MatrixMarketReader reader = MatrixMarketReader.open(file)) {
+                    assertTrue(reader.isCoordinate());
+                    assertEquals(symmetry, reader.getSymmetry());
+                    assertMatrixEquals(source, reader.readCSR().toMatrix());
+                    assertMatrixEquals(source, reader.readMatrix());
+                }
+            } finally {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    void arrayRoundTrip() throws Throwable {
+        Matrix general = new Matrix(new double[][]{{1.0, 2.0}, {3.0, 4.0}, {5.0, 1e-300}});
+        for (MatrixMarketSymmetry symmetry : MatrixMarketSymmetry.values()) {
+            Matrix source = symmetry == MatrixMarketSymmetry.GENERAL ? general
+                    : new Matrix(symmetry == MatrixMarketSymmetry.SYMMETRIC ? SYMMETRIC : SKEW);
+            Path file = Files.createTempFile("array", ".mtx");
+            try {
+                MatrixMarketWriter.write(file, source, symmetry);
+                try (MatrixMarketReader reader = MatrixMarketReader.open(file)) {
+                    assertFalse(reader.isCoordinate());
+                    assertMatrixEquals(source, reader.readMatrix());
+                    assertMatrixEquals(source, reader.readCSR().toMatrix());
+                }
+            } finally {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    void vectorRoundTrip() throws Throwable {
+        Vector vector = Vector.wrap(new double[]{1.5, -2.0, 0.0, 3.25});
+        Path file = Files.createTempFile("vector", ".mtx");
+        try {
+            MatrixMarketWriter.write(file, vector);
+            try (MatrixMarketReader reader = MatrixMarketReader.open(file)) {
+                Vector read = reader.readVector();
+                assertEquals(vector.getSize(), read.getSize());
+                for (int i = 0; i < vector.getSize(); i++) {
+                    assertEquals(vector.getAt(i), read.getAt(i), 1e-12);
+                }
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void readsPatternWithCommentsAndUnsortedEntries() throws Throwable {
+        Path file = write("%%MatrixMarket matrix coordinate pattern symmetric",
+                "% comment", "", "3 3 3", "3 1", "2 2", "1 1");
+        try (MatrixMarketReader reader = MatrixMarketReader.open(file)) {
+            assertTrue(reader.isPattern());
+            CSRMatrix csr = reader.readCSR();
+            assertEquals(4, csr.getNonZeros());
+            assertTrue(Arrays.equals(new int[]{0, 2}, Arrays.copyOfRange(csr.getColumnIndices(), 0, 2)));
+            assertEquals(1.0, csr.getAt(0, 2), 1e-12);
+            assertEquals(1.0, csr.getAt(2, 0), 1e-12);
+            assertEquals(0.0, csr.getAt(1, 0), 1e-12);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void rejectsMalformedFiles() throws IOException {
+        String[][] files = {
+                {"%%MatrixMarket matrix coordinate complex general", "1 1 1", "1 1 1 0"},
+                {"%%MatrixMarket matrix array pattern general", "1 1"},
+                {"%%MatrixMarket matrix coordinate real general", "2 2 1", "3 1 1.0"},
+                {"%%MatrixMarket matrix coordinate real general", "2 2 2", "1 1 1.0"},
+                {"%%MatrixMarket matrix coordinate real skew-symmetric", "2 2 1", "1 1 1.0"},
+                {"%%MatrixMarket matrix coordinate real general", "2 2 1", "1 1 x"},
+                {"not a banner"}
+        };
+        for (String[] lines : files) {
+            Path file = write(lines);
+            try {
+                assertThrows(MatrixMarketFormatException.class, () -> {
+                    try (MatrixMarketReader reader = MatrixMarketReader.open(file)) {
+                        reader.readCSR();
+                    }
+                });
+            } finally {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static Path write(String... lines) throws IOException {
+        Path file = Files.createTempFile("malformed", ".mtx");
+        Files.write(file, Arrays.asList(lines), StandardCharsets.US_ASCII);
+        return file;
+    }
+
+    private static void assertMatrixEquals(Matrix expected, Matrix actual) {
+        assertEquals(expected.getRows(), actual.getRows());
+        assertEquals(expected.getColumns(), actual.getColumns());
+        for (int i = 0; i < expected.getRows(); i++)
+            for (int j = 0; j < expected.getColumns(); j++)
+                assertEquals(expected.getAt(i, j), actual.getAt(i, j), 1e-12);
+    }
+}
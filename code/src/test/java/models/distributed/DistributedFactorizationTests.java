@@ -0,0 +1,91 @@
+package models.distributed;
+
+import models.internals.ApplicationModel;
+import models.internals.results.LUPivotResult;
+import models.matrices.Matrix;
+import models.utilities.LUDecomposition;
+import models.vectors.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistributedFactorizationTests {
+    @Test
+    void matchesLocalDecomposition() throws Throwable {
+        List<DistributedWorker> workers = new ArrayList<>();
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        try {
+            for (int i = 0; i < 4; i++) {
+                DistributedWorker worker = new DistributedWorker(new ServerSocket(0, 50, InetAddress.getLoopbackAddress()));
+                Thread thread = new Thread(worker);
+                thread.setDaemon(true);
+                thread.start();
+                workers.add(worker);
+                addresses.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), worker.getPort()));
+            }
+
+            Random random = new Random(17);
+            for (int n : new int[]{1, 7, 45}) {
+                Matrix matrix = new Matrix(n, n);
+                double[] b = new double[n];
+                for (int i = 0; i < n; i++) {
+                    b[i] = random.nextDouble();
+                    for (int j = 0; j < n; j++)
+                        matrix.setAt(i, j, random.nextDouble() - 0.5);
+                }
+                LUDecomposition local = new LUDecomposition(matrix);
+                Vector expected = local.solve(new Vector(b));
+
+                for (int processRows : new int[]{1, 2, 4}) {
+                    try (DistributedLUDecomposition distributed = DistributedLUDecomposition.factorize(matrix, addresses, processRows, 4)) {
+                        assertArrayEquals(local.getPivot(), distributed.getPivot());
+                        assertEquals(local.det(), distributed.det(), 1e-9 * Math.max(1, Math.abs(local.det())));
+                        Vector actual = distributed.solve(new Vector(b));
+                        for (int i = 0; i < n; i++)
+                            assertEquals(expected.getAt(i), actual.getAt(i), 1e-9 * Math.max(1, Math.abs(expected.getAt(i))));
+                    }
+                }
+            }
+
+            ApplicationModel model = new ApplicationModel();
+            model.setMatrix(new Matrix(new double[][]{{2, 1, 0}, {1, 3, 1}, {0, 1, 4}}));
+            model.setVector(new Vector(new double[]{3, 5, 5}));
+            LUPivotResult result = model.distributedLUPivot(addresses, 2, 2);
+            assertEquals(18, result.getDeterminant(), 1e-12);
+            assertEquals(1, result.getSolution().getAt(0), 1e-12);
+            assertEquals(1, result.getSolution().getAt(1), 1e-12);
+            assertEquals(1, result.getSolution().getAt(2), 1e-12);
+        } finally {
+            for (DistributedWorker worker : workers) {
+                worker.close();
+            }
+        }
+    }
+
+    @Test
+    void sessionFailureIsReported() throws Throwable {
+        try (DistributedWorker worker = new DistributedWorker(new ServerSocket(0, 50, InetAddress.getLoopbackAddress()))) {
+            Thread thread = new Thread(worker);
+            thread.setDaemon(true);
+            thread.start();
+            assertNull(worker.getFailure());
+
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), worker.getPort())) {
+                socket.getOutputStream().write(127);
+                socket.getOutputStream().flush();
+                assertEquals(-1, socket.getInputStream().read());
+            }
+            Exception failure = worker.getFailure();
+            assertNotNull(failure);
+            assertTrue(failure.getMessage().contains("Unknown command"), failure.toString());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package models.internals;
+
+import models.internals.results.IterativeResult;
+import models.internals.results.LUPivotResult;
+import models.matrices.Matrix;
+import models.monitoring.Operation;
+import models.monitoring.SolverMetrics;
+import models.vectors.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicationModelTests {
+    @Test
+    void concurrentLUPivotSharesSingleFactorization() throws Exception {
+        ApplicationModel model = new ApplicationModel();
+        model.setMatrix(new Matrix(new double[][]{{1, 2, 1, 3, 0}, {2, 3, 1, 4, 1}, {1, 4, 3, 2, 0}, {2, 4, 1, 5, 1}, {0, 1, 0, 1, 3}}));
+        model.setVector(new Vector(new double[]{1, 2, 3, 4, 5}));
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<LUPivotResult>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        return model.LUPivot();
+                    } catch (Throwable t) {
+                        throw new IllegalStateException(t);
+                    }
+                }));
+            }
+            start.countDown();
+
+            LUPivotResult first = results.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<LUPivotResult> result : results) {
+                assertSame(first.getLuDecomposition(), result.get(10, TimeUnit.SECONDS).getLuDecomposition());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void changingMatrixDropsFactorization() throws Throwable {
+        ApplicationModel model = new ApplicationModel();
+        model.setMatrix(new Matrix(new double[][]{{2, 1, 0, 0, 1}, {2, 3, 1, 0, 0}, {0, 1, 4, 1, 0}, {1, 0, 2, 5, 1}, {0, 1, 0, 1, 3}}));
+        model.setVector(new Vector(new double[]{3, 5, 1, 2, 4}));
+        LUPivotResult first = model.LUPivot();
+        assertTrue(first.isFactorized());
+
+        model.setMatrix(new Matrix(new double[][]{{2, 1, 0, 0, 1}, {2, 3, 1, 0, 0}, {0, 1, 4, 1, 0}, {1, 0, 2, 5, 1}, {0, 1, 0, 1, 3}}));
+        assertSame(first.getLuDecomposition(), model.LUPivot().getLuDecomposition());
+
+        model.setMatrix(new Matrix(new double[][]{{4, 1, 0, 0, 1}, {2, 3, 1, 0, 0}, {0, 1, 4, 1, 0}, {1, 0, 2, 5, 1}, {0, 1, 0, 1, 3}}));
+        assertNotSame(first.getLuDecomposition(), model.LUPivot().getLuDecomposition());
+    }
+
+    @Test
+    void iterativeSolveChoosesSolverByStructure() throws Throwable {
+        ApplicationModel model = new ApplicationModel();
+        model.setMatrix(new Matrix(new double[][]{{4, 1, 0, 0, 0}, {1, 4, 1, 0, 0}, {0, 1, 4, 1, 0}, {0, 0, 1, 4, 1}, {0, 0, 0, 1, 4}}));
+        model.setVector(new Vector(new double[]{1, 2, 3, 4, 5}));
+        Vector expected = model.LUPivot().getSolution();
+
+        IterativeResult result = model.iterativeSolve();
+        assertEquals("CG", result.getSolution().getMethod());
+        assertEquals("Jacobi", result.getSolution().getPreconditioner());
+        assertSame(result, model.getLastResult());
+
+        model.setIterativeThreshold(5);
+        Vector solution = model.solve(new Vector(new double[]{1, 2, 3, 4, 5}));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(expected.getAt(i), result.getSolution().getSolution().getAt(i), 1e-9);
+            assertEquals(expected.getAt(i), solution.getAt(i), 1e-9);
+        }
+
+        model.setMatrix(new Matrix(new double[][]{{4, 2, 0, 0, 0}, {1, 4, 2, 0, 0}, {0, 1, 4, 2, 0}, {0, 0, 1, 4, 2}, {0, 0, 0, 1, 4}}));
+        assertEquals("GMRES(30)", model.iterativeSolve().getSolution().getMethod());
+    }
+
+    @Test
+    void iterativeSolveIsOptInAndSkippedWhenFactorized() throws Throwable {
+        int n = 300;
+        double[][] a = new double[n][n];
+        double[] b = new double[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++)
+                a[i][j] = i == j ? 4 : 1.0 / (1 + (i - j) * (i - j));
+            b[i] = i % 7 - 3;
+        }
+        ApplicationModel model = new ApplicationModel();
+        assertEquals(Integer.MAX_VALUE, model.getIterativeThreshold());
+        model.setMatrix(Matrix.wrap(a));
+        model.setVector(new Vector(b));
+        model.setIterativeThreshold(n);
+        long factorizations = SolverMetrics.getInstance().statsOf(Operation.FACTORIZE, n).getCount();
+
+        Vector x = model.solve(new Vector(b));
+
+        assertEquals(factorizations, SolverMetrics.getInstance().statsOf(Operation.FACTORIZE, n).getCount());
+        for (int i = 0; i < n; i++) {
+            double r = -b[i];
+            for (int j = 0; j < n; j++)
+                r += a[i][j] * x.getAt(j);
+            assertEquals(0, r, 1e-8);
+        }
+        assertEquals("CG", model.iterativeSolve().getSolution().getMethod());
+
+        Vector direct = model.factorize().solve(new Vector(b));
+        assertEquals(direct, model.solve(new Vector(b)));
+        assertEquals(factorizations + 1, SolverMetrics.getInstance().statsOf(Operation.FACTORIZE, n).getCount());
+    }
+}
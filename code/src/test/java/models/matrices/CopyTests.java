@@ -0,0 +1,61 @@
+package models.matrices;
+
+import models.vectors.Vector;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CopyTests {
+    @Test
+    void wrapDoesNotCopyArrays() {
+        double[][] a = {{1, 2}, {3, 4}};
+        double[] b = {5, 6};
+
+        assertSame(a, Matrix.wrap(a).getData());
+        assertSame(b, Vector.wrap(b).getData());
+        assertThrows(IllegalArgumentException.class, () -> Matrix.wrap(new double[][]{{1, 2}, {3}}));
+    }
+
+    @Test
+    void copiesDoNotShareStorage() {
+        Matrix original = Matrix.wrap(new double[][]{{1, 2}, {3, 4}});
+        Matrix copy = new Matrix(original);
+        copy.setAt(0, 0, 10);
+        original.getData()[1][1] = 40;
+
+        assertEquals(1, original.getAt(0, 0), 1e-12);
+        assertEquals(40, original.getAt(1, 1), 1e-12);
+        assertEquals(10, copy.getAt(0, 0), 1e-12);
+        assertEquals(4, copy.getAt(1, 1), 1e-12);
+
+        Vector vector = Vector.wrap(new double[]{1, 2});
+        Vector vectorCopy = new Vector(vector);
+        vector.setAt(1, 20);
+        vectorCopy.getData()[0] = 10;
+
+        assertEquals(1, vector.getAt(0), 1e-12);
+        assertEquals(20, vector.getAt(1), 1e-12);
+        assertEquals(10, vectorCopy.getAt(0), 1e-12);
+        assertEquals(2, vectorCopy.getAt(1), 1e-12);
+    }
+
+    @Test
+    void arraysObtainedBeforeCopyingDoNotAliasCopies() {
+        Matrix original = new Matrix(new double[][]{{1, 2}, {3, 4}});
+        double[] row = original.getData()[0];
+        Matrix copy = new Matrix(original);
+        row[0] = 10;
+
+        assertEquals(10, original.getAt(0, 0), 1e-12);
+        assertEquals(1, copy.getAt(0, 0), 1e-12);
+        assertNotSame(original.getData()[1], copy.getData()[1]);
+
+        Vector vector = new Vector(new double[]{1, 2});
+        double[] elements = vector.getData();
+        Vector vectorCopy = new Vector(vector);
+        elements[1] = 20;
+
+        assertEquals(20, vector.getAt(1), 1e-12);
+        assertEquals(2, vectorCopy.getAt(1), 1e-12);
+    }
+}
@@ -0,0 +1,84 @@
+package models.matrices;
+
+import models.utilities.iterative.ConjugateGradientSolver;
+import models.utilities.iterative.IterativeSolution;
+import models.utilities.iterative.JacobiPreconditioner;
+import models.vectors.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LinearOperatorTests {
+    @Test
+    void matrixActsAsOperator() {
+        Matrix A = new Matrix(new double[][]{{1, 2, 3}, {4, 5, 6}});
+        double[] y = new double[2];
+        double[] z = new double[3];
+
+        A.apply(new double[]{1, 0, -1}, y);
+        A.applyTranspose(new double[]{1, 1}, z);
+
+        assertArrayEquals(new double[]{-2, -2}, y, 1e-12);
+        assertArrayEquals(new double[]{5, 7, 9}, z, 1e-12);
+        assertArrayEquals(new double[]{1, 5}, A.getDiagonal(), 1e-12);
+        assertEquals(Math.sqrt(8), A.residualNorm(new double[]{1, 0, -1}, new double[]{0, 0}), 1e-12);
+
+        PackedSymmetricMatrix S = PackedSymmetricMatrix.of(new Matrix(new double[][]{{2, 1}, {1, 3}}));
+        double[] w = new double[2];
+        S.apply(new double[]{1, 1}, w);
+        assertArrayEquals(new double[]{3, 4}, w, 1e-12);
+        assertArrayEquals(new double[]{2, 3}, S.getDiagonal(), 1e-12);
+    }
+
+    @Test
+    void implicitStencilIsSolvedWithoutMatrix() throws Throwable {
+        int n = 20000;
+        double[] diagonal = new double[n];
+        Arrays.fill(diagonal, 3.0);
+        BiConsumer<double[], double[]> action = (x, y) -> {
+            for (int i = 0; i < n; i++) {
+                y[i] = 3.0 * x[i] - (i > 0 ? x[i - 1] : 0.0) - (i < n - 1 ? x[i + 1] : 0.0);
+            }
+        };
+        LinearOperator stencil = LinearOperator.of(n, n, action, action, diagonal);
+        Vector b = new Vector(n);
+        for (int i = 0; i < n; i++)
+            b.setAt(i, 1.0);
+
+        IterativeSolution solution = new ConjugateGradientSolver().solve(stencil, b, new JacobiPreconditioner(stencil));
+
+        assertTrue(solution.isConverged());
+        assertTrue(stencil.residualNorm(solution.getSolution().getData(), b.getData()) <= 1e-10 * Math.sqrt(n));
+        assertEquals(1.0, solution.getSolution().getAt(n / 2), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> LinearOperator.of(n, n, action, null, diagonal));
+    }
+
+    @Test
+    void factoryOperatorsProvideTransposedAction() {
+        LinearOperator shift = LinearOperator.of(3, 2, (x, y) -> {
+            y[0] = 0.0;
+            y[1] = x[0];
+            y[2] = x[1];
+        }, (x, y) -> {
+            y[0] = x[1];
+            y[1] = x[2];
+        }, null);
+        double[] y = new double[3];
+        double[] z = new double[2];
+        shift.apply(new double[]{1, 2}, y);
+        shift.applyTranspose(new double[]{1, 2, 3}, z);
+        assertArrayEquals(new double[]{0, 1, 2}, y, 1e-12);
+        assertArrayEquals(new double[]{2, 3}, z, 1e-12);
+
+        LinearOperator scaling = LinearOperator.symmetric(2, (x, w) -> {
+            w[0] = 2.0 * x[0];
+            w[1] = 3.0 * x[1];
+        });
+        scaling.applyTranspose(new double[]{1, 1}, z);
+        assertArrayEquals(new double[]{2, 3}, z, 1e-12);
+        assertNull(scaling.getDiagonal());
+    }
+}
@@ -0,0 +1,87 @@
+package models.matrices;
+
+import models.exceptions.InvalidMatrixSizesException;
+import models.exceptions.SingularMatrixException;
+import models.utilities.LUDecomposition;
+import models.vectors.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultiplicationTests {
+    @Test
+    void matrixTimesMatrix() throws InvalidMatrixSizesException {
+        Matrix a = new Matrix(new double[][]{{1, 2, 3}, {4, 5, 6}});
+        Matrix b = new Matrix(new double[][]{{7, 8}, {9, 10}, {11, 12}});
+
+        Matrix product = a.multiply(b);
+
+        assertEquals(new Matrix(new double[][]{{58, 64}, {139, 154}}), product);
+    }
+
+    @Test
+    void matrixTimesVector() throws InvalidMatrixSizesException {
+        Matrix a = new Matrix(new double[][]{{1, 2, 3}, {4, 5, 6}});
+
+        Vector product = a.multiply(new Vector(new double[]{1, 0, -1}));
+
+        assertEquals(new Vector(new double[]{-2, -2}), product);
+    }
+
+    @Test
+    void invalidSizes() {
+        Matrix a = new Matrix(2, 3);
+
+        assertThrows(InvalidMatrixSizesException.class, () -> a.multiply(new Matrix(2, 3)));
+        assertThrows(InvalidMatrixSizesException.class, () -> a.multiply(new Vector(2)));
+    }
+
+    @Test
+    void tiledProductMatchesTripleLoop() throws InvalidMatrixSizesException {
+        Random random = new Random(3);
+        int[][] shapes = {{5, 7, 3}, {70, 300, 65}, {257, 129, 301}};
+        for (int[] shape : shapes) {
+            Matrix a = random(random, shape[0], shape[1]);
+            Matrix b = random(random, shape[1], shape[2]);
+
+            Matrix product = a.multiply(b);
+
+            for (int i = 0; i < shape[0]; i++)
+                for (int j = 0; j < shape[2]; j++) {
+                    double expected = 0;
+                    for (int k = 0; k < shape[1]; k++)
+                        expected += a.getAt(i, k) * b.getAt(k, j);
+                    assertEquals(expected, product.getAt(i, j), 1e-10);
+                }
+        }
+    }
+
+    @Test
+    void productWithInverseIsIdentity() throws InvalidMatrixSizesException, SingularMatrixException {
+        Matrix a = random(new Random(5), 150, 150);
+
+        Matrix product = a.multiply(new LUDecomposition(a).inverse());
+
+        for (int i = 0; i < 150; i++)
+            for (int j = 0; j < 150; j++)
+                assertEquals(i == j ? 1 : 0, product.getAt(i, j), 1e-8);
+    }
+
+    /**
+     * Creates matrix with random elements.
+     *
+     * @param random  Generator.
+     * @param rows    Number of rows.
+     * @param columns Number of columns.
+     * @return Random matrix.
+     */
+    private static Matrix random(Random random, int rows, int columns) {
+        Matrix matrix = new Matrix(rows, columns);
+        for (int i = 0; i < rows; i++)
+            for (int j = 0; j < columns; j++)
+                matrix.setAt(i, j, random.nextDouble() - 0.5);
+        return matrix;
+    }
+}
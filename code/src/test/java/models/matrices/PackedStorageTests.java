@@ -0,0 +1,100 @@
+package models.matrices;
+
+import models.exceptions.NotPositiveDefiniteMatrixException;
+import models.utilities.CholeskyDecomposition;
+import models.utilities.LUDecomposition;
+import models.vectors.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedStorageTests {
+    @Test
+    void packedFactorsMatchDenseFactors() throws Throwable {
+        Matrix A = random(9, 1);
+        LUDecomposition lu = new LUDecomposition(A);
+        PackedTriangularMatrix L = lu.getPackedL();
+        PackedTriangularMatrix U = lu.getPackedU();
+
+        assertEquals(36, L.getPackedData().length);
+        assertEquals(45, U.getPackedData().length);
+        assertEquals(lu.getL().toString(), L.toString());
+        assertEquals(lu.getU().toString(), U.toString());
+
+        double[] b = new double[9];
+        for (int i = 0; i < 9; i++)
+            b[i] = i + 1;
+        int[] piv = lu.getPivot();
+        double[] x = new double[9];
+        for (int i = 0; i < 9; i++)
+            x[i] = b[piv[i]];
+        L.solveInPlace(x);
+        U.solveInPlace(x);
+        Vector expected = lu.solve(new Vector(b));
+        for (int i = 0; i < 9; i++)
+            assertEquals(expected.getAt(i), x[i], 1e-10);
+    }
+
+    @Test
+    void transposedSolveOnPackedRows() throws Throwable {
+        Matrix A = random(7, 2);
+        for (boolean upper : new boolean[]{false, true}) {
+            PackedTriangularMatrix T = upper
+                    ? PackedTriangularMatrix.upperOf(A.getData(), 7, false)
+                    : PackedTriangularMatrix.lowerOf(A.getData(), 7, false);
+            double[] x = {1, 2, 3, 4, 5, 6, 7};
+            T.solveTransposedInPlace(x);
+            for (int j = 0; j < 7; j++) {
+                double sum = 0;
+                for (int i = 0; i < 7; i++)
+                    sum += T.getAt(i, j) * x[i];
+                assertEquals(j + 1, sum, 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void choleskyOnPackedSymmetricMatrix() throws Throwable {
+        Matrix B = random(12, 3);
+        Matrix A = new Matrix(12, 12);
+        for (int i = 0; i < 12; i++)
+            for (int j = 0; j < 12; j++) {
+                double sum = i == j ? 12 : 0;
+                for (int k = 0; k < 12; k++)
+                    sum += B.getAt(k, i) * B.getAt(k, j);
+                A.setAt(i, j, sum);
+            }
+        PackedSymmetricMatrix packed = PackedSymmetricMatrix.of(A);
+        CholeskyDecomposition cholesky = new CholeskyDecomposition(packed);
+        LUDecomposition lu = new LUDecomposition(A);
+        Vector b = new Vector(new double[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+
+        assertTrue(cholesky.isPositiveDefinite());
+        assertEquals(lu.det(), cholesky.det(), 1e-9 * Math.abs(lu.det()));
+        Vector expected = lu.solve(b);
+        Vector actual = cholesky.solve(b);
+        Vector product = packed.multiply(actual);
+        for (int i = 0; i < 12; i++) {
+            assertEquals(expected.getAt(i), actual.getAt(i), 1e-10);
+            assertEquals(b.getAt(i), product.getAt(i), 1e-9);
+        }
+
+        CholeskyDecomposition indefinite = new CholeskyDecomposition(PackedSymmetricMatrix.of(new Matrix(new double[][]{{1, 2}, {2, 1}})));
+        assertFalse(indefinite.isPositiveDefinite());
+        assertThrows(NotPositiveDefiniteMatrixException.class, () -> indefinite.solve(new Vector(new double[]{1, 1})));
+    }
+
+    /**
+     * Returns random square matrix.
+     */
+    private static Matrix random(int n, long seed) {
+        Random random = new Random(seed);
+        Matrix matrix = new Matrix(n, n);
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++)
+                matrix.setAt(i, j, random.nextDouble() - 0.5 + (i == j ? 2 : 0));
+        return matrix;
+    }
+}
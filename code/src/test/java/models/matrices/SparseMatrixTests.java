@@ -0,0 +1,70 @@
+package models.matrices;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SparseMatrixTests {
+    @Test
+    void sparseProductsMatchDenseProducts() {
+        Matrix dense = new Matrix(new double[][]{{4, 0, 1, 0, 0}, {0, 0, 0, 0, 0}, {2, 3, 0, 0, 5}, {0, 0, 0, 6, 0}, {1, 1, 1, 1, 1}});
+        CSRMatrix csr = CSRMatrix.of(dense);
+        SellCSigmaMatrix sell = new SellCSigmaMatrix(csr, 2, 4);
+        double[] x = {1, 2, 3, 4, 5};
+
+        assertEquals(11, csr.getNonZeros());
+        assertEquals(dense, csr.toMatrix());
+        for (LinearOperator operator : new LinearOperator[]{csr, sell}) {
+            double[] expected = new double[5];
+            double[] actual = new double[5];
+            dense.apply(x, expected);
+            operator.apply(x, actual);
+            assertArrayEquals(expected, actual, 1e-12);
+            dense.applyTranspose(x, expected);
+            operator.applyTranspose(x, actual);
+            assertArrayEquals(expected, actual, 1e-12);
+            assertArrayEquals(dense.getDiagonal(), operator.getDiagonal(), 1e-12);
+        }
+    }
+
+    @Test
+    void parallelProductOfSkewedMatrixMatchesSequentialProduct() {
+        int n = 20000;
+        CSRMatrix csr = SparseMultiplyBenchmark.skewed(n, 1.5, 8, new Random(7));
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++)
+            x[i] = Math.cos(i);
+
+        double[] expected = new double[n];
+        int[] rowStart = csr.getRowStart();
+        for (int i = 0; i < n; i++)
+            for (int p = rowStart[i]; p < rowStart[i + 1]; p++)
+                expected[i] += csr.getValues()[p] * x[csr.getColumnIndices()[p]];
+
+        double[] actual = new double[n];
+        csr.apply(x, actual);
+        assertArrayEquals(expected, actual, 1e-9);
+        SellCSigmaMatrix sell = SellCSigmaMatrix.of(csr);
+        sell.apply(x, actual);
+        assertArrayEquals(expected, actual, 1e-9);
+        assertTrue(sell.getFillRatio() < new SellCSigmaMatrix(csr, 8, 8).getFillRatio());
+    }
+
+    @Test
+    void partitionBalancesNonZerosOnCacheLineBoundaries() {
+        int[] rowStart = new int[1025];
+        for (int i = 0; i < 1024; i++)
+            rowStart[i + 1] = rowStart[i] + (i < 64 ? 100 : 1);
+
+        int[] partition = CSRMatrix.balancedPartition(rowStart, 1024, 4);
+
+        assertEquals(0, partition[0]);
+        assertEquals(1024, partition[partition.length - 1]);
+        for (int k = 1; k < partition.length - 1; k++) {
+            assertEquals(0, partition[k] % CSRMatrix.CACHE_LINE_DOUBLES);
+            assertTrue(partition[k] < 64, "long rows are split between ranges");
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package models.matrices;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmark of sparse matrix-vector products on matrices with skewed row lengths.
+ * Row lengths follow a power law, so a few rows hold a large share of nonzero elements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SparseMultiplyBenchmark {
+    @Param({"100000"})
+    int n;
+
+    @Param({"0.3", "1.0", "2.0"})
+    double skew;
+
+    CSRMatrix csr;
+
+    SellCSigmaMatrix sell;
+
+    double[] x;
+
+    double[] y;
+
+    @Setup
+    public void setup() {
+        csr = skewed(n, skew, 16, new Random(42));
+        sell = SellCSigmaMatrix.of(csr);
+        x = new double[n];
+        y = new double[n];
+        for (int i = 0; i < n; i++)
+            x[i] = 1.0 / (i + 1);
+    }
+
+    @Benchmark
+    public double[] csr() {
+        csr.apply(x, y);
+        return y;
+    }
+
+    @Benchmark
+    public double[] sellCSigma() {
+        sell.apply(x, y);
+        return y;
+    }
+
+    static CSRMatrix skewed(int n, double skew, int averageLength, Random random) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++)
+            order[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        double norm = 0.0;
+        for (int i = 0; i < n; i++)
+            norm += Math.pow(i + 1, -skew);
+        int[] lengths = new int[n];
+        for (int i = 0; i < n; i++)
+            lengths[order[i]] = (int) Math.min(n, Math.max(1, Math.round((double) n * averageLength * Math.pow(i + 1, -skew) / norm)));
+
+        int[] rowStart = new int[n + 1];
+        for (int i = 0; i < n; i++)
+            rowStart[i + 1] = rowStart[i] + lengths[i];
+        int[] columns = new int[rowStart[n]];
+        double[] values = new double[rowStart[n]];
+        for (int i = 0; i < n; i++) {
+            int first = random.nextInt(n - lengths[i] + 1);
+            for (int k = 0; k < lengths[i]; k++) {
+                columns[rowStart[i] + k] = first + k;
+                values[rowStart[i] + k] = random.nextDouble();
+            }
+        }
+        return new CSRMatrix(n, n, rowStart, columns, values);
+    }
+}
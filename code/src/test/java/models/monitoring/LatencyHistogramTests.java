@@ -0,0 +1,29 @@
+package models.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTests {
+    @Test
+    void percentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        assertEquals(10000, histogram.getCount());
+        assertEquals(5_000_000, histogram.getPercentile(50), 5_000_000 * 0.125);
+        assertEquals(9_900_000, histogram.getPercentile(99), 9_900_000 * 0.125);
+        assertTrue(histogram.getPercentile(100) >= 10_000_000);
+    }
+
+    @Test
+    void bucketsCoverAllValues() {
+        for (long value : new long[]{0, 1, 15, 16, 17, 1000, 1L << 40, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.upperBoundOf(index) >= value);
+            assertTrue(index == 0 || LatencyHistogram.upperBoundOf(index - 1) < value);
+        }
+    }
+}
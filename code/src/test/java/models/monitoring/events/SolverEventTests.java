@@ -0,0 +1,57 @@
+package models.monitoring.events;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import models.matrices.Matrix;
+import models.utilities.LUDecomposition;
+import models.vectors.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverEventTests {
+    @Test
+    void factorizationAndSolveAreRecorded() throws Throwable {
+        Path file = Files.createTempFile("solver", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(FactorizationEvent.class);
+            recording.enable(SolveEvent.class);
+            recording.start();
+            LUDecomposition decomposition = new LUDecomposition(new Matrix(new double[][]{{4, 1, 2}, {1, 5, 1}, {2, 1, 6}}));
+            decomposition.solve(new Vector(new double[]{1, 2, 3}));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events;
+        try {
+            events = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> Thread.currentThread().getName().equals(event.getThread().getJavaName()))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.delete(file);
+        }
+
+        RecordedEvent factorization = events.stream()
+                .filter(event -> "assignment.Factorization".equals(event.getEventType().getName()))
+                .findFirst().orElseThrow(AssertionError::new);
+        assertEquals(3, factorization.getInt("rows"));
+        assertEquals(3, factorization.getInt("columns"));
+        assertEquals("GENERAL", factorization.getString("structure"));
+        assertEquals(SolverEvent.matrixBytes(3, 3) + 12L * 3 + 32, factorization.getLong("allocationEstimate"));
+
+        RecordedEvent solve = events.stream()
+                .filter(event -> "assignment.Solve".equals(event.getEventType().getName()))
+                .findFirst().orElseThrow(AssertionError::new);
+        assertEquals(3, solve.getInt("rows"));
+        assertEquals(1, solve.getInt("rightHandSides"));
+        assertTrue(solve.getLong("allocationEstimate") > 0);
+        assertFalse(solve.getDuration().isNegative());
+    }
+}
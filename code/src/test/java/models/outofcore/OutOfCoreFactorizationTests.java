@@ -0,0 +1,69 @@
+package models.outofcore;
+
+import models.matrices.Matrix;
+import models.utilities.LUDecomposition;
+import models.vectors.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutOfCoreFactorizationTests {
+    @Test
+    void matchesInMemoryDecomposition() throws Throwable {
+        Random random = new Random(23);
+        for (int n : new int[]{1, 8, 37}) {
+            Matrix matrix = new Matrix(n, n);
+            double[] b = new double[n];
+            for (int i = 0; i < n; i++) {
+                b[i] = random.nextDouble();
+                for (int j = 0; j < n; j++)
+                    matrix.setAt(i, j, random.nextDouble() - 0.5);
+            }
+            LUDecomposition expected = new LUDecomposition(matrix);
+            Vector expectedSolution = expected.solve(new Vector(b));
+
+            Path file = Files.createTempFile("tiles", ".bin");
+            try (TileStore store = TileStore.fromMatrix(matrix, file, 8)) {
+                OutOfCoreLUDecomposition decomposition = OutOfCoreLUDecomposition.factorize(store, OutOfCoreLUDecomposition.minimumBudget(store));
+
+                assertArrayEquals(expected.getPivot(), decomposition.getPivot());
+                assertEquals(expected.det(), decomposition.det(), 1e-9 * Math.max(1, Math.abs(expected.det())));
+                Vector solution = decomposition.solve(new Vector(b));
+                for (int i = 0; i < n; i++)
+                    assertEquals(expectedSolution.getAt(i), solution.getAt(i), 1e-9 * Math.max(1, Math.abs(expectedSolution.getAt(i))));
+
+                double[] diagonalTile = store.read(0, 0);
+                assertEquals(expected.getU().getAt(0, 0), diagonalTile[0], 1e-12);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Test
+    void cacheEvictsAndWritesBackWithinBudget() throws Throwable {
+        Path file = Files.createTempFile("tiles", ".bin");
+        try (TileStore store = TileStore.create(file, 8, 2)) {
+            try (TileCache cache = new TileCache(store, 2 * store.getTileBytes())) {
+                cache.acquire(0, 0)[0] = 5;
+                cache.release(0, 0, true);
+                cache.prefetch(0, 1);
+                cache.acquire(1, 1);
+                assertEquals(1, cache.getEvictions());
+                cache.acquire(2, 2);
+                assertThrows(IllegalStateException.class, () -> cache.acquire(3, 3));
+                cache.release(1, 1, false);
+                cache.release(2, 2, false);
+                assertEquals(5, cache.acquire(0, 0)[0], 1e-12);
+                cache.release(0, 0, false);
+            }
+            assertEquals(5, store.read(0, 0)[0], 1e-12);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
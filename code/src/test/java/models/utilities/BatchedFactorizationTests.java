@@ -0,0 +1,67 @@
+package models.utilities;
+
+import models.matrices.Matrix;
+import models.matrices.MatrixBatch;
+import models.vectors.Vector;
+import models.vectors.VectorBatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchedFactorizationTests {
+    @Test
+    void batchMatchesSeparateDecompositions() throws Throwable {
+        Random random = new Random(11);
+        for (int n : new int[]{4, 7, 32}) {
+            List<Matrix> matrices = new ArrayList<>();
+            List<Vector> vectors = new ArrayList<>();
+            for (int b = 0; b < 600; b++) {
+                Matrix matrix = new Matrix(n, n);
+                double[] vector = new double[n];
+                for (int i = 0; i < n; i++) {
+                    vector[i] = random.nextDouble();
+                    for (int j = 0; j < n; j++)
+                        matrix.setAt(i, j, random.nextDouble() - 0.5);
+                }
+                matrices.add(matrix);
+                vectors.add(new Vector(vector));
+            }
+
+            BatchedLUDecomposition batch = new BatchedLUDecomposition(MatrixBatch.of(matrices));
+            VectorBatch solutions = batch.solve(VectorBatch.of(vectors));
+            double[] determinants = batch.det();
+
+            for (int b = 0; b < matrices.size(); b++) {
+                LUDecomposition single = new LUDecomposition(matrices.get(b));
+                assertArrayEquals(single.getPivot(), batch.getPivot(b));
+                assertEquals(single.det(), determinants[b], 1e-9 * Math.max(1, Math.abs(single.det())));
+                Vector expected = single.solve(vectors.get(b));
+                for (int i = 0; i < n; i++)
+                    assertEquals(expected.getAt(i), solutions.getAt(b, i), 1e-8 * Math.max(1, Math.abs(expected.getAt(i))));
+            }
+        }
+    }
+
+    @Test
+    void singularMatrixInBatch() throws Throwable {
+        List<Matrix> matrices = new ArrayList<>();
+        matrices.add(new Matrix(new double[][]{{2, 1}, {1, 3}}));
+        matrices.add(new Matrix(new double[][]{{1, 2}, {2, 4}}));
+        List<Vector> vectors = new ArrayList<>();
+        vectors.add(new Vector(new double[]{3, 5}));
+        vectors.add(new Vector(new double[]{1, 1}));
+
+        BatchedLUDecomposition batch = new BatchedLUDecomposition(MatrixBatch.of(matrices));
+        VectorBatch solutions = batch.solve(VectorBatch.of(vectors));
+
+        assertTrue(batch.isNonSingular(0));
+        assertFalse(batch.isNonSingular(1));
+        assertEquals(0.8, solutions.getAt(0, 0), 1e-12);
+        assertEquals(1.4, solutions.getAt(0, 1), 1e-12);
+        assertTrue(Double.isNaN(solutions.getAt(1, 0)));
+    }
+}
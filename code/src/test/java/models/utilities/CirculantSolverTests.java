@@ -0,0 +1,70 @@
+package models.utilities;
+
+import models.exceptions.SingularMatrixException;
+import models.matrices.CirculantMatrix;
+import models.matrices.Matrix;
+import models.vectors.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CirculantSolverTests {
+    @Test
+    void fourierSolveMatchesLU() throws Throwable {
+        Random random = new Random(50);
+        for (int n : new int[]{7, 36, 41}) {
+            double[] column = new double[n];
+            for (int i = 0; i < n; i++)
+                column[i] = random.nextDouble() - 0.5;
+            column[0] = 4.0;
+            CirculantMatrix circulant = new CirculantMatrix(column);
+            Matrix dense = circulant.toMatrix();
+            assertTrue(CirculantMatrix.isCirculant(dense));
+            assertEquals(column[n - 2], CirculantMatrix.of(dense).getAt(3, 5), 1e-12);
+
+            CirculantSolver solver = new CirculantSolver(circulant);
+            LUDecomposition decomposition = new LUDecomposition(dense);
+            double[] b = new double[n];
+            for (int i = 0; i < n; i++)
+                b[i] = random.nextDouble();
+            Vector expected = decomposition.solve(new Vector(b));
+            Vector solution = solver.solve(new Vector(b));
+            double[] transposed = new double[n];
+            double[] expectedTransposed = new double[n];
+            solver.solveTranspose(b, transposed);
+            decomposition.solveTranspose(b, expectedTransposed, new LUWorkspace());
+            Matrix inverse = solver.inverse().toMatrix();
+            Matrix expectedInverse = decomposition.inverse();
+            assertEquals(1.0, solver.det() / decomposition.det(), 1e-10);
+            double[] product = new double[n];
+            double[] productTransposed = new double[n];
+            circulant.apply(b, product);
+            circulant.applyTranspose(b, productTransposed);
+            for (int i = 0; i < n; i++) {
+                assertEquals(expected.getAt(i), solution.getAt(i), 1e-10);
+                assertEquals(expectedTransposed[i], transposed[i], 1e-10);
+                double sum = 0.0;
+                double sumTransposed = 0.0;
+                for (int j = 0; j < n; j++) {
+                    assertEquals(expectedInverse.getAt(i, j), inverse.getAt(i, j), 1e-10);
+                    sum += dense.getAt(i, j) * b[j];
+                    sumTransposed += dense.getAt(j, i) * b[j];
+                }
+                assertEquals(sum, product[i], 1e-12);
+                assertEquals(sumTransposed, productTransposed[i], 1e-12);
+            }
+        }
+    }
+
+    @Test
+    void singularCirculantIsRejected() throws Throwable {
+        CirculantSolver solver = new CirculantSolver(new CirculantMatrix(new double[]{1, -1, 1, -1, 0, 0}));
+        assertFalse(solver.isNonSingular());
+        assertEquals(0.0, solver.det(), 1e-12);
+        assertThrows(SingularMatrixException.class, () -> solver.solve(new Vector(new double[6])));
+        assertThrows(SingularMatrixException.class, solver::inverse);
+        assertFalse(CirculantMatrix.isCirculant(new Matrix(new double[][]{{1, 2}, {3, 1}})));
+    }
+}
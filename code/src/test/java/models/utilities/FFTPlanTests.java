@@ -0,0 +1,77 @@
+package models.utilities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FFTPlanTests {
+    private static final int[] SIZES = {1, 2, 3, 5, 8, 12, 15, 16, 30, 49, 60, 64, 97, 100, 210};
+
+    @Test
+    void mixedRadixMatchesDirectTransform() {
+        Random random = new Random(50);
+        for (int n : SIZES) {
+            double[] re = new double[n];
+            double[] im = new double[n];
+            for (int k = 0; k < n; k++) {
+                re[k] = random.nextDouble() - 0.5;
+                im[k] = random.nextDouble() - 0.5;
+            }
+            double[] fftRe = re.clone();
+            double[] fftIm = im.clone();
+            FFTPlan plan = FFTPlan.of(n);
+            plan.forward(fftRe, fftIm);
+            for (int k = 0; k < n; k++) {
+                double sumRe = 0.0;
+                double sumIm = 0.0;
+                for (int j = 0; j < n; j++) {
+                    double angle = -2.0 * Math.PI * ((long) j * k % n) / n;
+                    sumRe += re[j] * Math.cos(angle) - im[j] * Math.sin(angle);
+                    sumIm += re[j] * Math.sin(angle) + im[j] * Math.cos(angle);
+                }
+                assertEquals(sumRe, fftRe[k], 1e-10);
+                assertEquals(sumIm, fftIm[k], 1e-10);
+            }
+            plan.inverse(fftRe, fftIm);
+            for (int k = 0; k < n; k++) {
+                assertEquals(re[k], fftRe[k], 1e-12);
+                assertEquals(im[k], fftIm[k], 1e-12);
+            }
+        }
+    }
+
+    @Test
+    void realTransformMatchesComplexOne() {
+        Random random = new Random(51);
+        for (int n : SIZES) {
+            double[] x = new double[n];
+            for (int k = 0; k < n; k++)
+                x[k] = random.nextDouble() - 0.5;
+            FFTPlan plan = FFTPlan.of(n);
+            double[] re = x.clone();
+            double[] im = new double[n];
+            plan.forward(re, im);
+            double[] halfRe = new double[n / 2 + 1];
+            double[] halfIm = new double[n / 2 + 1];
+            plan.realForward(x, halfRe, halfIm);
+            for (int k = 0; k <= n / 2; k++) {
+                assertEquals(re[k % n], halfRe[k], 1e-10);
+                assertEquals(im[k % n], halfIm[k], 1e-10);
+            }
+            double[] back = new double[n];
+            plan.realInverse(halfRe, halfIm, back);
+            for (int k = 0; k < n; k++)
+                assertEquals(x[k], back[k], 1e-12);
+        }
+    }
+
+    @Test
+    void plansAreSharedBySize() {
+        assertSame(FFTPlan.of(48), FFTPlan.of(48));
+        assertEquals(48, FFTPlan.of(48).getSize());
+        assertThrows(IllegalArgumentException.class, () -> FFTPlan.of(0));
+        assertThrows(IllegalArgumentException.class, () -> FFTPlan.of(4).forward(new double[3], new double[3]));
+    }
+}
@@ -0,0 +1,71 @@
+package models.utilities;
+
+import models.exceptions.SingularMatrixException;
+import models.internals.ApplicationModel;
+import models.internals.results.InverseResult;
+import models.matrices.Matrix;
+import models.vectors.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InverseOperatorTests {
+    @Test
+    void lazyInverseMatchesMaterializedInverse() throws Throwable {
+        int n = 70;
+        Random random = new Random(47);
+        Matrix matrix = new Matrix(n, n);
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++)
+                matrix.setAt(i, j, random.nextDouble() - 0.5 + (i == j ? 4.0 : 0.0));
+        LUDecomposition decomposition = new LUDecomposition(matrix);
+        Matrix expected = decomposition.inverse();
+        InverseOperator inverse = new InverseOperator(decomposition);
+
+        Vector v = new Vector(n);
+        for (int i = 0; i < n; i++)
+            v.setAt(i, random.nextDouble());
+        Vector product = inverse.multiply(v);
+        Vector expectedProduct = expected.multiply(v);
+        for (int i = 0; i < n; i++)
+            assertEquals(expectedProduct.getAt(i), product.getAt(i), 1e-12);
+
+        Vector column = inverse.getColumn(5);
+        Vector row = inverse.getRow(9);
+        double[] diagonal = inverse.getDiagonal();
+        for (int i = 0; i < n; i++) {
+            assertEquals(expected.getAt(i, 5), column.getAt(i), 1e-12);
+            assertEquals(expected.getAt(9, i), row.getAt(i), 1e-12);
+            assertEquals(expected.getAt(i, i), diagonal[i], 1e-12);
+        }
+        assertEquals(expected.getAt(3, 66), inverse.getAt(3, 66), 1e-12);
+        assertFalse(inverse.isMaterialized());
+
+        Matrix materialized = inverse.toMatrix();
+        assertTrue(inverse.isMaterialized());
+        assertSame(materialized, inverse.toMatrix());
+        assertEquals(expected.getAt(1, 2), materialized.getAt(1, 2), 1e-12);
+    }
+
+    @Test
+    void inverseResultIsNotMaterializedUntilRequested() throws Throwable {
+        ApplicationModel model = new ApplicationModel();
+        model.setMatrix(new Matrix(new double[][]{{4, 1, 0, 0, 1}, {1, 4, 1, 0, 0}, {0, 1, 4, 1, 0}, {0, 0, 1, 4, 1}, {1, 0, 0, 1, 4}}));
+        InverseResult result = model.inverse();
+        assertFalse(result.getInverseOperator().isMaterialized());
+        Matrix inverse = result.getInverse();
+        assertTrue(result.getInverseOperator().isMaterialized());
+        Matrix product = model.getMatrix().multiply(inverse);
+        for (int i = 0; i < 5; i++)
+            for (int j = 0; j < 5; j++)
+                assertEquals(i == j ? 1.0 : 0.0, product.getAt(i, j), 1e-12);
+    }
+
+    @Test
+    void singularMatrixHasNoInverse() {
+        Matrix singular = new Matrix(new double[][]{{1, 2, 3}, {2, 4, 6}, {1, 1, 1}});
+        assertThrows(SingularMatrixException.class, () -> new InverseOperator(new LUDecomposition(singular)));
+    }
+}
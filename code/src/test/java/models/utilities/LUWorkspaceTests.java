@@ -0,0 +1,56 @@
+package models.utilities;
+
+import models.exceptions.InvalidMatrixSizesException;
+import models.matrices.Matrix;
+import models.vectors.Vector;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LUWorkspaceTests {
+    @Test
+    void workspaceIsReusedAcrossFactorizations() throws Throwable {
+        Matrix first = new Matrix(new double[][]{{1, 2, 1, 3}, {2, 3, 1, 4}, {1, 4, 3, 2}, {2, 4, 1, 5}});
+        Matrix second = new Matrix(new double[][]{{4, 1, 0, 0}, {1, 4, 1, 0}, {0, 1, 4, 1}, {0, 0, 1, 4}});
+        LUWorkspace workspace = new LUWorkspace();
+
+        LUDecomposition borrowed = new LUDecomposition(first, workspace);
+        assertEquals(new LUDecomposition(first).det(), borrowed.det(), 1e-12);
+        long allocations = workspace.getAllocations();
+
+        borrowed = new LUDecomposition(second, workspace);
+        LUDecomposition expected = new LUDecomposition(second);
+        assertEquals(allocations, workspace.getAllocations());
+        assertEquals(expected.det(), borrowed.det(), 1e-12);
+
+        double[] b = {1, 2, 3, 4};
+        Vector solution = expected.solve(new Vector(b));
+        borrowed.solve(b, b, workspace);
+        for (int i = 0; i < 4; i++)
+            assertEquals(solution.getAt(i), b[i], 1e-12);
+        assertEquals(allocations, workspace.getAllocations());
+    }
+
+    @Test
+    void multipleRightHandSidesAreSolvedInWorkspaceBlocks() throws Throwable {
+        Matrix matrix = new Matrix(new double[][]{{1, 2, 1, 3}, {2, 3, 1, 4}, {1, 4, 3, 2}, {2, 4, 1, 5}});
+        Matrix rhs = new Matrix(new double[][]{{1, 0, 2}, {2, 1, 0}, {3, 0, 1}, {4, 1, 5}});
+        LUDecomposition decomposition = new LUDecomposition(matrix);
+        double[][] expected = decomposition.solve(rhs).getData();
+        LUWorkspace workspace = new LUWorkspace();
+
+        double[][] B = workspace.rightHandSides(4, 3);
+        double[][] X = workspace.solutions(4, 3);
+        long allocations = workspace.getAllocations();
+        for (int repeat = 0; repeat < 3; repeat++) {
+            for (int i = 0; i < 4; i++)
+                System.arraycopy(rhs.getData()[i], 0, workspace.rightHandSides(4, 2)[i], 0, 3);
+            decomposition.solve(workspace.rightHandSides(4, 3), workspace.solutions(4, 3), 3);
+        }
+        assertEquals(allocations, workspace.getAllocations());
+        for (int i = 0; i < 4; i++)
+            for (int j = 0; j < 3; j++)
+                assertEquals(expected[i][j], X[i][j], 1e-12);
+        assertThrows(InvalidMatrixSizesException.class, () -> decomposition.solve(B, B, 3));
+    }
+}
@@ -0,0 +1,103 @@
+package models.utilities;
+
+import models.internals.ApplicationModel;
+import models.internals.results.LeastSquaresResult;
+import models.matrices.Matrix;
+import models.vectors.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QRFactorizationTests {
+    @Test
+    void blockedFactorsReproduceMatrix() throws Throwable {
+        Matrix A = random(150, 70, 1);
+        QRDecomposition qr = new QRDecomposition(A);
+        Matrix Q = qr.getQ();
+        Matrix QR = Q.multiply(qr.getR());
+        Matrix QtQ = transpose(Q).multiply(Q);
+
+        for (int i = 0; i < A.getRows(); i++)
+            for (int j = 0; j < A.getColumns(); j++)
+                assertEquals(A.getAt(i, j), QR.getAt(i, j), 1e-12);
+        for (int i = 0; i < QtQ.getRows(); i++)
+            for (int j = 0; j < QtQ.getColumns(); j++)
+                assertEquals(i == j ? 1 : 0, QtQ.getAt(i, j), 1e-12);
+    }
+
+    @Test
+    void leastSquaresSatisfiesNormalEquations() throws Throwable {
+        Matrix A = random(300, 40, 2);
+        Vector b = new Vector(column(random(300, 1, 3)));
+
+        Vector x = new QRDecomposition(A).solve(b);
+        Vector tsqr = new TSQRDecomposition(A, 4).solve(b);
+        Vector residual = A.multiply(x);
+        double[] r = new double[300];
+        for (int i = 0; i < 300; i++)
+            r[i] = b.getAt(i) - residual.getAt(i);
+        Vector normal = transpose(A).multiply(new Vector(r));
+
+        for (int j = 0; j < 40; j++) {
+            assertEquals(0, normal.getAt(j), 1e-10);
+            assertEquals(x.getAt(j), tsqr.getAt(j), 1e-10);
+        }
+    }
+
+    @Test
+    void squareSystemMatchesLU() throws Throwable {
+        Matrix A = random(50, 50, 4);
+        Vector b = new Vector(column(random(50, 1, 5)));
+        Vector expected = new LUDecomposition(A).solve(b);
+        Vector actual = new QRDecomposition(A).solve(b);
+        for (int i = 0; i < 50; i++)
+            assertEquals(expected.getAt(i), actual.getAt(i), 1e-9);
+    }
+
+    @Test
+    void modelFitsLine() throws Throwable {
+        ApplicationModel model = new ApplicationModel();
+        model.setMatrix(new Matrix(new double[][]{{1, 0}, {1, 1}, {1, 2}, {1, 3}}));
+        model.setVector(new Vector(new double[]{1, 3, 5, 7.5}));
+        LeastSquaresResult result = model.leastSquares();
+
+        assertEquals(0.9, result.getSolution().getAt(0), 1e-12);
+        assertEquals(2.15, result.getSolution().getAt(1), 1e-12);
+        assertEquals(Math.sqrt(0.075), result.getResidualNorm(), 1e-12);
+    }
+
+    /**
+     * Returns random matrix.
+     */
+    private static Matrix random(int m, int n, long seed) {
+        Random random = new Random(seed);
+        Matrix matrix = new Matrix(m, n);
+        for (int i = 0; i < m; i++)
+            for (int j = 0; j < n; j++)
+                matrix.setAt(i, j, random.nextDouble() - 0.5);
+        return matrix;
+    }
+
+    /**
+     * Returns first column of matrix.
+     */
+    private static double[] column(Matrix matrix) {
+        double[] column = new double[matrix.getRows()];
+        for (int i = 0; i < column.length; i++)
+            column[i] = matrix.getAt(i, 0);
+        return column;
+    }
+
+    /**
+     * Returns transposed matrix.
+     */
+    private static Matrix transpose(Matrix matrix) {
+        Matrix transposed = new Matrix(matrix.getColumns(), matrix.getRows());
+        for (int i = 0; i < matrix.getRows(); i++)
+            for (int j = 0; j < matrix.getColumns(); j++)
+                transposed.setAt(j, i, matrix.getAt(i, j));
+        return transposed;
+    }
+}
@@ -0,0 +1,62 @@
+package models.utilities;
+
+import models.matrices.Matrix;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecursiveFactorizationTests {
+    @Test
+    void sameFactorsAsLUDecomposition() throws Throwable {
+        double[][] data = {{1, 2, 1, 3}, {2, 3, 1, 4}, {1, 4, 3, 2}, {2, 4, 1, 5}};
+        Matrix input = new Matrix(data);
+
+        assertSameDecomposition(new LUDecomposition(input), RecursiveLUDecomposition.decompose(input));
+    }
+
+    @Test
+    void randomSquareAndRectangularMatrices() throws Throwable {
+        Random random = new Random(7);
+        int[][] shapes = {{1, 1}, {3, 3}, {17, 17}, {64, 64}, {101, 101}, {90, 40}, {40, 90}};
+        for (int[] shape : shapes) {
+            Matrix input = new Matrix(shape[0], shape[1]);
+            for (int i = 0; i < shape[0]; i++)
+                for (int j = 0; j < shape[1]; j++)
+                    input.setAt(i, j, random.nextDouble() * 2 - 1);
+
+            assertSameDecomposition(new LUDecomposition(input), RecursiveLUDecomposition.decompose(input));
+        }
+    }
+
+    @Test
+    void singularMatrix() {
+        Matrix input = new Matrix(new double[][]{{1, 2, 3}, {2, 4, 6}, {1, 1, 1}});
+
+        LUDecomposition decomposition = RecursiveLUDecomposition.decompose(input);
+
+        assertFalse(decomposition.isNonSingular());
+    }
+
+    /**
+     * Compares pivots and factors of two decompositions.
+     *
+     * @param expected Reference decomposition.
+     * @param actual   Checked decomposition.
+     */
+    private static void assertSameDecomposition(LUDecomposition expected, LUDecomposition actual) {
+        assertArrayEquals(expected.getPivot(), actual.getPivot());
+        Matrix expectedL = expected.getL();
+        Matrix actualL = actual.getL();
+        for (int i = 0; i < expectedL.getRows(); i++)
+            for (int j = 0; j < expectedL.getColumns(); j++)
+                assertEquals(expectedL.getAt(i, j), actualL.getAt(i, j), 1e-9);
+
+        Matrix expectedU = expected.getU();
+        Matrix actualU = actual.getU();
+        for (int i = 0; i < expectedU.getRows(); i++)
+            for (int j = 0; j < expectedU.getColumns(); j++)
+                assertEquals(expectedU.getAt(i, j), actualU.getAt(i, j), 1e-9);
+    }
+}
@@ -0,0 +1,151 @@
+package models.utilities;
+
+import models.exceptions.SingularMatrixException;
+import models.internals.ApplicationModel;
+import models.internals.results.InverseResult;
+import models.internals.results.LUPivotResult;
+import models.matrices.Matrix;
+import models.vectors.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmallMatrixKernelsTests {
+    @Test
+    void kernelsMatchLUDecomposition() throws Throwable {
+        Random random = new Random(5);
+        for (int n = SmallMatrixKernels.MIN_DIMENSION; n <= SmallMatrixKernels.MAX_DIMENSION; n++) {
+            for (int trial = 0; trial < 200; trial++) {
+                Matrix matrix = new Matrix(n, n);
+                double[] b = new double[n];
+                for (int i = 0; i < n; i++) {
+                    b[i] = random.nextDouble() * 10 - 5;
+                    for (int j = 0; j < n; j++)
+                        matrix.setAt(i, j, random.nextDouble() * 10 - 5);
+                }
+                Vector vector = new Vector(b);
+                LUDecomposition lu = new LUDecomposition(matrix);
+
+                assertEquals(lu.det(), SmallMatrixKernels.det(matrix), 1e-9 * Math.max(1, Math.abs(lu.det())));
+
+                Vector expected = lu.solve(vector);
+                Vector actual = SmallMatrixKernels.solve(matrix, vector);
+                Matrix expectedInverse = lu.inverse();
+                Matrix actualInverse = SmallMatrixKernels.inverse(matrix);
+                for (int i = 0; i < n; i++) {
+                    assertEquals(expected.getAt(i), actual.getAt(i), 1e-7 * Math.max(1, Math.abs(expected.getAt(i))));
+                    for (int j = 0; j < n; j++)
+                        assertEquals(expectedInverse.getAt(i, j), actualInverse.getAt(i, j),
+                                1e-7 * Math.max(1, Math.abs(expectedInverse.getAt(i, j))));
+                }
+            }
+        }
+    }
+
+    @Test
+    void singularMatrix() throws Throwable {
+        Matrix matrix = new Matrix(new double[][]{{1, 2, 3}, {4, 5, 6}, {7, 8, 9}});
+        assertEquals(0, SmallMatrixKernels.det(matrix), 1e-12);
+        assertThrows(SingularMatrixException.class, () -> SmallMatrixKernels.inverse(new Matrix(new double[][]{{1, 2}, {2, 4}})));
+    }
+
+    @Test
+    void modelDispatchesSmallInverse() throws Throwable {
+        ApplicationModel model = new ApplicationModel();
+        model.setMatrix(new Matrix(new double[][]{{4, 7}, {2, 6}}));
+        InverseResult result = model.inverse();
+
+        assertEquals(10, result.getDeterminant(), 1e-12);
+        assertEquals(0.6, result.getInverse().getAt(0, 0), 1e-12);
+        assertEquals(-0.7, result.getInverse().getAt(0, 1), 1e-12);
+        assertEquals(0.4, result.getInverse().getAt(1, 1), 1e-12);
+        assertNotNull(result.getLuDecomposition());
+        assertTrue(result.toString().contains("Inverse Matrix"));
+    }
+
+    @Test
+    void kernelsAreBackwardStableOnBadlyScaledMatrices() throws Throwable {
+        Random random = new Random(35);
+        for (int n = SmallMatrixKernels.MIN_DIMENSION; n <= SmallMatrixKernels.MAX_DIMENSION; n++) {
+            for (int trial = 0; trial < 2000; trial++) {
+                Matrix matrix = new Matrix(n, n);
+                double[] b = new double[n];
+                for (int i = 0; i < n; i++) {
+                    double scale = Math.pow(10, random.nextInt(13) - 6);
+                    b[i] = random.nextDouble() - 0.5;
+                    for (int j = 0; j < n; j++)
+                        matrix.setAt(i, j, (random.nextDouble() - 0.5) * scale);
+                }
+                if (trial % 2 == 1) {
+                    // Last row is the sum of the others up to a small perturbation
+                    double perturbation = Math.pow(10, -random.nextInt(8) - 1);
+                    for (int j = 0; j < n; j++) {
+                        double sum = 0.0;
+                        for (int i = 0; i < n - 1; i++)
+                            sum += matrix.getAt(i, j);
+                        matrix.setAt(n - 1, j, sum + perturbation * (random.nextDouble() - 0.5));
+                    }
+                }
+                Vector x = SmallMatrixKernels.solve(matrix, new Vector(b));
+                double residual = 0.0;
+                double norm = 0.0;
+                double solution = 0.0;
+                for (int i = 0; i < n; i++) {
+                    double r = -b[i];
+                    double row = 0.0;
+                    for (int j = 0; j < n; j++) {
+                        r += matrix.getAt(i, j) * x.getAt(j);
+                        row += Math.abs(matrix.getAt(i, j));
+                    }
+                    residual = Math.max(residual, Math.abs(r));
+                    norm = Math.max(norm, row);
+                    solution = Math.max(solution, Math.abs(x.getAt(i)));
+                }
+                double error = residual / (norm * solution);
+                assertTrue(error <= 8 * n * Math.ulp(1.0), "backward error " + error);
+            }
+        }
+    }
+
+    @Test
+    void modelDispatchesSmallLUPivot() throws Throwable {
+        ApplicationModel model = new ApplicationModel();
+        model.setMatrix(new Matrix(new double[][]{{2, 1, 1}, {4, 3, 3}, {8, 7, 9}}));
+        model.setVector(new Vector(new double[]{4, 10, 24}));
+        LUPivotResult result = model.LUPivot();
+
+        assertFalse(result.isFactorized());
+        assertEquals(MatrixStructure.GENERAL, result.getStructure());
+        assertEquals(4, result.getDeterminant(), 1e-12);
+        for (int i = 0; i < 3; i++)
+            assertEquals(1, result.getSolution().getAt(i), 1e-12);
+    }
+
+    @Test
+    void determinantDoesNotAllocate() throws Throwable {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        long thread = Thread.currentThread().getId();
+        Matrix[] matrices = {
+                new Matrix(new double[][]{{1, 2}, {3, 4}}),
+                new Matrix(new double[][]{{2, 1, 1}, {4, 3, 3}, {8, 7, 9}}),
+                new Matrix(new double[][]{{1, 2, 0, 1}, {3, 1, 2, 0}, {0, 4, 1, 2}, {2, 0, 3, 1}})
+        };
+        double sum = 0.0;
+        for (int i = 0; i < 10000; i++)
+            sum += SmallMatrixKernels.det(matrices[i % 3]);
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 10000; i++)
+            sum += SmallMatrixKernels.det(matrices[i % 3]);
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertTrue(allocated < 1024, "allocated " + allocated + " bytes");
+        assertTrue(Double.isFinite(sum));
+    }
+}
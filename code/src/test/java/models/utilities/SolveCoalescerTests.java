@@ -0,0 +1,82 @@
+package models.utilities;
+
+import models.matrices.Matrix;
+import models.vectors.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolveCoalescerTests {
+    @Test
+    void concurrentSolvesMatchSequentialSolves() throws Throwable {
+        double[][] data = {{5, -2, 3}, {-3, 9, 1}, {2, -1, -7}};
+        LUDecomposition decomposition = new LUDecomposition(new Matrix(data));
+        SolveCoalescer coalescer = new SolveCoalescer(decomposition, 8, 2, TimeUnit.MILLISECONDS);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+
+        try {
+            List<Future<Vector>> solutions = new ArrayList<>();
+            for (int k = 0; k < 100; k++) {
+                final Vector b = new Vector(new double[]{k, 1 - k, 2 * k});
+                solutions.add(pool.submit(() -> {
+                    try {
+                        return coalescer.solve(b);
+                    } catch (Throwable t) {
+                        throw new IllegalStateException(t);
+                    }
+                }));
+            }
+
+            for (int k = 0; k < 100; k++) {
+                Vector expected = decomposition.solve(new Vector(new double[]{k, 1 - k, 2 * k}));
+                Vector actual = solutions.get(k).get(10, TimeUnit.SECONDS);
+                for (int i = 0; i < 3; i++)
+                    assertEquals(expected.getAt(i), actual.getAt(i), 1e-12);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentSolvesShareOneBatch() throws Throwable {
+        LUDecomposition decomposition = new LUDecomposition(new Matrix(new double[][]{{4, 1}, {2, 3}}));
+        SolveCoalescer coalescer = new SolveCoalescer(decomposition, 8, 10, TimeUnit.SECONDS);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<Vector>> solutions = new ArrayList<>();
+            for (int k = 0; k < 16; k++) {
+                final Vector b = new Vector(new double[]{5 * k, 5 * k});
+                solutions.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        return coalescer.solve(b);
+                    } catch (Throwable t) {
+                        throw new IllegalStateException(t);
+                    }
+                }));
+            }
+            start.countDown();
+
+            for (int k = 0; k < 16; k++) {
+                Vector actual = solutions.get(k).get(10, TimeUnit.SECONDS);
+                assertEquals(k, actual.getAt(0), 1e-12);
+                assertEquals(k, actual.getAt(1), 1e-12);
+            }
+            assertEquals(16, coalescer.getSolvedCount());
+            assertEquals(2, coalescer.getBatchCount());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
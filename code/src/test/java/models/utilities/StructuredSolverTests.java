@@ -0,0 +1,167 @@
+package models.utilities;
+
+import models.exceptions.SingularMatrixException;
+import models.internals.ApplicationModel;
+import models.internals.results.InverseResult;
+import models.internals.results.LUPivotResult;
+import models.matrices.Matrix;
+import models.monitoring.Operation;
+import models.monitoring.SolverMetrics;
+import models.vectors.Vector;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StructuredSolverTests {
+    private static final double[][][] MATRICES = {
+            {{2, 0, 0, 0, 0}, {0, -3, 0, 0, 0}, {0, 0, 4, 0, 0}, {0, 0, 0, 0.5, 0}, {0, 0, 0, 0, 1}},
+            {{0, 2, 0, 0, 0}, {0, 0, 0, 3, 0}, {-1, 0, 0, 0, 0}, {0, 0, 0, 0, 5}, {0, 0, 4, 0, 0}},
+            {{2, 0, 0, 0, 0}, {1, 3, 0, 0, 0}, {0, 2, 4, 0, 0}, {5, 0, 1, 1, 0}, {1, 1, 1, 1, 2}},
+            {{2, 1, 0, 3, 1}, {0, 3, 2, 0, 1}, {0, 0, 4, 1, 1}, {0, 0, 0, 1, 1}, {0, 0, 0, 0, 2}},
+            {{2, 1, 0, 0, 0}, {3, 4, 0, 0, 0}, {0, 0, 5, 0, 0}, {0, 0, 0, 1, 2}, {0, 0, 0, 3, 1}},
+            {{4, 1, 0, 0, 1}, {1, 4, 1, 0, 0}, {0, 1, 4, 1, 0}, {0, 0, 1, 4, 1}, {1, 0, 0, 1, 4}},
+            {{4, 1, 0, 0, 2}, {1, 4, 1, 0, 0}, {0, 1, 4, 1, 0}, {0, 0, 1, 4, 1}, {3, 0, 0, 1, 4}},
+            {{4, 1, 0, 0, 1}, {1, 5, 1, 0, 0}, {0, 1, 4, 1, 0}, {0, 0, 1, 4, 1}, {1, 0, 0, 1, 4}},
+            {{1, 2, 0, 0, 1}, {2, 1, 1, 0, 0}, {0, 1, 1, 1, 0}, {0, 0, 1, 1, 2}, {1, 0, 0, 2, 1}},
+            {{1, 2, 0, 0, 1}, {0, 1, 1, 0, 0}, {3, 1, 1, 1, 0}, {0, 0, 1, 1, 2}, {1, 0, 0, 2, 1}}
+    };
+
+    private static final MatrixStructure[] STRUCTURES = {
+            MatrixStructure.DIAGONAL,
+            MatrixStructure.PERMUTATION,
+            MatrixStructure.LOWER_TRIANGULAR,
+            MatrixStructure.UPPER_TRIANGULAR,
+            MatrixStructure.BLOCK_DIAGONAL,
+            MatrixStructure.CIRCULANT,
+            MatrixStructure.TOEPLITZ,
+            MatrixStructure.SYMMETRIC,
+            MatrixStructure.SYMMETRIC,
+            MatrixStructure.GENERAL
+    };
+
+    @Test
+    void structuredPathsMatchLU() throws Throwable {
+        double[] b = {1, -2, 3, 0.5, 4};
+        for (int m = 0; m < MATRICES.length; m++) {
+            Matrix matrix = new Matrix(MATRICES[m]);
+            StructuredSolver solver = StructuredSolver.of(matrix);
+            assertEquals(STRUCTURES[m], solver.getStructure());
+            if (solver.requiresLU()) {
+                assertTrue(m >= 8);
+                continue;
+            }
+            LUDecomposition decomposition = new LUDecomposition(matrix);
+            Vector expected = decomposition.solve(new Vector(b));
+            Vector solution = solver.solve(new Vector(b));
+            double[] transposed = new double[5];
+            double[] expectedTransposed = new double[5];
+            solver.solveTranspose(b, transposed);
+            decomposition.solveTranspose(b, expectedTransposed, new LUWorkspace());
+            Matrix inverse = solver.inverse();
+            Matrix expectedInverse = decomposition.inverse();
+            assertEquals(decomposition.det(), solver.det(), 1e-12);
+            for (int i = 0; i < 5; i++) {
+                assertEquals(expected.getAt(i), solution.getAt(i), 1e-12);
+                assertEquals(expectedTransposed[i], transposed[i], 1e-12);
+                for (int j = 0; j < 5; j++)
+                    assertEquals(expectedInverse.getAt(i, j), inverse.getAt(i, j), 1e-12);
+            }
+        }
+    }
+
+    @Test
+    void blocksAreDetected() throws Throwable {
+        StructuredSolver solver = StructuredSolver.of(new Matrix(MATRICES[4]));
+        assertEquals(3, solver.getBlockCount());
+        assertFalse(solver.requiresLU());
+    }
+
+    @Test
+    void singularDiagonalIsRejected() throws Throwable {
+        StructuredSolver solver = StructuredSolver.of(new Matrix(new double[][]{{1, 0}, {0, 0}}));
+        assertFalse(solver.isNonSingular());
+        assertEquals(0.0, solver.det(), 1e-12);
+        assertThrows(SingularMatrixException.class, () -> solver.solve(new Vector(new double[]{1, 1})));
+    }
+
+    @Test
+    void modelRecordsDetectedStructure() throws Throwable {
+        ApplicationModel model = new ApplicationModel();
+        model.setMatrix(new Matrix(MATRICES[3]));
+        model.setVector(new Vector(new double[]{1, 2, 3, 4, 5}));
+        LUPivotResult result = model.LUPivot();
+        assertEquals(MatrixStructure.UPPER_TRIANGULAR, result.getStructure());
+        assertFalse(result.isFactorized());
+        Vector residual = model.getMatrix().multiply(result.getSolution());
+        for (int i = 0; i < 5; i++)
+            assertEquals(i + 1, residual.getAt(i), 1e-12);
+
+        model.setMatrix(new Matrix(MATRICES[9]));
+        InverseResult inverse = model.inverse();
+        assertEquals(MatrixStructure.GENERAL, inverse.getStructure());
+        assertTrue(inverse.isFactorized());
+    }
+
+    @Test
+    void smallInverseRecordsStructure() throws Throwable {
+        ApplicationModel model = new ApplicationModel();
+        model.setMatrix(new Matrix(new double[][]{{2, 0, 0}, {1, 4, 0}, {3, 1, 5}}));
+        InverseResult inverse = model.inverse();
+        assertEquals(MatrixStructure.LOWER_TRIANGULAR, inverse.getStructure());
+        assertEquals(40, inverse.getDeterminant(), 1e-12);
+
+        model.setMatrix(new Matrix(new double[][]{{2, 1, 1}, {4, 3, 3}, {8, 7, 9}}));
+        assertEquals(MatrixStructure.GENERAL, model.inverse().getStructure());
+    }
+
+    @Test
+    void determinantUsesStructure() throws Throwable {
+        ApplicationModel model = new ApplicationModel();
+        for (int k = 0; k < 4; k++) {
+            model.setMatrix(new Matrix(MATRICES[k]));
+            long factorizations = SolverMetrics.getInstance().statsOf(Operation.FACTORIZE, 5).getCount();
+            double expected = new LUDecomposition(new Matrix(MATRICES[k])).det();
+            factorizations++;
+
+            assertEquals(expected, model.determinant(), 1e-9);
+            assertEquals(factorizations, SolverMetrics.getInstance().statsOf(Operation.FACTORIZE, 5).getCount());
+        }
+    }
+
+    @Test
+    void choleskyIsDeferredUntilSymmetricPathIsUsed() throws Throwable {
+        long factorizations = SolverMetrics.getInstance().statsOf(Operation.FACTORIZE, 5).getCount();
+        StructuredSolver solver = StructuredSolver.of(new Matrix(MATRICES[7]));
+        assertEquals(MatrixStructure.SYMMETRIC, solver.getStructure());
+        assertEquals(factorizations, SolverMetrics.getInstance().statsOf(Operation.FACTORIZE, 5).getCount());
+
+        assertFalse(solver.requiresLU());
+        assertFalse(solver.requiresLU());
+        assertEquals(factorizations + 1, SolverMetrics.getInstance().statsOf(Operation.FACTORIZE, 5).getCount());
+        assertEquals(new LUDecomposition(new Matrix(MATRICES[7])).det(), solver.det(), 1e-9);
+
+        assertTrue(StructuredSolver.of(new Matrix(MATRICES[8])).requiresLU());
+    }
+
+    @Test
+    void structuredResultsRenderWithoutFactorizing() throws Throwable {
+        ApplicationModel model = new ApplicationModel();
+        model.setMatrix(new Matrix(MATRICES[2]));
+        model.setVector(new Vector(new double[]{1, 2, 3, 4, 5}));
+        LUPivotResult result = model.LUPivot();
+        String text = result.toString();
+        assertFalse(result.isFactorized());
+        assertFalse(text.contains("Lower matrix"));
+        assertTrue(text.startsWith("Solution using detected matrix structure"));
+        assertTrue(text.contains("Structure = LOWER_TRIANGULAR"));
+
+        InverseResult inverse = model.inverse();
+        text = inverse.toString();
+        assertFalse(inverse.isFactorized());
+        assertFalse(text.contains("Lower Matrix"));
+        assertTrue(text.contains("Inverse Matrix"));
+
+        model.setMatrix(new Matrix(MATRICES[9]));
+        assertTrue(model.LUPivot().toString().contains("Lower matrix"));
+    }
+}
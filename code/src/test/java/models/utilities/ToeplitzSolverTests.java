@@ -0,0 +1,139 @@
+package models.utilities;
+
+import models.exceptions.SingularMatrixException;
+import models.internals.ApplicationModel;
+import models.internals.results.LUPivotResult;
+import models.matrices.Matrix;
+import models.matrices.ToeplitzMatrix;
+import models.vectors.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ToeplitzSolverTests {
+    @Test
+    void levinsonMatchesLU() throws Throwable {
+        int n = 40;
+        Random random = new Random(49);
+        double[] column = new double[n];
+        double[] row = new double[n];
+        for (int i = 1; i < n; i++) {
+            column[i] = random.nextDouble() - 0.5;
+            row[i] = random.nextDouble() - 0.5;
+        }
+        column[0] = row[0] = 3.0;
+        ToeplitzMatrix toeplitz = new ToeplitzMatrix(column, row);
+        Matrix dense = toeplitz.toMatrix();
+        assertTrue(ToeplitzMatrix.isToeplitz(dense));
+        assertEquals(row[7], ToeplitzMatrix.of(dense).getAt(2, 9), 1e-12);
+
+        ToeplitzSolver solver = new ToeplitzSolver(toeplitz);
+        LUDecomposition decomposition = new LUDecomposition(dense);
+        double[] b = new double[n];
+        for (int i = 0; i < n; i++)
+            b[i] = random.nextDouble();
+        Vector expected = decomposition.solve(new Vector(b));
+        Vector solution = solver.solve(new Vector(b));
+        double[] transposed = new double[n];
+        double[] expectedTransposed = new double[n];
+        solver.solveTranspose(b, transposed);
+        decomposition.solveTranspose(b, expectedTransposed, new LUWorkspace());
+        Matrix inverse = solver.inverse();
+        Matrix expectedInverse = decomposition.inverse();
+
+        assertEquals(1.0, solver.det() / decomposition.det(), 1e-9);
+        for (int i = 0; i < n; i++) {
+            assertEquals(expected.getAt(i), solution.getAt(i), 1e-10);
+            assertEquals(expectedTransposed[i], transposed[i], 1e-10);
+            for (int j = 0; j < n; j++) {
+                assertEquals(expectedInverse.getAt(i, j), inverse.getAt(i, j), 1e-10);
+                assertEquals(expectedInverse.getAt(i, j), solver.inverseAt(i, j), 1e-10);
+            }
+        }
+    }
+
+    @Test
+    void productMatchesDenseMatrix() throws Throwable {
+        ToeplitzMatrix toeplitz = new ToeplitzMatrix(new double[]{1, 2, 3}, new double[]{1, -1, 5});
+        Vector x = new Vector(new double[]{1, 2, 3});
+        Vector product = toeplitz.multiply(x);
+        Vector expected = toeplitz.toMatrix().multiply(x);
+        for (int i = 0; i < 3; i++)
+            assertEquals(expected.getAt(i), product.getAt(i), 1e-12);
+        assertThrows(IllegalArgumentException.class, () -> new ToeplitzMatrix(new double[]{1, 2}, new double[]{2, 1}));
+    }
+
+    @Test
+    void breakdownFallsBackToLU() throws Throwable {
+        Matrix matrix = new Matrix(new double[][]{{0, 1, 2}, {1, 0, 1}, {2, 1, 0}});
+        assertThrows(SingularMatrixException.class, () -> new ToeplitzSolver(ToeplitzMatrix.of(matrix)));
+        StructuredSolver solver = StructuredSolver.of(matrix);
+        assertEquals(MatrixStructure.TOEPLITZ, solver.getStructure());
+        assertTrue(solver.requiresLU());
+    }
+
+    @Test
+    void tinyLeadingMinorFallsBackToLU() throws Throwable {
+        double[] column = {1e-13, 0.7, -0.3, 0.5, 0.2, -0.8};
+        double[] row = {1e-13, -0.4, 0.9, 0.1, -0.6, 0.3};
+        Matrix matrix = new ToeplitzMatrix(column, row).toMatrix();
+        assertThrows(SingularMatrixException.class, () -> new ToeplitzSolver(new ToeplitzMatrix(column, row)));
+        StructuredSolver solver = StructuredSolver.of(matrix);
+        assertEquals(MatrixStructure.TOEPLITZ, solver.getStructure());
+        assertTrue(solver.requiresLU());
+
+        ApplicationModel model = new ApplicationModel();
+        model.setMatrix(matrix);
+        model.setVector(new Vector(new double[]{1, 2, 3, 4, 5, 6}));
+        LUPivotResult result = model.LUPivot();
+        Vector product = matrix.multiply(result.getSolution());
+        double residual = 0.0;
+        double norm = 0.0;
+        double size = 0.0;
+        for (int i = 0; i < 6; i++) {
+            residual = Math.max(residual, Math.abs(product.getAt(i) - (i + 1)));
+            norm += Math.abs(column[i]) + (i > 0 ? Math.abs(row[i]) : 0.0);
+            size = Math.max(size, Math.abs(result.getSolution().getAt(i)));
+        }
+        assertTrue(residual <= 1e-14 * 6 * norm * size, "relative residual " + residual / (norm * size));
+    }
+
+    @Test
+    void illConditionedPositiveDefiniteStaysOnFastPath() throws Throwable {
+        int n = 64;
+        double[] prolate = new double[n];
+        double[] kms = new double[n];
+        prolate[0] = 0.9;
+        for (int k = 0; k < n; k++) {
+            if (k > 0)
+                prolate[k] = Math.sin(0.9 * Math.PI * k) / (Math.PI * k);
+            kms[k] = Math.pow(0.9999, k);
+        }
+        for (double[] column : new double[][]{prolate, kms}) {
+            ToeplitzMatrix toeplitz = new ToeplitzMatrix(column, column.clone());
+            Matrix dense = toeplitz.toMatrix();
+            StructuredSolver solver = StructuredSolver.of(dense);
+            assertEquals(MatrixStructure.TOEPLITZ, solver.getStructure());
+            assertFalse(solver.requiresLU());
+
+            double[] expected = new double[n];
+            for (int i = 0; i < n; i++)
+                expected[i] = 1.0 / (1 + i % 3);
+            double[] b = new double[n];
+            toeplitz.apply(expected, b);
+            double[] x = new double[n];
+            new ToeplitzSolver(toeplitz).solve(b, x);
+            Vector direct = new LUDecomposition(dense).solve(new Vector(b));
+            double error = 0.0;
+            double directError = 0.0;
+            for (int i = 0; i < n; i++) {
+                error = Math.max(error, Math.abs(x[i] - expected[i]));
+                directError = Math.max(directError, Math.abs(direct.getAt(i) - expected[i]));
+            }
+            assertTrue(error <= 1e-8, "error " + error);
+            assertTrue(error <= 10 * Math.max(directError, 1e-15), "error " + error + " LU error " + directError);
+        }
+    }
+}
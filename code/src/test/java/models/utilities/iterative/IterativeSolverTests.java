@@ -0,0 +1,79 @@
+package models.utilities.iterative;
+
+import models.matrices.Matrix;
+import models.utilities.LUDecomposition;
+import models.vectors.Vector;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IterativeSolverTests {
+    @Test
+    void solversMatchDirectSolution() throws Throwable {
+        int n = 60;
+        Matrix symmetric = tridiagonal(n, -1, 4, -1);
+        Matrix general = tridiagonal(n, -1.5, 4, -0.5);
+        Vector b = rightHandSide(n);
+
+        Preconditioner[] symmetricPreconditioners = {Preconditioner.IDENTITY, new JacobiPreconditioner(symmetric),
+                new ILU0Preconditioner(symmetric), new SSORPreconditioner(symmetric, 1.2)};
+        for (Preconditioner preconditioner : symmetricPreconditioners) {
+            assertSolves(symmetric, b, new ConjugateGradientSolver().solve(symmetric, b, preconditioner));
+        }
+
+        Preconditioner[] generalPreconditioners = {Preconditioner.IDENTITY, new JacobiPreconditioner(general),
+                new ILU0Preconditioner(general), new SSORPreconditioner(general, 1.0)};
+        for (Preconditioner preconditioner : generalPreconditioners) {
+            assertSolves(general, b, new GMRESSolver(1e-10, 500, 10).solve(general, b, preconditioner));
+            assertSolves(general, b, new BiCGSTABSolver().solve(general, b, preconditioner));
+        }
+    }
+
+    @Test
+    void iluOfTridiagonalMatrixIsExact() throws Throwable {
+        Matrix general = tridiagonal(30, -1.5, 4, -0.5);
+        IterativeSolution solution = new GMRESSolver().solve(general, rightHandSide(30), new ILU0Preconditioner(general));
+
+        assertTrue(solution.isConverged());
+        assertEquals(1, solution.getIterations());
+        assertEquals("ILU(0)", solution.getPreconditioner());
+    }
+
+    @Test
+    void iterationCapStopsSolver() throws Throwable {
+        Matrix symmetric = tridiagonal(100, -1, 2, -1);
+        IterativeSolution solution = new ConjugateGradientSolver(1e-12, 5).solve(symmetric, rightHandSide(100), Preconditioner.IDENTITY);
+
+        assertFalse(solution.isConverged());
+        assertEquals(5, solution.getIterations());
+        assertEquals(6, solution.getResidualHistory().length);
+        assertEquals(1.0, solution.getResidualHistory()[0], 1e-12);
+    }
+
+    private static void assertSolves(Matrix A, Vector b, IterativeSolution solution) throws Throwable {
+        Vector expected = new LUDecomposition(A).solve(b);
+        assertTrue(solution.isConverged(), solution.getMethod() + " with " + solution.getPreconditioner());
+        assertTrue(solution.getRelativeResidual() <= 1e-10);
+        for (int i = 0; i < b.getSize(); i++)
+            assertEquals(expected.getAt(i), solution.getSolution().getAt(i), 1e-8);
+    }
+
+    private static Matrix tridiagonal(int n, double lower, double diagonal, double upper) {
+        Matrix matrix = new Matrix(n, n);
+        for (int i = 0; i < n; i++) {
+            matrix.setAt(i, i, diagonal);
+            if (i > 0)
+                matrix.setAt(i, i - 1, lower);
+            if (i < n - 1)
+                matrix.setAt(i, i + 1, upper);
+        }
+        return matrix;
+    }
+
+    private static Vector rightHandSide(int n) {
+        Vector b = new Vector(n);
+        for (int i = 0; i < n; i++)
+            b.setAt(i, Math.sin(i + 1.0));
+        return b;
+    }
+}